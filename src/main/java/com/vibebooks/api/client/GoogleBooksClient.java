@@ -0,0 +1,194 @@
+package com.vibebooks.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.dto.google.GoogleBooksResponse;
+import com.vibebooks.api.dto.google.VolumeInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client for the Google Books volumes API.
+ *
+ * <p>A single {@link HttpClient} is shared by all calls, so connections to Google are pooled
+ * and kept alive between requests. Every call is bounded by a connect timeout and a total
+ * request timeout, and is non-blocking: {@link #findByIsbn(String)} returns a
+ * {@link CompletableFuture}, which lets callers fan out lookups without holding a thread each.</p>
+ *
+ * <p>Failures are reported as {@link ResponseStatusException}: 504 when Google does not answer
+ * in time and 502 for any other upstream error.</p>
+ *
+ * <p>When {@code spring.threads.virtual.enabled} is set (the {@code virtual-threads} profile), responses are
+ * handled on virtual threads instead of the client's default cached thread pool.</p>
+ *
+ * <p>As a {@link MeterBinder}, it times every lookup in {@code google.books.requests}, tagged with its outcome:
+ * {@code found}, {@code not_found} or {@code failed}.</p>
+ */
+@Component
+public class GoogleBooksClient implements MeterBinder, AutoCloseable {
+
+    private static final String VOLUMES_BY_ISBN_PATH = "/volumes?q=isbn:%s&key=%s";
+
+    private static final String FOUND = "found";
+    private static final String NOT_FOUND = "not_found";
+    private static final String FAILED = "failed";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String apiKey;
+    private final Duration requestTimeout;
+    private final ExecutorService executor;
+    private volatile MeterRegistry meterRegistry;
+
+    public GoogleBooksClient(
+            ObjectMapper objectMapper,
+            @Value("${api.google-books.base-url:https://www.googleapis.com/books/v1}") String baseUrl,
+            @Value("${google.books.api.key}") String apiKey,
+            @Value("${api.google-books.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${api.google-books.request-timeout:5s}") Duration requestTimeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.executor = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        this.httpClient = builder.build();
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Looks up the volume metadata for an ISBN without blocking the calling thread.
+     *
+     * @param isbn ISBN of the book
+     * @return Future completed with the volume, or empty if Google has no volume for the ISBN.
+     *         Completes exceptionally with a {@link ResponseStatusException} when the call fails.
+     */
+    public CompletableFuture<Optional<VolumeInfo>> findByIsbn(String isbn) {
+        String url = baseUrl + String.format(VOLUMES_BY_ISBN_PATH, encode(isbn), encode(apiKey));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        long started = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(this::toVolumeInfo)
+                .exceptionally(error -> {
+                    throw translate(error);
+                })
+                .whenComplete((volume, error) ->
+                        record(started, error != null ? FAILED : volume.isPresent() ? FOUND : NOT_FOUND));
+    }
+
+    /**
+     * Blocking variant of {@link #findByIsbn(String)}.
+     * Must be called outside of any database transaction, so that a slow response
+     * never keeps a pooled connection busy.
+     *
+     * @param isbn ISBN of the book
+     * @return {@link VolumeInfo} object containing Google Books metadata
+     * @throws ResponseStatusException 404 if Google has no volume for the ISBN, 502/504 if the call fails
+     */
+    public VolumeInfo fetchByIsbn(String isbn) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "Google Books must not be called inside a database transaction");
+        try {
+            return findByIsbn(isbn).join()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found on Google Books for the provided ISBN."));
+        } catch (CompletionException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        List.of(FOUND, NOT_FOUND, FAILED).forEach(outcome -> requestTimer(registry, outcome));
+        this.meterRegistry = registry;
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    private Optional<VolumeInfo> toVolumeInfo(HttpResponse<byte[]> response) {
+        if (response.statusCode() != HttpStatus.OK.value()) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Google Books responded with status " + response.statusCode() + ".");
+        }
+        try {
+            GoogleBooksResponse body = objectMapper.readValue(response.body(), GoogleBooksResponse.class);
+            if (body == null || body.items() == null || body.items().isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(body.items().getFirst().volumeInfo());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Google Books returned an unreadable response.", e);
+        }
+    }
+
+    private void record(long startedNanos, String outcome) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            requestTimer(registry, outcome).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer requestTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("google.books.requests")
+                .description("Latency of ISBN lookups on Google Books")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static ResponseStatusException translate(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ResponseStatusException statusException) {
+            return statusException;
+        }
+        if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Google Books did not respond in time.", cause);
+        }
+        return new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Google Books is unavailable.", cause);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,36 @@
+package com.vibebooks.api.config;
+
+import com.vibebooks.api.monitoring.HandlerNames;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * Metrics published on {@code /actuator/prometheus}, served on {@code management.server.port} only.
+ *
+ * <p>Besides the Hikari pool and Hibernate statistics auto-configured by Spring Boot, the
+ * {@code http.server.requests} histogram gets a {@code handler} tag naming the controller method,
+ * e.g. {@code BookController.listBooks}, so latency can be read per endpoint without parsing URI templates.
+ * Password hashing and Google Books lookups bind their own timers, see
+ * {@link com.vibebooks.api.security.BoundedPasswordEncoder} and {@link com.vibebooks.api.client.GoogleBooksClient},
+ * and the ISBN metadata and principal caches their hit and miss counters, see
+ * {@link com.vibebooks.api.service.IsbnMetadataCache} and {@link com.vibebooks.api.security.PrincipalCache}.</p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public ServerRequestObservationConvention handlerTaggingObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                String handler = HandlerNames.of(context.getCarrier()).orElse("none");
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", handler));
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.vibebooks.api.config;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the PostgreSQL indexes listed in {@code db/indexes.sql}, used by the full-text book search and by the keyset
+ * pagination of books and comments (including the latest comments of each book in the feed), if they do not exist yet.
+ * The like lookups and recounts of comments use the unique (comment_id, user_id) constraint of {@code comments_likes}.
+ *
+ * <p>The schema is not managed by Hibernate in production ({@code ddl-auto=validate}), so the indexes are created
+ * idempotently once the application is ready. They are built with {@code CREATE INDEX CONCURRENTLY}, which does not
+ * block writes to the table but cannot run in a transaction, so unlike {@code db/schema.sql} each statement runs on
+ * its own in autocommit. A build that was interrupted leaves an invalid index behind, which is dropped and built
+ * again. A failing statement only disables that index and is logged instead of preventing the application
+ * from starting.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexInitializer.class);
+
+    private static final Pattern INDEX_NAME = Pattern.compile("IF NOT EXISTS (\\w+)");
+
+    private static final String IS_INVALID = """
+            SELECT EXISTS (SELECT 1 FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+                           WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace AND NOT i.indisvalid)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${api.search.create-indexes:true}")
+    private boolean createIndexes;
+
+    @Value("classpath:db/indexes.sql")
+    private Resource indexScript;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchIndexes() {
+        if (!createIndexes) {
+            return;
+        }
+        for (String statement : statements(indexScript)) {
+            try {
+                dropIfInvalid(statement);
+                jdbcTemplate.execute(statement);
+            } catch (Exception e) {
+                log.warn("Could not create search index with '{}': {}", statement, e.getMessage());
+            }
+        }
+    }
+
+    private void dropIfInvalid(String statement) {
+        Matcher name = INDEX_NAME.matcher(statement);
+        if (name.find() && Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_INVALID, Boolean.class, name.group(1)))) {
+            log.warn("Dropping index {}, left invalid by an interrupted build", name.group(1));
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name.group(1));
+        }
+    }
+
+    /**
+     * Splits a script into its statements, separated by semicolons, without the {@code --} comment lines.
+     */
+    static List<String> statements(Resource script) {
+        String sql;
+        try {
+            sql = script.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String withoutComments = sql.lines()
+                .filter(line -> !line.stripLeading().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        return Arrays.stream(withoutComments.split(";"))
+                .map(String::strip)
+                .filter(statement -> !statement.isEmpty())
+                .toList();
+    }
+}
@@ -1,5 +1,9 @@
 package com.vibebooks.api.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,14 +14,15 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import com.vibebooks.api.security.BoundedPasswordEncoder;
 import com.vibebooks.api.security.SecurityFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
 
 import static com.vibebooks.api.util.ApiConstants.API_PREFIX;
@@ -27,9 +32,16 @@ import static com.vibebooks.api.util.ApiConstants.API_PREFIX;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * BCrypt encoder whose hashing runs on a dedicated bounded pool, see {@link BoundedPasswordEncoder}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${api.security.password-hashing.threads:0}") int threads,
+            @Value("${api.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${api.security.password-hashing.timeout:5s}") Duration timeout
+    ) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, timeout);
     }
 
     @Bean
@@ -47,12 +59,15 @@ public class SecurityConfig {
                         .requestMatchers(API_PREFIX + "/auth/**").permitAll()
 
                         .requestMatchers(HttpMethod.GET, API_PREFIX + "/books/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, API_PREFIX + "/comments").permitAll()
+                        .requestMatchers(HttpMethod.GET, API_PREFIX + "/comments", API_PREFIX + "/comments/scroll").permitAll()
                         .requestMatchers(HttpMethod.GET, API_PREFIX + "/users/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, API_PREFIX + "/feed").permitAll()
+                        .requestMatchers(HttpMethod.GET, API_PREFIX + "/feed", API_PREFIX + "/feed/scroll").permitAll()
 
                         .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
 
+                        // Served on management.server.port only, which is not exposed publicly
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+
                         // Any other route requires authentication
                         .anyRequest().authenticated()
                 )
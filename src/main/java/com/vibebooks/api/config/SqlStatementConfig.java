@@ -0,0 +1,43 @@
+package com.vibebooks.api.config;
+
+import com.vibebooks.api.monitoring.SqlStatementFilter;
+import com.vibebooks.api.monitoring.SqlStatementStats;
+import com.vibebooks.api.monitoring.StatementCountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+
+/**
+ * Wiring of the per-request SQL statement counter, see {@link SqlStatementFilter}.
+ */
+@Configuration
+public class SqlStatementConfig {
+
+    /**
+     * Puts a {@link StatementCountingDataSource} in front of the connection pool.
+     * The pool stays reachable with {@code unwrap(HikariDataSource.class)}.
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Carries the stats of the request to the application task executor, which writes streamed responses.
+     */
+    @Bean
+    public TaskDecorator sqlStatementStatsTaskDecorator() {
+        return SqlStatementStats::wrap;
+    }
+}
@@ -5,14 +5,17 @@ import com.vibebooks.api.dto.TokenDTO;
 import com.vibebooks.api.dto.UserCreateDTO;
 import com.vibebooks.api.dto.UserResponseDTO;
 import com.vibebooks.api.model.User;
+import com.vibebooks.api.security.LoginThrottle;
 import com.vibebooks.api.service.TokenService;
 import com.vibebooks.api.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 import static com.vibebooks.api.util.ApiConstants.API_PREFIX;
@@ -25,16 +28,26 @@ public class AuthenticationController {
     private final AuthenticationManager authenticationManager;
     private final TokenService tokenService;
     private final UserService userService;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/login")
-    public ResponseEntity<TokenDTO> login(@RequestBody AuthenticationDTO dto) {
+    public ResponseEntity<TokenDTO> login(@RequestBody AuthenticationDTO dto, HttpServletRequest request) {
+        loginThrottle.checkAttempt(dto.login(), request.getRemoteAddr());
+
         var authenticationToken = new UsernamePasswordAuthenticationToken(
                 dto.login(),
                 dto.password()
         );
 
-        Authentication authentication = authenticationManager.authenticate(authenticationToken);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(authenticationToken);
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(dto.login());
+            throw e;
+        }
 
+        loginThrottle.recordSuccess(dto.login());
         User authenticatedUser = (User) authentication.getPrincipal();
 
         String token = tokenService.generateToken(authenticatedUser);
@@ -1,12 +1,14 @@
 package com.vibebooks.api.controller;
 
 import com.vibebooks.api.dto.*;
+import com.vibebooks.api.model.BookSearchMode;
 import com.vibebooks.api.model.BookSentiment;
+import com.vibebooks.api.model.CountMode;
 import com.vibebooks.api.model.User;
+import com.vibebooks.api.service.BookImportService;
 import com.vibebooks.api.service.BookService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
@@ -16,10 +18,12 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import static com.vibebooks.api.util.ApiConstants.API_PREFIX;
+import static com.vibebooks.api.util.ApiConstants.MAX_SCROLL_SIZE;
 
 /**
  * REST controller for managing books and user interactions.
@@ -30,21 +34,44 @@ import static com.vibebooks.api.util.ApiConstants.API_PREFIX;
 @RequiredArgsConstructor
 public class BookController {
 
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
 
     /**
      * Returns a paginated list of books for the feed or library.
      *
      * @param pageable Pagination settings
+     * @param count How the total is computed: {@code exact} (default), {@code cached}, {@code estimated} or {@code none}
      * @param loggedInUser Authenticated user
-     * @return Page of books with user-specific data
+     * @return Page of books with user-specific data, in the Spring Page format plus {@code hasNext}
      */
     @GetMapping
-    public ResponseEntity<Page<BookDetailsDTO>> listBooks(
+    public ResponseEntity<SpringPageDTO<BookDetailsDTO>> listBooks(
             @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(value = "count", defaultValue = "exact") String count,
+            @AuthenticationPrincipal User loggedInUser
+    ) {
+        return ResponseEntity.ok(bookService.listAllBooks(pageable, CountMode.from(count), loggedInUser));
+    }
+
+    /**
+     * Returns the books newest first, one slice at a time, using an opaque cursor instead of page numbers.
+     * Fetching a slice costs the same at any depth, and no total count is computed.
+     *
+     * @param cursor Cursor returned with the previous slice, omitted for the first slice
+     * @param size Maximum number of books in the slice (capped at 50)
+     * @param loggedInUser Authenticated user
+     * @return Slice of books with user-specific data and the cursor of the next slice
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorSliceDTO<BookDetailsDTO>> scrollBooks(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
             @AuthenticationPrincipal User loggedInUser
     ) {
-        return ResponseEntity.ok(bookService.listAllBooks(pageable, loggedInUser));
+        return ResponseEntity.ok(bookService.scrollBooks(cursor, Math.clamp(size, 1, MAX_SCROLL_SIZE), loggedInUser));
     }
 
     /**
@@ -97,6 +124,18 @@ public class BookController {
         return ResponseEntity.created(uri).body(bookDetails);
     }
 
+    /**
+     * Creates several books at once from a list of ISBNs, using Google Books API data.
+     * Each ISBN is reported individually; one failing ISBN does not abort the others.
+     *
+     * @param dto Request body with the ISBN list
+     * @return Per-ISBN import results and a summary by outcome
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BookBatchImportResponseDTO> createBooks(@RequestBody @Valid BookBatchCreationDTO dto) {
+        return ResponseEntity.ok(bookImportService.importBooks(dto.isbns()));
+    }
+
     /**
      * Updates book information such as title, author, or cover.
      *
@@ -139,9 +178,7 @@ public class BookController {
             @PathVariable UUID id,
             @AuthenticationPrincipal User loggedInUser
     ) {
-        var bookStatus = bookService.likeOrUnlikeBook(id, loggedInUser);
-        long totalLikes = bookService.countLikesForBook(id);
-        return ResponseEntity.ok(new BookLikeResponseDTO(bookStatus.isLiked(), totalLikes));
+        return ResponseEntity.ok(bookService.likeOrUnlikeBook(id, loggedInUser));
     }
 
     /**
@@ -158,29 +195,65 @@ public class BookController {
             @RequestBody @Valid BookStatusUpdateDTO dto,
             @AuthenticationPrincipal User loggedInUser
     ) {
-        var savedStatus = bookService.updateBookStatus(id, loggedInUser, dto);
-        var response = new BookStatusResponseDTO(
-                savedStatus.getBook().getId(),
-                savedStatus.getStatus(),
-                savedStatus.getSentiment()
-        );
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(bookService.updateBookStatus(id, loggedInUser, dto));
     }
 
     /**
-     * Searches for books by title.
+     * Searches for books by title, ranked across title, author and ISBN, or tolerating typos.
      *
      * @param query Search term
+     * @param mode Search strategy: {@code title} (default), {@code fulltext} or {@code fuzzy}
      * @param pageable Pagination settings
+     * @param count How the total is computed: {@code exact} (default), {@code cached}, {@code estimated} or {@code none}
      * @param loggedInUser Authenticated user
-     * @return Page of books matching the query
+     * @return Page of books matching the query, in the Spring Page format plus {@code hasNext}
      */
     @GetMapping("/search")
-    public ResponseEntity<Page<BookDetailsDTO>> searchBooks(
+    public ResponseEntity<SpringPageDTO<BookDetailsDTO>> searchBooks(
             @RequestParam("query") String query,
+            @RequestParam(value = "mode", defaultValue = "title") String mode,
             @PageableDefault() Pageable pageable,
+            @RequestParam(value = "count", defaultValue = "exact") String count,
             @AuthenticationPrincipal User loggedInUser
     ) {
-        return ResponseEntity.ok(bookService.searchBooks(query, pageable, loggedInUser));
+        return ResponseEntity.ok(bookService.searchBooks(query, BookSearchMode.from(mode), pageable, CountMode.from(count), loggedInUser));
+    }
+
+    /**
+     * Searches for books by title, newest first, one slice at a time using an opaque cursor.
+     * Only available for {@code mode=title}; the ranked modes order by relevance and use page numbers.
+     *
+     * @param query Search term
+     * @param mode Search strategy, only {@code title} is supported
+     * @param cursor Cursor returned with the previous slice, omitted for the first slice
+     * @param size Maximum number of books in the slice (capped at 50)
+     * @param loggedInUser Authenticated user
+     * @return Slice of matching books and the cursor of the next slice
+     */
+    @GetMapping("/search/scroll")
+    public ResponseEntity<CursorSliceDTO<BookDetailsDTO>> scrollSearch(
+            @RequestParam("query") String query,
+            @RequestParam(value = "mode", defaultValue = "title") String mode,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @AuthenticationPrincipal User loggedInUser
+    ) {
+        return ResponseEntity.ok(bookService.scrollSearch(query, BookSearchMode.from(mode), cursor,
+                Math.clamp(size, 1, MAX_SCROLL_SIZE), loggedInUser));
+    }
+
+    /**
+     * Autocompletes book titles and authors for the search box.
+     *
+     * @param prefix Text typed so far
+     * @param limit Maximum number of suggestions (capped at 20)
+     * @return Matching titles and authors
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<BookSuggestionDTO>> suggestBooks(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(bookService.suggestBooks(prefix, Math.min(limit, MAX_SUGGESTIONS)));
     }
 }
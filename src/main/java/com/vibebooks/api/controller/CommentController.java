@@ -2,7 +2,9 @@ package com.vibebooks.api.controller;
 
 import com.vibebooks.api.dto.CommentCreationDTO;
 import com.vibebooks.api.dto.CommentDetailsDTO;
+import com.vibebooks.api.dto.CursorSliceDTO;
 import com.vibebooks.api.dto.PageResponseDTO;
+import com.vibebooks.api.model.CountMode;
 import com.vibebooks.api.model.User;
 import com.vibebooks.api.service.CommentService;
 import jakarta.validation.Valid;
@@ -18,6 +20,7 @@ import org.springframework.data.domain.Sort;
 import java.util.UUID;
 
 import static com.vibebooks.api.util.ApiConstants.API_PREFIX;
+import static com.vibebooks.api.util.ApiConstants.MAX_SCROLL_SIZE;
 
 @RestController
 @RequestMapping(API_PREFIX + "/comments")
@@ -43,12 +46,24 @@ public class CommentController {
     public ResponseEntity<PageResponseDTO<CommentDetailsDTO>> listCommentsByBook(
             @RequestParam(value = "bookId") UUID bookId,
             @AuthenticationPrincipal User loggedInUser,
-            @PageableDefault(size = 5, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
+            @PageableDefault(size = 5, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(value = "count", defaultValue = "exact") String count
     )   {
-        var dtoPage = commentService.findCommentsByBookId(bookId, loggedInUser, pageable);
+        var dtoPage = commentService.findCommentsByBookId(bookId, loggedInUser, pageable, CountMode.from(count));
         return ResponseEntity.ok(dtoPage);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorSliceDTO<CommentDetailsDTO>> scrollCommentsByBook(
+            @RequestParam(value = "bookId") UUID bookId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @AuthenticationPrincipal User loggedInUser
+    ) {
+        var slice = commentService.findCommentsByBookIdAfter(bookId, cursor, Math.clamp(size, 1, MAX_SCROLL_SIZE), loggedInUser);
+        return ResponseEntity.ok(slice);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteComment(
             @PathVariable UUID id,
@@ -1,20 +1,29 @@
 package com.vibebooks.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vibebooks.api.dto.BookFeedDTO;
+import com.vibebooks.api.dto.CursorSliceDTO;
 import com.vibebooks.api.dto.PageResponseDTO;
+import com.vibebooks.api.model.CountMode;
+import com.vibebooks.api.model.FeedEngine;
 import com.vibebooks.api.model.User;
 import com.vibebooks.api.service.FeedService;
+import com.vibebooks.api.service.SqlFeedService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static com.vibebooks.api.util.ApiConstants.API_PREFIX;
+import static com.vibebooks.api.util.ApiConstants.MAX_SCROLL_SIZE;
 
 @RestController
 @RequestMapping(API_PREFIX + "/feed")
@@ -22,13 +31,55 @@ import static com.vibebooks.api.util.ApiConstants.API_PREFIX;
 public class FeedController {
 
     private final FeedService feedService;
+    private final SqlFeedService sqlFeedService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public ResponseEntity<PageResponseDTO<BookFeedDTO>> getFeed(
             @PageableDefault(size = 7, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(value = "count", defaultValue = "exact") String count,
             @AuthenticationPrincipal User loggedInUser
     ) {
-        var feedPage = feedService.getBookFeed(pageable, loggedInUser);
+        var feedPage = feedService.getBookFeed(pageable, CountMode.from(count), loggedInUser);
         return ResponseEntity.ok(feedPage);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns a page of the feed built by the requested engine, streamed to the client.
+     * Both engines write the same document as {@link #getFeed}: {@code service} serializes the page assembled
+     * by {@link FeedService}, {@code sql} streams the page PostgreSQL renders in a single statement.
+     *
+     * @param pageable Pagination configuration
+     * @param count How the total is computed: {@code exact} (default), {@code cached}, {@code estimated} or {@code none}
+     * @param engine How the page is built: {@code service} or {@code sql}
+     * @param loggedInUser The authenticated user, or null if anonymous
+     * @return The streamed {@link PageResponseDTO} of {@link BookFeedDTO}
+     */
+    @GetMapping(params = "engine")
+    public ResponseEntity<StreamingResponseBody> getFeedWithEngine(
+            @PageableDefault(size = 7, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(value = "count", defaultValue = "exact") String count,
+            @RequestParam("engine") String engine,
+            @AuthenticationPrincipal User loggedInUser
+    ) {
+        CountMode countMode = CountMode.from(count);
+        StreamingResponseBody body = switch (FeedEngine.from(engine)) {
+            case SQL -> sqlFeedService.getBookFeed(pageable, countMode, loggedInUser);
+            case SERVICE -> {
+                var feedPage = feedService.getBookFeed(pageable, countMode, loggedInUser);
+                yield outputStream -> objectMapper.writeValue(outputStream, feedPage);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorSliceDTO<BookFeedDTO>> scrollFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "7") int size,
+            @AuthenticationPrincipal User loggedInUser
+    ) {
+        var slice = feedService.getBookFeedAfter(cursor, Math.clamp(size, 1, MAX_SCROLL_SIZE), loggedInUser);
+        return ResponseEntity.ok(slice);
+    }
+}
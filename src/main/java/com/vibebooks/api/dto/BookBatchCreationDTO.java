@@ -0,0 +1,15 @@
+package com.vibebooks.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BookBatchCreationDTO(
+        @NotEmpty(message = "The ISBN list cannot be empty.")
+        @Size(max = 1000, message = "A batch can contain at most 1000 ISBNs.")
+        List<@NotBlank(message = "ISBN cannot be blank.")
+             @Size(min = 10, max = 13, message = "The ISBN must be between 10 and 13 characters.") String> isbns
+) {
+}
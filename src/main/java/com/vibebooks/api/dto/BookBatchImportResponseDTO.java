@@ -0,0 +1,29 @@
+package com.vibebooks.api.dto;
+
+import com.vibebooks.api.dto.BookImportResultDTO.ImportStatus;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Report of a batch import: one result per requested ISBN, in request order,
+ * plus the number of ISBNs per outcome.
+ */
+public record BookBatchImportResponseDTO(
+        Map<ImportStatus, Long> summary,
+        List<BookImportResultDTO> results
+) {
+    public BookBatchImportResponseDTO(List<BookImportResultDTO> results) {
+        this(summarize(results), results);
+    }
+
+    private static Map<ImportStatus, Long> summarize(List<BookImportResultDTO> results) {
+        Map<ImportStatus, Long> summary = new EnumMap<>(ImportStatus.class);
+        for (ImportStatus status : ImportStatus.values()) {
+            summary.put(status, 0L);
+        }
+        results.forEach(result -> summary.merge(result.status(), 1L, Long::sum));
+        return summary;
+    }
+}
@@ -23,19 +23,23 @@ public record BookFeedDTO(
         ReadingStatus status,
         BookSentiment sentiment,
         List<CommentDetailsDTO> comments,
+        long commentsCount,
+        String commentsCursor,
         Map<BookSentiment, Long> sentimentCounts
 ) {
     /**
      * Builds a BookFeedDTO from a Book entity and additional data.
      *
      * @param book Book entity
-     * @param comments Comments related to the book
+     * @param comments Latest comments of the book
+     * @param commentsCount Total number of comments of the book
+     * @param commentsCursor Cursor to load the comments after the ones included, or null if there are none
      * @param likesCount Total number of likes
      * @param likedByCurrentUser Whether the user liked the book
      * @param status User reading status
      * @param sentiment User sentiment for the book
      */
-    public BookFeedDTO(Book book, List<CommentDetailsDTO> comments, long likesCount, boolean likedByCurrentUser,
+    public BookFeedDTO(Book book, List<CommentDetailsDTO> comments, long commentsCount, String commentsCursor, long likesCount, boolean likedByCurrentUser,
                        ReadingStatus status, BookSentiment sentiment, Map<BookSentiment, Long> sentimentCounts) {
         this(
                 book.getId(),
@@ -48,6 +52,8 @@ public record BookFeedDTO(
                 status,
                 sentiment,
                 comments,
+                commentsCount,
+                commentsCursor,
                 sentimentCounts
         );
     }
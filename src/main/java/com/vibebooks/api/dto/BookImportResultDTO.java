@@ -0,0 +1,30 @@
+package com.vibebooks.api.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one ISBN in a batch import.
+ *
+ * @param isbn    The ISBN as sent by the client
+ * @param status  What happened to it
+ * @param bookId  ID of the created book, only for {@code CREATED}
+ * @param message Reason for {@code FAILED} results, otherwise null
+ */
+public record BookImportResultDTO(
+        String isbn,
+        ImportStatus status,
+        UUID bookId,
+        String message
+) {
+    public enum ImportStatus {
+        CREATED,
+        ALREADY_EXISTS,
+        DUPLICATE_IN_REQUEST,
+        NOT_FOUND,
+        FAILED
+    }
+
+    public static BookImportResultDTO of(String isbn, ImportStatus status) {
+        return new BookImportResultDTO(isbn, status, null, null);
+    }
+}
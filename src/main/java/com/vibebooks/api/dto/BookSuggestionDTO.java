@@ -0,0 +1,21 @@
+package com.vibebooks.api.dto;
+
+import java.util.UUID;
+
+/**
+ * A single autocomplete suggestion for the book search box.
+ *
+ * @param bookId ID of the matching book (for author suggestions, one of the author's books)
+ * @param text   The title or author name to display
+ * @param type   Whether the suggestion is a {@code TITLE} or an {@code AUTHOR}
+ */
+public record BookSuggestionDTO(
+        UUID bookId,
+        String text,
+        SuggestionType type
+) {
+    public enum SuggestionType {
+        TITLE,
+        AUTHOR
+    }
+}
@@ -22,6 +22,16 @@ public record CommentDetailsDTO(
      * @param comment the Comment Entity to be converted
      */
     public CommentDetailsDTO(Comment comment, long likesCount, boolean likedByCurrentUser) {
+        this(comment, comment.getBook().getTitle(), likesCount, likedByCurrentUser);
+    }
+
+    /**
+     * Builds the DTO with a book title that was already loaded, so the book of the comment is not initialized.
+     *
+     * @param comment the Comment Entity to be converted, with its user loaded
+     * @param bookTitle title of the book of the comment
+     */
+    public CommentDetailsDTO(Comment comment, String bookTitle, long likesCount, boolean likedByCurrentUser) {
         this(
                 comment.getId(),
                 comment.getText(),
@@ -29,7 +39,7 @@ public record CommentDetailsDTO(
                 comment.getUser().getUsername(),
                 comment.getCreatedAt(),
                 comment.getBook().getId(),
-                comment.getBook().getTitle(),
+                bookTitle,
                 likesCount,
                 likedByCurrentUser
         );
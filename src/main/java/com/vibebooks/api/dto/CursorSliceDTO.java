@@ -0,0 +1,36 @@
+package com.vibebooks.api.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A DTO for returning one slice of a cursor-paginated list.
+ * Unlike {@link PageResponseDTO}, it carries no totals, so no count query is needed.
+ *
+ * @param content    Items of this slice
+ * @param nextCursor Cursor to request the following slice, or null if this is the last one
+ * @param <T> The type of the content in the list.
+ */
+public record CursorSliceDTO<T>(
+        List<T> content,
+        String nextCursor
+) {
+    /**
+     * Builds a slice from rows fetched with a limit of {@code size + 1}.
+     * The extra row only tells whether a next slice exists; it is not returned.
+     *
+     * @param rows     Rows fetched with a limit of {@code size + 1}
+     * @param size     Requested slice size
+     * @param cursorOf Encodes the cursor of a row
+     * @param mapper   Converts the rows kept in the slice to DTOs
+     * @param <E> The type of the fetched rows.
+     * @param <T> The type of the content in the list.
+     * @return The slice, with a cursor after its last row if more rows exist
+     */
+    public static <E, T> CursorSliceDTO<T> of(List<E> rows, int size, Function<E, String> cursorOf,
+                                              Function<List<E>, List<T>> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> slice = hasNext ? rows.subList(0, size) : rows;
+        return new CursorSliceDTO<>(mapper.apply(slice), hasNext ? cursorOf.apply(slice.getLast()) : null);
+    }
+}
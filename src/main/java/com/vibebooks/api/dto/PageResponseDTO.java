@@ -1,17 +1,22 @@
 package com.vibebooks.api.dto;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import java.util.List;
 
 /**
  * A standard DTO for returning paginated responses.
+ * The totals may be exact, cached or estimated depending on the requested count mode,
+ * and are null when the client asked for no count.
+ *
  * @param <T> The type of the content in the list.
  */
 public record PageResponseDTO<T>(
         List<T> content,
         int currentPage,
-        int totalPages,
-        long totalElements
+        Integer totalPages,
+        Long totalElements,
+        boolean hasNext
 ) {
     /**
      * Convenience constructor to create a DTO from a Spring Data Page object.
@@ -22,7 +27,29 @@ public record PageResponseDTO<T>(
                 page.getContent(),
                 page.getNumber(),
                 page.getTotalPages(),
-                page.getTotalElements()
+                page.getTotalElements(),
+                page.hasNext()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates a DTO from a page read without a count query and a separately resolved total.
+     *
+     * @param content       The converted content of the slice.
+     * @param slice         The Slice object from the repository, for the page metadata.
+     * @param totalElements The total, or null when it was not requested.
+     */
+    public PageResponseDTO(List<T> content, Slice<?> slice, Long totalElements) {
+        this(
+                content,
+                slice.getNumber(),
+                totalElements == null ? null : totalPages(totalElements, slice.getSize()),
+                totalElements,
+                slice.hasNext()
+        );
+    }
+
+    private static int totalPages(long totalElements, int pageSize) {
+        return pageSize == 0 ? 1 : (int) Math.ceil((double) totalElements / pageSize);
+    }
+}
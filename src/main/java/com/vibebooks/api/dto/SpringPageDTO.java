@@ -0,0 +1,58 @@
+package com.vibebooks.api.dto;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * A paginated response with the same JSON fields as a serialized Spring Data Page,
+ * which {@code GET /books} and {@code GET /books/search} have always returned, plus {@code hasNext}.
+ * The totals may be exact, cached or estimated depending on the requested count mode,
+ * and are null when the client asked for no count.
+ *
+ * @param <T> The type of the content in the list.
+ */
+public record SpringPageDTO<T>(
+        List<T> content,
+        Pageable pageable,
+        boolean last,
+        Long totalElements,
+        Integer totalPages,
+        boolean first,
+        int size,
+        int number,
+        Sort sort,
+        int numberOfElements,
+        boolean empty,
+        boolean hasNext
+) {
+    /**
+     * Creates a DTO from a page read without a count query and a separately resolved total.
+     *
+     * @param content       The converted content of the slice.
+     * @param slice         The Slice object from the repository, for the page metadata.
+     * @param totalElements The total, or null when it was not requested.
+     */
+    public SpringPageDTO(List<T> content, Slice<?> slice, Long totalElements) {
+        this(
+                content,
+                slice.getPageable(),
+                !slice.hasNext(),
+                totalElements,
+                totalElements == null ? null : totalPages(totalElements, slice.getSize()),
+                slice.isFirst(),
+                slice.getSize(),
+                slice.getNumber(),
+                slice.getSort(),
+                content.size(),
+                content.isEmpty(),
+                slice.hasNext()
+        );
+    }
+
+    private static int totalPages(long totalElements, int pageSize) {
+        return pageSize == 0 ? 1 : (int) Math.ceil((double) totalElements / pageSize);
+    }
+}
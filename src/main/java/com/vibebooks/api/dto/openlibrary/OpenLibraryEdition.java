@@ -0,0 +1,20 @@
+package com.vibebooks.api.dto.openlibrary;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * The fields of an Open Library edition record (JSON column of the editions dump) used to create a book.
+ * Editions only reference their authors by key, so {@code by_statement} is the only author name available.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OpenLibraryEdition(
+        String title,
+        @JsonProperty("isbn_13") List<String> isbn13,
+        @JsonProperty("isbn_10") List<String> isbn10,
+        @JsonProperty("publish_date") String publishDate,
+        @JsonProperty("by_statement") String byStatement,
+        List<Long> covers
+) {}
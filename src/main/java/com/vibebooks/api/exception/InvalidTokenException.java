@@ -0,0 +1,16 @@
+package com.vibebooks.api.exception;
+
+/**
+ * Thrown when a JWT cannot be trusted: bad signature, malformed, expired,
+ * or issued to a user that no longer exists.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
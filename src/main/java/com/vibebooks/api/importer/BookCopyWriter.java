@@ -0,0 +1,166 @@
+package com.vibebooks.api.importer;
+
+import com.vibebooks.api.model.Book;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes imported books to PostgreSQL with {@code COPY}.
+ *
+ * <p>Rows are streamed into a session-local staging table and then moved to {@code books} with
+ * {@code ON CONFLICT (isbn) DO NOTHING}, so ISBNs that already exist (or repeat in the dump) are skipped
+ * and writing the same rows twice is harmless. The zeroed {@code book_stats} rows are created in the
+ * same statement. Each call runs in its own transaction, or joins the caller's.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCopyWriter {
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE IF NOT EXISTS book_import_staging (
+                title TEXT, author TEXT, isbn TEXT, publication_year INTEGER, cover_image_url TEXT
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY_STAGING =
+            "COPY book_import_staging (title, author, isbn, publication_year, cover_image_url) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MOVE_STAGING = """
+            WITH inserted AS (
+                INSERT INTO books (id, title, author, isbn, publication_year, cover_image_url, created_at)
+                SELECT gen_random_uuid(), title, author, isbn, publication_year, cover_image_url, now()
+                FROM book_import_staging
+                ON CONFLICT (isbn) DO NOTHING
+                RETURNING id
+            )
+            INSERT INTO book_stats (book_id, likes_count, comments_count, inspiring_count, fun_count, emotional_count,
+                                    tense_count, informative_count, boring_count, confusing_count, motivational_count)
+            SELECT id, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 FROM inserted
+            """;
+
+    private static final String INSERT_STAGING = """
+            WITH inserted AS (
+                INSERT INTO books (id, title, author, isbn, publication_year, cover_image_url, created_at)
+                SELECT gen_random_uuid(), title, author, isbn, publication_year, cover_image_url, now()
+                FROM book_import_staging
+                ON CONFLICT (isbn) DO NOTHING
+                RETURNING id, isbn, created_at
+            ), stats AS (
+                INSERT INTO book_stats (book_id, likes_count, comments_count, inspiring_count, fun_count, emotional_count,
+                                        tense_count, informative_count, boring_count, confusing_count, motivational_count)
+                SELECT id, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 FROM inserted
+            )
+            SELECT id, isbn, created_at FROM inserted
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Inserts the books that do not exist yet.
+     *
+     * @param books Books to insert (IDs are ignored and generated by the database)
+     * @return Number of books actually inserted
+     */
+    public int write(List<Book> books) {
+        if (books.isEmpty()) {
+            return 0;
+        }
+        Integer inserted = transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+                copy(connection.unwrap(PGConnection.class), books);
+                return statement.executeUpdate(MOVE_STAGING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not stream imported books to COPY", e);
+            }
+        }));
+        return inserted != null ? inserted : 0;
+    }
+
+    /**
+     * Inserts the books that do not exist yet and tells which ones they were.
+     * An ISBN taken by a concurrent insert is skipped instead of failing the whole write.
+     *
+     * @param books Books to insert, with distinct ISBNs (IDs are ignored and generated by the database)
+     * @return The inserted books, with the ID and creation time set by the database
+     */
+    public List<Book> insert(List<Book> books) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Book> byIsbn = new HashMap<>();
+        books.forEach(book -> byIsbn.put(book.getIsbn(), book));
+        return transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<List<Book>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+                copy(connection.unwrap(PGConnection.class), books);
+                List<Book> inserted = new ArrayList<>(books.size());
+                try (ResultSet rows = statement.executeQuery(INSERT_STAGING)) {
+                    while (rows.next()) {
+                        Book book = byIsbn.get(rows.getString("isbn"));
+                        book.setId(rows.getObject("id", UUID.class));
+                        book.setCreatedAt(rows.getObject("created_at", OffsetDateTime.class));
+                        inserted.add(book);
+                    }
+                }
+                return inserted;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not stream imported books to COPY", e);
+            }
+        }));
+    }
+
+    private void copy(PGConnection connection, List<Book> books) throws SQLException, IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(connection, COPY_STAGING), StandardCharsets.UTF_8), 1 << 16)) {
+            for (Book book : books) {
+                writeField(out, book.getTitle());
+                out.write(',');
+                writeField(out, book.getAuthor());
+                out.write(',');
+                writeField(out, book.getIsbn());
+                out.write(',');
+                if (book.getPublicationYear() != null) {
+                    out.write(book.getPublicationYear().toString());
+                }
+                out.write(',');
+                writeField(out, book.getCoverImageUrl());
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes a quoted CSV field; an unquoted empty field is read as NULL by COPY.
+     */
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\u0000", "").replace("\"", "\"\""));
+        out.write('"');
+    }
+}
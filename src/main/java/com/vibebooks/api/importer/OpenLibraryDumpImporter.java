@@ -0,0 +1,281 @@
+package com.vibebooks.api.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.service.BookFuzzyIndex;
+import com.vibebooks.api.service.BookSuggestionIndex;
+import com.vibebooks.api.service.PageCountService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Imports the Open Library editions dump (a multi-gigabyte, tab-separated file with one JSON record per line)
+ * into the {@code books} table without calling Google Books.
+ *
+ * <p>How it works:</p>
+ * <ul>
+ *     <li>The file is split into chunks of about {@code chunkSizeBytes}, each ending on a line break.
+ *         Every chunk is memory-mapped on its own, so the file content never lives on the heap.</li>
+ *     <li>Chunks are handled in windows of {@code parallelism} chunks: the chunks of a window are parsed
+ *         in parallel on a dedicated fork-join pool, then written in file order with {@link BookCopyWriter}.
+ *         Heap usage is bounded by one window of parsed books, whatever the file size.</li>
+ *     <li>After each window the byte offset reached is logged and saved to a checkpoint file
+ *         ({@code <dump>.offset}). A new run resumes from it. Chunks of an interrupted window may be written
+ *         again, which is harmless because existing ISBNs are skipped.</li>
+ * </ul>
+ */
+@Component
+public class OpenLibraryDumpImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenLibraryDumpImporter.class);
+
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    private final BookCopyWriter bookCopyWriter;
+    private final BookSuggestionIndex bookSuggestionIndex;
+    private final BookFuzzyIndex bookFuzzyIndex;
+    private final PageCountService pageCountService;
+    private final OpenLibraryEditionParser parser;
+
+    public OpenLibraryDumpImporter(
+            BookCopyWriter bookCopyWriter,
+            BookSuggestionIndex bookSuggestionIndex,
+            BookFuzzyIndex bookFuzzyIndex,
+            PageCountService pageCountService,
+            ObjectMapper objectMapper
+    ) {
+        this.bookCopyWriter = bookCopyWriter;
+        this.bookSuggestionIndex = bookSuggestionIndex;
+        this.bookFuzzyIndex = bookFuzzyIndex;
+        this.pageCountService = pageCountService;
+        this.parser = new OpenLibraryEditionParser(objectMapper);
+    }
+
+    /**
+     * Imports the dump, starting at the given offset or, if none is given, at the saved checkpoint.
+     *
+     * @param dump        Path of the editions dump
+     * @param startOffset Byte offset to start from (moved forward to the next line start), or null to resume
+     * @param options     Chunk size and parallelism
+     * @return Summary of the run
+     * @throws IOException if the dump or the checkpoint cannot be read
+     */
+    public ImportSummary importDump(Path dump, Long startOffset, Options options) throws IOException {
+        Path checkpoint = checkpointFor(dump);
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+
+        try (FileChannel channel = FileChannel.open(dump, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = alignToLineStart(channel, startOffset != null ? startOffset : readCheckpoint(checkpoint));
+            long firstOffset = offset;
+            log.info("Importing Open Library dump {} ({} MB) from offset {}", dump, size >> 20, offset);
+
+            ForkJoinPool pool = new ForkJoinPool(options.parallelism());
+            try {
+                while (offset < size) {
+                    List<ForkJoinTask<ChunkResult>> window = new ArrayList<>(options.parallelism());
+                    for (int i = 0; i < options.parallelism() && offset < size; i++) {
+                        long chunkStart = offset;
+                        long chunkEnd = nextLineStart(channel, Math.min(size, chunkStart + options.chunkSizeBytes()), size);
+                        window.add(pool.submit(() -> parseChunk(channel, chunkStart, chunkEnd)));
+                        offset = chunkEnd;
+                    }
+
+                    for (ForkJoinTask<ChunkResult> task : window) {
+                        ChunkResult chunk = task.join();
+                        progress.add(chunk, bookCopyWriter.write(chunk.books()));
+                    }
+
+                    writeCheckpoint(checkpoint, offset);
+                    logProgress(progress, firstOffset, offset, size, started);
+                }
+            } finally {
+                pool.shutdown();
+            }
+
+            if (progress.inserted > 0) {
+                bookSuggestionIndex.rebuild();
+                bookFuzzyIndex.rebuild();
+                pageCountService.invalidate(PageCountService.BOOKS);
+            }
+
+            ImportSummary summary = new ImportSummary(firstOffset, offset, progress.lines, progress.books,
+                    progress.inserted, progress.malformed, Duration.ofNanos(System.nanoTime() - started));
+            log.info("Open Library import finished: {}", summary);
+            return summary;
+        }
+    }
+
+    /**
+     * Parses the lines of one memory-mapped chunk.
+     * Malformed lines are counted and skipped; they never stop the import.
+     */
+    private ChunkResult parseChunk(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int limit = buffer.limit();
+        List<Book> books = new ArrayList<>();
+        byte[] line = new byte[SCAN_BUFFER_SIZE];
+        long lines = 0;
+        long malformed = 0;
+
+        int lineStart = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && buffer.get(i) != '\n') {
+                continue;
+            }
+            int length = i - lineStart;
+            if (length > 0) {
+                if (line.length < length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(lineStart, line, 0, length);
+                lines++;
+                try {
+                    Book book = parser.parse(line, length);
+                    if (book != null) {
+                        books.add(book);
+                    }
+                } catch (IOException e) {
+                    malformed++;
+                    log.debug("Skipping malformed line at offset {}: {}", start + lineStart, e.getMessage());
+                }
+            }
+            lineStart = i + 1;
+        }
+        return new ChunkResult(books, lines, malformed);
+    }
+
+    /**
+     * Moves an offset to the start of the line it falls in the middle of,
+     * i.e. to the byte after the next line break, unless it already is a line start.
+     */
+    private long alignToLineStart(FileChannel channel, long offset) throws IOException {
+        long size = channel.size();
+        if (offset <= 0) {
+            return 0;
+        }
+        if (offset >= size) {
+            return size;
+        }
+        ByteBuffer previous = ByteBuffer.allocate(1);
+        channel.read(previous, offset - 1);
+        return previous.get(0) == '\n' ? offset : nextLineStart(channel, offset, size);
+    }
+
+    /**
+     * Returns the offset right after the first line break at or after {@code from - 1},
+     * so that a chunk ending there always ends with a complete line.
+     */
+    private long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        if (from >= size) {
+            return size;
+        }
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = Math.max(0, from - 1);
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private void logProgress(Progress progress, long firstOffset, long offset, long size, long started) {
+        double seconds = Math.max((System.nanoTime() - started) / 1e9, 0.001);
+        log.info("Open Library import at {}% (offset {} of {}): {} lines, {} books parsed, {} inserted, {} malformed, {} MB/s",
+                String.format("%.1f", offset * 100.0 / size), offset, size,
+                progress.lines, progress.books, progress.inserted, progress.malformed,
+                String.format("%.1f", (offset - firstOffset) / 1_048_576.0 / seconds));
+    }
+
+    static Path checkpointFor(Path dump) {
+        return dump.resolveSibling(dump.getFileName() + ".offset");
+    }
+
+    private static long readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpoint).strip());
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long offset) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(offset), StandardCharsets.US_ASCII);
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Import settings.
+     *
+     * @param chunkSizeBytes Approximate size of each memory-mapped chunk
+     * @param parallelism    Number of chunks parsed at the same time
+     */
+    public record Options(int chunkSizeBytes, int parallelism) {
+
+        private static final int MAX_CHUNK_SIZE = 1 << 30;
+
+        public Options {
+            if (chunkSizeBytes <= 0 || chunkSizeBytes > MAX_CHUNK_SIZE || parallelism <= 0) {
+                throw new IllegalArgumentException("Chunk size must be between 1 byte and 1 GB, and parallelism positive");
+            }
+        }
+    }
+
+    /**
+     * Result of an import run.
+     *
+     * @param startOffset Offset the run started at
+     * @param endOffset   Offset the run stopped at (the file size when complete)
+     * @param lines       Lines read
+     * @param books       Editions that produced a book (title and ISBN present)
+     * @param inserted    Books actually inserted (new ISBNs)
+     * @param malformed   Lines that could not be parsed
+     * @param elapsed     Duration of the run
+     */
+    public record ImportSummary(long startOffset, long endOffset, long lines, long books, long inserted,
+                                long malformed, Duration elapsed) {
+    }
+
+    private record ChunkResult(List<Book> books, long lines, long malformed) {
+    }
+
+    private static final class Progress {
+        private long lines;
+        private long books;
+        private long inserted;
+        private long malformed;
+
+        void add(ChunkResult chunk, int insertedBooks) {
+            lines += chunk.lines();
+            books += chunk.books().size();
+            malformed += chunk.malformed();
+            inserted += insertedBooks;
+        }
+    }
+}
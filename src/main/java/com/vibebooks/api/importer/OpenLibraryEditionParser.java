@@ -0,0 +1,103 @@
+package com.vibebooks.api.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.vibebooks.api.dto.openlibrary.OpenLibraryEdition;
+import com.vibebooks.api.model.Book;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Parses lines of the Open Library editions dump into {@link Book} objects.
+ *
+ * <p>Each line has five tab-separated columns: type, key, revision, last modified and the
+ * record as JSON. Only {@code /type/edition} lines with a title and a valid ISBN-13 or ISBN-10
+ * produce a book. Instances are thread-safe.</p>
+ */
+class OpenLibraryEditionParser {
+
+    private static final byte[] EDITION_TYPE = "/type/edition".getBytes(StandardCharsets.US_ASCII);
+    private static final int JSON_COLUMN = 4;
+
+    private final ObjectReader editionReader;
+
+    OpenLibraryEditionParser(ObjectMapper objectMapper) {
+        this.editionReader = objectMapper.readerFor(OpenLibraryEdition.class);
+    }
+
+    /**
+     * Parses one line of the dump.
+     *
+     * @param line   Buffer holding the line, without the line break
+     * @param length Number of bytes of the line in the buffer
+     * @return The parsed book, or null if the line is not an edition or lacks a title or ISBN
+     * @throws IOException if the JSON column is malformed
+     */
+    Book parse(byte[] line, int length) throws IOException {
+        if (!startsWith(line, length, EDITION_TYPE)) {
+            return null;
+        }
+        int jsonStart = columnStart(line, length, JSON_COLUMN);
+        if (jsonStart < 0) {
+            throw new IOException("Line has fewer than " + (JSON_COLUMN + 1) + " columns");
+        }
+
+        OpenLibraryEdition edition = editionReader.readValue(line, jsonStart, length - jsonStart);
+        if (edition.title() == null || edition.title().isBlank()) {
+            return null;
+        }
+        String isbn = selectIsbn(edition);
+        return isbn != null ? Book.fromOpenLibraryEdition(edition, isbn) : null;
+    }
+
+    /**
+     * Picks the first valid ISBN of the edition, preferring ISBN-13.
+     * Hyphens and spaces are removed; a trailing check digit {@code x} is upper-cased.
+     *
+     * @return The normalized ISBN, or null if the edition has none
+     */
+    static String selectIsbn(OpenLibraryEdition edition) {
+        String isbn = firstValid(edition.isbn13(), 13);
+        return isbn != null ? isbn : firstValid(edition.isbn10(), 10);
+    }
+
+    private static String firstValid(List<String> candidates, int expectedLength) {
+        if (candidates == null) {
+            return null;
+        }
+        for (String candidate : candidates) {
+            if (candidate == null) {
+                continue;
+            }
+            String digits = candidate.replaceAll("[\\s-]", "").toUpperCase();
+            if (digits.length() == expectedLength && digits.matches(expectedLength == 13 ? "\\d{13}" : "\\d{9}[\\dX]")) {
+                return digits;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] line, int length, byte[] prefix) {
+        if (length <= prefix.length || line[prefix.length] != '\t') {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (line[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int columnStart(byte[] line, int length, int column) {
+        int found = 0;
+        for (int i = 0; i < length; i++) {
+            if (line[i] == '\t' && ++found == column) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,47 @@
+package com.vibebooks.api.importer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the Open Library import on startup when {@code api.import.open-library.file} is set, e.g.
+ * {@code java -jar api.jar --api.import.open-library.file=/data/ol_dump_editions.txt}.
+ *
+ * <p>Optional settings: {@code chunk-size} (default 32MB), {@code parallelism} (default: available processors)
+ * and {@code start-offset} (default: resume from the checkpoint file).</p>
+ */
+@Component
+@ConditionalOnProperty(name = "api.import.open-library.file")
+@RequiredArgsConstructor
+public class OpenLibraryImportRunner implements ApplicationRunner {
+
+    private final OpenLibraryDumpImporter openLibraryDumpImporter;
+
+    @Value("${api.import.open-library.file}")
+    private String file;
+
+    @Value("${api.import.open-library.chunk-size:32MB}")
+    private DataSize chunkSize;
+
+    @Value("${api.import.open-library.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int parallelism;
+
+    @Value("${api.import.open-library.start-offset:-1}")
+    private long startOffset;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        openLibraryDumpImporter.importDump(
+                Path.of(file),
+                startOffset >= 0 ? startOffset : null,
+                new OpenLibraryDumpImporter.Options(Math.toIntExact(chunkSize.toBytes()), parallelism)
+        );
+    }
+}
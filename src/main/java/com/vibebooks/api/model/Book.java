@@ -2,6 +2,7 @@ package com.vibebooks.api.model;
 
 import com.vibebooks.api.dto.BookCreationDTO;
 import com.vibebooks.api.dto.google.VolumeInfo;
+import com.vibebooks.api.dto.openlibrary.OpenLibraryEdition;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -13,6 +14,8 @@ import org.slf4j.LoggerFactory;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Entity
 @Table(name = "books")
@@ -24,6 +27,9 @@ public class Book {
 
     private static final Logger log = LoggerFactory.getLogger(Book.class);
 
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final Pattern YEAR = Pattern.compile("\\b(1[0-9]{3}|20[0-9]{2})\\b");
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
@@ -110,4 +116,45 @@ public class Book {
         }
         return book;
     }
+
+    /**
+     * Creates a book from an Open Library edition, normalizing it the same way as
+     * {@link #fromGoogleVolumeInfo(VolumeInfo, String)}: unknown authors get a placeholder,
+     * the year is taken from the free-form publish date, and a cover URL is always set.
+     * Texts are cut to the column length.
+     *
+     * @param edition Edition record from the Open Library dump (must have a title)
+     * @param isbn    Normalized ISBN chosen for the edition
+     * @return A new, unsaved book
+     */
+    public static Book fromOpenLibraryEdition(OpenLibraryEdition edition, String isbn) {
+        var book = new Book();
+        book.setTitle(truncate(edition.title().strip()));
+
+        String byStatement = edition.byStatement() != null ? edition.byStatement().strip() : "";
+        if (byStatement.endsWith(".")) {
+            byStatement = byStatement.substring(0, byStatement.length() - 1).strip();
+        }
+        book.setAuthor(byStatement.isEmpty() ? "Autor desconhecido" : truncate(byStatement));
+
+        book.setIsbn(isbn);
+
+        if (edition.publishDate() != null) {
+            Matcher year = YEAR.matcher(edition.publishDate());
+            if (year.find()) {
+                book.setPublicationYear(Integer.parseInt(year.group()));
+            }
+        }
+
+        if (edition.covers() != null && !edition.covers().isEmpty() && edition.covers().getFirst() != null && edition.covers().getFirst() > 0) {
+            book.setCoverImageUrl("https://covers.openlibrary.org/b/id/" + edition.covers().getFirst() + "-L.jpg");
+        } else {
+            book.setCoverImageUrl("https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg");
+        }
+        return book;
+    }
+
+    private static String truncate(String text) {
+        return text.length() <= MAX_TEXT_LENGTH ? text : text.substring(0, MAX_TEXT_LENGTH);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.vibebooks.api.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strategies available for the book search endpoint.
+ */
+public enum BookSearchMode {
+    /** Case-insensitive substring match on the title only. */
+    TITLE,
+    /** Ranked full-text search over title, author and ISBN, backed by GIN indexes. */
+    FULLTEXT,
+    /** Typo-tolerant search over the words of titles and authors (up to 2 edits per word). */
+    FUZZY;
+
+    /**
+     * Parses a search mode from a request parameter, ignoring case.
+     *
+     * @param value The raw request parameter.
+     * @return The matching search mode.
+     * @throws ResponseStatusException with 400 Bad Request if the mode is unknown.
+     */
+    public static BookSearchMode from(String value) {
+        for (BookSearchMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown search mode: " + value);
+    }
+}
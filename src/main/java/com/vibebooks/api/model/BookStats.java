@@ -0,0 +1,119 @@
+package com.vibebooks.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Denormalized read model holding the aggregate counters of a book.
+ * Kept up to date with delta updates whenever a user likes a book, changes their sentiment
+ * or comments on it, so reads never need to aggregate over {@code user_book_status} or {@code comments}.
+ */
+@Entity
+@Table(name = "book_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookStats {
+
+    @Id
+    @Column(name = "book_id")
+    private UUID bookId;
+
+    @Column(name = "likes_count", nullable = false)
+    private long likesCount;
+
+    @Column(name = "comments_count", nullable = false)
+    private long commentsCount;
+
+    @Column(name = "inspiring_count", nullable = false)
+    private long inspiringCount;
+
+    @Column(name = "fun_count", nullable = false)
+    private long funCount;
+
+    @Column(name = "emotional_count", nullable = false)
+    private long emotionalCount;
+
+    @Column(name = "tense_count", nullable = false)
+    private long tenseCount;
+
+    @Column(name = "informative_count", nullable = false)
+    private long informativeCount;
+
+    @Column(name = "boring_count", nullable = false)
+    private long boringCount;
+
+    @Column(name = "confusing_count", nullable = false)
+    private long confusingCount;
+
+    @Column(name = "motivational_count", nullable = false)
+    private long motivationalCount;
+
+    public BookStats(UUID bookId) {
+        this.bookId = bookId;
+    }
+
+    /**
+     * Returns the counters of a book without any interaction yet.
+     *
+     * @param bookId The book's ID.
+     * @return A transient BookStats with every counter set to zero.
+     */
+    public static BookStats empty(UUID bookId) {
+        return new BookStats(bookId);
+    }
+
+    /**
+     * Adds likes that are not yet written to the table, such as the pending deltas of a write-behind counter.
+     *
+     * @param pendingLikes The delta to add, possibly negative.
+     * @return This instance if the delta is zero, otherwise a transient copy with the adjusted like counter.
+     */
+    public BookStats withPendingLikes(long pendingLikes) {
+        if (pendingLikes == 0) {
+            return this;
+        }
+        return new BookStats(bookId, likesCount + pendingLikes, commentsCount, inspiringCount, funCount, emotionalCount,
+                tenseCount, informativeCount, boringCount, confusingCount, motivationalCount);
+    }
+
+    /**
+     * Returns the number of users per sentiment, with every {@link BookSentiment} present.
+     *
+     * @return EnumMap with the count for each sentiment.
+     */
+    public Map<BookSentiment, Long> getSentimentCounts() {
+        Map<BookSentiment, Long> counts = new EnumMap<>(BookSentiment.class);
+        for (BookSentiment s : BookSentiment.values()) {
+            counts.put(s, getSentimentCount(s));
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of users that chose the given sentiment.
+     *
+     * @param sentiment The sentiment to look up.
+     * @return The counter for that sentiment.
+     */
+    public long getSentimentCount(BookSentiment sentiment) {
+        return switch (sentiment) {
+            case INSPIRING -> inspiringCount;
+            case FUN -> funCount;
+            case EMOTIONAL -> emotionalCount;
+            case TENSE -> tenseCount;
+            case INFORMATIVE -> informativeCount;
+            case BORING -> boringCount;
+            case CONFUSING -> confusingCount;
+            case MOTIVATIONAL -> motivationalCount;
+        };
+    }
+}
@@ -37,6 +37,13 @@ public class Comment {
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
+    /**
+     * Number of likes, maintained by atomic updates when a like is toggled so it is never recounted on reads.
+     * Not written by Hibernate after the insert; repaired by {@code CommentLikesReconciler}.
+     */
+    @Column(name = "likes_count", nullable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private long likesCount;
+
     @OneToMany(mappedBy = "comment", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CommentLike> likes;
 
@@ -10,7 +10,8 @@ import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 
 @Entity
-@Table(name = "comments_likes")
+@Table(name = "comments_likes", uniqueConstraints = @UniqueConstraint(
+        name = "uk_comments_likes_comment_user", columnNames = {"comment_id", "user_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,35 @@
+package com.vibebooks.api.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strategies available for the total count of paginated responses.
+ * The page content is always read without a count query; only the total depends on the mode.
+ */
+public enum CountMode {
+    /** Exact {@code COUNT(*)} on every request. */
+    EXACT,
+    /** Exact count reused for a short TTL, invalidated when rows are inserted or deleted. */
+    CACHED,
+    /** Estimate from PostgreSQL planner statistics or stored counters; falls back to {@link #CACHED} when none exists. */
+    ESTIMATED,
+    /** No total at all; the response only tells whether a next page exists. */
+    NONE;
+
+    /**
+     * Parses a count mode from a request parameter, ignoring case.
+     *
+     * @param value The raw request parameter.
+     * @return The matching count mode.
+     * @throws ResponseStatusException with 400 Bad Request if the mode is unknown.
+     */
+    public static CountMode from(String value) {
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown count mode: " + value);
+    }
+}
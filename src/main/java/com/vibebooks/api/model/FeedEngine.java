@@ -0,0 +1,31 @@
+package com.vibebooks.api.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Implementations available to build a page of the feed.
+ * Both produce the same JSON document, so they can be compared request by request.
+ */
+public enum FeedEngine {
+    /** Entities and counters read in separate queries and grouped in memory by {@code FeedService}. */
+    SERVICE,
+    /** The whole page rendered as JSON by a single PostgreSQL statement and streamed to the client. */
+    SQL;
+
+    /**
+     * Parses a feed engine from a request parameter, ignoring case.
+     *
+     * @param value The raw request parameter.
+     * @return The matching feed engine.
+     * @throws ResponseStatusException with 400 Bad Request if the engine is unknown.
+     */
+    public static FeedEngine from(String value) {
+        for (FeedEngine engine : values()) {
+            if (engine.name().equalsIgnoreCase(value)) {
+                return engine;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown feed engine: " + value);
+    }
+}
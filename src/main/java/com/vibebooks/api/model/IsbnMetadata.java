@@ -0,0 +1,40 @@
+package com.vibebooks.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Persistent tier of the ISBN metadata cache.
+ * Stores the Google Books volume fetched for an ISBN, or a negative entry
+ * (no volume) when Google had nothing for it, together with the fetch time used for TTLs.
+ */
+@Entity
+@Table(name = "isbn_metadata_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IsbnMetadata {
+
+    @Id
+    @Column(name = "isbn", length = 32)
+    private String isbn;
+
+    /**
+     * Google Books volume serialized as JSON, or null for a negative entry.
+     */
+    @Column(name = "volume_json", columnDefinition = "TEXT")
+    private String volumeJson;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+
+    public boolean isFound() {
+        return volumeJson != null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.vibebooks.api.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Optional;
+
+/**
+ * Names requests after the controller method that handled them, e.g. {@code BookController.listBooks}.
+ */
+public final class HandlerNames {
+
+    private static final String CONTROLLER_PACKAGE = "com.vibebooks.api.controller";
+
+    private HandlerNames() {
+    }
+
+    /**
+     * Returns the controller method of a request once it was dispatched. Static resources, Swagger and requests
+     * rejected before dispatch have none, which keeps the names low-cardinality.
+     *
+     * @param request Request, after dispatch
+     * @return {@code SimpleClassName.methodName}, or empty if no controller of the API handled it
+     */
+    public static Optional<String> of(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method
+                && method.getBeanType().getPackageName().equals(CONTROLLER_PACKAGE)) {
+            return Optional.of(method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        }
+        return Optional.empty();
+    }
+}
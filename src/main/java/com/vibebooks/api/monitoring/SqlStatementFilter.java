@@ -0,0 +1,158 @@
+package com.vibebooks.api.monitoring;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements of every request and warns when an endpoint goes over its budget,
+ * which is how an N+1 regression shows up.
+ *
+ * <p>The budget of an endpoint is set per controller method in {@code api.sql-stats.budgets}, as a comma-separated
+ * list of {@code Controller.method:statements}; other endpoints get {@code api.sql-stats.default-budget}.
+ * A budget of 0 disables the check.</p>
+ *
+ * <p>With {@code api.sql-stats.response-headers} (off in the {@code prod} profile), the counts are also returned in
+ * the {@value #STATEMENTS_HEADER} and {@value #TIME_HEADER} headers. They are written when the response commits,
+ * so they cover the statements run before the first byte of the body is sent.</p>
+ *
+ * <p>Runs before the security chain, so the token user lookup counts too.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+    private final boolean responseHeaders;
+
+    public SqlStatementFilter(
+            @Value("${api.sql-stats.default-budget:20}") int defaultBudget,
+            @Value("${api.sql-stats.budgets:}") String budgets,
+            @Value("${api.sql-stats.response-headers:true}") boolean responseHeaders
+    ) {
+        this.defaultBudget = defaultBudget;
+        this.budgets = parseBudgets(budgets);
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = new SqlStatementStats();
+        HttpServletResponse target = responseHeaders ? new StatsHeaderResponse(response, stats) : response;
+
+        SqlStatementStats.attach(stats);
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            SqlStatementStats.detach();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, stats));
+            } else {
+                if (!response.isCommitted() && target instanceof StatsHeaderResponse headers) {
+                    headers.writeHeaders();
+                }
+                checkBudget(request, stats);
+            }
+        }
+    }
+
+    private void checkBudget(HttpServletRequest request, SqlStatementStats stats) {
+        HandlerNames.of(request).ifPresent(handler -> {
+            int budget = budgets.getOrDefault(handler, defaultBudget);
+            if (budget > 0 && stats.statements() > budget) {
+                log.warn("{} {} ({}) ran {} SQL statements in {} ms, over its budget of {}: possible N+1 query",
+                        request.getMethod(), request.getRequestURI(), handler, stats.statements(), stats.millis(), budget);
+            }
+        });
+    }
+
+    private static Map<String, Integer> parseBudgets(String budgets) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(budgets)) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid SQL statement budget '" + entry + "', expected Controller.method:statements");
+            }
+            parsed.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return parsed;
+    }
+
+    /**
+     * Adds the counts to the response headers right before it commits.
+     */
+    private static final class StatsHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatementStats stats;
+
+        private StatsHeaderResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.statements()));
+            setHeader(TIME_HEADER, String.valueOf(stats.millis()));
+        }
+    }
+
+    /**
+     * Checks the budget of an asynchronous request, such as a streamed feed, once its body is written.
+     */
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final SqlStatementStats stats;
+
+        private CompletionListener(HttpServletRequest request, SqlStatementStats stats) {
+            this.request = request;
+            this.stats = stats;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            checkBudget(request, stats);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
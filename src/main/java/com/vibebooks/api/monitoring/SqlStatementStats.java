@@ -0,0 +1,88 @@
+package com.vibebooks.api.monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL statements run on behalf of one HTTP request, and the time the database took to answer them.
+ *
+ * <p>The stats of the request are bound to the thread serving it by {@link SqlStatementFilter}, and counted by
+ * {@link StatementCountingDataSource} for every statement executed on that thread. Work handed to other threads
+ * (concurrent feed stages, streamed responses) carries the stats along with {@link #wrap(Runnable)}, so the
+ * counters are thread-safe.</p>
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    /**
+     * @return The stats bound to the current thread, or null outside a request
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds stats to the current thread until {@link #detach()}.
+     *
+     * @param stats Stats of the request, null to unbind
+     */
+    public static void attach(SqlStatementStats stats) {
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+    }
+
+    /**
+     * Unbinds the stats from the current thread.
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns a task that runs with the stats of the calling thread, wherever it is executed.
+     *
+     * @param task Task to run on another thread
+     * @return The same task, or a wrapper binding the caller's stats while it runs
+     */
+    public static Runnable wrap(Runnable task) {
+        SqlStatementStats stats = current();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatementStats previous = current();
+            attach(stats);
+            try {
+                task.run();
+            } finally {
+                attach(previous);
+            }
+        };
+    }
+
+    void record(long elapsedNanos) {
+        statements.increment();
+        nanos.add(elapsedNanos);
+    }
+
+    /**
+     * @return The number of statements executed so far; a JDBC batch counts as one round trip
+     */
+    public long statements() {
+        return statements.sum();
+    }
+
+    /**
+     * @return The time spent executing them, in milliseconds
+     */
+    public long millis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+    }
+}
@@ -0,0 +1,89 @@
+package com.vibebooks.api.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Data source counting every statement executed through its connections into the {@link SqlStatementStats}
+ * of the current request.
+ *
+ * <p>It sits in front of the pool, so Hibernate, Spring Data queries and {@code JdbcTemplate} are all counted.
+ * Each {@code execute*} call is one statement, timed from the call until the driver returns; a batch counts once.
+ * Statements executed outside a request, such as scheduled flushes, are not counted.</p>
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+                return countingStatement(method.getReturnType(), statement);
+            }
+            return result;
+        });
+    }
+
+    private static Statement countingStatement(Class<?> type, Statement statement) {
+        return (Statement) proxy(type, statement, (proxy, method, args) -> {
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats == null || !method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            long started = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                stats.record(System.nanoTime() - started);
+            }
+        });
+    }
+
+    /**
+     * Creates a proxy with identity semantics, since Hibernate keeps statements in hash-based registries.
+     */
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> target.toString();
+                    default -> handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface Handler {
+        Object invoke(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+}
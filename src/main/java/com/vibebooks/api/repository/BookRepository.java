@@ -2,30 +2,146 @@ package com.vibebooks.api.repository;
 
 import com.vibebooks.api.model.Book;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, UUID> {
 
+    /**
+     * Text indexed for full-text search. Must stay identical to the expression used by the
+     * GIN indexes of {@code db/indexes.sql}, created by {@link com.vibebooks.api.config.SearchIndexInitializer},
+     * otherwise PostgreSQL will not use them.
+     */
+    String SEARCH_DOCUMENT = "(coalesce(title, '') || ' ' || coalesce(author, '') || ' ' || coalesce(isbn, ''))";
+
+    String SEARCH_VECTOR = "to_tsvector('simple', " + SEARCH_DOCUMENT + ")";
+
+    String SEARCH_PREDICATE = "(" + SEARCH_VECTOR + " @@ websearch_to_tsquery('simple', :query) "
+            + "OR lower(" + SEARCH_DOCUMENT + ") LIKE :pattern)";
+
+    /**
+     * Keyset condition: rows strictly after {@code (:createdAt, :id)} in {@code (createdAt, id)} descending order.
+     * The leading {@code createdAt <= :createdAt} bound is redundant but lets PostgreSQL start the index scan
+     * at the cursor instead of filtering every newer row.
+     */
+    String KEYSET_AFTER = "b.createdAt <= :createdAt AND (b.createdAt < :createdAt OR b.id < :id)";
+
     /**
      * Efficiently checks if a book with the given ISBN exists.
      * Best for validation checks.
      */
     boolean existsByIsbn(String isbn);
 
+    /**
+     * Returns which of the given ISBNs are already registered, using a single IN query.
+     */
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
     /**
      * Finds a book entity by its ISBN.
      * Useful when the full book object is needed.
      */
     Optional<Book> findByIsbn(String isbn);
 
+    /**
+     * Reads only the title of a book; an empty result also tells the book does not exist.
+     * Lets comment listings check the book and label its comments with one query.
+     */
+    @Query("SELECT b.title FROM Book b WHERE b.id = :id")
+    Optional<String> findTitleById(@Param("id") UUID id);
+
+    /**
+     * Retrieves a page of books without running a count query.
+     * Totals are resolved separately by {@link com.vibebooks.api.service.PageCountService}.
+     */
+    Slice<Book> findAllBy(Pageable pageable);
+
     /**
      * Finds books where the title contains the given query string, ignoring case.
+     * Returns a slice, so no count query is run.
+     */
+    Slice<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+
+    /**
+     * Counts books where the title contains the given query string, ignoring case.
+     */
+    long countByTitleContainingIgnoreCase(String title);
+
+    /**
+     * Retrieves the newest books. First slice of the keyset pagination used by {@link #findAfter}.
+     */
+    List<Book> findByOrderByCreatedAtDescIdDesc(Limit limit);
+
+    /**
+     * Retrieves the books that come after the given keyset position, newest first.
+     * Served by the {@code (created_at, id)} index, so the cost is the same at any depth,
+     * unlike an OFFSET that reads and discards every previous row.
+     */
+    @Query("SELECT b FROM Book b WHERE " + KEYSET_AFTER + " ORDER BY b.createdAt DESC, b.id DESC")
+    List<Book> findAfter(@Param("createdAt") OffsetDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    /**
+     * Retrieves the newest books whose title contains the given text, ignoring case.
+     * First slice of the keyset pagination used by {@link #findByTitleAfter}.
+     */
+    List<Book> findByTitleContainingIgnoreCaseOrderByCreatedAtDescIdDesc(String title, Limit limit);
+
+    /**
+     * Retrieves the books whose lowercase title matches the given LIKE pattern
+     * that come after the given keyset position, newest first.
+     *
+     * @param pattern The lowercase LIKE pattern, with wildcards typed by the user escaped (e.g. {@code %hobbit%}).
+     */
+    @Query("SELECT b FROM Book b WHERE lower(b.title) LIKE :pattern ESCAPE '\\' AND " + KEYSET_AFTER
+            + " ORDER BY b.createdAt DESC, b.id DESC")
+    List<Book> findByTitleAfter(@Param("pattern") String pattern, @Param("createdAt") OffsetDateTime createdAt,
+                                @Param("id") UUID id, Limit limit);
+
+    interface BookTitleAuthor {
+        UUID getId();
+        String getTitle();
+        String getAuthor();
+    }
+
+    /**
+     * Streams the ID, title and author of every book without loading full entities.
+     * Must be consumed inside a transaction and closed after use.
+     */
+    @Query("SELECT b.id as id, b.title as title, b.author as author FROM Book b")
+    Stream<BookTitleAuthor> streamAllTitlesAndAuthors();
+
+    /**
+     * Ranked full-text search over title, author and ISBN.
+     * Matches either the word-based tsvector query or a substring of the indexed text (trigram index),
+     * ordering exact title matches first, then by text rank, then by newest.
+     *
+     * @param query   The raw search terms.
+     * @param pattern The lowercase LIKE pattern for substring matches (e.g. {@code %hobbit%}).
+     */
+    @Query(value = "SELECT * FROM books WHERE " + SEARCH_PREDICATE + " "
+            + "ORDER BY (lower(title) = lower(:query)) DESC, "
+            + "ts_rank_cd(" + SEARCH_VECTOR + ", websearch_to_tsquery('simple', :query)) DESC, "
+            + "created_at DESC",
+            nativeQuery = true)
+    Slice<Book> searchFullText(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Counts the books matched by {@link #searchFullText}.
      */
-    Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
-}
\ No newline at end of file
+    @Query(value = "SELECT count(*) FROM books WHERE " + SEARCH_PREDICATE, nativeQuery = true)
+    long countFullText(@Param("query") String query, @Param("pattern") String pattern);
+}
@@ -0,0 +1,122 @@
+package com.vibebooks.api.repository;
+
+import com.vibebooks.api.model.BookStats;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BookStatsRepository extends JpaRepository<BookStats, UUID> {
+
+    String REBUILD_SELECT = """
+            INSERT INTO book_stats (book_id, likes_count, comments_count, inspiring_count, fun_count, emotional_count, tense_count,
+                                    informative_count, boring_count, confusing_count, motivational_count)
+            SELECT b.id,
+                   COUNT(ubs.book_id) FILTER (WHERE ubs.liked),
+                   (SELECT COUNT(*) FROM comments c WHERE c.book_id = b.id),
+                   COUNT(ubs.book_id) FILTER (WHERE CAST(ubs.sentiment AS TEXT) = 'INSPIRING'),
+                   COUNT(ubs.book_id) FILTER (WHERE CAST(ubs.sentiment AS TEXT) = 'FUN'),
+                   COUNT(ubs.book_id) FILTER (WHERE CAST(ubs.sentiment AS TEXT) = 'EMOTIONAL'),
+                   COUNT(ubs.book_id) FILTER (WHERE CAST(ubs.sentiment AS TEXT) = 'TENSE'),
+                   COUNT(ubs.book_id) FILTER (WHERE CAST(ubs.sentiment AS TEXT) = 'INFORMATIVE'),
+                   COUNT(ubs.book_id) FILTER (WHERE CAST(ubs.sentiment AS TEXT) = 'BORING'),
+                   COUNT(ubs.book_id) FILTER (WHERE CAST(ubs.sentiment AS TEXT) = 'CONFUSING'),
+                   COUNT(ubs.book_id) FILTER (WHERE CAST(ubs.sentiment AS TEXT) = 'MOTIVATIONAL')
+            FROM books b
+            LEFT JOIN user_book_status ubs ON ubs.book_id = b.id
+            """;
+
+    String REBUILD_UPSERT = """
+            GROUP BY b.id
+            ON CONFLICT (book_id) DO UPDATE SET
+                likes_count = EXCLUDED.likes_count,
+                comments_count = EXCLUDED.comments_count,
+                inspiring_count = EXCLUDED.inspiring_count,
+                fun_count = EXCLUDED.fun_count,
+                emotional_count = EXCLUDED.emotional_count,
+                tense_count = EXCLUDED.tense_count,
+                informative_count = EXCLUDED.informative_count,
+                boring_count = EXCLUDED.boring_count,
+                confusing_count = EXCLUDED.confusing_count,
+                motivational_count = EXCLUDED.motivational_count
+            """;
+
+    /**
+     * Retrieves the counters of multiple books in a single primary-key lookup.
+     */
+    List<BookStats> findAllByBookIdIn(List<UUID> bookIds);
+
+    /**
+     * Atomically adds the given delta to the comment counter of a book.
+     *
+     * @return The number of updated rows (0 if the book has no stats row yet).
+     */
+    @Modifying
+    @Query("UPDATE BookStats s SET s.commentsCount = s.commentsCount + :delta WHERE s.bookId = :bookId")
+    int incrementComments(@Param("bookId") UUID bookId, @Param("delta") long delta);
+
+    /**
+     * Atomically moves one user from the {@code removed} sentiment to the {@code added} sentiment.
+     * Either side may be null when the user had no sentiment before or cleared it.
+     *
+     * @return The number of updated rows (0 if the book has no stats row yet).
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE book_stats SET
+                inspiring_count = inspiring_count + CASE WHEN CAST(:added AS TEXT) = 'INSPIRING' THEN 1 ELSE 0 END - CASE WHEN CAST(:removed AS TEXT) = 'INSPIRING' THEN 1 ELSE 0 END,
+                fun_count = fun_count + CASE WHEN CAST(:added AS TEXT) = 'FUN' THEN 1 ELSE 0 END - CASE WHEN CAST(:removed AS TEXT) = 'FUN' THEN 1 ELSE 0 END,
+                emotional_count = emotional_count + CASE WHEN CAST(:added AS TEXT) = 'EMOTIONAL' THEN 1 ELSE 0 END - CASE WHEN CAST(:removed AS TEXT) = 'EMOTIONAL' THEN 1 ELSE 0 END,
+                tense_count = tense_count + CASE WHEN CAST(:added AS TEXT) = 'TENSE' THEN 1 ELSE 0 END - CASE WHEN CAST(:removed AS TEXT) = 'TENSE' THEN 1 ELSE 0 END,
+                informative_count = informative_count + CASE WHEN CAST(:added AS TEXT) = 'INFORMATIVE' THEN 1 ELSE 0 END - CASE WHEN CAST(:removed AS TEXT) = 'INFORMATIVE' THEN 1 ELSE 0 END,
+                boring_count = boring_count + CASE WHEN CAST(:added AS TEXT) = 'BORING' THEN 1 ELSE 0 END - CASE WHEN CAST(:removed AS TEXT) = 'BORING' THEN 1 ELSE 0 END,
+                confusing_count = confusing_count + CASE WHEN CAST(:added AS TEXT) = 'CONFUSING' THEN 1 ELSE 0 END - CASE WHEN CAST(:removed AS TEXT) = 'CONFUSING' THEN 1 ELSE 0 END,
+                motivational_count = motivational_count + CASE WHEN CAST(:added AS TEXT) = 'MOTIVATIONAL' THEN 1 ELSE 0 END - CASE WHEN CAST(:removed AS TEXT) = 'MOTIVATIONAL' THEN 1 ELSE 0 END
+            WHERE book_id = :bookId
+            """, nativeQuery = true)
+    int moveSentiment(@Param("bookId") UUID bookId, @Param("removed") String removed, @Param("added") String added);
+
+    /**
+     * Recomputes the counters of one book from {@code user_book_status} and {@code comments}, inserting the row if missing.
+     */
+    @Modifying
+    @Query(value = REBUILD_SELECT + "WHERE b.id = :bookId\n" + REBUILD_UPSERT, nativeQuery = true)
+    int rebuildForBook(@Param("bookId") UUID bookId);
+
+    /**
+     * Recomputes the counters of several books in one statement, inserting missing rows.
+     */
+    @Modifying
+    @Query(value = REBUILD_SELECT + "WHERE b.id IN (:bookIds)\n" + REBUILD_UPSERT, nativeQuery = true)
+    int rebuildForBooks(@Param("bookIds") Collection<UUID> bookIds);
+
+    /**
+     * Retrieves book IDs in ascending order after the given one, to rebuild the counters chunk by chunk.
+     *
+     * @param after the last ID of the previous chunk.
+     * @param limit size of the chunk.
+     * @return The IDs of the chunk.
+     */
+    @Query("SELECT b.id FROM Book b WHERE b.id > :after ORDER BY b.id")
+    List<UUID> findBookIdsAfter(@Param("after") UUID after, Limit limit);
+
+    /**
+     * Counts and inserts the rows of every book that has none, leaving existing rows untouched.
+     *
+     * @return The number of inserted rows.
+     */
+    @Modifying
+    @Query(value = REBUILD_SELECT + """
+            WHERE NOT EXISTS (SELECT 1 FROM book_stats s WHERE s.book_id = b.id)
+            GROUP BY b.id
+            ON CONFLICT (book_id) DO NOTHING
+            """, nativeQuery = true)
+    int rebuildMissing();
+}
@@ -4,6 +4,7 @@ import com.vibebooks.api.model.CommentLike;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,25 +23,46 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, UUID>
      */
     Optional<CommentLike> findByUserIdAndCommentId(UUID userId, UUID commentId);
 
+    List<CommentLike> findAllByUserIdAndCommentIdIn(UUID userId, List<UUID> commentIds);
+
+    interface LikeToggle {
+        boolean getToggled();
+        boolean getLiked();
+        Long getLikesCount();
+    }
+
     /**
-     * Counts the total number of "likes" (entries) for a specific comment.
+     * Toggles the like of a user on a comment and applies it to the comment's like counter, in one statement.
+     * The like is deleted if the user has one, otherwise inserted; the unique (comment_id, user_id) constraint makes
+     * a concurrent duplicate insert do nothing, and the counter only moves by the rows actually deleted or inserted.
      *
-     * @param commentId The "ID" of the comment.
-     * @return The total number of likes (long).
+     * @return Whether a like was deleted or inserted, the new like state and the new counter.
+     *         Nothing is toggled when another transaction inserted the same like after this statement started;
+     *         running it again removes that like.
      */
-    long countByCommentId(UUID commentId);
-    interface CommentLikeCount {
-        UUID getCommentId();
-        long getCount();
-    }
-
-    @Query("""
-            SELECT cl.comment.id as commentId, COUNT(cl.id) as count
-            FROM CommentLike cl
-            WHERE cl.comment.id IN :commentIds
-            GROUP BY cl.comment.id
-            """)
-    List<CommentLikeCount> countLikesByCommentIdIn(@Param("commentIds") List<UUID> commentIds);
-
-    List<CommentLike> findAllByUserIdAndCommentIdIn(UUID userId, List<UUID> commentIds);
-}
\ No newline at end of file
+    @Transactional
+    @Query(value = """
+            WITH removed AS (
+                DELETE FROM comments_likes
+                WHERE comment_id = :commentId AND user_id = :userId
+                RETURNING id
+            ),
+            inserted AS (
+                INSERT INTO comments_likes (id, comment_id, user_id, created_at)
+                SELECT gen_random_uuid(), :commentId, :userId, now()
+                WHERE NOT EXISTS (SELECT 1 FROM removed)
+                ON CONFLICT (comment_id, user_id) DO NOTHING
+                RETURNING id
+            ),
+            counted AS (
+                UPDATE comments
+                SET likes_count = likes_count + (SELECT COUNT(*) FROM inserted) - (SELECT COUNT(*) FROM removed)
+                WHERE id = :commentId AND (EXISTS (SELECT 1 FROM inserted) OR EXISTS (SELECT 1 FROM removed))
+                RETURNING likes_count
+            )
+            SELECT EXISTS (SELECT 1 FROM inserted) OR EXISTS (SELECT 1 FROM removed) AS "toggled",
+                   EXISTS (SELECT 1 FROM inserted) AS "liked",
+                   (SELECT likes_count FROM counted) AS "likesCount"
+            """, nativeQuery = true)
+    LikeToggle toggleLike(@Param("userId") UUID userId, @Param("commentId") UUID commentId);
+}
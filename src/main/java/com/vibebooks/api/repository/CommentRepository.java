@@ -1,22 +1,35 @@
 package com.vibebooks.api.repository;
 
 import com.vibebooks.api.model.Comment;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
     /**
      * Finds a page of comments for a specific book, fetching the associated user in a single query.
+     * Returns a slice, so no count query is run.
      * * @param bookId the UUID of the book.
      * @param pageable pagination information.
-     * @return A Page of comments for the specified book.
+     * @return A Slice of comments for the specified book.
      */
     @EntityGraph(attributePaths = {"user"})
-    Page<Comment> findAllByBookId(UUID bookId, Pageable pageable);
+    Slice<Comment> findAllByBookId(UUID bookId, Pageable pageable);
+
+    /**
+     * Counts the comments of a specific book.
+     */
+    long countByBookId(UUID bookId);
 
     /**
      * Retrieves comments for multiple books in a single batch, fetching the associated user.
@@ -26,4 +39,89 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
      */
     @EntityGraph(attributePaths = {"user"})
     List<Comment> findAllByBookIdIn(List<UUID> bookIds);
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the latest comments of each book, at most {@code perBook} per book, with their users.
+     * A window function ranks the comments of every book by {@code (createdAt, id)} descending,
+     * so the result size is bounded by {@code bookIds.size() * perBook} however many comments a book has.
+     *
+     * @param bookIds UUIDs of the books
+     * @param perBook maximum number of comments returned per book
+     * @return The selected comments, newest first within each book
+     */
+    @Query("""
+            SELECT c FROM Comment c JOIN FETCH c.user
+            WHERE c.id IN (
+                SELECT ranked.id FROM (
+                    SELECT r.id AS id,
+                           ROW_NUMBER() OVER (PARTITION BY r.book.id ORDER BY r.createdAt DESC, r.id DESC) AS position
+                    FROM Comment r
+                    WHERE r.book.id IN :bookIds
+                ) ranked
+                WHERE ranked.position <= :perBook
+            )
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<Comment> findLatestByBookIdIn(@Param("bookIds") Collection<UUID> bookIds, @Param("perBook") int perBook);
+
+    /**
+     * Retrieves the newest comments of a book, with their users.
+     * First slice of the keyset pagination used by {@link #findByBookIdBefore}.
+     *
+     * @param bookId the UUID of the book.
+     * @param limit maximum number of comments.
+     * @return Comments ordered by {@code (createdAt, id)} descending.
+     */
+    @EntityGraph(attributePaths = {"user"})
+    List<Comment> findByBookIdOrderByCreatedAtDescIdDesc(UUID bookId, Limit limit);
+
+    /**
+     * Retrieves the comments of a book that come after the given keyset position, with their users.
+     * Uses the {@code (book_id, created_at, id)} index, so the cost does not grow with how deep the client scrolled.
+     *
+     * @param bookId the UUID of the book.
+     * @param createdAt creation time of the last comment already received.
+     * @param id UUID of the last comment already received.
+     * @param limit maximum number of comments.
+     * @return Comments ordered by {@code (createdAt, id)} descending.
+     */
+    @EntityGraph(attributePaths = {"user"})
+    @Query("""
+            SELECT c FROM Comment c
+            WHERE c.book.id = :bookId
+              AND c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id)
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<Comment> findByBookIdBefore(@Param("bookId") UUID bookId, @Param("createdAt") OffsetDateTime createdAt,
+                                     @Param("id") UUID id, Limit limit);
+
+    /**
+     * Retrieves comment IDs in ascending order after the given one, to walk the table in chunks.
+     *
+     * @param after the last ID of the previous chunk.
+     * @param limit size of the chunk.
+     * @return The IDs of the chunk.
+     */
+    @Query("SELECT c.id FROM Comment c WHERE c.id > :after ORDER BY c.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Limit limit);
+
+    /**
+     * Recounts the likes of the given comments and stores the counts that drifted.
+     *
+     * @param commentIds the UUIDs of the comments.
+     * @return The number of comments whose counter was repaired.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE comments c SET likes_count = counted.likes
+            FROM (
+                SELECT r.id, COUNT(cl.id) AS likes
+                FROM comments r
+                LEFT JOIN comments_likes cl ON cl.comment_id = r.id
+                WHERE r.id IN (:commentIds)
+                GROUP BY r.id
+            ) counted
+            WHERE c.id = counted.id AND c.likes_count <> counted.likes
+            """, nativeQuery = true)
+    int reconcileLikes(@Param("commentIds") Collection<UUID> commentIds);
+}
@@ -0,0 +1,29 @@
+package com.vibebooks.api.repository;
+
+import com.vibebooks.api.model.IsbnMetadata;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IsbnMetadataRepository extends JpaRepository<IsbnMetadata, String> {
+
+    /**
+     * Deletes cache entries whose TTL has passed, using a different cutoff for negative entries.
+     *
+     * @param foundCutoff    Entries with a volume fetched before this instant are expired
+     * @param notFoundCutoff Negative entries fetched before this instant are expired
+     * @return Number of deleted entries
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM IsbnMetadata m
+            WHERE (m.volumeJson IS NOT NULL AND m.fetchedAt < :foundCutoff)
+               OR (m.volumeJson IS NULL AND m.fetchedAt < :notFoundCutoff)
+            """)
+    int deleteExpired(@Param("foundCutoff") Instant foundCutoff, @Param("notFoundCutoff") Instant notFoundCutoff);
+}
@@ -15,6 +15,13 @@ import java.util.UUID;
 @Repository
 public interface UserBookStatusRepository extends JpaRepository<UserBookStatus, UserBookStatusId> {
 
+    String TOGGLE_LIKE = """
+            INSERT INTO user_book_status AS s (user_id, book_id, status, saved, liked, updated_at)
+            VALUES (:userId, :bookId, 'WANT_TO_READ', false, true, now())
+            ON CONFLICT (book_id, user_id) DO UPDATE SET liked = NOT s.liked, updated_at = now()
+            RETURNING s.liked
+            """;
+
     long countByBookIdAndLikedIsTrue(UUID bookId);
 
     @Query("""
@@ -29,6 +36,87 @@ public interface UserBookStatusRepository extends JpaRepository<UserBookStatus,
     @Transactional
     void deleteByBookId(UUID bookId);
 
+    interface LikeToggle {
+        boolean getLiked();
+        Long getLikesCount();
+    }
+
+    /**
+     * Toggles the like of a user on a book and applies it to the book's like counter, in one statement.
+     * The status row is created as liked when the user has none; otherwise {@code liked} is flipped in place,
+     * so concurrent toggles are serialized by the row lock and none of them is lost.
+     *
+     * @return The new like state and like counter; the counter is null if the book has no stats row yet.
+     */
+    @Transactional
+    @Query(value = """
+            WITH toggled AS (
+            """ + TOGGLE_LIKE + """
+            ),
+            counted AS (
+                UPDATE book_stats
+                SET likes_count = likes_count + CASE WHEN (SELECT liked FROM toggled) THEN 1 ELSE -1 END
+                WHERE book_id = :bookId
+                RETURNING likes_count
+            )
+            SELECT t.liked AS "liked", c.likes_count AS "likesCount"
+            FROM toggled t
+            LEFT JOIN counted c ON true
+            """, nativeQuery = true)
+    LikeToggle toggleLike(@Param("userId") UUID userId, @Param("bookId") UUID bookId);
+
+    /**
+     * Toggles the like of a user on a book without touching the book's counter, for write-behind counting.
+     *
+     * @return The new like state.
+     */
+    @Transactional
+    @Query(value = TOGGLE_LIKE, nativeQuery = true)
+    boolean toggleLikeState(@Param("userId") UUID userId, @Param("bookId") UUID bookId);
+
+    interface StatusWrite {
+        boolean getWritten();
+        String getPreviousSentiment();
+    }
+
+    /**
+     * Sets the reading status and sentiment of a user on a book in one statement, creating the row if needed.
+     * The existing row is locked before it is read, so the returned previous sentiment is the one actually replaced.
+     *
+     * @return Whether the row was written and the sentiment it had before (null for a new row).
+     *         Nothing is written when another transaction created the row after this statement started;
+     *         running it again updates that row.
+     */
+    @Transactional
+    @Query(value = """
+            WITH updated AS (
+                UPDATE user_book_status s
+                SET status = CAST(CAST(:status AS TEXT) AS readingstatus),
+                    sentiment = CAST(CAST(:sentiment AS TEXT) AS booksentiment),
+                    updated_at = now()
+                FROM (
+                    SELECT book_id, user_id, sentiment
+                    FROM user_book_status
+                    WHERE book_id = :bookId AND user_id = :userId
+                    FOR UPDATE
+                ) previous
+                WHERE s.book_id = previous.book_id AND s.user_id = previous.user_id
+                RETURNING previous.sentiment
+            ),
+            inserted AS (
+                INSERT INTO user_book_status (user_id, book_id, status, saved, liked, sentiment, updated_at)
+                SELECT CAST(:userId AS uuid), CAST(:bookId AS uuid), CAST(CAST(:status AS TEXT) AS readingstatus),
+                       false, false, CAST(CAST(:sentiment AS TEXT) AS booksentiment), now()
+                WHERE NOT EXISTS (SELECT 1 FROM updated)
+                ON CONFLICT (book_id, user_id) DO NOTHING
+                RETURNING book_id
+            )
+            SELECT EXISTS (SELECT 1 FROM updated) OR EXISTS (SELECT 1 FROM inserted) AS "written",
+                   (SELECT CAST(sentiment AS TEXT) FROM updated) AS "previousSentiment"
+            """, nativeQuery = true)
+    StatusWrite writeStatus(@Param("userId") UUID userId, @Param("bookId") UUID bookId,
+                            @Param("status") String status, @Param("sentiment") String sentiment);
+
 
     List<UserBookStatus> findAllByUserIdAndBookIdIn(UUID userId, List<UUID> bookIds);
 
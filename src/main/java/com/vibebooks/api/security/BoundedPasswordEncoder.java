@@ -0,0 +1,171 @@
+package com.vibebooks.api.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PasswordEncoder} that runs the (deliberately slow) hashing and matching of its delegate on a dedicated,
+ * bounded pool instead of the request threads.
+ *
+ * <p>At most {@code threads} hashes run at once and at most {@code queueCapacity} wait for a thread. When the queue
+ * is full, or a queued hash is not done within {@code timeout}, the call fails right away with
+ * {@code 503 Service Unavailable}, so a login storm costs a bounded amount of CPU and never holds every request
+ * thread while reads are waiting.</p>
+ *
+ * <p>As a {@link MeterBinder}, it publishes a {@code password.hashing} timer, the rejected and timed out calls,
+ * and the active and queued hashes.</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder, AutoCloseable {
+
+    private static final String BUSY = "Authentication is temporarily overloaded, please try again later.";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private volatile Timer hashTimer;
+
+    /**
+     * @param delegate      Encoder doing the actual hashing, e.g. BCrypt
+     * @param threads       Hashing threads; zero or less uses one per available processor
+     * @param queueCapacity Hashes allowed to wait for a thread before callers are rejected
+     * @param timeout       Longest time a caller waits for its hash, queueing included
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.delegate = delegate;
+        this.timeoutNanos = timeout.toNanos();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Returns the pool counters accumulated since startup.
+     *
+     * @return Snapshot of the hashing statistics
+     */
+    public Stats getStats() {
+        return new Stats(completed.sum(), rejected.sum(), timedOut.sum(),
+                executor.getActiveCount(), executor.getQueue().size(), hashNanos.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hashTimer = Timer.builder("password.hashing")
+                .description("Time spent hashing or matching a password on the hashing pool")
+                .publishPercentileHistogram()
+                .register(registry);
+        FunctionCounter.builder("password.hashing.rejected", rejected, LongAdder::sum)
+                .description("Calls refused because the hashing queue was full")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.timeouts", timedOut, LongAdder::sum)
+                .description("Calls that gave up waiting for their hash")
+                .register(registry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes running right now")
+                .register(registry);
+        Gauge.builder("password.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Hashes waiting for a thread right now")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                try {
+                    return hashing.call();
+                } finally {
+                    long elapsed = System.nanoTime() - started;
+                    hashNanos.add(elapsed);
+                    completed.increment();
+                    Timer timer = hashTimer;
+                    if (timer != null) {
+                        timer.record(elapsed, TimeUnit.NANOSECONDS);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY);
+        }
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Hashing statistics since startup.
+     *
+     * @param completed  Hashes and matches that ran
+     * @param rejected   Calls refused because the queue was full
+     * @param timedOut   Calls that gave up waiting for their hash
+     * @param active     Hashes running right now
+     * @param queueDepth Hashes waiting for a thread right now
+     * @param hashNanos  Total time spent hashing
+     */
+    public record Stats(long completed, long rejected, long timedOut, int active, int queueDepth, long hashNanos) {
+
+        public double averageHashMillis() {
+            return completed == 0 ? 0.0 : hashNanos / 1e6 / completed;
+        }
+    }
+}
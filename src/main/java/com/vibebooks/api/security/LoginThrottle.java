@@ -0,0 +1,171 @@
+package com.vibebooks.api.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-window login throttling per account and per client IP.
+ *
+ * <p>Every login attempt counts against the client IP and every failed attempt counts against the account.
+ * Once either reaches its limit, further attempts are refused with {@code 429 Too Many Requests} until the
+ * window ends, before any password is hashed.</p>
+ *
+ * <p>IP counters live in a fixed array of striped {@code AtomicLong}s indexed by address hash, each packing the
+ * window number and the count, and are updated with compare-and-set, so they take no locks and keep no per-address
+ * state. Addresses that share a stripe share a counter, which can only make the IP limit stricter.</p>
+ *
+ * <p>Account failures are exact: they are kept per normalized login in a map bounded to
+ * {@code api.security.login-throttle.max-accounts} entries, least recently failed first out, so one account's
+ * failures never lock out another one. A successful login clears the account's failures.</p>
+ */
+@Component
+public class LoginThrottle {
+
+    private static final String TOO_MANY_ATTEMPTS = "Too many login attempts, please try again later.";
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long windowMillis;
+    private final int maxFailuresPerAccount;
+    private final int maxAttemptsPerIp;
+    private final Clock clock;
+
+    private final Map<String, Failures> accountFailures;
+    private final AtomicLongArray ipAttempts;
+    private final int mask;
+
+    private final LongAdder throttledAccounts = new LongAdder();
+    private final LongAdder throttledIps = new LongAdder();
+
+    @Autowired
+    public LoginThrottle(
+            @Value("${api.security.login-throttle.window:5m}") Duration window,
+            @Value("${api.security.login-throttle.max-failures-per-account:5}") int maxFailuresPerAccount,
+            @Value("${api.security.login-throttle.max-attempts-per-ip:100}") int maxAttemptsPerIp,
+            @Value("${api.security.login-throttle.stripes:4096}") int stripes,
+            @Value("${api.security.login-throttle.max-accounts:100000}") int maxAccounts
+    ) {
+        this(window, maxFailuresPerAccount, maxAttemptsPerIp, stripes, maxAccounts, Clock.systemUTC());
+    }
+
+    LoginThrottle(Duration window, int maxFailuresPerAccount, int maxAttemptsPerIp, int stripes, int maxAccounts,
+                  Clock clock) {
+        this.windowMillis = window.toMillis();
+        this.maxFailuresPerAccount = maxFailuresPerAccount;
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.clock = clock;
+        int size = Integer.highestOneBit(Math.max(2, stripes) - 1) << 1;
+        this.accountFailures = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Failures> eldest) {
+                return size() > maxAccounts;
+            }
+        };
+        this.ipAttempts = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Counts a login attempt from the given IP and checks both limits.
+     *
+     * @param login    Username or email the client is logging in as
+     * @param clientIp Remote address of the client
+     * @throws ResponseStatusException with 429 if the IP or the account is over its limit
+     */
+    public void checkAttempt(String login, String clientIp) {
+        long window = clock.millis() / windowMillis;
+
+        if (maxAttemptsPerIp > 0 && increment(ipAttempts, slot(clientIp), window) > maxAttemptsPerIp) {
+            throttledIps.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_ATTEMPTS);
+        }
+        if (maxFailuresPerAccount > 0 && failures(normalize(login), window) >= maxFailuresPerAccount) {
+            throttledAccounts.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_ATTEMPTS);
+        }
+    }
+
+    /**
+     * Counts a failed login against the account.
+     *
+     * @param login Username or email the client tried to log in as
+     */
+    public void recordFailure(String login) {
+        long window = clock.millis() / windowMillis;
+        synchronized (accountFailures) {
+            accountFailures.merge(normalize(login), new Failures(window, 1),
+                    (current, failure) -> current.window() == window ? new Failures(window, current.count() + 1) : failure);
+        }
+    }
+
+    /**
+     * Clears the failures of an account after it logged in.
+     *
+     * @param login Username or email the client logged in as
+     */
+    public void recordSuccess(String login) {
+        synchronized (accountFailures) {
+            accountFailures.remove(normalize(login));
+        }
+    }
+
+    /**
+     * Returns the number of refused attempts since startup.
+     *
+     * @return Snapshot of the throttle statistics
+     */
+    public Stats getStats() {
+        return new Stats(throttledAccounts.sum(), throttledIps.sum());
+    }
+
+    private long increment(AtomicLongArray counters, int slot, long window) {
+        while (true) {
+            long current = counters.get(slot);
+            long count = current >>> COUNT_BITS == window ? current & COUNT_MASK : 0;
+            long next = window << COUNT_BITS | Math.min(count + 1, COUNT_MASK);
+            if (counters.compareAndSet(slot, current, next)) {
+                return count + 1;
+            }
+        }
+    }
+
+    private int failures(String login, long window) {
+        Failures failures;
+        synchronized (accountFailures) {
+            failures = accountFailures.get(login);
+        }
+        return failures != null && failures.window() == window ? failures.count() : 0;
+    }
+
+    private int slot(String key) {
+        int hash = key == null ? 0 : key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static String normalize(String login) {
+        return login == null ? "" : login.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Throttle statistics since startup.
+     *
+     * @param throttledAccounts Attempts refused because the account had too many failures
+     * @param throttledIps      Attempts refused because the client IP made too many attempts
+     */
+    public record Stats(long throttledAccounts, long throttledIps) {
+    }
+
+    private record Failures(long window, int count) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.vibebooks.api.security;
+
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.util.TransactionUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, TTL-based cache of the authenticated principals, keyed by user ID.
+ *
+ * <p>{@link SecurityFilter} resolves the user of every authenticated request through this cache, so only
+ * the first request of a user within {@code api.security.principal-cache.ttl} reads the {@code users} table.
+ * A TTL of zero disables the cache.</p>
+ *
+ * <p>Profile, password and account changes must call {@link #evict(UUID)}. The entry is dropped right away
+ * and again when the transaction commits, and a lookup that started before an eviction never stores what it
+ * read, so a stale user cannot be cached again by a request racing with the change.</p>
+ *
+ * <p>Cached users are detached entities shared between requests and must not be modified.</p>
+ *
+ * <p>As a {@link MeterBinder}, it publishes its hits, misses and evictions, its size, and a
+ * {@code principal.cache.load} timer around the {@code users} reads of the misses.</p>
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private final Map<UUID, CachedUser> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    private volatile Timer loadTimer;
+
+    @Autowired
+    public PrincipalCache(
+            UserRepository userRepository,
+            @Value("${api.security.principal-cache.ttl:5m}") Duration ttl,
+            @Value("${api.security.principal-cache.max-entries:10000}") int maxEntries
+    ) {
+        this(userRepository, ttl, maxEntries, Clock.systemUTC());
+    }
+
+    PrincipalCache(UserRepository userRepository, Duration ttl, int maxEntries, Clock clock) {
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CachedUser> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the user with the given ID, reading the database only when no fresh entry is cached.
+     * Unknown IDs are not cached.
+     *
+     * @param userId ID taken from the token subject
+     * @return The user, or empty if it does not exist
+     */
+    public Optional<User> get(UUID userId) {
+        Instant now = clock.instant();
+        CachedUser cached;
+        synchronized (cache) {
+            cached = cache.get(userId);
+        }
+        if (cached != null && now.isBefore(cached.expiresAt())) {
+            hits.increment();
+            return Optional.of(cached.user());
+        }
+
+        misses.increment();
+        long generationBefore = generation.get();
+        long started = System.nanoTime();
+        Optional<User> user = userRepository.findById(userId);
+        long elapsed = System.nanoTime() - started;
+        loadNanos.add(elapsed);
+        Timer timer = loadTimer;
+        if (timer != null) {
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+
+        if (user.isPresent() && !ttl.isZero()) {
+            synchronized (cache) {
+                if (generation.get() == generationBefore) {
+                    cache.put(userId, new CachedUser(user.get(), now.plus(ttl)));
+                }
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Drops the cached user now and once the current transaction commits.
+     *
+     * @param userId ID of the changed or deleted user
+     */
+    public void evict(UUID userId) {
+        evictions.increment();
+        remove(userId);
+        TransactionUtils.afterCommit(() -> remove(userId));
+    }
+
+    /**
+     * Returns the hit and miss counters accumulated since startup.
+     *
+     * @return Snapshot of the cache statistics
+     */
+    public Stats getStats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, loadNanos.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        loadTimer = Timer.builder("principal.cache.load")
+                .description("Time spent reading the user of a principal cache miss")
+                .register(registry);
+        FunctionCounter.builder("principal.cache.hits", hits, LongAdder::sum)
+                .description("Principal lookups answered from memory")
+                .register(registry);
+        FunctionCounter.builder("principal.cache.misses", misses, LongAdder::sum)
+                .description("Principal lookups that read the users table")
+                .register(registry);
+        FunctionCounter.builder("principal.cache.evictions", evictions, LongAdder::sum)
+                .description("Entries dropped after a user change")
+                .register(registry);
+        Gauge.builder("principal.cache.size", this, cache -> cache.getStats().size())
+                .description("Principals currently cached")
+                .register(registry);
+    }
+
+    private void remove(UUID userId) {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            cache.remove(userId);
+        }
+    }
+
+    private record CachedUser(User user, Instant expiresAt) {
+    }
+
+    /**
+     * Cache statistics since startup.
+     *
+     * @param hits          Lookups answered from memory
+     * @param misses        Lookups that read the {@code users} table
+     * @param evictions     Explicit evictions after user changes
+     * @param size          Entries currently cached
+     * @param loadNanos     Total time spent reading users on misses
+     */
+    public record Stats(long hits, long misses, long evictions, int size, long loadNanos) {
+
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        public double averageLoadMillis() {
+            return misses == 0 ? 0.0 : loadNanos / 1e6 / misses;
+        }
+    }
+}
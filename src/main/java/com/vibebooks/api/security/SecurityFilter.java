@@ -1,6 +1,6 @@
 package com.vibebooks.api.security;
 
-import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.exception.InvalidTokenException;
 import com.vibebooks.api.service.TokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -28,7 +28,7 @@ public class SecurityFilter extends OncePerRequestFilter {
     private static final String TOKEN_PREFIX = "Bearer ";
 
     private final TokenService tokenService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
@@ -45,8 +45,8 @@ public class SecurityFilter extends OncePerRequestFilter {
 
                 UUID userId = UUID.fromString(subject);
 
-                UserDetails user = userRepository.findById(userId)
-                        .orElseThrow(() -> new RuntimeException("Token user not found in the database"));
+                UserDetails user = principalCache.get(userId)
+                        .orElseThrow(() -> new InvalidTokenException("Token user not found in the database"));
 
                 logger.info("User '{}' found. Authenticating...", user.getUsername());
 
@@ -55,7 +55,7 @@ public class SecurityFilter extends OncePerRequestFilter {
 
                 logger.info("User '{}' successfully authenticated and set in the Security Context.", user.getUsername());
 
-            } catch (Exception e) {
+            } catch (InvalidTokenException | IllegalArgumentException e) {
                 // It is good practice to clear the security context in case of a token validation error.
                 SecurityContextHolder.clearContext();
                 logger.error("Failed to validate JWT token: {} - {}", e.getClass().getSimpleName(), e.getMessage());
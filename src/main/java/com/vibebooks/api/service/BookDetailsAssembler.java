@@ -0,0 +1,70 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.dto.BookDetailsDTO;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.model.BookStats;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.model.UserBookStatus;
+import com.vibebooks.api.repository.UserBookStatusRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Assembles {@link BookDetailsDTO} objects for a whole page of books at once.
+ *
+ * <p>Instead of running the counter and user status lookups once per book,
+ * every lookup is issued a single time for all book IDs on the page (SQL IN clauses)
+ * and the results are grouped in memory. The number of queries is therefore fixed,
+ * no matter how many books the page contains.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class BookDetailsAssembler {
+
+    private final UserBookStatusRepository userBookStatusRepository;
+    private final BookStatsService bookStatsService;
+
+    /**
+     * Converts a list of books into {@link BookDetailsDTO} objects using a fixed number of queries:
+     * one for the stored book counters and, when a user is logged in, one for their statuses.
+     *
+     * @param books         Book entities to enrich
+     * @param loggedInUser  The authenticated user, or null if anonymous
+     * @return BookDetailsDTO list in the same order as the given books
+     */
+    public List<BookDetailsDTO> assemble(List<Book> books, User loggedInUser) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> bookIds = books.stream().map(Book::getId).toList();
+
+        Map<UUID, BookStats> bookStats = bookStatsService.getStats(bookIds);
+
+        Map<UUID, UserBookStatus> userStatuses = new HashMap<>();
+        if (loggedInUser != null) {
+            userBookStatusRepository.findAllByUserIdAndBookIdIn(loggedInUser.getId(), bookIds)
+                    .forEach(status -> userStatuses.put(status.getBook().getId(), status));
+        }
+
+        return books.stream()
+                .map(book -> {
+                    UserBookStatus status = userStatuses.get(book.getId());
+                    BookStats stats = bookStats.get(book.getId());
+                    return new BookDetailsDTO(
+                            book,
+                            stats.getLikesCount(),
+                            status != null && status.isLiked(),
+                            status != null ? status.getStatus() : null,
+                            status != null ? status.getSentiment() : null,
+                            stats.getSentimentCounts()
+                    );
+                })
+                .toList();
+    }
+}
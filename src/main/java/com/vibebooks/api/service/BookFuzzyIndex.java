@@ -0,0 +1,269 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.repository.BookRepository;
+import com.vibebooks.api.util.TextNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.vibebooks.api.util.TransactionUtils.afterCommit;
+
+/**
+ * In-memory typo-tolerant index over the words of book titles and authors.
+ *
+ * <p>Business Rule: every distinct normalized word is stored once in a BK-tree (a metric tree keyed by
+ * Levenshtein distance) and mapped to the books that contain it. A query word matches vocabulary words
+ * within 0 edits (up to 2 letters), 1 edit (3 to 5 letters) or 2 edits (longer words). Books are ranked by
+ * how many query words they match, then by the total number of edits. The number of candidate books per
+ * query word is capped, so latency stays bounded on large catalogs.</p>
+ *
+ * <p>Memory per book: one posting per distinct word of its title and author, and the array of those words
+ * to remove them later. The vocabulary grows with the distinct words of the catalog, not with the books.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class BookFuzzyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookFuzzyIndex.class);
+
+    static final int MAX_CANDIDATES_PER_WORD = 5_000;
+
+    private final BookRepository bookRepository;
+
+    private volatile BkTree vocabulary = new BkTree();
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+    private final Map<UUID, String[]> wordsByBook = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the words of every book title and author into the index when the application starts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        vocabulary = new BkTree();
+        postings.clear();
+        wordsByBook.clear();
+        try (Stream<BookRepository.BookTitleAuthor> books = bookRepository.streamAllTitlesAndAuthors()) {
+            books.forEach(b -> index(b.getId(), b.getTitle(), b.getAuthor()));
+        }
+        log.info("Fuzzy book index built with {} books and {} distinct words", wordsByBook.size(), postings.size());
+    }
+
+    /**
+     * Finds the books whose title or author approximately match the query.
+     *
+     * @param query Text typed by the user, possibly misspelled
+     * @return Book IDs ordered from best to worst match
+     */
+    public List<UUID> search(String query) {
+        Map<UUID, Score> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(List.of(TextNormalizer.words(query)))) {
+            Map<UUID, Integer> bestDistance = new HashMap<>();
+            List<WordMatch> matches = vocabulary.search(term, maxEdits(term.length()));
+            matches.sort(Comparator.comparingInt(WordMatch::distance));
+
+            for (WordMatch match : matches) {
+                for (UUID bookId : postings.getOrDefault(match.word(), Set.of())) {
+                    if (bestDistance.size() >= MAX_CANDIDATES_PER_WORD && !bestDistance.containsKey(bookId)) {
+                        continue;
+                    }
+                    bestDistance.merge(bookId, match.distance(), Math::min);
+                }
+            }
+            bestDistance.forEach((bookId, distance) -> scores.computeIfAbsent(bookId, Score::new).add(distance));
+        }
+
+        return scores.values().stream()
+                .sorted(Comparator.comparingInt(Score::matchedWords).reversed().thenComparingInt(Score::edits))
+                .map(Score::bookId)
+                .toList();
+    }
+
+    /**
+     * Adds or replaces a book in the index once the current transaction commits.
+     *
+     * @param book The created or updated book
+     */
+    public void put(Book book) {
+        UUID id = book.getId();
+        String title = book.getTitle();
+        String author = book.getAuthor();
+        afterCommit(() -> {
+            removeWords(id);
+            index(id, title, author);
+        });
+    }
+
+    /**
+     * Removes a book from the index once the current transaction commits.
+     * Its words stay in the vocabulary but no longer point to the book.
+     *
+     * @param bookId UUID of the deleted book
+     */
+    public void remove(UUID bookId) {
+        afterCommit(() -> removeWords(bookId));
+    }
+
+    /**
+     * Returns how many edits are tolerated for a query word of the given length.
+     */
+    static int maxEdits(int length) {
+        if (length <= 2) return 0;
+        if (length <= 5) return 1;
+        return 2;
+    }
+
+    /**
+     * Computes the Levenshtein (insert, delete, substitute) distance between two words.
+     */
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private void index(UUID bookId, String title, String author) {
+        Set<String> words = new LinkedHashSet<>();
+        words.addAll(List.of(TextNormalizer.words(title)));
+        words.addAll(List.of(TextNormalizer.words(author)));
+
+        BkTree tree = vocabulary;
+        for (String word : words) {
+            postings.computeIfAbsent(word, w -> {
+                tree.add(w);
+                return ConcurrentHashMap.newKeySet();
+            }).add(bookId);
+        }
+        wordsByBook.put(bookId, words.toArray(String[]::new));
+    }
+
+    private void removeWords(UUID bookId) {
+        String[] words = wordsByBook.remove(bookId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Set<UUID> books = postings.get(word);
+            if (books != null) {
+                books.remove(bookId);
+            }
+        }
+    }
+
+    private record WordMatch(String word, int distance) {}
+
+    private static final class Score {
+        private final UUID bookId;
+        private int matchedWords;
+        private int edits;
+
+        private Score(UUID bookId) {
+            this.bookId = bookId;
+        }
+
+        private void add(int distance) {
+            matchedWords++;
+            edits += distance;
+        }
+
+        private UUID bookId() { return bookId; }
+
+        private int matchedWords() { return matchedWords; }
+
+        private int edits() { return edits; }
+    }
+
+    /**
+     * BK-tree over the vocabulary. Children are keyed by their distance to the parent word, so a search
+     * only descends into children whose key is within {@code [d - k, d + k]} (triangle inequality).
+     * Insertions are serialized; searches are lock-free.
+     */
+    static final class BkTree {
+
+        private volatile Node root;
+
+        synchronized void add(String word) {
+            if (root == null) {
+                root = new Node(word);
+                return;
+            }
+            Node node = root;
+            while (true) {
+                int distance = levenshtein(word, node.word);
+                if (distance == 0) {
+                    return;
+                }
+                Node child = node.children.get(distance);
+                if (child == null) {
+                    node.children.put(distance, new Node(word));
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        List<WordMatch> search(String word, int maxDistance) {
+            List<WordMatch> matches = new ArrayList<>();
+            Node start = root;
+            if (start == null) {
+                return matches;
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(start);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int distance = levenshtein(word, node.word);
+                if (distance <= maxDistance) {
+                    matches.add(new WordMatch(node.word, distance));
+                }
+                for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                    Node child = node.children.get(d);
+                    if (child != null) {
+                        pending.push(child);
+                    }
+                }
+            }
+            return matches;
+        }
+
+        private static final class Node {
+            private final String word;
+            private final Map<Integer, Node> children = new ConcurrentHashMap<>();
+
+            private Node(String word) {
+                this.word = word;
+            }
+        }
+    }
+}
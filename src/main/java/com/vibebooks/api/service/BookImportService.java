@@ -0,0 +1,177 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.dto.BookBatchImportResponseDTO;
+import com.vibebooks.api.dto.BookImportResultDTO;
+import com.vibebooks.api.dto.BookImportResultDTO.ImportStatus;
+import com.vibebooks.api.dto.google.VolumeInfo;
+import com.vibebooks.api.importer.BookCopyWriter;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Service responsible for importing many books at once from a list of ISBNs.
+ *
+ * <p>The import runs in three stages, and only the last one uses a database transaction:</p>
+ * <ol>
+ *     <li>ISBNs repeated in the request and ISBNs already registered are filtered out,
+ *         the latter with a single IN query.</li>
+ *     <li>Metadata of the remaining ISBNs is fetched concurrently on virtual threads, with at most
+ *         {@code api.books.batch.parallelism} lookups in flight (through the {@link IsbnMetadataCache}).</li>
+ *     <li>The new books and their stats rows are inserted with {@link BookCopyWriter#insert}, one {@code COPY}
+ *         and one {@code INSERT ... ON CONFLICT (isbn) DO NOTHING}. An ISBN registered by another request while
+ *         the metadata was being fetched is skipped and reported as already existing, without failing the
+ *         rest of the batch.</li>
+ * </ol>
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportService.class);
+
+    private final BookRepository bookRepository;
+    private final BookCopyWriter bookCopyWriter;
+    private final BookSuggestionIndex bookSuggestionIndex;
+    private final BookFuzzyIndex bookFuzzyIndex;
+    private final IsbnMetadataCache isbnMetadataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final PageCountService pageCountService;
+    private final int parallelism;
+
+    public BookImportService(
+            BookRepository bookRepository,
+            BookCopyWriter bookCopyWriter,
+            BookSuggestionIndex bookSuggestionIndex,
+            BookFuzzyIndex bookFuzzyIndex,
+            IsbnMetadataCache isbnMetadataCache,
+            TransactionTemplate transactionTemplate,
+            PageCountService pageCountService,
+            @Value("${api.books.batch.parallelism:8}") int parallelism
+    ) {
+        this.bookRepository = bookRepository;
+        this.bookCopyWriter = bookCopyWriter;
+        this.bookSuggestionIndex = bookSuggestionIndex;
+        this.bookFuzzyIndex = bookFuzzyIndex;
+        this.isbnMetadataCache = isbnMetadataCache;
+        this.transactionTemplate = transactionTemplate;
+        this.pageCountService = pageCountService;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a book for every new ISBN in the list.
+     * A failure on one ISBN (unknown to Google, upstream error) never affects the others.
+     *
+     * @param isbns ISBNs to import
+     * @return Report with one result per requested ISBN, in request order
+     */
+    public BookBatchImportResponseDTO importBooks(List<String> isbns) {
+        Set<String> unique = new LinkedHashSet<>(isbns);
+        Map<String, BookImportResultDTO> outcomes = new ConcurrentHashMap<>();
+
+        Set<String> existing = bookRepository.findExistingIsbns(unique);
+        existing.forEach(isbn -> outcomes.put(isbn, BookImportResultDTO.of(isbn, ImportStatus.ALREADY_EXISTS)));
+
+        List<String> candidates = unique.stream().filter(isbn -> !existing.contains(isbn)).toList();
+        Map<String, VolumeInfo> volumes = fetchAll(candidates, outcomes);
+
+        if (!volumes.isEmpty()) {
+            List<Book> created = transactionTemplate.execute(status -> insertAll(volumes, outcomes));
+            created.forEach(book -> outcomes.put(book.getIsbn(),
+                    new BookImportResultDTO(book.getIsbn(), ImportStatus.CREATED, book.getId(), null)));
+        }
+
+        List<BookImportResultDTO> results = new ArrayList<>(isbns.size());
+        Set<String> reported = new HashSet<>();
+        for (String isbn : isbns) {
+            results.add(reported.add(isbn) ? outcomes.get(isbn) : BookImportResultDTO.of(isbn, ImportStatus.DUPLICATE_IN_REQUEST));
+        }
+
+        BookBatchImportResponseDTO response = new BookBatchImportResponseDTO(results);
+        log.info("Batch import of {} ISBNs finished: {}", isbns.size(), response.summary());
+        return response;
+    }
+
+    /**
+     * Fetches the metadata of each ISBN on its own virtual thread, bounded by a semaphore.
+     * ISBNs that could not be fetched get their outcome recorded and are left out of the result.
+     */
+    private Map<String, VolumeInfo> fetchAll(List<String> isbns, Map<String, BookImportResultDTO> outcomes) {
+        Map<String, VolumeInfo> volumes = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(parallelism);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String isbn : isbns) {
+                executor.execute(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        VolumeInfo volume = isbnMetadataCache.fetchByIsbn(isbn);
+                        if (volume.title() == null || volume.title().isBlank()) {
+                            outcomes.put(isbn, failed(isbn, "Google Books returned no title for this ISBN."));
+                        } else {
+                            volumes.put(isbn, volume);
+                        }
+                    } catch (ResponseStatusException e) {
+                        outcomes.put(isbn, e.getStatusCode() == HttpStatus.NOT_FOUND
+                                ? BookImportResultDTO.of(isbn, ImportStatus.NOT_FOUND)
+                                : failed(isbn, e.getReason()));
+                    } catch (RuntimeException e) {
+                        log.warn("Unexpected error fetching metadata for ISBN {}", isbn, e);
+                        outcomes.put(isbn, failed(isbn, "Unexpected error while fetching metadata."));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return volumes;
+    }
+
+    /**
+     * Inserts the fetched books. ISBNs registered by another request while
+     * the metadata was being fetched are not inserted and reported as already existing.
+     */
+    private List<Book> insertAll(Map<String, VolumeInfo> volumes, Map<String, BookImportResultDTO> outcomes) {
+        List<Book> books = volumes.entrySet().stream()
+                .map(entry -> Book.fromGoogleVolumeInfo(entry.getValue(), entry.getKey()))
+                .toList();
+
+        List<Book> inserted = bookCopyWriter.insert(books);
+        Set<String> insertedIsbns = new HashSet<>();
+        inserted.forEach(book -> insertedIsbns.add(book.getIsbn()));
+        volumes.keySet().stream()
+                .filter(isbn -> !insertedIsbns.contains(isbn))
+                .forEach(isbn -> outcomes.put(isbn, BookImportResultDTO.of(isbn, ImportStatus.ALREADY_EXISTS)));
+        if (inserted.isEmpty()) {
+            return List.of();
+        }
+
+        inserted.forEach(book -> {
+            bookSuggestionIndex.put(book);
+            bookFuzzyIndex.put(book);
+        });
+        pageCountService.invalidate(PageCountService.BOOKS);
+        return inserted;
+    }
+
+    private static BookImportResultDTO failed(String isbn, String message) {
+        return new BookImportResultDTO(isbn, ImportStatus.FAILED, null, message);
+    }
+}
@@ -0,0 +1,319 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.repository.BookStatsRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for the like counters of the books.
+ *
+ * <p>Enabled with {@code api.book-likes.write-behind=true}. A like toggle then only writes the user's own
+ * {@code user_book_status} row, and the +1/-1 is added to an in-memory {@link LongAdder} of the book once the
+ * transaction commits. Every {@code api.book-likes.flush-interval-ms} the pending deltas are written to
+ * {@code book_stats} in one batch, so a viral book takes one counter update per flush instead of one per toggle.
+ * Reads add the pending deltas to the stored counter, see {@link BookStatsService#getStats(UUID)}.</p>
+ *
+ * <p>The per-user like state stays durable; only pending deltas are lost if the process dies, and the
+ * {@code book_stats} reconciliation recounts them from {@code user_book_status}. The reconciliation runs through
+ * {@link #recount}, which holds off flushes and the commit of new toggles on the recounted books while it runs, then
+ * drops the deltas the recount already includes. Toggles on other books keep committing.</p>
+ */
+@Service
+public class BookLikeCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(BookLikeCounter.class);
+
+    private static final String FLUSH_SQL = "UPDATE book_stats SET likes_count = likes_count + ? WHERE book_id = ?";
+
+    /**
+     * One adder per book toggled since the last flush. The flush removes the adders it drained, and a toggle whose
+     * delta lands in an adder removed meanwhile moves it to the current one, so no delta is lost.
+     */
+    private final Map<UUID, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Guards {@link #committing} and {@link #recounting}, and is only held while they are read or updated.
+     * A toggle is in {@code committing} from its commit until its delta is added, and cannot enter while its book is
+     * being recounted; a recount waits for the toggles of its books to leave. A toggle is then either in both the
+     * recounted rows and the pending delta, or in neither.
+     */
+    private final Lock gate = new ReentrantLock();
+    private final Condition gateChanged = gate.newCondition();
+    private final Map<UUID, Integer> committing = new HashMap<>();
+    private final Set<UUID> recounting = new HashSet<>();
+
+    /** Serializes flushes and recounts, so deltas taken by a flush are never written on top of a recount. */
+    private final Lock flushLock = new ReentrantLock();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookStatsRepository bookStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public BookLikeCounter(
+            JdbcTemplate jdbcTemplate,
+            BookStatsRepository bookStatsRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.book-likes.write-behind:false}") boolean enabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bookStatsRepository = bookStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return true if like counters are buffered in memory instead of written by every toggle
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds a like or unlike to the pending delta of a book.
+     * Inside a transaction, the delta is only added after it commits, so a rolled back toggle is never counted.
+     * The commit waits while a {@link #recount} of the same book runs.
+     *
+     * @param bookId UUID of the book
+     * @param liked  true if the user liked the book, false if they unliked it
+     */
+    public void record(UUID bookId, boolean liked) {
+        long delta = liked ? 1 : -1;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enter(bookId);
+            try {
+                add(bookId, delta);
+            } finally {
+                leave(bookId);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean entered;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                enter(bookId);
+                entered = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                add(bookId, delta);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (entered) {
+                    entered = false;
+                    leave(bookId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the likes of a book not yet written to {@code book_stats}.
+     *
+     * @param bookId UUID of the book
+     * @return The pending delta, possibly negative
+     */
+    public long pending(UUID bookId) {
+        LongAdder adder = pending.get(bookId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * @return The number of books holding an adder, which a flush brings back to those toggled since it started
+     */
+    int trackedBooks() {
+        return pending.size();
+    }
+
+    /**
+     * Writes the pending deltas to {@code book_stats} in one batch and in its own transaction, which commits
+     * even when called inside another one, so a rollback of the caller never drops the deltas already taken.
+     * Books are updated in ID order, so concurrent flushes never deadlock. A book without a stats row is rebuilt
+     * from {@code user_book_status}, which already holds its likes. If the write fails, the deltas are put back
+     * and retried by the next flush. Drained adders are removed, so each flush only walks the books toggled since
+     * the previous one.
+     *
+     * @return The number of books whose counter was written
+     */
+    @Scheduled(fixedDelayString = "${api.book-likes.flush-interval-ms:250}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            SortedMap<UUID, Long> deltas = new TreeMap<>();
+            pending.forEach((bookId, adder) -> {
+                long delta = adder.sumThenReset();
+                if (delta != 0) {
+                    deltas.put(bookId, delta);
+                }
+                pending.computeIfPresent(bookId, (id, current) -> current == adder && current.sum() == 0 ? null : current);
+            });
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(deltas));
+            } catch (RuntimeException e) {
+                deltas.forEach(this::add);
+                log.warn("Could not flush the like counters of {} books, retrying on the next flush", deltas.size(), e);
+                return 0;
+            }
+            return deltas.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Runs a recount of the counters of some books from {@code user_book_status}, then drops their pending deltas.
+     * The recount must commit before it returns. Flushes and the commit of new toggles on those books wait until it
+     * is done, so every pending delta of those books belongs to a toggle the recount already counted; toggles on
+     * other books are not held. If the recount fails, the deltas are kept for the next flush.
+     *
+     * @param bookIds UUIDs of the recounted books
+     * @param recount committed recount of those books
+     * @return The result of the recount
+     */
+    public <T> T recount(Collection<UUID> bookIds, Supplier<T> recount) {
+        if (!enabled) {
+            return recount.get();
+        }
+        flushLock.lock();
+        try {
+            hold(bookIds);
+            try {
+                T result = recount.get();
+                bookIds.forEach(bookId -> {
+                    LongAdder adder = pending.get(bookId);
+                    if (adder != null) {
+                        adder.reset();
+                    }
+                });
+                return result;
+            } finally {
+                release(bookIds);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes what is still pending before the application stops.
+     */
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(SortedMap<UUID, Long> deltas) {
+        List<UUID> bookIds = new ArrayList<>(deltas.keySet());
+        List<Object[]> args = new ArrayList<>(bookIds.size());
+        bookIds.forEach(bookId -> args.add(new Object[]{deltas.get(bookId), bookId}));
+
+        int[] updated = jdbcTemplate.batchUpdate(FLUSH_SQL, args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                bookStatsRepository.rebuildForBook(bookIds.get(i));
+            }
+        }
+    }
+
+    /**
+     * Adds a delta to the adder of the book. If a flush drained and removed that adder before the delta landed,
+     * whatever the removed adder holds is moved to the book's current one.
+     */
+    private void add(UUID bookId, long delta) {
+        LongAdder adder = pending.computeIfAbsent(bookId, id -> new LongAdder());
+        adder.add(delta);
+        while (pending.get(bookId) != adder) {
+            long moved = adder.sumThenReset();
+            if (moved == 0) {
+                return;
+            }
+            adder = pending.computeIfAbsent(bookId, id -> new LongAdder());
+            adder.add(moved);
+        }
+    }
+
+    /** Marks a toggle of the book as committing, once no recount of the book is running. */
+    private void enter(UUID bookId) {
+        gate.lock();
+        try {
+            while (recounting.contains(bookId)) {
+                gateChanged.awaitUninterruptibly();
+            }
+            committing.merge(bookId, 1, Integer::sum);
+        } finally {
+            gate.unlock();
+        }
+    }
+
+    private void leave(UUID bookId) {
+        gate.lock();
+        try {
+            committing.computeIfPresent(bookId, (id, count) -> count > 1 ? count - 1 : null);
+            if (!recounting.isEmpty()) {
+                gateChanged.signalAll();
+            }
+        } finally {
+            gate.unlock();
+        }
+    }
+
+    /** Stops new toggles of the books from committing and waits for those already committing to add their delta. */
+    private void hold(Collection<UUID> bookIds) {
+        gate.lock();
+        try {
+            recounting.addAll(bookIds);
+            while (bookIds.stream().anyMatch(committing::containsKey)) {
+                gateChanged.awaitUninterruptibly();
+            }
+        } finally {
+            gate.unlock();
+        }
+    }
+
+    private void release(Collection<UUID> bookIds) {
+        gate.lock();
+        try {
+            recounting.removeAll(bookIds);
+            gateChanged.signalAll();
+        } finally {
+            gate.unlock();
+        }
+    }
+}
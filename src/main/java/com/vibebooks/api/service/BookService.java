@@ -3,28 +3,36 @@ package com.vibebooks.api.service;
 import com.vibebooks.api.dto.BookCreationDTO;
 import com.vibebooks.api.dto.BookDetailsDTO;
 import com.vibebooks.api.dto.BookIsbnDTO;
+import com.vibebooks.api.dto.BookLikeResponseDTO;
+import com.vibebooks.api.dto.BookStatusResponseDTO;
 import com.vibebooks.api.dto.BookStatusUpdateDTO;
-import com.vibebooks.api.dto.SentimentCountDTO;
-import com.vibebooks.api.dto.google.GoogleBooksResponse;
+import com.vibebooks.api.dto.BookSuggestionDTO;
+import com.vibebooks.api.dto.CursorSliceDTO;
+import com.vibebooks.api.dto.SpringPageDTO;
 import com.vibebooks.api.dto.google.VolumeInfo;
 import com.vibebooks.api.model.*;
 import com.vibebooks.api.repository.BookRepository;
 import com.vibebooks.api.repository.UserBookStatusRepository;
+import com.vibebooks.api.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 /**
@@ -40,29 +48,58 @@ public class BookService {
 
     private final BookRepository bookRepository;
     private final UserBookStatusRepository userBookStatusRepository;
-    private final RestTemplate restTemplate;
-
-    @Value("${google.books.api.key}")
-    private String apiKey;
-
-    private static final String GOOGLE_BOOKS_API_URL = "https://www.googleapis.com/books/v1/volumes?q=isbn:%s&key=%s";
+    private final BookDetailsAssembler bookDetailsAssembler;
+    private final BookStatsService bookStatsService;
+    private final BookLikeCounter bookLikeCounter;
+    private final BookSuggestionIndex bookSuggestionIndex;
+    private final BookFuzzyIndex bookFuzzyIndex;
+    private final IsbnMetadataCache isbnMetadataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final PageCountService pageCountService;
 
     private static final String BOOK_NOT_FOUND = "Book not found";
 
 
     /**
      * Retrieves a paginated list of all books available in the system.
-     * Each book is converted into a {@link BookDetailsDTO} enriched with
-     * user-specific data (likes, reading status, and sentiment).
+     * The whole page is converted into {@link BookDetailsDTO} objects enriched with
+     * user-specific data (likes, reading status, and sentiment) using batch queries.
+     * The page is read without a count query; the total is resolved according to {@code countMode}.
      *
      * @param pageable      Pagination configuration (page, size, sorting)
+     * @param countMode     How the total number of books is computed, if at all
      * @param loggedInUser  The authenticated user
      * @return Page of BookDetailsDTO with personalized data for the user
      */
     @Transactional(readOnly = true)
-    public Page<BookDetailsDTO> listAllBooks(Pageable pageable, User loggedInUser) {
-        Page<Book> bookPage = bookRepository.findAll(pageable);
-        return bookPage.map(book -> toBookDetailsDTO(book, loggedInUser));
+    public SpringPageDTO<BookDetailsDTO> listAllBooks(Pageable pageable, CountMode countMode, User loggedInUser) {
+        Slice<Book> bookSlice = bookRepository.findAllBy(pageable);
+        Long total = pageCountService.count(countMode, PageCountService.key(PageCountService.BOOKS),
+                bookRepository::count, () -> pageCountService.estimateRows(PageCountService.BOOKS));
+        return toPage(bookSlice, total, loggedInUser);
+    }
+
+    /**
+     * Retrieves the books newest first with keyset pagination.
+     * Each slice costs the same however deep the client scrolls, and books added in the meantime
+     * never shift the following slices. No count query is run.
+     *
+     * @param cursor        Cursor returned with the previous slice, or null for the first slice
+     * @param size          Maximum number of books in the slice
+     * @param loggedInUser  The authenticated user
+     * @return Slice of BookDetailsDTO and the cursor of the next one
+     */
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<BookDetailsDTO> scrollBooks(String cursor, int size, User loggedInUser) {
+        Limit limit = Limit.of(size + 1);
+        List<Book> books;
+        if (cursor == null || cursor.isBlank()) {
+            books = bookRepository.findByOrderByCreatedAtDescIdDesc(limit);
+        } else {
+            CursorCodec.Position position = CursorCodec.decode(cursor);
+            books = bookRepository.findAfter(position.createdAt(), position.id(), limit);
+        }
+        return toSlice(books, size, loggedInUser);
     }
 
     /**
@@ -81,21 +118,30 @@ public class BookService {
     }
 
     /**
-     * Creates a new book by fetching its details from the Google Books API.
+     * Creates a new book by fetching its details from the Google Books API
+     * (through the {@link IsbnMetadataCache}, so known ISBNs do not hit Google again).
+     *
+     * <p>The metadata lookup runs before the transaction is opened, so a slow response never
+     * holds a database connection. Only the insert itself runs in a (short) transaction,
+     * which checks the ISBN again in case the same book was created in the meantime.</p>
      *
      * @param dto Object containing the ISBN used for retrieval
      * @return The persisted {@link Book} entity
      */
-    @Transactional
     public Book createBook(BookIsbnDTO dto) {
-        if (bookRepository.existsByIsbn(dto.isbn())) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Book with this ISBN already exists...");
-        }
-
-        var volumeInfo = fetchVolumeInfoFromGoogle(dto.isbn());
-        var book = Book.fromGoogleVolumeInfo(volumeInfo, dto.isbn());
-
-        return bookRepository.save(book);
+        ensureIsbnIsAvailable(dto.isbn());
+
+        VolumeInfo volumeInfo = isbnMetadataCache.fetchByIsbn(dto.isbn());
+
+        return transactionTemplate.execute(status -> {
+            ensureIsbnIsAvailable(dto.isbn());
+            var book = bookRepository.save(Book.fromGoogleVolumeInfo(volumeInfo, dto.isbn()));
+            bookStatsService.initialize(book.getId());
+            bookSuggestionIndex.put(book);
+            bookFuzzyIndex.put(book);
+            pageCountService.invalidate(PageCountService.BOOKS);
+            return book;
+        });
     }
 
     /**
@@ -112,12 +158,14 @@ public class BookService {
         var book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, BOOK_NOT_FOUND));
         book.updateInformation(dto);
+        bookSuggestionIndex.put(book);
+        bookFuzzyIndex.put(book);
 
         return toBookDetailsDTO(book, loggedInUser);
     }
 
     /**
-     * Deletes a book from the database and removes all associated user statuses.
+     * Deletes a book from the database and removes all associated user statuses and counters.
      *
      * @param id UUID of the book to be deleted
      */
@@ -127,184 +175,246 @@ public class BookService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, BOOK_NOT_FOUND);
         }
         userBookStatusRepository.deleteByBookId(id);
+        bookStatsService.delete(id);
         bookRepository.deleteById(id);
+        bookSuggestionIndex.remove(id);
+        bookFuzzyIndex.remove(id);
+        pageCountService.invalidate(PageCountService.BOOKS);
     }
 
     /**
      * Updates the reading status or sentiment for a specific book related to the logged-in user.
      * Sentiment can only be added to books that are currently being read or have already been read.
+     * The status is written with a single upsert and the book's sentiment counters are updated in the same transaction.
      *
      * @param bookId        The book’s UUID
      * @param loggedInUser  The authenticated user
      * @param dto           DTO containing the new status and/or sentiment
-     * @return Updated {@link UserBookStatus} entity
+     * @return The stored status and sentiment
+     * @throws ResponseStatusException with 404 if the book does not exist
      */
     @Transactional
-    public UserBookStatus updateBookStatus(UUID bookId, User loggedInUser, BookStatusUpdateDTO dto) {
-        var bookStatus = getOrCreateUserBookStatus(bookId, loggedInUser);
-
-        bookStatus.setStatus(dto.status());
-
-        if (dto.sentiment() != null) {
-            ReadingStatus currentStatus = bookStatus.getStatus();
+    public BookStatusResponseDTO updateBookStatus(UUID bookId, User loggedInUser, BookStatusUpdateDTO dto) {
+        ReadingStatus status = dto.status();
+        boolean canHaveSentiment = status != null && status != ReadingStatus.WANT_TO_READ;
 
-            if (currentStatus == null || currentStatus == ReadingStatus.WANT_TO_READ) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You can only set a sentiment for books you are reading or have already read.");
-            }
-            bookStatus.setSentiment(dto.sentiment());
-        } else {
-            bookStatus.setSentiment(null);
+        if (dto.sentiment() != null && !canHaveSentiment) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You can only set a sentiment for books you are reading or have already read.");
         }
+        BookSentiment sentiment = canHaveSentiment ? dto.sentiment() : null;
 
-        if (bookStatus.getStatus() == null || bookStatus.getStatus() == ReadingStatus.WANT_TO_READ) {
-            bookStatus.setSentiment(null);
+        var write = writeStatus(bookId, loggedInUser, status, sentiment);
+        if (!write.getWritten()) {
+            // The row was created concurrently after the statement started; the second attempt updates it.
+            write = writeStatus(bookId, loggedInUser, status, sentiment);
+        }
+        if (!write.getWritten()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The book status was changed concurrently, please retry.");
         }
 
-        return userBookStatusRepository.saveAndFlush(bookStatus);
+        String previous = write.getPreviousSentiment();
+        bookStatsService.recordSentimentChange(bookId, previous != null ? BookSentiment.valueOf(previous) : null, sentiment);
+        return new BookStatusResponseDTO(bookId, status, sentiment);
     }
 
     /**
      * Toggles the like status of a book for the logged-in user.
      * If liked, it becomes unliked, and vice versa.
+     * The toggle and the book's like counter are written by one statement, which returns both.
+     * With the write-behind {@link BookLikeCounter}, only the user's state is written and the counter
+     * delta is buffered until the next flush.
      *
      * @param bookId        UUID of the book
      * @param loggedInUser  Authenticated user
-     * @return Updated {@link UserBookStatus}
+     * @return The new like state and total like count
+     * @throws ResponseStatusException with 404 if the book does not exist
      */
     @Transactional
-    public UserBookStatus likeOrUnlikeBook(UUID bookId, User loggedInUser) {
-        var bookStatus = getOrCreateUserBookStatus(bookId, loggedInUser);
-        bookStatus.setLiked(!bookStatus.isLiked());
-        return userBookStatusRepository.saveAndFlush(bookStatus);
+    public BookLikeResponseDTO likeOrUnlikeBook(UUID bookId, User loggedInUser) {
+        try {
+            if (bookLikeCounter.isEnabled()) {
+                boolean liked = userBookStatusRepository.toggleLikeState(loggedInUser.getId(), bookId);
+                bookLikeCounter.record(bookId, liked);
+                long likesCount = bookStatsService.getStats(bookId).getLikesCount() + (liked ? 1 : -1);
+                return new BookLikeResponseDTO(liked, likesCount);
+            }
+
+            var toggle = userBookStatusRepository.toggleLike(loggedInUser.getId(), bookId);
+            Long likesCount = toggle.getLikesCount();
+            if (likesCount == null) {
+                likesCount = bookStatsService.rebuild(bookId).getLikesCount();
+            }
+            return new BookLikeResponseDTO(toggle.getLiked(), likesCount);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, BOOK_NOT_FOUND);
+        }
     }
 
     /**
-     * Searches for books that contain the given query string in their title.
+     * Searches for books using the given search mode.
+     * {@link BookSearchMode#TITLE} matches a substring of the title, {@link BookSearchMode#FULLTEXT}
+     * runs an indexed, relevance-ranked search over title, author and ISBN, and {@link BookSearchMode#FUZZY}
+     * tolerates typos in title and author words.
      * Returns results personalized with user-specific info.
      *
-     * @param query         Search term for book titles
-     * @param pageable      Pagination parameters
+     * <p>Database searches have no cheap estimate, so {@link CountMode#ESTIMATED} serves a cached count.
+     * Fuzzy matches are ranked in memory, so their total is always exact and free.</p>
+     *
+     * @param query         Search term
+     * @param mode          Search strategy
+     * @param pageable      Pagination parameters (sorting is ignored for ranked modes)
+     * @param countMode     How the total number of matches is computed, if at all
      * @param loggedInUser  Authenticated user
      * @return Page of {@link BookDetailsDTO} objects
      */
     @Transactional(readOnly = true)
-    public Page<BookDetailsDTO> searchBooks(String query, Pageable pageable, User loggedInUser) {
-        Page<Book> bookPage = bookRepository.findByTitleContainingIgnoreCase(query, pageable);
-        return bookPage.map(book -> toBookDetailsDTO(book, loggedInUser));
+    public SpringPageDTO<BookDetailsDTO> searchBooks(String query, BookSearchMode mode, Pageable pageable,
+                                                       CountMode countMode, User loggedInUser) {
+        String key = PageCountService.key(PageCountService.BOOKS, mode, query.toLowerCase());
+        return switch (mode) {
+            case TITLE -> toPage(
+                    bookRepository.findByTitleContainingIgnoreCase(query, pageable),
+                    pageCountService.count(countMode, key, () -> bookRepository.countByTitleContainingIgnoreCase(query), null),
+                    loggedInUser
+            );
+            case FULLTEXT -> {
+                String pattern = toContainsPattern(query);
+                yield toPage(
+                        bookRepository.searchFullText(query.trim(), pattern, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())),
+                        pageCountService.count(countMode, key, () -> bookRepository.countFullText(query.trim(), pattern), null),
+                        loggedInUser
+                );
+            }
+            case FUZZY -> findFuzzy(query, pageable, countMode, loggedInUser);
+        };
     }
 
     /**
-     * Counts how many likes a given book has received from all users.
+     * Searches books by title, newest first, with keyset pagination.
+     * Only {@link BookSearchMode#TITLE} has a stable {@code (createdAt, id)} order; the ranked modes
+     * order by relevance and keep using page numbers.
      *
-     * @param bookId UUID of the book
-     * @return Total like count
+     * @param query         Search term
+     * @param mode          Search strategy, must be {@link BookSearchMode#TITLE}
+     * @param cursor        Cursor returned with the previous slice, or null for the first slice
+     * @param size          Maximum number of books in the slice
+     * @param loggedInUser  Authenticated user
+     * @return Slice of BookDetailsDTO and the cursor of the next one
+     * @throws ResponseStatusException with 400 for ranked search modes
      */
-    public long countLikesForBook(UUID bookId) {
-        return userBookStatusRepository.countByBookIdAndLikedIsTrue(bookId);
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<BookDetailsDTO> scrollSearch(String query, BookSearchMode mode, String cursor, int size, User loggedInUser) {
+        if (mode != BookSearchMode.TITLE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor pagination is only available for mode=title.");
+        }
+        Limit limit = Limit.of(size + 1);
+        List<Book> books;
+        if (cursor == null || cursor.isBlank()) {
+            books = bookRepository.findByTitleContainingIgnoreCaseOrderByCreatedAtDescIdDesc(query.trim(), limit);
+        } else {
+            CursorCodec.Position position = CursorCodec.decode(cursor);
+            books = bookRepository.findByTitleAfter(toContainsPattern(query), position.createdAt(), position.id(), limit);
+        }
+        return toSlice(books, size, loggedInUser);
     }
 
     /**
-     * Checks if the given user has liked the specified book.
+     * Suggests book titles and authors starting with the given prefix.
+     * Served entirely from the in-memory {@link BookSuggestionIndex}, without database access.
      *
-     * @param bookId        UUID of the book
-     * @param loggedInUser  Authenticated user
-     * @return true if liked, false otherwise
+     * @param prefix Text typed by the user
+     * @param limit  Maximum number of suggestions
+     * @return List of {@link BookSuggestionDTO}
      */
-    private boolean isBookLikedByUser(UUID bookId, User loggedInUser) {
-        if (loggedInUser == null) {
-            return false;
-        }
-        var statusId = new UserBookStatusId(loggedInUser.getId(), bookId);
-        return userBookStatusRepository.findById(statusId)
-                .map(UserBookStatus::isLiked)
-                .orElse(false);
+    public List<BookSuggestionDTO> suggestBooks(String prefix, int limit) {
+        return bookSuggestionIndex.suggest(prefix, limit);
     }
 
     /**
-     * Retrieves a lightweight reference of a book from the database.
-     * Throws an exception if the book doesn’t exist.
+     * Upserts the status of a user on a book.
+     * The foreign key of the new row doubles as the existence check of the book.
      *
-     * @param id UUID of the book
-     * @return The {@link Book} entity reference
+     * @throws ResponseStatusException with 404 if the book does not exist
      */
-    private Book getReferenceById(UUID id) {
-        if (!bookRepository.existsById(id)) {
+    private UserBookStatusRepository.StatusWrite writeStatus(UUID bookId, User user, ReadingStatus status, BookSentiment sentiment) {
+        try {
+            return userBookStatusRepository.writeStatus(user.getId(), bookId,
+                    status != null ? status.name() : null,
+                    sentiment != null ? sentiment.name() : null);
+        } catch (DataIntegrityViolationException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, BOOK_NOT_FOUND);
         }
-        return bookRepository.getReferenceById(id);
     }
 
     /**
-     * Retrieves the current {@link UserBookStatus} for a user and book.
-     * If no record exists, a new one is created and persisted.
+     * Builds a complete {@link BookDetailsDTO} for a given book and user.
+     * Delegates to {@link BookDetailsAssembler} so single books and pages share the same logic.
      *
-     * @param bookId Book UUID
-     * @param user   Authenticated user
-     * @return Existing or newly created {@link UserBookStatus}
+     * @param book          The Book entity
+     * @param loggedInUser  The authenticated user
+     * @return Fully constructed BookDetailsDTO
      */
-    private UserBookStatus getOrCreateUserBookStatus(UUID bookId, User user) {
-        var book = getReferenceById(bookId);
-        var statusId = UserBookStatusId.of(user, book);
-        return userBookStatusRepository.findById(statusId)
-                .orElseGet(() -> {
-                    var newStatus = new UserBookStatus();
-                    newStatus.setId(statusId);
-                    newStatus.setUser(user);
-                    newStatus.setBook(book);
-                    return userBookStatusRepository.save(newStatus);
-                });
+    private BookDetailsDTO toBookDetailsDTO(Book book, User loggedInUser) {
+        return bookDetailsAssembler.assemble(List.of(book), loggedInUser).getFirst();
     }
 
     /**
-     * Retrieves the {@link UserBookStatus} for the user if it exists.
+     * Ranks books with the in-memory {@link BookFuzzyIndex} and loads only the requested page from the database.
      *
-     * @param bookId        Book UUID
-     * @param loggedInUser  Authenticated user
-     * @return Optional containing the status, or empty if not found
+     * @param query        Search term, possibly misspelled
+     * @param pageable     Pagination parameters
+     * @param countMode    Whether the total is returned; it is always exact
+     * @param loggedInUser Authenticated user
+     * @return Page of books ordered by match quality
      */
-    private Optional<UserBookStatus> getUserBookStatus(UUID bookId, User loggedInUser) {
-        if (loggedInUser == null) return Optional.empty();
-        return userBookStatusRepository.findById(new UserBookStatusId(loggedInUser.getId(), bookId));
+    private SpringPageDTO<BookDetailsDTO> findFuzzy(String query, Pageable pageable, CountMode countMode, User loggedInUser) {
+        List<UUID> rankedIds = bookFuzzyIndex.search(query);
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<UUID> pageIds = rankedIds.subList(from, to);
+
+        Map<UUID, Book> booksById = bookRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<Book> content = pageIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        Long total = countMode == CountMode.NONE ? null : (long) rankedIds.size();
+        return toPage(new SliceImpl<>(content, pageable, to < rankedIds.size()), total, loggedInUser);
     }
 
     /**
-     * Builds a complete {@link BookDetailsDTO} for a given book and user.
-     * This method centralizes the logic to avoid code duplication.
+     * Builds a lowercase LIKE pattern that matches the query anywhere in the text,
+     * escaping the LIKE wildcards typed by the user.
      *
-     * @param book          The Book entity
-     * @param loggedInUser  The authenticated user
-     * @return Fully constructed BookDetailsDTO
+     * @param query Raw search term
+     * @return Pattern such as {@code %the hobbit%}
      */
-    private BookDetailsDTO toBookDetailsDTO(Book book, User loggedInUser) {
-        long totalLikes = countLikesForBook(book.getId());
-        boolean likedByUser = isBookLikedByUser(book.getId(), loggedInUser);
-
-        Optional<UserBookStatus> userBookStatus = getUserBookStatus(book.getId(), loggedInUser);
-        ReadingStatus status = userBookStatus.map(UserBookStatus::getStatus).orElse(null);
-        BookSentiment sentiment = userBookStatus.map(UserBookStatus::getSentiment).orElse(null);
-        Map<BookSentiment, Long> sentimentsCounts = new EnumMap<>(BookSentiment.class);
-        for (BookSentiment s : BookSentiment.values()) {
-            sentimentsCounts.put(s, 0L);
-        }
-        List<SentimentCountDTO> countsFromDb = userBookStatusRepository.countSentimentsByBookId(book.getId());
-        countsFromDb.forEach(dto -> sentimentsCounts.put(dto.sentiment(), dto.count()));
-
-        return new BookDetailsDTO(book, totalLikes, likedByUser, status, sentiment, sentimentsCounts);
+    private String toContainsPattern(String query) {
+        String escaped = query.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 
     /**
-     * Fetches detailed book information from the Google Books API based on ISBN.
+     * Rejects ISBNs that are already registered.
      *
      * @param isbn ISBN of the book
-     * @return {@link VolumeInfo} object containing Google Books metadata
      */
-    private VolumeInfo fetchVolumeInfoFromGoogle(String isbn) {
-        String url = String.format(GOOGLE_BOOKS_API_URL, isbn, apiKey);
-        GoogleBooksResponse response = restTemplate.getForObject(url, GoogleBooksResponse.class);
-
-        if (response == null || response.items() == null || response.items().isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found on Google Books for the provided ISBN.");
+    private void ensureIsbnIsAvailable(String isbn) {
+        if (bookRepository.existsByIsbn(isbn)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Book with this ISBN already exists...");
         }
-        return response.items().getFirst().volumeInfo();
+    }
+
+    private SpringPageDTO<BookDetailsDTO> toPage(Slice<Book> books, Long total, User loggedInUser) {
+        return new SpringPageDTO<>(bookDetailsAssembler.assemble(books.getContent(), loggedInUser), books, total);
+    }
+
+    private CursorSliceDTO<BookDetailsDTO> toSlice(List<Book> books, int size, User loggedInUser) {
+        return CursorSliceDTO.of(books, size, book -> CursorCodec.encode(book.getCreatedAt(), book.getId()),
+                slice -> bookDetailsAssembler.assemble(slice, loggedInUser));
     }
 }
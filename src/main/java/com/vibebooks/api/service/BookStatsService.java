@@ -0,0 +1,223 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.model.BookSentiment;
+import com.vibebooks.api.model.BookStats;
+import com.vibebooks.api.repository.BookStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Service responsible for the {@code book_stats} read model.
+ *
+ * <p>Business Rule: likes, comments and sentiment counters are maintained with delta updates inside the
+ * same transaction that changes the {@code UserBookStatus} or the comment (the like counter in the very statement
+ * that toggles the like, see {@code UserBookStatusRepository#toggleLike}), so reading them is a primary-key lookup.
+ * If a stats row is missing, it is rebuilt from {@code user_book_status} and {@code comments}, by writes and by reads
+ * alike, so a missing row never shows as zeroed counters. The rows of books created before the table existed are
+ * backfilled on startup. A reconciliation routine rebuilds every row to repair any drift (e.g. rows removed directly
+ * in the database).</p>
+ */
+@Service
+public class BookStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookStatsService.class);
+
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private final BookStatsRepository bookStatsRepository;
+    private final BookLikeCounter bookLikeCounter;
+    /** Writes the rows rebuilt by a read, which usually runs in a read-only transaction. */
+    private final TransactionTemplate requiresNew;
+
+    @Value("${api.book-stats.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${api.book-stats.reconcile-chunk-size:1000}")
+    private int reconcileChunkSize = 1000;
+
+    public BookStatsService(
+            BookStatsRepository bookStatsRepository,
+            BookLikeCounter bookLikeCounter,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.bookStatsRepository = bookStatsRepository;
+        this.bookLikeCounter = bookLikeCounter;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Creates the zeroed stats row for a newly created book.
+     *
+     * @param bookId UUID of the new book
+     */
+    @Transactional
+    public void initialize(UUID bookId) {
+        bookStatsRepository.save(new BookStats(bookId));
+    }
+
+    /**
+     * Retrieves the counters of a single book.
+     *
+     * @param bookId UUID of the book
+     * @return The stored counters plus the pending likes of {@link BookLikeCounter}; a missing row is rebuilt first,
+     * and only a book that does not exist gets zeroed counters
+     */
+    @Transactional(readOnly = true)
+    public BookStats getStats(UUID bookId) {
+        BookStats stats = bookStatsRepository.findById(bookId)
+                .or(() -> rebuildMissing(List.of(bookId)).stream().findFirst())
+                .orElseGet(() -> BookStats.empty(bookId));
+        return stats.withPendingLikes(bookLikeCounter.pending(bookId));
+    }
+
+    /**
+     * Retrieves the counters of several books with a single query.
+     *
+     * @param bookIds UUIDs of the books
+     * @return Map of book ID to counters, including pending likes; missing rows are rebuilt first,
+     * and only books that do not exist get zeroed counters
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, BookStats> getStats(List<UUID> bookIds) {
+        Map<UUID, BookStats> statsByBook = new HashMap<>();
+        bookStatsRepository.findAllByBookIdIn(bookIds).forEach(stats -> statsByBook.put(stats.getBookId(), stats));
+        if (statsByBook.size() < bookIds.size()) {
+            List<UUID> missing = new ArrayList<>(bookIds);
+            missing.removeAll(statsByBook.keySet());
+            rebuildMissing(missing).forEach(stats -> statsByBook.put(stats.getBookId(), stats));
+        }
+        bookIds.forEach(id -> statsByBook.compute(id, (bookId, stats) ->
+                (stats != null ? stats : BookStats.empty(bookId)).withPendingLikes(bookLikeCounter.pending(bookId))));
+        return statsByBook;
+    }
+
+    /**
+     * Recomputes the counters of a single book, creating its stats row if missing.
+     * Used when a delta could not be applied because the row did not exist.
+     *
+     * @param bookId UUID of the book
+     * @return The rebuilt counters
+     */
+    @Transactional
+    public BookStats rebuild(UUID bookId) {
+        bookStatsRepository.rebuildForBook(bookId);
+        return getStats(bookId);
+    }
+
+    /**
+     * Applies a new or deleted comment to the counters of a book.
+     * Must run after the comment change has been flushed.
+     *
+     * @param bookId UUID of the book
+     * @param added  true if a comment was added, false if one was deleted
+     */
+    @Transactional
+    public void recordComment(UUID bookId, boolean added) {
+        int updated = bookStatsRepository.incrementComments(bookId, added ? 1 : -1);
+        if (updated == 0) {
+            bookStatsRepository.rebuildForBook(bookId);
+        }
+    }
+
+    /**
+     * Moves one user from their previous sentiment to the new one in the counters of a book.
+     * Must run after the {@code UserBookStatus} change has been flushed.
+     *
+     * @param bookId   UUID of the book
+     * @param previous Sentiment before the change, or null
+     * @param current  Sentiment after the change, or null
+     */
+    @Transactional
+    public void recordSentimentChange(UUID bookId, BookSentiment previous, BookSentiment current) {
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        int updated = bookStatsRepository.moveSentiment(
+                bookId,
+                previous != null ? previous.name() : null,
+                current != null ? current.name() : null
+        );
+        if (updated == 0) {
+            bookStatsRepository.rebuildForBook(bookId);
+        }
+    }
+
+    /**
+     * Removes the counters of a deleted book.
+     *
+     * @param bookId UUID of the book
+     */
+    @Transactional
+    public void delete(UUID bookId) {
+        bookStatsRepository.deleteById(bookId);
+    }
+
+    /**
+     * Rebuilds every stats row from {@code user_book_status} and {@code comments}, walking the books in ID order,
+     * {@code api.book-stats.reconcile-chunk-size} at a time. Each chunk is recounted and committed in its own short
+     * transaction through {@link BookLikeCounter#recount}, which drops the pending write-behind likes the recount
+     * already includes, so they are neither lost nor counted twice.
+     * Runs on the cron defined by {@code api.book-stats.reconcile-cron} (disabled by default).
+     */
+    @Scheduled(cron = "${api.book-stats.reconcile-cron:-}")
+    public void reconcileAll() {
+        int rows = 0;
+        UUID after = FIRST;
+        while (true) {
+            List<UUID> chunk = bookStatsRepository.findBookIdsAfter(after, Limit.of(Math.max(1, reconcileChunkSize)));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            rows += bookLikeCounter.recount(chunk,
+                    () -> requiresNew.execute(status -> bookStatsRepository.rebuildForBooks(chunk)));
+            after = chunk.getLast();
+        }
+        log.info("Reconciled book stats for {} books", rows);
+    }
+
+    /**
+     * Creates the stats rows of the books that have none, such as every book that existed before the table was
+     * created. Runs on startup unless {@code api.book-stats.backfill-on-startup} is false; once every book has its row,
+     * it costs one anti-join over {@code books} and {@code book_stats} and writes nothing.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMissing() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        int rows = bookStatsRepository.rebuildMissing();
+        if (rows > 0) {
+            log.info("Created the missing book stats rows of {} books", rows);
+        }
+    }
+
+    /**
+     * Rebuilds the rows a read did not find, in a transaction of their own, and reads them back.
+     * The rebuild counts the pending write-behind likes of those books, so it goes through {@link BookLikeCounter#recount}.
+     * Books that do not exist (e.g. deleted meanwhile) still have no row afterwards.
+     */
+    private List<BookStats> rebuildMissing(List<UUID> bookIds) {
+        log.warn("Book stats rows of {} books are missing, rebuilding them: {}", bookIds.size(), bookIds);
+        bookLikeCounter.recount(bookIds, () -> requiresNew.execute(status -> bookStatsRepository.rebuildForBooks(bookIds)));
+        return bookStatsRepository.findAllByBookIdIn(bookIds);
+    }
+}
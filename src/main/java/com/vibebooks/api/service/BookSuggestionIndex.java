@@ -0,0 +1,277 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.dto.BookSuggestionDTO;
+import com.vibebooks.api.dto.BookSuggestionDTO.SuggestionType;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+import static com.vibebooks.api.util.TextNormalizer.normalize;
+import static com.vibebooks.api.util.TransactionUtils.afterCommit;
+
+/**
+ * In-memory prefix index used to autocomplete book titles and authors.
+ *
+ * <p>Business Rule: titles and authors are normalized (lowercase, no accents, single spaces) and split into
+ * words. Each distinct word is stored once, as a key of a sorted concurrent map, and points to the titles and
+ * authors where it appears among their first {@value #MAX_WORDS_INDEXED} words, so typing any word of a title
+ * ("hob" for "The Hobbit") finds it. A prefix lookup is a range scan on the sorted words and never touches the
+ * database. The index is built on startup and kept in sync by {@link BookService} after each create, update or
+ * delete commits.</p>
+ *
+ * <p>Memory per book: one entry for its title and one for its author, each holding the displayed text and an
+ * array of references to the shared words, plus one posting per indexed word (at most
+ * {@value #MAX_WORDS_INDEXED} per entry). A word costs its characters only once, whatever the number of books
+ * using it, so memory grows linearly with the number of words and never with the square of the title length.
+ * Roughly 100 bytes per entry and 60 bytes per posting, about 1 KB for a book with an 8-word title.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class BookSuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSuggestionIndex.class);
+
+    static final int MAX_WORDS_INDEXED = 8;
+
+    private final BookRepository bookRepository;
+
+    private final ConcurrentSkipListMap<String, NavigableSet<Posting>> postingsByWord = new ConcurrentSkipListMap<>();
+    private final Map<UUID, List<Entry>> entriesByBook = new ConcurrentHashMap<>();
+
+    /**
+     * Loads every book title and author into the index when the application starts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            postingsByWord.clear();
+            entriesByBook.clear();
+            try (Stream<BookRepository.BookTitleAuthor> books = bookRepository.streamAllTitlesAndAuthors()) {
+                books.forEach(b -> index(b.getId(), b.getTitle(), b.getAuthor()));
+            }
+        }
+        Stats stats = getStats();
+        log.info("Book suggestion index built with {} books, {} words and {} postings",
+                stats.books(), stats.words(), stats.postings());
+    }
+
+    /**
+     * Returns up to {@code limit} distinct titles and authors that have a word starting with the prefix.
+     * A prefix of several words matches the same consecutive words, the last one by its prefix.
+     *
+     * @param prefix Text typed by the user
+     * @param limit  Maximum number of suggestions
+     * @return Suggestions in alphabetical order of the matched text, from the matching word to its end
+     */
+    public List<BookSuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String[] query = normalized.split(" ");
+
+        Map<String, BookSuggestionDTO> distinct = new LinkedHashMap<>();
+        for (Posting posting : candidates(query)) {
+            Entry entry = posting.entry();
+            if (query.length > 1 && !entry.matches(posting.position(), query)) {
+                continue;
+            }
+            distinct.putIfAbsent(entry.type() + ":" + String.join(" ", entry.words()),
+                    new BookSuggestionDTO(entry.bookId(), entry.text(), entry.type()));
+            if (distinct.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(distinct.values());
+    }
+
+    /**
+     * Returns the size of the index.
+     *
+     * @return Snapshot of the number of books, distinct words and postings
+     */
+    public Stats getStats() {
+        long postings = 0;
+        for (NavigableSet<Posting> set : postingsByWord.values()) {
+            postings += set.size();
+        }
+        return new Stats(entriesByBook.size(), postingsByWord.size(), postings);
+    }
+
+    /**
+     * Adds or replaces a book in the index once the current transaction commits.
+     *
+     * @param book The created or updated book
+     */
+    public void put(Book book) {
+        UUID id = book.getId();
+        String title = book.getTitle();
+        String author = book.getAuthor();
+        afterCommit(() -> {
+            synchronized (this) {
+                removeEntries(id);
+                index(id, title, author);
+            }
+        });
+    }
+
+    /**
+     * Removes a book from the index once the current transaction commits.
+     *
+     * @param bookId UUID of the deleted book
+     */
+    public void remove(UUID bookId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                removeEntries(bookId);
+            }
+        });
+    }
+
+    /**
+     * Postings whose text, from the posting's word on, may start with the query, in alphabetical order of it.
+     * A single word is matched by prefix; with several words the first one must be a whole word.
+     */
+    private Iterable<Posting> candidates(String[] query) {
+        String first = query[0];
+        if (query.length > 1) {
+            NavigableSet<Posting> postings = postingsByWord.get(first);
+            return postings != null ? postings : List.of();
+        }
+        return () -> postingsByWord.subMap(first, true, first + Character.MAX_VALUE, true).values().stream()
+                .flatMap(NavigableSet::stream)
+                .iterator();
+    }
+
+    /** Writers are serialized by the callers, so a word's postings are never dropped while another book adds one. */
+    private void index(UUID bookId, String title, String author) {
+        List<Entry> entries = new ArrayList<>(2);
+        addEntry(entries, bookId, title, SuggestionType.TITLE);
+        addEntry(entries, bookId, author, SuggestionType.AUTHOR);
+        entriesByBook.put(bookId, entries);
+    }
+
+    private void addEntry(List<Entry> entries, UUID bookId, String text, SuggestionType type) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String[] words = normalized.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            String stored = postingsByWord.ceilingKey(words[i]);
+            if (words[i].equals(stored)) {
+                words[i] = stored;
+            } else if (i < MAX_WORDS_INDEXED) {
+                postingsByWord.put(words[i], new ConcurrentSkipListSet<>(Posting.ORDER));
+            }
+        }
+
+        Entry entry = new Entry(bookId, text, type, words);
+        for (int i = 0; i < words.length && i < MAX_WORDS_INDEXED; i++) {
+            postingsByWord.get(words[i]).add(new Posting(entry, i));
+        }
+        entries.add(entry);
+    }
+
+    private void removeEntries(UUID bookId) {
+        List<Entry> entries = entriesByBook.remove(bookId);
+        if (entries == null) {
+            return;
+        }
+        for (Entry entry : entries) {
+            String[] words = entry.words();
+            for (int i = 0; i < words.length && i < MAX_WORDS_INDEXED; i++) {
+                NavigableSet<Posting> postings = postingsByWord.get(words[i]);
+                if (postings != null) {
+                    postings.remove(new Posting(entry, i));
+                    if (postings.isEmpty()) {
+                        postingsByWord.remove(words[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Index size.
+     *
+     * @param books    Books indexed
+     * @param words    Distinct words, each stored once
+     * @param postings References from a word to a title or author containing it
+     */
+    public record Stats(int books, int words, long postings) {
+    }
+
+    /**
+     * A title or author of a book, with its normalized words shared with every other entry using them.
+     */
+    private record Entry(UUID bookId, String text, SuggestionType type, String[] words) {
+
+        /**
+         * @return true if the words from {@code position} on are the query words, the last one matched by prefix
+         */
+        boolean matches(int position, String[] query) {
+            if (position + query.length > words.length) {
+                return false;
+            }
+            int last = query.length - 1;
+            for (int i = 0; i < last; i++) {
+                if (!words[position + i].equals(query[i])) {
+                    return false;
+                }
+            }
+            return words[position + last].startsWith(query[last]);
+        }
+    }
+
+    /**
+     * An entry seen from one of its words. Postings of a word are ordered as the text from that word on would
+     * be, then by type and book, so a range of words yields its suggestions in alphabetical order.
+     */
+    private record Posting(Entry entry, int position) {
+
+        static final Comparator<Posting> ORDER = Posting::compareSuffix;
+
+        private int compareSuffix(Posting other) {
+            String[] words = entry.words();
+            String[] otherWords = other.entry.words();
+            int i = position;
+            int j = other.position;
+            for (; i < words.length && j < otherWords.length; i++, j++) {
+                int compared = words[i].compareTo(otherWords[j]);
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            int compared = Integer.compare(words.length - i, otherWords.length - j);
+            if (compared != 0) {
+                return compared;
+            }
+            compared = entry.type().compareTo(other.entry.type());
+            if (compared != 0) {
+                return compared;
+            }
+            compared = entry.bookId().compareTo(other.entry.bookId());
+            return compared != 0 ? compared : Integer.compare(position, other.position);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.dto.CommentDetailsDTO;
+import com.vibebooks.api.model.Comment;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.CommentLikeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Assembles {@link CommentDetailsDTO} objects for a list of comments at once.
+ *
+ * <p>Like counts are read from the {@code likes_count} column of the comments, and the current user's likes
+ * are loaded with one query for all comment IDs (SQL IN clause), so the number of queries does not depend
+ * on the number of comments.
+ * The comments must have their user loaded; book titles are passed in by the caller, which already has them
+ * or reads them with one query, so the books of the comments are never initialized one by one.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentDetailsAssembler {
+
+    private final CommentLikeRepository commentLikeRepository;
+
+    /**
+     * Converts comments into {@link CommentDetailsDTO} objects.
+     *
+     * @param comments      Comment entities, with their user loaded
+     * @param bookTitles    Titles of the books of the comments, by book ID
+     * @param loggedInUser  The authenticated user, or null if anonymous
+     * @return CommentDetailsDTO list in the same order as the given comments
+     */
+    public List<CommentDetailsDTO> assemble(List<Comment> comments, Map<UUID, String> bookTitles, User loggedInUser) {
+        if (comments.isEmpty()) {
+            return List.of();
+        }
+
+        Set<UUID> likedByUser = new HashSet<>();
+        if (loggedInUser != null) {
+            List<UUID> commentIds = comments.stream().map(Comment::getId).toList();
+            commentLikeRepository.findAllByUserIdAndCommentIdIn(loggedInUser.getId(), commentIds)
+                    .forEach(like -> likedByUser.add(like.getComment().getId()));
+        }
+
+        return comments.stream()
+                .map(comment -> new CommentDetailsDTO(
+                        comment,
+                        bookTitles.get(comment.getBook().getId()),
+                        comment.getLikesCount(),
+                        likedByUser.contains(comment.getId())
+                ))
+                .toList();
+    }
+}
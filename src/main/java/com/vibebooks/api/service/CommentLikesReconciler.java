@@ -0,0 +1,67 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.repository.CommentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repairs the {@code likes_count} column of the comments.
+ *
+ * <p>The counter is maintained by atomic updates when a like is toggled, so it only drifts when likes are changed
+ * outside the application (e.g. rows removed directly in the database). The repair walks the comments in ID order,
+ * {@code api.comment-likes.reconcile-chunk-size} at a time, and each chunk is recounted and fixed in its own short
+ * transaction, so the whole table is never locked and toggles keep working while it runs.</p>
+ */
+@Service
+public class CommentLikesReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentLikesReconciler.class);
+
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CommentLikesReconciler(
+            CommentRepository commentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.comment-likes.reconcile-chunk-size:1000}") int chunkSize
+    ) {
+        this.commentRepository = commentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Recounts the likes of every comment, chunk by chunk.
+     * Runs on the cron defined by {@code api.comment-likes.reconcile-cron} (disabled by default).
+     *
+     * @return The number of comments whose counter was repaired
+     */
+    @Scheduled(cron = "${api.comment-likes.reconcile-cron:-}")
+    public int reconcileAll() {
+        int repaired = 0;
+        UUID after = FIRST;
+        while (true) {
+            List<UUID> chunk = commentRepository.findIdsAfter(after, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Integer updated = transactionTemplate.execute(status -> commentRepository.reconcileLikes(chunk));
+            repaired += updated != null ? updated : 0;
+            after = chunk.getLast();
+        }
+        log.info("Reconciled like counts, {} comments repaired", repaired);
+        return repaired;
+    }
+}
@@ -2,23 +2,27 @@ package com.vibebooks.api.service;
 
 import com.vibebooks.api.dto.CommentCreationDTO;
 import com.vibebooks.api.dto.CommentDetailsDTO;
+import com.vibebooks.api.dto.CursorSliceDTO;
 import com.vibebooks.api.model.Comment;
-import com.vibebooks.api.model.CommentLike;
+import com.vibebooks.api.model.CountMode;
 import com.vibebooks.api.model.User;
 import com.vibebooks.api.repository.BookRepository;
 import com.vibebooks.api.repository.CommentRepository;
 import com.vibebooks.api.repository.CommentLikeRepository;
 import com.vibebooks.api.dto.PageResponseDTO;
-import org.springframework.data.domain.Page;
+import com.vibebooks.api.util.CursorCodec;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.awt.*;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -28,32 +32,79 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final BookRepository bookRepository;
     private final CommentLikeRepository commentLikeRepository;
+    private final BookStatsService bookStatsService;
+    private final CommentDetailsAssembler commentDetailsAssembler;
+    private final PageCountService pageCountService;
 
     @Transactional
     public Comment addCommentToBook(CommentCreationDTO dto, User loggedInUser) {
         var book = bookRepository.findById(dto.bookId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found"));
 
-        var comment = new Comment(dto.text(), loggedInUser, book);
-        return commentRepository.save(comment);
+        var comment = commentRepository.saveAndFlush(new Comment(dto.text(), loggedInUser, book));
+        bookStatsService.recordComment(book.getId(), true);
+        pageCountService.invalidate(PageCountService.key(PageCountService.COMMENTS, book.getId()));
+        return comment;
     }
 
+    /**
+     * Retrieves a page of the comments of a book.
+     * The page is read without a count query; the total is resolved according to {@code countMode},
+     * and {@link CountMode#ESTIMATED} reads the book's stored comment counter.
+     *
+     * @param bookId UUID of the book
+     * @param loggedInUser The authenticated user, or null if anonymous
+     * @param pageable Pagination parameters
+     * @param countMode How the total number of comments is computed, if at all
+     * @return The page of comments
+     */
     @Transactional(readOnly = true)
-    public PageResponseDTO<CommentDetailsDTO> findCommentsByBookId(UUID bookId, User loggedInUser, Pageable pageable) {
-        if (!bookRepository.existsById(bookId)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found");
-        }
+    public PageResponseDTO<CommentDetailsDTO> findCommentsByBookId(UUID bookId, User loggedInUser, Pageable pageable, CountMode countMode) {
+        String bookTitle = findBookTitle(bookId);
+
+        Slice<Comment> commentsSlice = commentRepository.findAllByBookId(bookId, pageable);
+        List<CommentDetailsDTO> content = commentDetailsAssembler.assemble(
+                commentsSlice.getContent(), Map.of(bookId, bookTitle), loggedInUser);
+
+        Long total = pageCountService.count(countMode, PageCountService.key(PageCountService.COMMENTS, bookId),
+                () -> commentRepository.countByBookId(bookId),
+                () -> bookStatsService.getStats(bookId).getCommentsCount());
+        return new PageResponseDTO<>(content, commentsSlice, total);
+    }
 
-        Page<Comment> commentsPage = commentRepository.findAllByBookId(bookId, pageable);
+    /**
+     * Retrieves the comments of a book with keyset pagination, newest first.
+     * Each slice costs the same however far the client has scrolled, and no count query is run.
+     *
+     * @param bookId UUID of the book
+     * @param cursor Cursor returned with the previous slice (or in the feed), or null for the first slice
+     * @param size Maximum number of comments in the slice
+     * @param loggedInUser The authenticated user, or null if anonymous
+     * @return The slice and the cursor of the next one
+     */
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<CommentDetailsDTO> findCommentsByBookIdAfter(UUID bookId, String cursor, int size, User loggedInUser) {
+        String bookTitle = findBookTitle(bookId);
+
+        Limit limit = Limit.of(size + 1);
+        List<Comment> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findByBookIdOrderByCreatedAtDescIdDesc(bookId, limit);
+        } else {
+            CursorCodec.Position position = CursorCodec.decode(cursor);
+            comments = commentRepository.findByBookIdBefore(bookId, position.createdAt(), position.id(), limit);
+        }
 
-        Page<CommentDetailsDTO> dtoPage = commentsPage.map(comment -> {
-            long likesCount = commentLikeRepository.countByCommentId(comment.getId());
-            boolean likedByCurrentUser = (loggedInUser != null) &&
-                    commentLikeRepository.findByUserIdAndCommentId(loggedInUser.getId(), comment.getId()).isPresent();
-            return new CommentDetailsDTO(comment, likesCount, likedByCurrentUser);
-        });
+        return CursorSliceDTO.of(comments, size, comment -> CursorCodec.encode(comment.getCreatedAt(), comment.getId()),
+                slice -> commentDetailsAssembler.assemble(slice, Map.of(bookId, bookTitle), loggedInUser));
+    }
 
-        return new PageResponseDTO<>(dtoPage);
+    /**
+     * Reads the title of a book, which also checks that it exists.
+     */
+    private String findBookTitle(UUID bookId) {
+        return bookRepository.findTitleById(bookId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found"));
     }
 
     @Transactional
@@ -67,24 +118,40 @@ public class CommentService {
 
         commentLikeRepository.deleteAll(comment.getLikes());
         commentRepository.delete(comment);
+        commentRepository.flush();
+        bookStatsService.recordComment(comment.getBook().getId(), false);
+        pageCountService.invalidate(PageCountService.key(PageCountService.COMMENTS, comment.getBook().getId()));
     }
 
+    /**
+     * Likes the comment, or removes the user's like if there is one.
+     * The like and the stored counter are written by one statement, which returns both, so concurrent toggles
+     * of the same user can neither duplicate the like nor move the counter without a like row changing.
+     *
+     * @param commentId UUID of the comment
+     * @param loggedInUser The authenticated user
+     * @return The comment with its new like count
+     */
     @Transactional
     public CommentDetailsDTO likeOrUnlikeComment(UUID commentId, User loggedInUser) {
         var comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found"));
 
-        var likeOptional = commentLikeRepository.findByUserIdAndCommentId(loggedInUser.getId(), comment.getId());
-
-        if (likeOptional.isPresent()) {
-            commentLikeRepository.delete(likeOptional.get());
-        } else {
-            commentLikeRepository.save(new CommentLike(loggedInUser, comment));
+        try {
+            var toggle = commentLikeRepository.toggleLike(loggedInUser.getId(), commentId);
+            if (!toggle.getToggled()) {
+                // The same like was inserted concurrently after the statement started; the second attempt removes it.
+                toggle = commentLikeRepository.toggleLike(loggedInUser.getId(), commentId);
+            }
+            if (!toggle.getToggled()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "The comment like was changed concurrently, please retry.");
+            }
+            if (toggle.getLikesCount() == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found");
+            }
+            return new CommentDetailsDTO(comment, toggle.getLikesCount(), toggle.getLiked());
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found");
         }
-
-        long newLikesCount = commentLikeRepository.countByCommentId(commentId);
-        boolean isLikedNow = likeOptional.isEmpty();
-
-        return new CommentDetailsDTO(comment, newLikesCount, isLikedNow);
     }
-}
\ No newline at end of file
+}
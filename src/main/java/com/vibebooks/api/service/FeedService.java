@@ -2,111 +2,232 @@ package com.vibebooks.api.service;
 
 import com.vibebooks.api.dto.BookFeedDTO;
 import com.vibebooks.api.dto.CommentDetailsDTO;
+import com.vibebooks.api.dto.CursorSliceDTO;
 import com.vibebooks.api.dto.PageResponseDTO;
 import com.vibebooks.api.model.*;
 import com.vibebooks.api.repository.BookRepository;
-import com.vibebooks.api.repository.CommentLikeRepository;
 import com.vibebooks.api.repository.CommentRepository;
 import com.vibebooks.api.repository.UserBookStatusRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import com.vibebooks.api.util.CursorCodec;
+import com.vibebooks.api.util.ParallelStages;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Service responsible for generating the user feed.
  * * Business Rule: Aggregates books, user interactions (likes, reading status, sentiments),
- * and comments in a single paginated response. To prevent N+1 database performance issues,
+ * and comments in a single paginated response. Like, comment and sentiment totals are read from the
+ * {@code book_stats} read model instead of being aggregated on every request. To prevent N+1 database performance issues,
  * it strictly uses batch fetching (SQL IN clauses) and groups the data in memory.
+ * Only the latest {@code api.feed.comments-per-book} comments of each book are loaded, so the cost of a page
+ * does not depend on how many comments its books have; the rest is reachable through the comments cursor.
+ *
+ * <p>The counters, the user's statuses and the latest comments (with their likes) do not depend on each other,
+ * so they are read as concurrent stages of a {@link ParallelStages} scope, as is the total of the page, and the
+ * feed costs the slowest of those round trips instead of their sum. Each stage reads in its own read-only
+ * transaction, with {@code api.feed.stage-timeout} as query timeout, and the calling thread holds no connection
+ * while it waits, so a burst of feed requests cannot deadlock the pool. All the stages of a request share one
+ * scope, and at most {@code api.feed.max-concurrent-stages} of them run at once, which bounds the connections
+ * a single request holds. {@code api.feed.parallel-stages=false} runs the same stages one after the other.</p>
  */
 @Service
-@RequiredArgsConstructor
 public class FeedService {
 
     private final BookRepository bookRepository;
     private final CommentRepository commentRepository;
-    private final CommentLikeRepository commentLikeRepository;
     private final UserBookStatusRepository userBookStatusRepository;
+    private final BookStatsService bookStatsService;
+    private final CommentDetailsAssembler commentDetailsAssembler;
+    private final PageCountService pageCountService;
+    private final TransactionTemplate readOnly;
+    private final int commentsPerBook;
+    private final boolean parallelStages;
+    private final int maxConcurrentStages;
+    private final Duration stageTimeout;
+
+    public FeedService(
+            BookRepository bookRepository,
+            CommentRepository commentRepository,
+            UserBookStatusRepository userBookStatusRepository,
+            BookStatsService bookStatsService,
+            CommentDetailsAssembler commentDetailsAssembler,
+            PageCountService pageCountService,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.feed.comments-per-book:3}") int commentsPerBook,
+            @Value("${api.feed.parallel-stages:true}") boolean parallelStages,
+            @Value("${api.feed.max-concurrent-stages:4}") int maxConcurrentStages,
+            @Value("${api.feed.stage-timeout:2s}") Duration stageTimeout
+    ) {
+        this.bookRepository = bookRepository;
+        this.commentRepository = commentRepository;
+        this.userBookStatusRepository = userBookStatusRepository;
+        this.bookStatsService = bookStatsService;
+        this.commentDetailsAssembler = commentDetailsAssembler;
+        this.pageCountService = pageCountService;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setTimeout((int) Math.max(1, (stageTimeout.toMillis() + 999) / 1000));
+        this.commentsPerBook = commentsPerBook;
+        this.parallelStages = parallelStages;
+        this.maxConcurrentStages = maxConcurrentStages;
+        this.stageTimeout = stageTimeout;
+    }
 
     /**
      * Retrieves a paginated feed of books tailored to the current user.
+     * The page is read without a count query; the total is resolved according to {@code countMode}.
+     * Books are ordered by the requested sort, then by ID descending, as {@link SqlFeedService} does,
+     * so pages never overlap and both engines return the same page.
      *
      * @param pageable Pagination configuration.
+     * @param countMode How the total number of books is computed, if at all.
      * @param loggedInUser The currently authenticated user, or null if anonymous.
      * @return A paginated wrapper containing the fully aggregated book feed.
      */
-    @Transactional(readOnly = true)
-    public PageResponseDTO<BookFeedDTO> getBookFeed(Pageable pageable, User loggedInUser) {
-        Page<Book> booksPage = bookRepository.findAll(pageable);
-        List<UUID> bookIds = booksPage.getContent().stream().map(Book::getId).toList();
-
-        if (bookIds.isEmpty()) {
-            return new PageResponseDTO<>(booksPage.map(b -> null));
+    public PageResponseDTO<BookFeedDTO> getBookFeed(Pageable pageable, CountMode countMode, User loggedInUser) {
+        try (ParallelStages stages = openStages()) {
+            Supplier<Long> total = stages.fork(inReadOnlyTransaction(() -> pageCountService.count(countMode,
+                    PageCountService.key(PageCountService.BOOKS),
+                    bookRepository::count, () -> pageCountService.estimateRows(PageCountService.BOOKS))));
+            Slice<Book> booksSlice = bookRepository.findAllBy(withIdTieBreaker(pageable));
+            List<BookFeedDTO> content = assemble(booksSlice.getContent(), loggedInUser, stages);
+            stages.join();
+            return new PageResponseDTO<>(content, booksSlice, total.get());
         }
+    }
 
-        Map<UUID, Long> bookLikesCount = userBookStatusRepository.countLikesByBookIdIn(bookIds).stream()
-                .collect(Collectors.toMap(UserBookStatusRepository.BookLikeCount::getBookId, UserBookStatusRepository.BookLikeCount::getCount));
-
-        Map<UUID, Map<BookSentiment, Long>> bookSentiments = new HashMap<>();
-        for (UUID id : bookIds) {
-            Map<BookSentiment, Long> initial = new EnumMap<>(BookSentiment.class);
-            for (BookSentiment s : BookSentiment.values()) initial.put(s, 0L);
-            bookSentiments.put(id, initial);
+    /**
+     * Retrieves the feed newest first with keyset pagination on {@code (createdAt, id)}.
+     * Each slice costs the same at any depth, books added while the user scrolls never shift
+     * the following slices, and no count query is run.
+     *
+     * @param cursor Cursor returned with the previous slice, or null for the first slice.
+     * @param size Maximum number of books in the slice.
+     * @param loggedInUser The currently authenticated user, or null if anonymous.
+     * @return The slice of the aggregated feed and the cursor of the next one.
+     */
+    public CursorSliceDTO<BookFeedDTO> getBookFeedAfter(String cursor, int size, User loggedInUser) {
+        Limit limit = Limit.of(size + 1);
+        List<Book> books;
+        if (cursor == null || cursor.isBlank()) {
+            books = bookRepository.findByOrderByCreatedAtDescIdDesc(limit);
+        } else {
+            CursorCodec.Position position = CursorCodec.decode(cursor);
+            books = bookRepository.findAfter(position.createdAt(), position.id(), limit);
         }
-        userBookStatusRepository.countSentimentsByBookIdIn(bookIds).forEach(agg ->
-                bookSentiments.get(agg.getBookId()).put(agg.getSentiment(), agg.getCount())
-        );
-
-        Map<UUID, UserBookStatus> userStatuses = new HashMap<>();
-        if (loggedInUser != null) {
-            userBookStatusRepository.findAllByUserIdAndBookIdIn(loggedInUser.getId(), bookIds)
-                    .forEach(status -> userStatuses.put(status.getBook().getId(), status));
+        try (ParallelStages stages = openStages()) {
+            return CursorSliceDTO.of(books, size, book -> CursorCodec.encode(book.getCreatedAt(), book.getId()),
+                    slice -> assemble(slice, loggedInUser, stages));
         }
+    }
 
-        List<Comment> comments = commentRepository.findAllByBookIdIn(bookIds);
-        List<UUID> commentIds = comments.stream().map(Comment::getId).toList();
-
-        Map<UUID, Long> commentLikesCount = new HashMap<>();
-        Set<UUID> commentsLikedByUser = new HashSet<>();
+    /**
+     * Aggregates counters, user interactions and the latest comments of the given books,
+     * with a fixed number of queries whatever the number of books, run as concurrent stages of the request's scope.
+     */
+    private List<BookFeedDTO> assemble(List<Book> books, User loggedInUser, ParallelStages stages) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
 
-        if (!commentIds.isEmpty()) {
-            commentLikeRepository.countLikesByCommentIdIn(commentIds).forEach(agg ->
-                    commentLikesCount.put(agg.getCommentId(), agg.getCount())
-            );
+        List<UUID> bookIds = books.stream().map(Book::getId).toList();
+        Map<UUID, String> bookTitles = books.stream().collect(Collectors.toMap(Book::getId, Book::getTitle));
 
-            if (loggedInUser != null) {
-                commentLikeRepository.findAllByUserIdAndCommentIdIn(loggedInUser.getId(), commentIds)
-                        .forEach(cl -> commentsLikedByUser.add(cl.getComment().getId()));
-            }
-        }
+        Supplier<Map<UUID, BookStats>> statsStage = stages.fork(
+                inReadOnlyTransaction(() -> bookStatsService.getStats(bookIds)));
+        Supplier<Map<UUID, UserBookStatus>> statusStage = loggedInUser == null ? Map::of : stages.fork(
+                inReadOnlyTransaction(() -> findUserStatuses(loggedInUser, bookIds)));
+        Supplier<Map<UUID, List<CommentDetailsDTO>>> commentStage = commentsPerBook <= 0 ? Map::of : stages.fork(
+                inReadOnlyTransaction(() -> findLatestComments(bookIds, bookTitles, loggedInUser)));
+        stages.join();
 
-        Map<UUID, List<CommentDetailsDTO>> commentsByBook = comments.stream()
-                .map(c -> new CommentDetailsDTO(
-                        c,
-                        commentLikesCount.getOrDefault(c.getId(), 0L),
-                        commentsLikedByUser.contains(c.getId())
-                ))
-                .collect(Collectors.groupingBy(CommentDetailsDTO::bookId));
+        Map<UUID, BookStats> bookStats = statsStage.get();
+        Map<UUID, UserBookStatus> userStatuses = statusStage.get();
+        Map<UUID, List<CommentDetailsDTO>> commentsByBook = commentStage.get();
 
-        Page<BookFeedDTO> feedDtoPage = booksPage.map(book -> {
+        return books.stream().map(book -> {
             UUID bId = book.getId();
             UserBookStatus uStatus = userStatuses.get(bId);
+            BookStats stats = bookStats.get(bId);
+            List<CommentDetailsDTO> bookComments = commentsByBook.getOrDefault(bId, List.of());
 
             return new BookFeedDTO(
                     book,
-                    commentsByBook.getOrDefault(bId, List.of()),
-                    bookLikesCount.getOrDefault(bId, 0L),
+                    bookComments,
+                    stats.getCommentsCount(),
+                    nextCommentsCursor(bookComments, stats.getCommentsCount()),
+                    stats.getLikesCount(),
                     uStatus != null && uStatus.isLiked(),
                     uStatus != null ? uStatus.getStatus() : null,
                     uStatus != null ? uStatus.getSentiment() : null,
-                    bookSentiments.get(bId)
+                    stats.getSentimentCounts()
             );
-        });
+        }).toList();
+    }
 
-        return new PageResponseDTO<>(feedDtoPage);
+    private Map<UUID, UserBookStatus> findUserStatuses(User loggedInUser, List<UUID> bookIds) {
+        Map<UUID, UserBookStatus> userStatuses = new HashMap<>();
+        userBookStatusRepository.findAllByUserIdAndBookIdIn(loggedInUser.getId(), bookIds)
+                .forEach(status -> userStatuses.put(status.getBook().getId(), status));
+        return userStatuses;
+    }
+
+    /**
+     * Loads the latest comments of the books and their likes, grouped by book.
+     * The likes depend on the comment IDs, so both run in the same stage.
+     * Titles come from the books of the page, so the books of the comments are not loaded again.
+     */
+    private Map<UUID, List<CommentDetailsDTO>> findLatestComments(List<UUID> bookIds, Map<UUID, String> bookTitles,
+                                                                  User loggedInUser) {
+        List<Comment> comments = commentRepository.findLatestByBookIdIn(bookIds, commentsPerBook);
+        return commentDetailsAssembler.assemble(comments, bookTitles, loggedInUser)
+                .stream()
+                .collect(Collectors.groupingBy(CommentDetailsDTO::bookId));
+    }
+
+    /**
+     * Appends the ID, descending, to the sort unless it already orders by ID.
+     */
+    private static Pageable withIdTieBreaker(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (pageable.isUnpaged() || sort.getOrderFor("id") != null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort.and(Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    private ParallelStages openStages() {
+        return ParallelStages.open(parallelStages, maxConcurrentStages, stageTimeout);
+    }
+
+    /**
+     * Wraps a stage in its own read-only transaction, bounded by the stage timeout.
+     */
+    private <T> Callable<T> inReadOnlyTransaction(Supplier<T> stage) {
+        return () -> readOnly.execute(status -> stage.get());
+    }
+
+    /**
+     * Returns the cursor pointing after the last comment shown, or null if the book has no more comments.
+     */
+    private String nextCommentsCursor(List<CommentDetailsDTO> shown, long commentsCount) {
+        if (shown.isEmpty() || shown.size() >= commentsCount) {
+            return null;
+        }
+        CommentDetailsDTO last = shown.getLast();
+        return CursorCodec.encode(last.creationDate(), last.id());
     }
-}
\ No newline at end of file
+}
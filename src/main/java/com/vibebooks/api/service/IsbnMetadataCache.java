@@ -0,0 +1,295 @@
+package com.vibebooks.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.client.GoogleBooksClient;
+import com.vibebooks.api.dto.google.VolumeInfo;
+import com.vibebooks.api.model.IsbnMetadata;
+import com.vibebooks.api.repository.IsbnMetadataRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of Google Books metadata by ISBN.
+ *
+ * <p>Lookups go through two tiers before reaching Google: a bounded in-memory LRU map and the
+ * {@code isbn_metadata_cache} table, which survives restarts and is shared between instances.
+ * "Not found" answers are cached too (negative entries), with their own, shorter TTL, so
+ * retries of unknown ISBNs do not spend API quota. Upstream errors (timeouts, 5xx) are never cached.</p>
+ *
+ * <p>Concurrent lookups of the same uncached ISBN share a single Google call.</p>
+ *
+ * <p>As a {@link MeterBinder}, it publishes {@code isbn.cache.hits} tagged with the tier that answered
+ * ({@code memory} or {@code database}), {@code isbn.cache.negative.hits}, {@code isbn.cache.misses} and the
+ * {@code isbn.cache.memory.size} gauge, so the hit ratio can be computed from the scraped counters.</p>
+ */
+@Service
+public class IsbnMetadataCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(IsbnMetadataCache.class);
+
+    private final GoogleBooksClient googleBooksClient;
+    private final IsbnMetadataRepository isbnMetadataRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Clock clock;
+
+    private final Map<String, CachedVolume> memory;
+    private final ConcurrentMap<String, CompletableFuture<Optional<VolumeInfo>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public IsbnMetadataCache(
+            GoogleBooksClient googleBooksClient,
+            IsbnMetadataRepository isbnMetadataRepository,
+            ObjectMapper objectMapper,
+            @Value("${api.isbn-cache.max-entries:10000}") int maxEntries,
+            @Value("${api.isbn-cache.ttl:30d}") Duration ttl,
+            @Value("${api.isbn-cache.negative-ttl:6h}") Duration negativeTtl
+    ) {
+        this(googleBooksClient, isbnMetadataRepository, objectMapper, maxEntries, ttl, negativeTtl, Clock.systemUTC());
+    }
+
+    IsbnMetadataCache(
+            GoogleBooksClient googleBooksClient,
+            IsbnMetadataRepository isbnMetadataRepository,
+            ObjectMapper objectMapper,
+            int maxEntries,
+            Duration ttl,
+            Duration negativeTtl,
+            Clock clock
+    ) {
+        this.googleBooksClient = googleBooksClient;
+        this.isbnMetadataRepository = isbnMetadataRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedVolume> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Looks up the volume metadata for an ISBN, calling Google only when no fresh entry is cached.
+     *
+     * @param isbn ISBN of the book
+     * @return Future completed with the volume, or empty if Google has no volume for the ISBN.
+     *         Completes exceptionally with a {@link ResponseStatusException} when Google fails.
+     */
+    public CompletableFuture<Optional<VolumeInfo>> findByIsbn(String isbn) {
+        CachedVolume cached = lookup(isbn);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(cached.volume()));
+        }
+
+        CompletableFuture<Optional<VolumeInfo>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<VolumeInfo>> existing = inFlight.putIfAbsent(isbn, pending);
+        if (existing != null) {
+            return existing;
+        }
+
+        misses.increment();
+        googleBooksClient.findByIsbn(isbn).whenComplete((result, error) -> {
+            inFlight.remove(isbn, pending);
+            if (error != null) {
+                pending.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                return;
+            }
+            VolumeInfo volume = result.orElse(null);
+            Instant fetchedAt = clock.instant();
+            remember(isbn, new CachedVolume(volume, fetchedAt.plus(volume != null ? ttl : negativeTtl)));
+            pending.complete(result);
+            persist(isbn, volume, fetchedAt);
+        });
+        return pending;
+    }
+
+    /**
+     * Blocking variant of {@link #findByIsbn(String)}.
+     * Must be called outside of any database transaction, since it may wait on Google.
+     *
+     * @param isbn ISBN of the book
+     * @return {@link VolumeInfo} object containing Google Books metadata
+     * @throws ResponseStatusException 404 if Google has no volume for the ISBN, 502/504 if the call fails
+     */
+    public VolumeInfo fetchByIsbn(String isbn) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "ISBN metadata must not be fetched inside a database transaction");
+        try {
+            return findByIsbn(isbn).join()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found on Google Books for the provided ISBN."));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the hit and miss counters accumulated since startup.
+     *
+     * @return Snapshot of the cache statistics
+     */
+    public Stats getStats() {
+        int size;
+        synchronized (memory) {
+            size = memory.size();
+        }
+        return new Stats(memoryHits.sum(), databaseHits.sum(), negativeHits.sum(), misses.sum(), size);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("isbn.cache.hits", memoryHits, LongAdder::sum)
+                .description("ISBN lookups answered by the cache")
+                .tag("tier", "memory")
+                .register(registry);
+        FunctionCounter.builder("isbn.cache.hits", databaseHits, LongAdder::sum)
+                .description("ISBN lookups answered by the cache")
+                .tag("tier", "database")
+                .register(registry);
+        FunctionCounter.builder("isbn.cache.negative.hits", negativeHits, LongAdder::sum)
+                .description("Cache hits on a cached \"not found\" entry, in either tier")
+                .register(registry);
+        FunctionCounter.builder("isbn.cache.misses", misses, LongAdder::sum)
+                .description("ISBN lookups that had to call Google Books")
+                .register(registry);
+        Gauge.builder("isbn.cache.memory.size", this, cache -> cache.getStats().memorySize())
+                .description("Entries held in the in-memory tier")
+                .register(registry);
+    }
+
+    /**
+     * Deletes expired entries from the persistent tier.
+     * Runs on the cron defined by {@code api.isbn-cache.purge-cron} (disabled by default).
+     */
+    @Scheduled(cron = "${api.isbn-cache.purge-cron:-}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        int rows = isbnMetadataRepository.deleteExpired(now.minus(ttl), now.minus(negativeTtl));
+        log.info("Purged {} expired ISBN metadata entries", rows);
+    }
+
+    private CachedVolume lookup(String isbn) {
+        Instant now = clock.instant();
+
+        CachedVolume cached;
+        synchronized (memory) {
+            cached = memory.get(isbn);
+        }
+        if (cached != null && cached.isFresh(now)) {
+            memoryHits.increment();
+            countNegative(cached);
+            return cached;
+        }
+
+        cached = isbnMetadataRepository.findById(isbn)
+                .map(this::toCachedVolume)
+                .filter(entry -> entry.isFresh(now))
+                .orElse(null);
+        if (cached != null) {
+            databaseHits.increment();
+            countNegative(cached);
+            remember(isbn, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Saves a Google answer to the persistent tier, best effort: the waiters already have it, and any failure
+     * (serialization, database, no connection available) only costs a later Google call.
+     */
+    private void persist(String isbn, VolumeInfo volume, Instant fetchedAt) {
+        try {
+            String json = volume != null ? objectMapper.writeValueAsString(volume) : null;
+            isbnMetadataRepository.save(new IsbnMetadata(isbn, json, fetchedAt));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not persist metadata for ISBN {}", isbn, e);
+        }
+    }
+
+    private void remember(String isbn, CachedVolume cached) {
+        synchronized (memory) {
+            memory.put(isbn, cached);
+        }
+    }
+
+    private void countNegative(CachedVolume cached) {
+        if (cached.volume() == null) {
+            negativeHits.increment();
+        }
+    }
+
+    private CachedVolume toCachedVolume(IsbnMetadata entry) {
+        if (!entry.isFound()) {
+            return new CachedVolume(null, entry.getFetchedAt().plus(negativeTtl));
+        }
+        try {
+            VolumeInfo volume = objectMapper.readValue(entry.getVolumeJson(), VolumeInfo.class);
+            return new CachedVolume(volume, entry.getFetchedAt().plus(ttl));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable cached metadata for ISBN {}", entry.getIsbn(), e);
+            return new CachedVolume(null, Instant.MIN);
+        }
+    }
+
+    private record CachedVolume(VolumeInfo volume, Instant expiresAt) {
+        boolean isFresh(Instant now) {
+            return expiresAt.isAfter(now);
+        }
+    }
+
+    /**
+     * Cache statistics since startup.
+     *
+     * @param memoryHits   Lookups answered by the in-memory tier
+     * @param databaseHits Lookups answered by the database tier
+     * @param negativeHits Hits (either tier) on a cached "not found" entry
+     * @param misses       Lookups that had to call Google
+     * @param memorySize   Entries currently held in memory
+     */
+    public record Stats(long memoryHits, long databaseHits, long negativeHits, long misses, int memorySize) {
+
+        public double hitRatio() {
+            long hits = memoryHits + databaseHits;
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
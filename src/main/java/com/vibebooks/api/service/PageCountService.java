@@ -0,0 +1,150 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.model.CountMode;
+import com.vibebooks.api.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Service responsible for the total counts of paginated responses.
+ *
+ * <p>Pages are read without a count query, and the total is resolved here according to the
+ * {@link CountMode} chosen by the client:</p>
+ * <ul>
+ *     <li>{@code EXACT} runs the count on every request.</li>
+ *     <li>{@code CACHED} keeps exact counts in memory for {@code api.counts.cache-ttl}. Entries are grouped
+ *         by scope (e.g. {@code books}, {@code comments:<bookId>}) and a scope is dropped after any
+ *         transaction that inserts or deletes its rows commits.</li>
+ *     <li>{@code ESTIMATED} uses an estimate that costs no scan, such as {@code pg_class.reltuples}
+ *         or a stored counter, and falls back to {@code CACHED} when there is none.</li>
+ *     <li>{@code NONE} returns no total.</li>
+ * </ul>
+ */
+@Service
+public class PageCountService {
+
+    /** Scope of the counts over the {@code books} table, including searches. */
+    public static final String BOOKS = "books";
+
+    /** Scope of the counts over the {@code comments} table; per-book counts use {@code key(COMMENTS, bookId)}. */
+    public static final String COMMENTS = "comments";
+
+    private static final String SCOPE_SEPARATOR = ":";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, CachedCount> cache;
+
+    @Autowired
+    public PageCountService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${api.counts.cache-ttl:30s}") Duration ttl,
+            @Value("${api.counts.max-entries:1000}") int maxEntries
+    ) {
+        this(jdbcTemplate, ttl, maxEntries, Clock.systemUTC());
+    }
+
+    PageCountService(JdbcTemplate jdbcTemplate, Duration ttl, int maxEntries, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Builds the cache key of a count inside a scope.
+     *
+     * @param scope Scope invalidated together, e.g. {@link #BOOKS}
+     * @param parts Parameters that make the count distinct, e.g. the search mode and query
+     * @return The key
+     */
+    public static String key(String scope, Object... parts) {
+        StringBuilder key = new StringBuilder(scope);
+        for (Object part : parts) {
+            key.append(SCOPE_SEPARATOR).append(part);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Resolves the total of a paginated response.
+     *
+     * @param mode     Counting strategy chosen by the client
+     * @param key      Cache key, built with {@link #key}
+     * @param exact    Runs the exact count query
+     * @param estimate Returns an estimate without scanning, or a negative value if unknown; may be null
+     * @return The total, or null for {@link CountMode#NONE}
+     */
+    public Long count(CountMode mode, String key, LongSupplier exact, LongSupplier estimate) {
+        return switch (mode) {
+            case NONE -> null;
+            case EXACT -> exact.getAsLong();
+            case CACHED -> cached(key, exact);
+            case ESTIMATED -> {
+                long estimated = estimate != null ? estimate.getAsLong() : -1;
+                yield estimated >= 0 ? estimated : cached(key, exact);
+            }
+        };
+    }
+
+    /**
+     * Returns the planner's row estimate for a table, refreshed by {@code ANALYZE} and autovacuum.
+     *
+     * @param table Table name
+     * @return The estimated number of rows, or -1 if the table was never analyzed
+     */
+    public long estimateRows(String table) {
+        Long estimate = jdbcTemplate.queryForObject(
+                "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+        return estimate != null ? estimate : -1;
+    }
+
+    /**
+     * Drops every cached count of a scope once the current transaction commits,
+     * or immediately if there is none. Call after inserting or deleting rows of that scope.
+     *
+     * @param scope Scope to invalidate, e.g. {@link #BOOKS} or {@code key("comments", bookId)}
+     */
+    public void invalidate(String scope) {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (cache) {
+                cache.keySet().removeIf(key -> key.equals(scope) || key.startsWith(scope + SCOPE_SEPARATOR));
+            }
+        });
+    }
+
+    private long cached(String key, LongSupplier exact) {
+        Instant now = clock.instant();
+        CachedCount cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null && now.isBefore(cached.expiresAt())) {
+            return cached.value();
+        }
+
+        long value = exact.getAsLong();
+        synchronized (cache) {
+            cache.put(key, new CachedCount(value, now.plus(ttl)));
+        }
+        return value;
+    }
+
+    private record CachedCount(long value, Instant expiresAt) {
+    }
+}
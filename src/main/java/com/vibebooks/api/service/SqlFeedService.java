@@ -0,0 +1,257 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.model.BookSentiment;
+import com.vibebooks.api.model.CountMode;
+import com.vibebooks.api.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Alternative feed engine that renders a whole page in PostgreSQL.
+ *
+ * <p>One statement selects the books of the page, their counters and sentiment histogram from {@code book_stats},
+ * the viewer's status, and the latest {@code api.feed.comments-per-book} comments of each book with their stored
+ * like counts and the viewer's likes, and builds each book as a JSON object with {@code json_build_object} and
+ * {@code json_agg}. The stored like counter is returned next to that JSON, and the pending write-behind likes of
+ * {@link BookLikeCounter} for that book only are added to it as the row is written. The rows are streamed
+ * straight to the response, so no entity, DTO or intermediate map is created and the page costs one round trip.
+ * The document has the same shape as the one {@link FeedService} returns, including the comments cursor, which is
+ * encoded in SQL the way {@link com.vibebooks.api.util.CursorCodec} does.</p>
+ *
+ * <p>The total is resolved through {@link PageCountService} before the first byte is written, so an invalid request
+ * still gets a regular error response. Once streaming started, a failure can only abort the response.</p>
+ */
+@Service
+public class SqlFeedService {
+
+    private static final int FETCH_SIZE = 50;
+
+    /** Sortable properties of the feed and their columns; anything else is rejected rather than interpolated. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "created_at",
+            "title", "title",
+            "author", "author",
+            "publicationYear", "publication_year",
+            "id", "id"
+    );
+
+    private static final String FEED_SQL = """
+            WITH viewer AS (
+                SELECT CAST(? AS uuid) AS id
+            ),
+            page AS (
+                SELECT b.id, b.title, b.author, b.publication_year, b.cover_image_url, b.created_at
+                FROM books b
+                ORDER BY %1$s
+                LIMIT ? OFFSET ?
+            ),
+            latest AS (
+                SELECT c.id, c.text, c.user_id, c.created_at, c.likes_count, p.id AS book_id, p.title AS book_title
+                FROM page p
+                CROSS JOIN LATERAL (
+                    SELECT c.id, c.text, c.user_id, c.created_at, c.likes_count
+                    FROM comments c
+                    WHERE c.book_id = p.id
+                    ORDER BY c.created_at DESC, c.id DESC
+                    LIMIT ?
+                ) c
+            ),
+            liked AS (
+                SELECT DISTINCT cl.comment_id
+                FROM comments_likes cl
+                WHERE cl.user_id = (SELECT id FROM viewer)
+                  AND cl.comment_id IN (SELECT id FROM latest)
+            ),
+            book_comments AS (
+                SELECT l.book_id,
+                       json_agg(json_build_object(
+                               'id', l.id,
+                               'text', l.text,
+                               'userId', l.user_id,
+                               'username', u.username,
+                               'creationDate', l.created_at,
+                               'bookId', l.book_id,
+                               'bookTitle', l.book_title,
+                               'likesCount', l.likes_count,
+                               'likedByCurrentUser', k.comment_id IS NOT NULL
+                       ) ORDER BY l.created_at DESC, l.id DESC) AS items,
+                       count(*) AS shown,
+                       (array_agg(l.created_at ORDER BY l.created_at, l.id))[1] AS last_created_at,
+                       (array_agg(l.id ORDER BY l.created_at, l.id))[1] AS last_id
+                FROM latest l
+                JOIN users u ON u.id = l.user_id
+                LEFT JOIN liked k ON k.comment_id = l.id
+                GROUP BY l.book_id
+            )
+            SELECT p.id,
+                   json_build_object(
+                           'id', p.id,
+                           'title', p.title,
+                           'author', p.author,
+                           'publicationYear', p.publication_year,
+                           'coverImageUrl', p.cover_image_url
+                   )::text,
+                   coalesce(st.likes_count, 0),
+                   json_build_object(
+                           'likedByCurrentUser', coalesce(s.liked, false),
+                           'status', s.status,
+                           'sentiment', s.sentiment,
+                           'comments', coalesce(c.items, '[]'::json),
+                           'commentsCount', coalesce(st.comments_count, 0),
+                           'commentsCursor', CASE WHEN c.shown < coalesce(st.comments_count, 0) THEN
+                                   rtrim(translate(encode(convert_to(
+                                           to_char(c.last_created_at AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS.US"Z"')
+                                           || '|' || c.last_id, 'UTF8'), 'base64'), E'+/\\n', '-_'), '=')
+                           END,
+                           'sentimentCounts', json_build_object(%2$s)
+                   )::text
+            FROM page p
+            LEFT JOIN book_stats st ON st.book_id = p.id
+            LEFT JOIN user_book_status s ON s.book_id = p.id AND s.user_id = (SELECT id FROM viewer)
+            LEFT JOIN book_comments c ON c.book_id = p.id
+            ORDER BY %3$s
+            """;
+
+    /** One {@code 'NAME', coalesce(st.name_count, 0)} pair per sentiment, in declaration order like the EnumMap. */
+    private static final String SENTIMENT_COUNTS = Arrays.stream(BookSentiment.values())
+            .map(sentiment -> "'%s', coalesce(st.%s_count, 0)".formatted(sentiment.name(), sentiment.name().toLowerCase()))
+            .collect(Collectors.joining(", "));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PageCountService pageCountService;
+    private final BookLikeCounter bookLikeCounter;
+    private final TransactionTemplate readOnly;
+    private final int commentsPerBook;
+
+    public SqlFeedService(
+            JdbcTemplate jdbcTemplate,
+            PageCountService pageCountService,
+            BookLikeCounter bookLikeCounter,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.feed.comments-per-book:3}") int commentsPerBook,
+            @Value("${api.feed.stage-timeout:2s}") Duration queryTimeout
+    ) {
+        // PostgreSQL only streams rows with a fetch size inside a transaction; the shared template keeps its defaults.
+        this.jdbcTemplate = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.pageCountService = pageCountService;
+        this.bookLikeCounter = bookLikeCounter;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setTimeout((int) Math.max(1, (queryTimeout.toMillis() + 999) / 1000));
+        this.commentsPerBook = Math.max(0, commentsPerBook);
+    }
+
+    /**
+     * Prepares a page of the feed rendered by PostgreSQL.
+     * The sort and the total are resolved now; the page itself is read while the returned body is written.
+     *
+     * @param pageable Pagination configuration; sortable by createdAt, title, author, publicationYear and id.
+     * @param countMode How the total number of books is computed, if at all.
+     * @param loggedInUser The currently authenticated user, or null if anonymous.
+     * @return The body writing the same JSON document as {@link FeedService#getBookFeed}.
+     * @throws ResponseStatusException with 400 Bad Request if the sort uses an unsupported property.
+     */
+    public StreamingResponseBody getBookFeed(Pageable pageable, CountMode countMode, User loggedInUser) {
+        String pageOrder = orderBy(pageable.getSort(), "b");
+        String sql = FEED_SQL.formatted(pageOrder, SENTIMENT_COUNTS, orderBy(pageable.getSort(), "p"));
+        UUID viewerId = loggedInUser != null ? loggedInUser.getId() : null;
+        Long total = pageCountService.count(countMode, PageCountService.key(PageCountService.BOOKS),
+                this::countBooks, () -> pageCountService.estimateRows(PageCountService.BOOKS));
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write("{\"content\":[");
+            int written = readOnly.execute(status -> streamBooks(writer, sql, viewerId, pageable));
+            boolean hasNext = written > pageable.getPageSize();
+            writer.write("],\"currentPage\":" + pageable.getPageNumber()
+                    + ",\"totalPages\":" + (total == null ? null : totalPages(total, pageable.getPageSize()))
+                    + ",\"totalElements\":" + total
+                    + ",\"hasNext\":" + hasNext + "}");
+            writer.flush();
+        };
+    }
+
+    /**
+     * Writes the books of the page, comma separated, and returns how many rows were read.
+     * Each book is written as the JSON fields before its like counter, the counter with the book's pending likes,
+     * then the fields after it. One row more than the page size is requested to know whether a next page exists;
+     * it is not written.
+     */
+    private int streamBooks(Writer writer, String sql, UUID viewerId, Pageable pageable) {
+        int[] rows = {0};
+        jdbcTemplate.query(sql, rs -> {
+            if (rows[0] < pageable.getPageSize()) {
+                UUID bookId = rs.getObject(1, UUID.class);
+                String head = rs.getString(2);
+                long likesCount = rs.getLong(3) + bookLikeCounter.pending(bookId);
+                String tail = rs.getString(4);
+                try {
+                    if (rows[0] > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(head, 0, head.length() - 1);
+                    writer.write(", \"likesCount\" : ");
+                    writer.write(Long.toString(likesCount));
+                    writer.write(", ");
+                    writer.write(tail, 1, tail.length() - 1);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            rows[0]++;
+        }, viewerId, pageable.getPageSize() + 1, pageable.getOffset(), commentsPerBook);
+        return rows[0];
+    }
+
+    private long countBooks() {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM books", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Translates the requested sort into an ORDER BY clause on whitelisted columns, with the ID as tie-breaker
+     * so that pages never overlap.
+     */
+    private static String orderBy(Sort sort, String alias) {
+        StringBuilder clause = new StringBuilder();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort property: " + order.getProperty());
+            }
+            hasId |= column.equals("id");
+            clause.append(alias).append('.').append(column).append(order.isAscending() ? " ASC" : " DESC").append(", ");
+        }
+        if (!hasId) {
+            clause.append(alias).append(".id DESC, ");
+        }
+        return clause.substring(0, clause.length() - 2);
+    }
+
+    private static int totalPages(long totalElements, int pageSize) {
+        return pageSize == 0 ? 1 : (int) Math.ceil((double) totalElements / pageSize);
+    }
+}
@@ -1,27 +1,71 @@
 package com.vibebooks.api.service;
 
+import com.vibebooks.api.exception.InvalidTokenException;
 import com.vibebooks.api.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Service responsible for issuing and verifying the JWTs used as bearer tokens.
+ *
+ * <p>The HMAC key and the parser are built once, since both are immutable and thread-safe.
+ * Verified tokens are remembered in a small, lock-free, direct-mapped table keyed by the SHA-256 digest
+ * of the token (the raw token is never kept), so repeated requests with the same token skip the
+ * signature check and the claims parsing until the token expires. A colliding token simply replaces
+ * the previous entry. {@code api.security.token.verified-cache-size} sets the number of slots
+ * (rounded up to a power of two); zero disables the table.</p>
+ */
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String INVALID_TOKEN = "Invalid or Expired JWT Token";
 
-    @Value("${api.security.token.expiration-hours}")
-    private long expirationHours;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expirationHours;
+    private final Clock clock;
+    private final AtomicReferenceArray<VerifiedToken> verified;
+    private final int mask;
+
+    @Autowired
+    public TokenService(
+            @Value("${api.security.token.secret}") String secret,
+            @Value("${api.security.token.expiration-hours}") long expirationHours,
+            @Value("${api.security.token.verified-cache-size:1024}") int verifiedCacheSize
+    ) {
+        this(secret, expirationHours, verifiedCacheSize, Clock.systemUTC());
+    }
+
+    TokenService(String secret, long expirationHours, int verifiedCacheSize, Clock clock) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setClock(() -> Date.from(clock.instant()))
+                .build();
+        this.expirationHours = expirationHours;
+        this.clock = clock;
+        int slots = verifiedCacheSize <= 0 ? 0 : Integer.highestOneBit(Math.max(1, verifiedCacheSize - 1)) << 1;
+        this.verified = new AtomicReferenceArray<>(slots);
+        this.mask = slots - 1;
+    }
 
     public String generateToken(User user) {
         Instant expirationDate = LocalDateTime.now()
@@ -33,24 +77,60 @@ public class TokenService {
                 .setSubject(user.getId().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(Date.from(expirationDate))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies a token and returns its subject (the user ID).
+     *
+     * @param tokenJWT The compact JWT taken from the Authorization header
+     * @return The subject of the token
+     * @throws InvalidTokenException if the signature is wrong, the token is malformed or it has expired
+     */
     public String getSubject(String tokenJWT) {
+        if (tokenJWT == null || tokenJWT.isBlank()) {
+            throw new InvalidTokenException(INVALID_TOKEN);
+        }
+        if (verified.length() == 0) {
+            return verify(tokenJWT).getSubject();
+        }
+
+        byte[] digest = sha256(tokenJWT);
+        int slot = slotOf(digest);
+        VerifiedToken cached = verified.get(slot);
+        if (cached != null && MessageDigest.isEqual(cached.digest(), digest)
+                && clock.millis() < cached.expiresAtMillis()) {
+            return cached.subject();
+        }
+
+        Claims claims = verify(tokenJWT);
+        if (claims.getExpiration() != null) {
+            verified.set(slot, new VerifiedToken(digest, claims.getSubject(), claims.getExpiration().getTime()));
+        }
+        return claims.getSubject();
+    }
+
+    private Claims verify(String tokenJWT) {
+        try {
+            return parser.parseClaimsJws(tokenJWT).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException(INVALID_TOKEN, e);
+        }
+    }
+
+    private int slotOf(byte[] digest) {
+        return ((digest[0] & 0xFF) << 24 | (digest[1] & 0xFF) << 16 | (digest[2] & 0xFF) << 8 | (digest[3] & 0xFF)) & mask;
+    }
+
+    private static byte[] sha256(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(tokenJWT)
-                    .getBody()
-                    .getSubject();
-        } catch (Exception e) {
-            throw new RuntimeException("Invalid or Expired JWT Token");
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private record VerifiedToken(byte[] digest, String subject, long expiresAtMillis) {
     }
 }
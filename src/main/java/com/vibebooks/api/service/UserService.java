@@ -6,6 +6,7 @@ import com.vibebooks.api.dto.UserResponseDTO;
 import com.vibebooks.api.dto.UserUpdateDTO;
 import com.vibebooks.api.model.User;
 import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,6 +23,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     @Transactional
     public User createUser(UserCreateDTO data) {
@@ -66,6 +68,7 @@ public class UserService {
             user.setBio(data.bio());
         }
 
+        principalCache.evict(id);
         return user;
     }
 
@@ -80,6 +83,7 @@ public class UserService {
         }
 
         userRepository.deleteById(id);
+        principalCache.evict(id);
     }
 
     @Transactional(readOnly = true)
@@ -104,5 +108,6 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(data.newPassword()));
+        principalCache.evict(id);
     }
 }
@@ -8,4 +8,7 @@ public final class ApiConstants {
     private ApiConstants() {}
 
     public static final String API_PREFIX = "/vibebooks/api";
+
+    /** Largest slice a client can request from the cursor-paginated {@code /scroll} endpoints. */
+    public static final int MAX_SCROLL_SIZE = 50;
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.vibebooks.api.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Utility class that encodes keyset positions {@code (createdAt, id)} as opaque, URL-safe cursors.
+ * This class cannot be instantiated.
+ */
+public final class CursorCodec {
+    private CursorCodec() {}
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Encodes the position of the last item a client received.
+     *
+     * @param createdAt Creation time of the item
+     * @param id        ID of the item, used to break ties between equal timestamps
+     * @return URL-safe cursor
+     */
+    public static String encode(OffsetDateTime createdAt, UUID id) {
+        String raw = createdAt.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(OffsetDateTime, UUID)}.
+     *
+     * @param cursor Cursor sent by the client
+     * @return The decoded position
+     * @throws ResponseStatusException with 400 if the cursor is malformed
+     */
+    public static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            Instant createdAt = Instant.parse(raw.substring(0, separator));
+            return new Position(createdAt.atOffset(ZoneOffset.UTC), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+
+    /**
+     * A decoded keyset position.
+     *
+     * @param createdAt Creation time of the last item received
+     * @param id        ID of the last item received
+     */
+    public record Position(OffsetDateTime createdAt, UUID id) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.vibebooks.api.util;
+
+import com.vibebooks.api.monitoring.SqlStatementStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Scope for the independent stages of a single request, run concurrently on virtual threads
+ * with the rules of a structured task scope:
+ *
+ * <ul>
+ *     <li>stages are forked inside a try-with-resources block and {@link #join()} waits for all of them;</li>
+ *     <li>the first stage to fail cancels the others and its exception is rethrown by {@link #join()};</li>
+ *     <li>stages still running when the timeout elapses are cancelled and the request fails with
+ *     {@code 503 Service Unavailable};</li>
+ *     <li>closing the scope interrupts whatever is still running and waits up to {@link #CLOSE_TIMEOUT} for it
+ *     to stop, so a stage that honours interrupts never outlives the block;</li>
+ *     <li>at most {@code maxConcurrency} stages run at once, the others wait for a permit on their own
+ *     virtual thread, so a request never holds more than that many connections from the pool.</li>
+ * </ul>
+ *
+ * <p>A stage blocked in a call that ignores interrupts, such as a JDBC statement, keeps running (and keeps its
+ * pooled connection) until that call returns; closing gives up waiting for it after {@link #CLOSE_TIMEOUT}
+ * and logs it. Such calls must be bounded on their own, for instance by a statement timeout.</p>
+ *
+ * <p>A sequential scope runs each stage on the calling thread as soon as it is forked, which keeps
+ * the calling code identical for both modes.</p>
+ *
+ * <p>Stages run on other threads, so they do not see the caller's transaction or persistence context:
+ * each one must open its own, and the caller should not hold a connection while it waits. Their SQL statements
+ * are counted in the caller's {@link SqlStatementStats}.</p>
+ */
+public final class ParallelStages implements AutoCloseable {
+
+    /** Time {@link #close()} waits for interrupted stages to stop. */
+    public static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(1);
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelStages.class);
+    private static final String TIMED_OUT = "The request took too long, please try again later.";
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long deadlineNanos;
+    private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private int running;
+
+    private ParallelStages(boolean parallel, int maxConcurrency, Duration timeout) {
+        this.executor = parallel ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Opens a scope.
+     *
+     * @param parallel       Whether stages run concurrently; if false they run inline when forked
+     * @param maxConcurrency Maximum number of stages running at the same time
+     * @param timeout        Time allowed for all stages, counted from now
+     * @return The scope, to be closed by the caller
+     */
+    public static ParallelStages open(boolean parallel, int maxConcurrency, Duration timeout) {
+        return new ParallelStages(parallel, maxConcurrency, timeout);
+    }
+
+    /**
+     * Starts a stage. Its future is registered before it starts, so a sibling failing right away
+     * still cancels it.
+     *
+     * @param stage Work of the stage
+     * @return Supplier of the stage result, valid after {@link #join()} returned
+     */
+    public <T> Supplier<T> fork(Callable<T> stage) {
+        if (executor == null) {
+            T result = callInline(stage);
+            return () -> result;
+        }
+
+        AtomicReference<T> result = new AtomicReference<>();
+        FutureTask<Void> task = new FutureTask<>(SqlStatementStats.wrap(() -> {
+            boolean permitted = false;
+            try {
+                permits.acquire();
+                permitted = true;
+                result.set(stage.call());
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+            } finally {
+                if (permitted) {
+                    permits.release();
+                }
+                update(-1);
+            }
+        }), null);
+        update(1);
+        futures.add(task);
+        if (failure.get() != null) {
+            task.cancel(true);
+        }
+        executor.execute(task);
+        return result::get;
+    }
+
+    /**
+     * Waits for every forked stage.
+     *
+     * @throws ResponseStatusException with 503 if the stages did not finish before the timeout
+     * @throws RuntimeException        the exception of the first failed stage
+     */
+    public void join() {
+        if (executor == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            long remaining = deadlineNanos - System.nanoTime();
+            while (running > 0 && failure.get() == null) {
+                if (remaining <= 0) {
+                    cancelAll();
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, TIMED_OUT);
+                }
+                remaining = changed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, TIMED_OUT, e);
+        } finally {
+            lock.unlock();
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        if (error != null) {
+            throw new IllegalStateException("Stage failed", error);
+        }
+    }
+
+    /**
+     * Interrupts the stages still running and waits up to {@link #CLOSE_TIMEOUT} for them to stop.
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        cancelAll();
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("Stages still running {} ms after their scope closed; they ignored the interrupt",
+                        CLOSE_TIMEOUT.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void cancelAll() {
+        futures.forEach(future -> future.cancel(true));
+    }
+
+    private void update(int delta) {
+        lock.lock();
+        try {
+            running += delta;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static <T> T callInline(Callable<T> stage) {
+        try {
+            return stage.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Stage failed", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.vibebooks.api.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class that normalizes free text for in-memory matching.
+ * This class cannot be instantiated.
+ */
+public final class TextNormalizer {
+    private TextNormalizer() {}
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Strips accents, lowercases and collapses whitespace.
+     *
+     * @param text Raw text, may be null
+     * @return Normalized text, or an empty string
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    /**
+     * Normalizes the text and splits it into words, dropping punctuation.
+     *
+     * @param text Raw text, may be null
+     * @return Normalized words, possibly empty
+     */
+    public static String[] words(String text) {
+        String cleaned = NON_ALPHANUMERIC.matcher(normalize(text)).replaceAll(" ").trim();
+        return cleaned.isEmpty() ? new String[0] : cleaned.split(" ");
+    }
+}
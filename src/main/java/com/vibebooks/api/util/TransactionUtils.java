@@ -0,0 +1,31 @@
+package com.vibebooks.api.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for transaction-bound side effects.
+ * This class cannot be instantiated.
+ */
+public final class TransactionUtils {
+    private TransactionUtils() {}
+
+    /**
+     * Runs the action after the current transaction commits, or immediately if there is none.
+     * Used to keep in-memory structures in sync only with data that was actually persisted.
+     *
+     * @param action The side effect to run
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+-- Indexes of the full-text book search and of the keyset pagination of books and comments (including the latest
+-- comments of each book in the feed), for databases where Hibernate does not manage the schema (ddl-auto=validate).
+-- Run by SearchIndexInitializer once the application is ready, one statement at a time and outside of any
+-- transaction, which CREATE INDEX CONCURRENTLY requires: building them on a large catalog never blocks writes.
+-- The search expressions must stay identical to BookRepository.SEARCH_VECTOR and SEARCH_DOCUMENT, or the planner
+-- will not use them. The pg_trgm extension is created by schema.sql.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_search_tsv ON books
+    USING GIN (to_tsvector('simple', (coalesce(title, '') || ' ' || coalesce(author, '') || ' ' || coalesce(isbn, ''))));
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_search_trgm ON books
+    USING GIN (lower((coalesce(title, '') || ' ' || coalesce(author, '') || ' ' || coalesce(isbn, ''))) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_created ON books (created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_book_created ON comments (book_id, created_at DESC, id DESC);
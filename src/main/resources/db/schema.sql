@@ -0,0 +1,76 @@
+-- Tables and columns added on top of the initial schema, for databases where Hibernate does not manage the schema
+-- (ddl-auto=validate). Runs on every startup before Hibernate validates the mappings, so every change is idempotent
+-- and one-time data fixes only run in the same block that creates the object they fill.
+-- The whole file is sent as one statement (see spring.sql.init.separator), so DO blocks may contain semicolons.
+-- Indexes are created by db/indexes.sql instead, since CREATE INDEX CONCURRENTLY cannot run inside this statement.
+
+-- Counters of every book. Rows for existing books are created on startup by BookStatsService#backfillMissing.
+CREATE TABLE IF NOT EXISTS book_stats (
+    book_id            uuid   NOT NULL PRIMARY KEY,
+    likes_count        bigint NOT NULL DEFAULT 0,
+    inspiring_count    bigint NOT NULL DEFAULT 0,
+    fun_count          bigint NOT NULL DEFAULT 0,
+    emotional_count    bigint NOT NULL DEFAULT 0,
+    tense_count        bigint NOT NULL DEFAULT 0,
+    informative_count  bigint NOT NULL DEFAULT 0,
+    boring_count       bigint NOT NULL DEFAULT 0,
+    confusing_count    bigint NOT NULL DEFAULT 0,
+    motivational_count bigint NOT NULL DEFAULT 0
+);
+
+-- Persistent tier of IsbnMetadataCache; starts empty and fills as ISBNs are looked up.
+CREATE TABLE IF NOT EXISTS isbn_metadata_cache (
+    isbn        varchar(32) NOT NULL PRIMARY KEY,
+    volume_json text,
+    fetched_at  timestamp with time zone NOT NULL
+);
+
+-- Comment counter of the feed. Rows that existed before the column get their comments counted once, when it is added.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'book_stats' AND column_name = 'comments_count') THEN
+        ALTER TABLE book_stats ADD COLUMN comments_count bigint NOT NULL DEFAULT 0;
+        IF to_regclass('comments') IS NOT NULL THEN
+            UPDATE book_stats s SET comments_count = c.total
+            FROM (SELECT book_id, COUNT(*) AS total FROM comments GROUP BY book_id) c
+            WHERE c.book_id = s.book_id;
+        END IF;
+    END IF;
+END $$;
+
+-- One like per user and comment, which the like toggle relies on. Duplicates left by concurrent toggles are removed
+-- once, before the constraint is added; it replaces the plain index the startup initializer used to create.
+DO $$
+BEGIN
+    IF to_regclass('comments_likes') IS NOT NULL
+       AND NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_comments_likes_comment_user') THEN
+        DELETE FROM comments_likes l
+        USING comments_likes kept
+        WHERE kept.comment_id = l.comment_id AND kept.user_id = l.user_id AND kept.id < l.id;
+        ALTER TABLE comments_likes ADD CONSTRAINT uk_comments_likes_comment_user UNIQUE (comment_id, user_id);
+        DROP INDEX IF EXISTS idx_comments_likes_comment_user;
+    END IF;
+END $$;
+
+-- Like counter of the comments. Existing comments get their likes counted once, when the column is added.
+DO $$
+BEGIN
+    IF to_regclass('comments') IS NOT NULL
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema() AND table_name = 'comments' AND column_name = 'likes_count') THEN
+        ALTER TABLE comments ADD COLUMN likes_count bigint NOT NULL DEFAULT 0;
+        UPDATE comments c SET likes_count = l.total
+        FROM (SELECT comment_id, COUNT(*) AS total FROM comments_likes GROUP BY comment_id) l
+        WHERE l.comment_id = c.id;
+    END IF;
+END $$;
+
+-- Trigram operators of the full-text search index, created with the other indexes by db/indexes.sql. Without the
+-- privilege (or the extension package) to create it, only that index is skipped.
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION WHEN OTHERS THEN
+    RAISE WARNING 'Could not create the pg_trgm extension: %', SQLERRM;
+END $$;
@@ -0,0 +1,42 @@
+package com.vibebooks.api;
+
+import com.vibebooks.api.monitoring.SqlStatementFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc helpers reading the SQL statements counted by {@link SqlStatementFilter} from the response headers.
+ * Integration tests pin the statement count of an endpoint with them, so an N+1 regression fails the build.
+ */
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    /**
+     * Expects the request to have run no more than {@code max} SQL statements.
+     * For a streamed response, use it on the result of the async dispatch.
+     *
+     * @param max Maximum number of statements, including the token user lookup
+     * @return The matcher
+     */
+    public static ResultMatcher atMost(int max) {
+        return result -> assertThat(count(result))
+                .as("SQL statements of %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    /**
+     * Returns the number of SQL statements the request ran.
+     *
+     * @param result Result of the request
+     * @return The statement count
+     */
+    public static long count(MvcResult result) {
+        String header = result.getResponse().getHeader(SqlStatementFilter.STATEMENTS_HEADER);
+        assertThat(header).as("%s header", SqlStatementFilter.STATEMENTS_HEADER).isNotNull();
+        return Long.parseLong(header);
+    }
+}
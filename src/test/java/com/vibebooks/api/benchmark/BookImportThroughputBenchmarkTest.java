@@ -0,0 +1,140 @@
+package com.vibebooks.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.client.GoogleBooksStubServer;
+import com.vibebooks.api.dto.AuthenticationDTO;
+import com.vibebooks.api.dto.BookBatchCreationDTO;
+import com.vibebooks.api.dto.BookIsbnDTO;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.BookRepository;
+import com.vibebooks.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares the import throughput of {@code POST /books/batch} with one {@code POST /books} per ISBN.
+ * Google Books is replaced by a local stub that answers every lookup after a fixed latency.
+ *
+ * <p>Disabled by default. Run with:
+ * {@code ./mvnw test -Dtest=BookImportThroughputBenchmarkTest -Dbenchmark=true
+ * [-Dbenchmark.isbns=500] [-Dbenchmark.google-latency-ms=80]}</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookImportThroughputBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportThroughputBenchmarkTest.class);
+
+    private static final GoogleBooksStubServer googleBooks = startStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String validJwtToken;
+
+    @DynamicPropertySource
+    static void googleBooksProperties(DynamicPropertyRegistry registry) {
+        registry.add("api.google-books.base-url", googleBooks::baseUrl);
+    }
+
+    @BeforeAll
+    void setup() throws Exception {
+        googleBooks.respondWithVolume("Benchmark Book", "Benchmark Author")
+                .withLatency(Duration.ofMillis(Integer.getInteger("benchmark.google-latency-ms", 80)));
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("importer");
+        user.setEmail("importer@email.com");
+        user.setPassword(passwordEncoder.encode("password123"));
+        userRepository.save(user);
+
+        String response = mockMvc.perform(post("/vibebooks/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthenticationDTO("importer@email.com", "password123"))))
+                .andReturn().getResponse().getContentAsString();
+        validJwtToken = objectMapper.readTree(response).get("token").asText();
+    }
+
+    @AfterAll
+    void stopStub() {
+        googleBooks.close();
+    }
+
+    @Test
+    @DisplayName("Benchmark: batch import vs one request per ISBN")
+    void compareImportThroughput() throws Exception {
+        int count = Integer.getInteger("benchmark.isbns", 500);
+
+        long singleStart = System.nanoTime();
+        for (String isbn : isbns(1, count)) {
+            mockMvc.perform(post("/vibebooks/api/books")
+                            .header("Authorization", "Bearer " + validJwtToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new BookIsbnDTO(isbn))))
+                    .andExpect(status().isCreated());
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long batchStart = System.nanoTime();
+        mockMvc.perform(post("/vibebooks/api/books/batch")
+                        .header("Authorization", "Bearer " + validJwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookBatchCreationDTO(isbns(2, count)))))
+                .andExpect(status().isOk());
+        long batchNanos = System.nanoTime() - batchStart;
+
+        log.info("POST /books x{}:   {} ms ({} books/s)", count, singleNanos / 1_000_000, String.format("%.1f", count * 1e9 / singleNanos));
+        log.info("POST /books/batch: {} ms ({} books/s)", batchNanos / 1_000_000, String.format("%.1f", count * 1e9 / batchNanos));
+        log.info("Books stored: {}", bookRepository.count());
+    }
+
+    private List<String> isbns(int prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> prefix + String.format("%012d", i))
+                .toList();
+    }
+
+    private static GoogleBooksStubServer startStub() {
+        try {
+            return new GoogleBooksStubServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
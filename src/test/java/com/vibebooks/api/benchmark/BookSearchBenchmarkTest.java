@@ -0,0 +1,79 @@
+package com.vibebooks.api.benchmark;
+
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.config.SearchIndexInitializer;
+import com.vibebooks.api.repository.BookRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Compares the latency of the legacy title search ({@code ILIKE '%term%'}) with the indexed full-text search
+ * on a large generated catalog.
+ *
+ * <p>Disabled by default. Run with:
+ * {@code ./mvnw test -Dtest=BookSearchBenchmarkTest -Dbenchmark=true [-Dbenchmark.books=1000000]}</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookSearchBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchBenchmarkTest.class);
+
+    private static final int ITERATIONS = 50;
+    private static final List<String> QUERIES = List.of("tolkien", "shadow river", "0000000123456", "zzz-no-match");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private SearchIndexInitializer searchIndexInitializer;
+
+    @BeforeAll
+    void seedCatalog() {
+        int books = Integer.getInteger("benchmark.books", 1_000_000);
+        jdbcTemplate.execute("TRUNCATE books CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO books (id, title, author, isbn, publication_year, created_at)
+                SELECT gen_random_uuid(),
+                       (ARRAY['The', 'A', 'Shadow', 'River', 'Silent', 'Broken'])[1 + i % 6] || ' ' || md5(i::text),
+                       (ARRAY['Tolkien', 'Austen', 'Machado', 'Lispector', 'Orwell'])[1 + i % 5] || ' ' || (i % 1000),
+                       lpad(i::text, 13, '0'),
+                       1900 + i % 125,
+                       now() - (i || ' seconds')::interval
+                FROM generate_series(1, ?) AS i
+                """, books);
+        searchIndexInitializer.createSearchIndexes();
+        jdbcTemplate.execute("ANALYZE books");
+        log.info("Seeded {} books for the search benchmark", books);
+    }
+
+    @Test
+    @DisplayName("Benchmark: title ILIKE vs indexed full-text search")
+    void compareSearchLatency() {
+        for (String query : QUERIES) {
+            LatencyRecorder legacy = new LatencyRecorder();
+            LatencyRecorder fullText = new LatencyRecorder();
+
+            for (int i = 0; i < ITERATIONS; i++) {
+                legacy.time(() -> bookRepository.findByTitleContainingIgnoreCase(query, PageRequest.of(0, 20)));
+                fullText.time(() -> bookRepository.searchFullText(query, "%" + query + "%", PageRequest.of(0, 20)));
+            }
+
+            log.info(legacy.summary("title ILIKE '" + query + "'"));
+            log.info(fullText.summary("fulltext '" + query + "'"));
+        }
+    }
+}
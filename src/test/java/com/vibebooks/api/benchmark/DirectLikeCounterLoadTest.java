@@ -0,0 +1,15 @@
+package com.vibebooks.api.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * {@link HotBookLikeLoadTest} with the like counter updated by every toggle.
+ */
+@TestPropertySource(properties = {HotBookLikeLoadTest.POOL_SIZE, HotBookLikeLoadTest.NO_SQL_LOG, "api.book-likes.write-behind=false"})
+class DirectLikeCounterLoadTest extends HotBookLikeLoadTest {
+
+    @Override
+    String counterMode() {
+        return "direct";
+    }
+}
@@ -0,0 +1,213 @@
+package com.vibebooks.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.model.CountMode;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.service.BookStatsService;
+import com.vibebooks.api.service.CommentLikesReconciler;
+import com.vibebooks.api.service.FeedService;
+import com.vibebooks.api.service.SqlFeedService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares the two feed engines: {@link FeedService}, serialized by Jackson as the controller does,
+ * and {@link SqlFeedService}, which streams the JSON rendered by PostgreSQL.
+ * Both write the page to a counting sink, so the measured work ends where the response body would be sent.
+ * Besides latency, the report gives the heap allocated per page by every thread of the JVM,
+ * which includes the concurrent stages of {@link FeedService}.
+ *
+ * <p>Disabled by default. Run with:
+ * {@code ./mvnw test -Dtest=FeedEngineBenchmarkTest -Dbenchmark=true [-Dbenchmark.books=20000] [-Dbenchmark.iterations=300]}</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class FeedEngineBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedEngineBenchmarkTest.class);
+
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 5;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookStatsService bookStatsService;
+
+    @Autowired
+    private CommentLikesReconciler commentLikesReconciler;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private SqlFeedService sqlFeedService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User reader;
+
+    @BeforeAll
+    void seed() {
+        int books = Integer.getInteger("benchmark.books", 20_000);
+        jdbcTemplate.execute("TRUNCATE books, users CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO books (id, title, author, isbn, publication_year, created_at)
+                SELECT gen_random_uuid(), 'Book ' || i, 'Author ' || (i % 1000), lpad(i::text, 13, '0'), 1900 + i % 125,
+                       now() - (i || ' seconds')::interval
+                FROM generate_series(1, ?) AS i
+                """, books);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, password, created_at)
+                SELECT gen_random_uuid(), 'fan_' || i, 'fan_' || i || '@email.com', 'x', now()
+                FROM generate_series(1, 50) AS i
+                """);
+        reader = userRepository.save(new User("reader", "reader@email.com", "x"));
+
+        jdbcTemplate.execute("""
+                CREATE TEMPORARY TABLE hot_books AS
+                SELECT id FROM books ORDER BY created_at DESC, id DESC LIMIT %d
+                """.formatted(PAGE_SIZE * PAGES));
+        jdbcTemplate.update("""
+                INSERT INTO user_book_status (user_id, book_id, status, saved, liked, sentiment, updated_at)
+                SELECT u.id, h.id, 'READING', false, true, 'INSPIRING', now()
+                FROM hot_books h CROSS JOIN users u
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO comments (id, text, user_id, book_id, created_at)
+                SELECT gen_random_uuid(), 'Comment ' || i, u.id, h.id, now() - (i || ' seconds')::interval
+                FROM hot_books h CROSS JOIN generate_series(1, 30) AS i
+                     CROSS JOIN LATERAL (SELECT id FROM users WHERE h.id IS NOT NULL ORDER BY random() LIMIT 1) u
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO comments_likes (id, user_id, comment_id, created_at)
+                SELECT gen_random_uuid(), u.id, c.id, now()
+                FROM comments c CROSS JOIN (SELECT id FROM users ORDER BY username LIMIT 5) u
+                """);
+        jdbcTemplate.execute("DROP TABLE hot_books");
+        bookStatsService.reconcileAll();
+        commentLikesReconciler.reconcileAll();
+        jdbcTemplate.execute("ANALYZE");
+        log.info("Seeded {} books, {} comments for the feed engine benchmark", books,
+                jdbcTemplate.queryForObject("SELECT count(*) FROM comments", Long.class));
+    }
+
+    @Test
+    @DisplayName("Benchmark: feed assembled by the service vs rendered by PostgreSQL")
+    void compareEngines() {
+        int iterations = Integer.getInteger("benchmark.iterations", 300);
+        Engine service = new Engine("feed service engine", this::writeServicePage);
+        Engine sql = new Engine("feed sql engine", this::writeSqlPage);
+
+        for (int i = 0; i < iterations / 5; i++) {
+            writeServicePage(page(i), OutputStream.nullOutputStream());
+            writeSqlPage(page(i), OutputStream.nullOutputStream());
+        }
+        for (int i = 0; i < iterations; i++) {
+            service.run(page(i));
+            sql.run(page(i));
+        }
+
+        service.report();
+        sql.report();
+    }
+
+    private Pageable page(int iteration) {
+        return PageRequest.of(iteration % PAGES, PAGE_SIZE, NEWEST_FIRST);
+    }
+
+    private void writeServicePage(Pageable pageable, OutputStream out) {
+        try {
+            objectMapper.writeValue(out, feedService.getBookFeed(pageable, CountMode.EXACT, reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSqlPage(Pageable pageable, OutputStream out) {
+        try {
+            sqlFeedService.getBookFeed(pageable, CountMode.EXACT, reader).writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface PageWriter {
+        void write(Pageable pageable, OutputStream out);
+    }
+
+    /**
+     * Latency, allocated bytes and response size of one engine.
+     */
+    private final class Engine {
+
+        private final String name;
+        private final PageWriter writer;
+        private final LatencyRecorder latency = new LatencyRecorder();
+        private long allocatedBytes;
+        private long responseBytes;
+
+        private Engine(String name, PageWriter writer) {
+            this.name = name;
+            this.writer = writer;
+        }
+
+        void run(Pageable pageable) {
+            CountingOutputStream out = new CountingOutputStream();
+            long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+            latency.time(() -> writer.write(pageable, out));
+            allocatedBytes += threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+            responseBytes += out.count;
+        }
+
+        void report() {
+            log.info(latency.summary(name));
+            log.info("{}: {} KiB allocated per page, {} KiB per response", name,
+                    String.format("%.1f", allocatedBytes / 1024.0 / latency.count()),
+                    String.format("%.1f", responseBytes / 1024.0 / latency.count()));
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
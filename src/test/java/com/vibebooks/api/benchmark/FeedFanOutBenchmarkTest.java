@@ -0,0 +1,158 @@
+package com.vibebooks.api.benchmark;
+
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.model.CountMode;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.BookRepository;
+import com.vibebooks.api.repository.CommentRepository;
+import com.vibebooks.api.repository.UserBookStatusRepository;
+import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.service.BookStatsService;
+import com.vibebooks.api.service.CommentDetailsAssembler;
+import com.vibebooks.api.service.CommentLikesReconciler;
+import com.vibebooks.api.service.FeedService;
+import com.vibebooks.api.service.PageCountService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Compares the feed with its aggregation stages run one after the other and run concurrently.
+ * The reader has a status on every book of the first pages, and each of those books has comments with likes,
+ * so every stage issues a real query.
+ *
+ * <p>Disabled by default. Run with:
+ * {@code ./mvnw test -Dtest=FeedFanOutBenchmarkTest -Dbenchmark=true [-Dbenchmark.books=20000] [-Dbenchmark.iterations=300]}</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class FeedFanOutBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedFanOutBenchmarkTest.class);
+
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 5;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserBookStatusRepository userBookStatusRepository;
+
+    @Autowired
+    private BookStatsService bookStatsService;
+
+    @Autowired
+    private CommentLikesReconciler commentLikesReconciler;
+
+    @Autowired
+    private CommentDetailsAssembler commentDetailsAssembler;
+
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FeedService parallelFeed;
+
+    private FeedService sequentialFeed;
+    private User reader;
+
+    @BeforeAll
+    void seed() {
+        int books = Integer.getInteger("benchmark.books", 20_000);
+        jdbcTemplate.execute("TRUNCATE books, users CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO books (id, title, author, isbn, publication_year, created_at)
+                SELECT gen_random_uuid(), 'Book ' || i, 'Author ' || (i % 1000), lpad(i::text, 13, '0'), 1900 + i % 125,
+                       now() - (i || ' seconds')::interval
+                FROM generate_series(1, ?) AS i
+                """, books);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, password, created_at)
+                SELECT gen_random_uuid(), 'fan_' || i, 'fan_' || i || '@email.com', 'x', now()
+                FROM generate_series(1, 50) AS i
+                """);
+        reader = userRepository.save(new User("reader", "reader@email.com", "x"));
+
+        jdbcTemplate.execute("""
+                CREATE TEMPORARY TABLE hot_books AS
+                SELECT id FROM books ORDER BY created_at DESC, id DESC LIMIT %d
+                """.formatted(PAGE_SIZE * PAGES));
+        jdbcTemplate.update("""
+                INSERT INTO user_book_status (user_id, book_id, status, saved, liked, sentiment, updated_at)
+                SELECT u.id, h.id, 'READING', false, true, 'INSPIRING', now()
+                FROM hot_books h CROSS JOIN users u
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO comments (id, text, user_id, book_id, created_at)
+                SELECT gen_random_uuid(), 'Comment ' || i, u.id, h.id, now() - (i || ' seconds')::interval
+                FROM hot_books h CROSS JOIN generate_series(1, 30) AS i
+                     CROSS JOIN LATERAL (SELECT id FROM users WHERE h.id IS NOT NULL ORDER BY random() LIMIT 1) u
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO comments_likes (id, user_id, comment_id, created_at)
+                SELECT gen_random_uuid(), u.id, c.id, now()
+                FROM comments c CROSS JOIN (SELECT id FROM users ORDER BY username LIMIT 5) u
+                """);
+        jdbcTemplate.execute("DROP TABLE hot_books");
+        bookStatsService.reconcileAll();
+        commentLikesReconciler.reconcileAll();
+        jdbcTemplate.execute("ANALYZE");
+
+        sequentialFeed = new FeedService(bookRepository, commentRepository, userBookStatusRepository, bookStatsService,
+                commentDetailsAssembler, pageCountService, transactionManager, 3, false, 4, Duration.ofSeconds(2));
+        log.info("Seeded {} books, {} comments for the feed fan-out benchmark", books,
+                jdbcTemplate.queryForObject("SELECT count(*) FROM comments", Long.class));
+    }
+
+    @Test
+    @DisplayName("Benchmark: sequential vs concurrent feed stages")
+    void compareSequentialAndParallel() {
+        int iterations = Integer.getInteger("benchmark.iterations", 300);
+        LatencyRecorder sequential = new LatencyRecorder();
+        LatencyRecorder parallel = new LatencyRecorder();
+
+        for (int i = 0; i < iterations / 5; i++) {
+            load(sequentialFeed, i);
+            load(parallelFeed, i);
+        }
+        for (int i = 0; i < iterations; i++) {
+            int page = i;
+            sequential.time(() -> load(sequentialFeed, page));
+            parallel.time(() -> load(parallelFeed, page));
+        }
+
+        log.info(sequential.summary("feed sequential stages"));
+        log.info(parallel.summary("feed parallel stages"));
+    }
+
+    private void load(FeedService feedService, int iteration) {
+        feedService.getBookFeed(PageRequest.of(iteration % PAGES, PAGE_SIZE, NEWEST_FIRST), CountMode.EXACT, reader);
+    }
+}
@@ -0,0 +1,108 @@
+package com.vibebooks.api.benchmark;
+
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.service.BookFuzzyIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Measures recall and latency of the fuzzy book search on a generated in-memory catalog.
+ *
+ * <p>Each query takes a random book, misspells one title word with one or two random edits
+ * (depending on its length) and keeps the author's last name intact. Recall@10 is the share of
+ * queries whose target book is among the first 10 results.</p>
+ *
+ * <p>Disabled by default. Run with:
+ * {@code ./mvnw test -Dtest=FuzzySearchBenchmarkTest -Dbenchmark=true [-Dbenchmark.books=500000]}</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FuzzySearchBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FuzzySearchBenchmarkTest.class);
+
+    private static final int QUERIES = 2_000;
+    private static final int VOCABULARY_SIZE = 30_000;
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    private final Random random = new Random(42);
+
+    @Test
+    @DisplayName("Benchmark: fuzzy search recall@10 and p99")
+    void measureRecallAndLatency() {
+        int bookCount = Integer.getInteger("benchmark.books", 200_000);
+        List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary.add(randomWord(4 + random.nextInt(7)));
+        }
+
+        BookFuzzyIndex index = new BookFuzzyIndex(null);
+        List<Book> books = new ArrayList<>();
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < bookCount; i++) {
+            Book book = new Book(
+                    pick(vocabulary) + " " + pick(vocabulary) + " " + pick(vocabulary),
+                    pick(vocabulary) + " " + pick(vocabulary)
+            );
+            book.setId(UUID.randomUUID());
+            index.put(book);
+            books.add(book);
+        }
+        log.info("Indexed {} books in {} ms", bookCount, (System.nanoTime() - buildStart) / 1_000_000);
+
+        LatencyRecorder latency = new LatencyRecorder();
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            Book target = books.get(random.nextInt(books.size()));
+            String[] titleWords = target.getTitle().split(" ");
+            String[] authorWords = target.getAuthor().split(" ");
+            String query = misspell(titleWords[random.nextInt(titleWords.length)]) + " " + authorWords[authorWords.length - 1];
+
+            long start = System.nanoTime();
+            List<UUID> result = index.search(query);
+            latency.record(System.nanoTime() - start);
+
+            if (result.subList(0, Math.min(10, result.size())).contains(target.getId())) {
+                hits++;
+            }
+        }
+
+        log.info("Fuzzy search recall@10 = {}%", String.format("%.2f", hits * 100.0 / QUERIES));
+        log.info(latency.summary("fuzzy search (" + bookCount + " books)"));
+    }
+
+    private String misspell(String word) {
+        int edits = word.length() > 5 ? 1 + random.nextInt(2) : 1;
+        StringBuilder sb = new StringBuilder(word);
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(sb.length());
+            switch (random.nextInt(3)) {
+                case 0 -> sb.setCharAt(position, LETTERS.charAt(random.nextInt(LETTERS.length())));
+                case 1 -> sb.insert(position, LETTERS.charAt(random.nextInt(LETTERS.length())));
+                default -> {
+                    if (sb.length() > 1) sb.deleteCharAt(position);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private String randomWord(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return sb.toString();
+    }
+
+    private String pick(List<String> words) {
+        return words.get(random.nextInt(words.size()));
+    }
+}
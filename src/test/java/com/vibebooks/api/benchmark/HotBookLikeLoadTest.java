@@ -0,0 +1,148 @@
+package com.vibebooks.api.benchmark;
+
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.UserBookStatusRepository;
+import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.service.BookLikeCounter;
+import com.vibebooks.api.service.BookService;
+import com.vibebooks.api.service.BookStatsService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of like toggles on a single hot book, as when a book goes viral.
+ * {@link DirectLikeCounterLoadTest} updates the book's counter row in every toggle, while
+ * {@link WriteBehindLikeCounterLoadTest} buffers the deltas in {@link BookLikeCounter} and flushes them in batches,
+ * with the same connection pool size, so their reports can be compared line by line.
+ * After the run, the stored counter must match a recount of the likes.
+ *
+ * <p>Disabled by default. Run with:
+ * {@code ./mvnw test -Dtest='*LikeCounterLoadTest' -Dbenchmark=true
+ * [-Dbenchmark.concurrency=32] [-Dbenchmark.toggles=20000] [-Dbenchmark.users=300]}</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class HotBookLikeLoadTest extends AbstractIntegrationTest {
+
+    /**
+     * Connection pool size used by both counter modes.
+     */
+    static final String POOL_SIZE = "spring.datasource.hikari.maximum-pool-size=20";
+
+    /**
+     * Printing every statement to stdout would dominate the measured latency.
+     */
+    static final String NO_SQL_LOG = "spring.jpa.show-sql=false";
+
+    private static final Logger log = LoggerFactory.getLogger(HotBookLikeLoadTest.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBookStatusRepository userBookStatusRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookStatsService bookStatsService;
+
+    @Autowired
+    private BookLikeCounter bookLikeCounter;
+
+    private UUID hotBook;
+    private List<User> users;
+
+    /**
+     * @return Name of the counter mode, used as prefix in the report
+     */
+    abstract String counterMode();
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE books, users CASCADE");
+        hotBook = jdbcTemplate.queryForObject("""
+                INSERT INTO books (id, title, author, isbn, publication_year, created_at)
+                VALUES (gen_random_uuid(), 'Viral Book', 'Viral Author', '9780000000001', 2024, now())
+                RETURNING id
+                """, UUID.class);
+        bookStatsService.initialize(hotBook);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, password, created_at)
+                SELECT gen_random_uuid(), 'fan_' || i, 'fan_' || i || '@email.com', 'x', now()
+                FROM generate_series(1, ?) AS i
+                """, Integer.getInteger("benchmark.users", 300));
+        users = userRepository.findAll();
+    }
+
+    @Test
+    @DisplayName("Benchmark: concurrent like toggles on a single hot book")
+    void loadTest() throws Exception {
+        int concurrency = Integer.getInteger("benchmark.concurrency", 32);
+        int toggles = Integer.getInteger("benchmark.toggles", 20_000);
+
+        int warmup = toggles / 10;
+        toggle(concurrency, 0, warmup);
+
+        long started = System.nanoTime();
+        LatencyRecorder latency = toggle(concurrency, warmup, toggles);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        bookLikeCounter.flush();
+        long stored = bookStatsService.getStats(hotBook).getLikesCount();
+        long counted = userBookStatusRepository.countByBookIdAndLikedIsTrue(hotBook);
+
+        log.info(latency.summary(counterMode() + " like toggle"));
+        log.info("{} like toggle: {} toggles/s, stored counter {} for {} likes", counterMode(),
+                String.format("%.0f", toggles / seconds), stored, counted);
+        assertThat(stored).isEqualTo(counted);
+    }
+
+    /**
+     * Sends the toggles from {@code concurrency} threads, each cycling through the users, and merges their latencies.
+     * The users continue from {@code offset}, so the toggles of successive runs add up as one sequence.
+     */
+    private LatencyRecorder toggle(int concurrency, int offset, int toggles) throws Exception {
+        List<Future<LatencyRecorder>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+            for (int c = 0; c < concurrency; c++) {
+                int client = c;
+                clients.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    for (int i = client; i < toggles; i += concurrency) {
+                        User user = users.get((offset + i) % users.size());
+                        recorder.time(() -> bookService.likeOrUnlikeBook(hotBook, user));
+                    }
+                    return recorder;
+                }));
+            }
+        }
+
+        LatencyRecorder latency = new LatencyRecorder();
+        for (Future<LatencyRecorder> client : clients) {
+            latency.merge(client.get());
+        }
+        return latency;
+    }
+}
@@ -0,0 +1,153 @@
+package com.vibebooks.api.benchmark;
+
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.config.SearchIndexInitializer;
+import com.vibebooks.api.model.CountMode;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.BookRepository;
+import com.vibebooks.api.repository.CommentRepository;
+import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.service.FeedService;
+import com.vibebooks.api.util.CursorCodec;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares OFFSET pagination with keyset (cursor) pagination at increasing depths,
+ * for the book list, the comments of a single book and the feed.
+ * Offset latency grows with the depth, keyset latency should stay flat.
+ *
+ * <p>Disabled by default. Run with:
+ * {@code ./mvnw test -Dtest=KeysetPaginationBenchmarkTest -Dbenchmark=true [-Dbenchmark.books=1000000] [-Dbenchmark.comments=200000]}</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class KeysetPaginationBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(KeysetPaginationBenchmarkTest.class);
+
+    private static final int ITERATIONS = 30;
+    private static final int PAGE_SIZE = 20;
+    private static final List<Integer> DEPTHS = List.of(0, 1_000, 10_000, 100_000, 500_000);
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private SearchIndexInitializer searchIndexInitializer;
+
+    private int books;
+    private int comments;
+    private UUID hotBookId;
+
+    @BeforeAll
+    void seed() {
+        books = Integer.getInteger("benchmark.books", 1_000_000);
+        comments = Integer.getInteger("benchmark.comments", 200_000);
+        jdbcTemplate.execute("TRUNCATE books, users CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO books (id, title, author, isbn, publication_year, created_at)
+                SELECT gen_random_uuid(), 'Book ' || i, 'Author ' || (i % 1000), lpad(i::text, 13, '0'), 1900 + i % 125,
+                       now() - (i || ' seconds')::interval
+                FROM generate_series(1, ?) AS i
+                """, books);
+
+        User user = new User();
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@email.com");
+        user.setPassword("x");
+        user = userRepository.save(user);
+        hotBookId = jdbcTemplate.queryForObject("SELECT id FROM books ORDER BY created_at DESC LIMIT 1", UUID.class);
+        jdbcTemplate.update("""
+                INSERT INTO comments (id, text, user_id, book_id, created_at)
+                SELECT gen_random_uuid(), 'Comment ' || i, ?, ?, now() - (i || ' seconds')::interval
+                FROM generate_series(1, ?) AS i
+                """, user.getId(), hotBookId, comments);
+
+        searchIndexInitializer.createSearchIndexes();
+        jdbcTemplate.execute("ANALYZE books");
+        jdbcTemplate.execute("ANALYZE comments");
+        log.info("Seeded {} books and {} comments on one book for the pagination benchmark", books, comments);
+    }
+
+    @Test
+    @DisplayName("Benchmark: OFFSET vs keyset pagination at increasing depths")
+    void compareOffsetAndKeyset() {
+        for (int depth : DEPTHS) {
+            if (depth >= books) {
+                continue;
+            }
+            CursorCodec.Position bookCursor = positionAt("SELECT created_at, id FROM books ORDER BY created_at DESC, id DESC OFFSET ? LIMIT 1", depth);
+            LatencyRecorder offsetBooks = new LatencyRecorder();
+            LatencyRecorder keysetBooks = new LatencyRecorder();
+            LatencyRecorder offsetFeed = new LatencyRecorder();
+            LatencyRecorder keysetFeed = new LatencyRecorder();
+            PageRequest page = PageRequest.of(depth / PAGE_SIZE, PAGE_SIZE, NEWEST_FIRST);
+            String feedCursor = CursorCodec.encode(bookCursor.createdAt(), bookCursor.id());
+
+            for (int i = 0; i < ITERATIONS; i++) {
+                offsetBooks.time(() -> bookRepository.findAll(page));
+                keysetBooks.time(() -> bookRepository.findAfter(bookCursor.createdAt(), bookCursor.id(), Limit.of(PAGE_SIZE + 1)));
+                offsetFeed.time(() -> feedService.getBookFeed(page, CountMode.EXACT, null));
+                keysetFeed.time(() -> feedService.getBookFeedAfter(feedCursor, PAGE_SIZE, null));
+            }
+
+            log.info(offsetBooks.summary("books OFFSET depth=" + depth));
+            log.info(keysetBooks.summary("books keyset depth=" + depth));
+            log.info(offsetFeed.summary("feed OFFSET depth=" + depth));
+            log.info(keysetFeed.summary("feed keyset depth=" + depth));
+        }
+
+        for (int depth : DEPTHS) {
+            if (depth >= comments) {
+                continue;
+            }
+            CursorCodec.Position commentCursor = positionAt(
+                    "SELECT created_at, id FROM comments WHERE book_id = '" + hotBookId + "' ORDER BY created_at DESC, id DESC OFFSET ? LIMIT 1", depth);
+            LatencyRecorder offsetComments = new LatencyRecorder();
+            LatencyRecorder keysetComments = new LatencyRecorder();
+            PageRequest page = PageRequest.of(depth / PAGE_SIZE, PAGE_SIZE, NEWEST_FIRST);
+
+            for (int i = 0; i < ITERATIONS; i++) {
+                offsetComments.time(() -> commentRepository.findAllByBookId(hotBookId, page));
+                keysetComments.time(() -> commentRepository.findByBookIdBefore(
+                        hotBookId, commentCursor.createdAt(), commentCursor.id(), Limit.of(PAGE_SIZE + 1)));
+            }
+
+            log.info(offsetComments.summary("comments OFFSET depth=" + depth));
+            log.info(keysetComments.summary("comments keyset depth=" + depth));
+        }
+    }
+
+    private CursorCodec.Position positionAt(String sql, int depth) {
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) ->
+                new CursorCodec.Position(rs.getObject("created_at", OffsetDateTime.class), rs.getObject("id", UUID.class)), depth);
+    }
+}
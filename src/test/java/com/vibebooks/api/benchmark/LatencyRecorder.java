@@ -0,0 +1,61 @@
+package com.vibebooks.api.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects latency samples for the benchmark tests and reports percentiles.
+ * Not thread-safe: each thread should use its own recorder and {@link #merge} them at the end.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+
+    /**
+     * Runs the task and records how long it took.
+     */
+    public void time(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        record(System.nanoTime() - start);
+    }
+
+    public void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.samples[i]);
+        }
+    }
+
+    public int count() {
+        return size;
+    }
+
+    /**
+     * Returns the given percentile (0-100) in microseconds.
+     */
+    public double percentileMicros(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))] / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    /**
+     * Formats count, p50, p99 and max as a single line for the benchmark report.
+     */
+    public String summary(String name) {
+        return String.format("%-40s n=%d p50=%.1fus p99=%.1fus max=%.1fus",
+                name, size, percentileMicros(50), percentileMicros(99), percentileMicros(100));
+    }
+}
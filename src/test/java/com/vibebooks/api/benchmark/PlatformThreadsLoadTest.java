@@ -0,0 +1,15 @@
+package com.vibebooks.api.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * {@link ThreadModelLoadTest} against Tomcat on its default pool of platform worker threads.
+ */
+@TestPropertySource(properties = {ThreadModelLoadTest.POOL_SIZE, ThreadModelLoadTest.NO_SQL_LOG, "spring.threads.virtual.enabled=false"})
+class PlatformThreadsLoadTest extends ThreadModelLoadTest {
+
+    @Override
+    String threadModel() {
+        return "platform";
+    }
+}
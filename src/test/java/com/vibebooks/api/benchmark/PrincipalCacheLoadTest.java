@@ -0,0 +1,143 @@
+package com.vibebooks.api.benchmark;
+
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.security.PrincipalCache;
+import com.vibebooks.api.security.SecurityFilter;
+import com.vibebooks.api.service.TokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Load test of the authentication path with and without the {@link PrincipalCache}.
+ * Concurrent clients call an endpoint that does not touch the database itself
+ * ({@code GET /books/suggest}), so every statement counted comes from resolving the principal.
+ *
+ * <p>Disabled by default. Run with:
+ * {@code ./mvnw test -Dtest=PrincipalCacheLoadTest -Dbenchmark=true
+ * [-Dbenchmark.users=200] [-Dbenchmark.requests=20000] [-Dbenchmark.threads=16]}</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PrincipalCacheLoadTest extends AbstractIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PrincipalCacheLoadTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private SecurityFilter securityFilter;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<String> tokens = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeAll
+    void seed() {
+        userRepository.deleteAll();
+        int users = Integer.getInteger("benchmark.users", 200);
+        for (int i = 0; i < users; i++) {
+            User user = userRepository.save(new User("load_" + i, "load_" + i + "@email.com", "x"));
+            tokens.add(tokenService.generateToken(user));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterAll
+    void restoreCache() {
+        ReflectionTestUtils.setField(securityFilter, "principalCache", principalCache);
+    }
+
+    @Test
+    @DisplayName("Benchmark: authenticated requests with and without the principal cache")
+    void compareWithAndWithoutCache() throws Exception {
+        int requests = Integer.getInteger("benchmark.requests", 20_000);
+        int threads = Integer.getInteger("benchmark.threads", 16);
+
+        ReflectionTestUtils.setField(securityFilter, "principalCache", new PrincipalCache(userRepository, Duration.ZERO, 0));
+        run("without cache", requests / 4, threads);
+        run("without cache", requests, threads);
+
+        ReflectionTestUtils.setField(securityFilter, "principalCache", principalCache);
+        run("with cache", requests / 4, threads);
+        run("with cache", requests, threads);
+
+        PrincipalCache.Stats stats = principalCache.getStats();
+        log.info("Principal cache: hits={} misses={} hitRatio={} avgLoad={}ms",
+                stats.hits(), stats.misses(), String.format("%.4f", stats.hitRatio()), String.format("%.3f", stats.averageLoadMillis()));
+    }
+
+    /**
+     * Sends the requests from concurrent clients, each client cycling through the users,
+     * and logs latency, throughput and the database statements per second.
+     */
+    private void run(String name, int requests, int threads) throws Exception {
+        statistics.clear();
+        List<Future<LatencyRecorder>> clients = new ArrayList<>();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int client = t;
+                clients.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    for (int i = client; i < requests; i += threads) {
+                        String token = tokens.get(i % tokens.size());
+                        long start = System.nanoTime();
+                        mockMvc.perform(get("/vibebooks/api/books/suggest").param("prefix", "a")
+                                        .header("Authorization", "Bearer " + token))
+                                .andExpect(status().isOk());
+                        recorder.record(System.nanoTime() - start);
+                    }
+                    return recorder;
+                }));
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        LatencyRecorder latency = new LatencyRecorder();
+        for (Future<LatencyRecorder> client : clients) {
+            latency.merge(client.get());
+        }
+        long statements = statistics.getPrepareStatementCount();
+        log.info(latency.summary(name));
+        log.info("{}: {} req/s, {} statements ({} per request, {} statements/s)", name,
+                String.format("%.0f", requests / seconds), statements,
+                String.format("%.3f", statements / (double) requests), String.format("%.0f", statements / seconds));
+    }
+}
@@ -0,0 +1,200 @@
+package com.vibebooks.api.benchmark;
+
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.client.GoogleBooksStubServer;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.service.TokenService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Load test of {@code GET /feed}, {@code GET /books} and {@code POST /books} over real HTTP at high concurrency.
+ * {@link PlatformThreadsLoadTest} and {@link VirtualThreadsLoadTest} run it against Tomcat on platform threads
+ * and on virtual threads, with the same connection pool size, so their reports can be compared line by line.
+ * Google Books is replaced by a local stub that answers every lookup after a fixed latency.
+ *
+ * <p>Disabled by default. Run with:
+ * {@code ./mvnw test -Dtest='*ThreadsLoadTest' -Dbenchmark=true
+ * [-Dbenchmark.concurrency=500] [-Dbenchmark.requests=5000] [-Dbenchmark.google-latency-ms=100]}</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class ThreadModelLoadTest extends AbstractIntegrationTest {
+
+    /**
+     * Connection pool size used by both thread models.
+     */
+    static final String POOL_SIZE = "spring.datasource.hikari.maximum-pool-size=20";
+
+    /**
+     * Printing every statement to stdout would dominate the measured latency.
+     */
+    static final String NO_SQL_LOG = "spring.jpa.show-sql=false";
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadModelLoadTest.class);
+
+    private static final GoogleBooksStubServer googleBooks = startStub();
+    private static final AtomicLong isbnSequence = new AtomicLong();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private String token;
+
+    @DynamicPropertySource
+    static void googleBooksProperties(DynamicPropertyRegistry registry) {
+        registry.add("api.google-books.base-url", googleBooks::baseUrl);
+    }
+
+    /**
+     * @return Name of the thread model, used as prefix in the report
+     */
+    abstract String threadModel();
+
+    @BeforeAll
+    void seed() {
+        googleBooks.respondWithVolume("Load Test Book", "Load Test Author")
+                .withLatency(Duration.ofMillis(Integer.getInteger("benchmark.google-latency-ms", 100)));
+        jdbcTemplate.execute("TRUNCATE books, users CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO books (id, title, author, isbn, publication_year, created_at)
+                SELECT gen_random_uuid(), 'Book ' || i, 'Author ' || (i % 100), 'seed' || i, 1900 + i % 125,
+                       now() - (i || ' seconds')::interval
+                FROM generate_series(1, 1000) AS i
+                """);
+        User user = userRepository.save(new User("load_" + threadModel(), "load_" + threadModel() + "@email.com", "x"));
+        token = tokenService.generateToken(user);
+    }
+
+    @AfterAll
+    void closeClient() {
+        httpClient.close();
+    }
+
+    @Test
+    @DisplayName("Benchmark: feed, book list and book creation at high concurrency")
+    void loadTest() throws Exception {
+        int concurrency = Integer.getInteger("benchmark.concurrency", 500);
+        int requests = Integer.getInteger("benchmark.requests", 5000);
+
+        run("GET /feed", concurrency, requests, i -> get("/feed?page=" + (i % 10) + "&count=cached"));
+        run("GET /books", concurrency, requests, i -> get("/books?page=" + (i % 10) + "&count=cached"));
+        run("POST /books", concurrency, requests, i -> HttpRequest.newBuilder(uri("/books"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"isbn\":\"" + nextIsbn() + "\"}"))
+                .build());
+    }
+
+    /**
+     * Warms the endpoint up, then sends the requests from {@code concurrency} concurrent clients
+     * and logs latency, throughput and the number of failed requests.
+     */
+    private void run(String name, int concurrency, int requests, IntFunction<HttpRequest> request) throws Exception {
+        send(concurrency, Math.max(concurrency, requests / 10), request);
+
+        AtomicInteger failures = new AtomicInteger();
+        long started = System.nanoTime();
+        LatencyRecorder latency = send(concurrency, requests, request, failures);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        log.info(latency.summary(threadModel() + " " + name));
+        log.info("{} {}: {} req/s, {} failed", threadModel(), name,
+                String.format("%.0f", requests / seconds), failures.get());
+    }
+
+    private LatencyRecorder send(int concurrency, int requests, IntFunction<HttpRequest> request) throws Exception {
+        return send(concurrency, requests, request, new AtomicInteger());
+    }
+
+    private LatencyRecorder send(int concurrency, int requests, IntFunction<HttpRequest> request, AtomicInteger failures)
+            throws Exception {
+        List<Future<LatencyRecorder>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                int client = c;
+                clients.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    for (int i = client; i < requests; i += concurrency) {
+                        HttpRequest httpRequest = request.apply(i);
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                        recorder.record(System.nanoTime() - start);
+                        if (response.statusCode() >= 300) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+        }
+
+        LatencyRecorder latency = new LatencyRecorder();
+        for (Future<LatencyRecorder> client : clients) {
+            latency.merge(client.get());
+        }
+        return latency;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + port + "/vibebooks/api" + path);
+    }
+
+    private String nextIsbn() {
+        return String.format("%s%09d", threadModel().charAt(0) == 'v' ? "9791" : "9781", isbnSequence.incrementAndGet());
+    }
+
+    private static GoogleBooksStubServer startStub() {
+        try {
+            return new GoogleBooksStubServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.vibebooks.api.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * {@link ThreadModelLoadTest} with the {@code virtual-threads} profile active.
+ */
+@ActiveProfiles("virtual-threads")
+@TestPropertySource(properties = {ThreadModelLoadTest.POOL_SIZE, ThreadModelLoadTest.NO_SQL_LOG})
+class VirtualThreadsLoadTest extends ThreadModelLoadTest {
+
+    @Override
+    String threadModel() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,16 @@
+package com.vibebooks.api.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * {@link HotBookLikeLoadTest} with the like counter buffered in memory and flushed in batches.
+ */
+@TestPropertySource(properties = {HotBookLikeLoadTest.POOL_SIZE, HotBookLikeLoadTest.NO_SQL_LOG, "api.book-likes.write-behind=true",
+        "api.book-likes.flush-interval-ms=250"})
+class WriteBehindLikeCounterLoadTest extends HotBookLikeLoadTest {
+
+    @Override
+    String counterMode() {
+        return "write-behind";
+    }
+}
@@ -0,0 +1,72 @@
+package com.vibebooks.api.benchmark.jmh;
+
+import com.vibebooks.api.dto.CommentDetailsDTO;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.service.CommentDetailsAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of mapping the comments of a page to {@link CommentDetailsDTO} with {@link CommentDetailsAssembler},
+ * without the database: the like lookup of the reader is a stub returning its likes on those comments.
+ *
+ * <ul>
+ *     <li>{@code anonymous}: like counts and book titles only.</li>
+ *     <li>{@code loggedIn}: also collects the comment IDs and builds the set of comments liked by the reader.</li>
+ * </ul>
+ *
+ * <p>Run with: {@code ./mvnw test -Pjmh -Djmh.args="CommentMappingBenchmark"}</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CommentMappingBenchmark {
+
+    /** Books of the page; each has {@value FeedFixture#COMMENTS_PER_BOOK} comments, as embedded in the feed. */
+    @Param({"20"})
+    private int books;
+
+    private FeedFixture fixture;
+    private CommentDetailsAssembler assembler;
+    private Map<UUID, String> bookTitles;
+    private User reader;
+
+    @Setup
+    public void setup() {
+        fixture = new FeedFixture(books);
+        assembler = fixture.commentDetailsAssembler();
+        bookTitles = fixture.books.stream().collect(Collectors.toMap(Book::getId, Book::getTitle));
+        reader = fixture.reader;
+    }
+
+    @Benchmark
+    public List<CommentDetailsDTO> anonymous() {
+        return assembler.assemble(fixture.comments, bookTitles, null);
+    }
+
+    @Benchmark
+    public List<CommentDetailsDTO> loggedIn() {
+        return assembler.assemble(fixture.comments, bookTitles, reader);
+    }
+}
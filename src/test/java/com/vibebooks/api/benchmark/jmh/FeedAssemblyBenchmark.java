@@ -0,0 +1,108 @@
+package com.vibebooks.api.benchmark.jmh;
+
+import com.vibebooks.api.dto.BookDetailsDTO;
+import com.vibebooks.api.dto.BookFeedDTO;
+import com.vibebooks.api.dto.CommentDetailsDTO;
+import com.vibebooks.api.dto.PageResponseDTO;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.model.BookSentiment;
+import com.vibebooks.api.model.BookStats;
+import com.vibebooks.api.model.CountMode;
+import com.vibebooks.api.service.BookDetailsAssembler;
+import com.vibebooks.api.service.FeedService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of turning one page of entities into feed and book DTOs, without any database round trip.
+ *
+ * <ul>
+ *     <li>{@code bookDetailsPage}: {@link BookDetailsAssembler} for a page of {@code /books}.</li>
+ *     <li>{@code bookFeedDtos}: the {@link BookFeedDTO} constructor alone, for every book of the page.</li>
+ *     <li>{@code sentimentCounts}: the {@code EnumMap} every book DTO gets from {@link BookStats#getSentimentCounts()}.</li>
+ *     <li>{@code groupCommentsByBook}: the {@code Collectors.groupingBy} of the latest comments in {@link FeedService}.</li>
+ *     <li>{@code feedPage}: the whole {@link FeedService#getBookFeed} on stub repositories, stages run sequentially.</li>
+ * </ul>
+ *
+ * <p>Run with: {@code ./mvnw test -Pjmh -Djmh.args="FeedAssemblyBenchmark"}; the {@code gc} profiler reports
+ * {@code gc.alloc.rate.norm}, the bytes allocated per page.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FeedAssemblyBenchmark {
+
+    @Param({"20"})
+    private int pageSize;
+
+    private FeedFixture fixture;
+    private FeedService feedService;
+    private BookDetailsAssembler bookDetailsAssembler;
+    private List<CommentDetailsDTO> commentDtos;
+    private Map<UUID, List<CommentDetailsDTO>> commentsByBook;
+
+    @Setup
+    public void setup() {
+        fixture = new FeedFixture(pageSize);
+        feedService = fixture.feedService();
+        bookDetailsAssembler = fixture.bookDetailsAssembler();
+        commentDtos = fixture.commentDetailsAssembler().assemble(fixture.comments,
+                fixture.books.stream().collect(Collectors.toMap(Book::getId, Book::getTitle)), fixture.reader);
+        commentsByBook = commentDtos.stream().collect(Collectors.groupingBy(CommentDetailsDTO::bookId));
+    }
+
+    @Benchmark
+    public List<BookDetailsDTO> bookDetailsPage() {
+        return bookDetailsAssembler.assemble(fixture.books, fixture.reader);
+    }
+
+    @Benchmark
+    public void bookFeedDtos(Blackhole blackhole) {
+        List<Book> books = fixture.books;
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            BookStats stats = fixture.stats.get(i);
+            blackhole.consume(new BookFeedDTO(book, commentsByBook.get(book.getId()), stats.getCommentsCount(), null,
+                    stats.getLikesCount(), i % 2 == 0, null, null, null));
+        }
+    }
+
+    @Benchmark
+    public void sentimentCounts(Blackhole blackhole) {
+        for (BookStats stats : fixture.stats) {
+            Map<BookSentiment, Long> counts = stats.getSentimentCounts();
+            blackhole.consume(counts);
+        }
+    }
+
+    @Benchmark
+    public Map<UUID, List<CommentDetailsDTO>> groupCommentsByBook() {
+        return commentDtos.stream().collect(Collectors.groupingBy(CommentDetailsDTO::bookId));
+    }
+
+    @Benchmark
+    public PageResponseDTO<BookFeedDTO> feedPage() {
+        return feedService.getBookFeed(fixture.pageable, CountMode.NONE, fixture.reader);
+    }
+}
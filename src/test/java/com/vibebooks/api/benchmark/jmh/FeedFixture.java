@@ -0,0 +1,187 @@
+package com.vibebooks.api.benchmark.jmh;
+
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.model.BookSentiment;
+import com.vibebooks.api.model.BookStats;
+import com.vibebooks.api.model.Comment;
+import com.vibebooks.api.model.CommentLike;
+import com.vibebooks.api.model.ReadingStatus;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.model.UserBookStatus;
+import com.vibebooks.api.model.UserBookStatusId;
+import com.vibebooks.api.repository.BookRepository;
+import com.vibebooks.api.repository.BookStatsRepository;
+import com.vibebooks.api.repository.CommentLikeRepository;
+import com.vibebooks.api.repository.CommentRepository;
+import com.vibebooks.api.repository.UserBookStatusRepository;
+import com.vibebooks.api.service.BookDetailsAssembler;
+import com.vibebooks.api.service.BookLikeCounter;
+import com.vibebooks.api.service.BookStatsService;
+import com.vibebooks.api.service.CommentDetailsAssembler;
+import com.vibebooks.api.service.FeedService;
+import com.vibebooks.api.service.PageCountService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * One feed page of data as the repositories would return it, and the real services wired on top of stubs.
+ *
+ * <p>Every book has a stats row with all sentiments set, the reader has a status on every other book,
+ * and each book has its latest {@value #COMMENTS_PER_BOOK} comments, half of them liked by the reader.
+ * Data is generated from a fixed seed, so every run and every fork measures the same page.</p>
+ */
+final class FeedFixture {
+
+    static final int COMMENTS_PER_BOOK = 3;
+
+    final Pageable pageable;
+    final User reader;
+    final List<Book> books = new ArrayList<>();
+    final List<BookStats> stats = new ArrayList<>();
+    final List<UserBookStatus> statuses = new ArrayList<>();
+    final List<Comment> comments = new ArrayList<>();
+    final List<CommentLike> commentLikes = new ArrayList<>();
+
+    FeedFixture(int pageSize) {
+        Random random = new Random(42);
+        OffsetDateTime now = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        pageable = PageRequest.of(0, pageSize);
+        reader = user(random, "reader");
+        List<User> commenters = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            commenters.add(user(random, "reader_" + i));
+        }
+
+        BookSentiment[] sentiments = BookSentiment.values();
+        for (int i = 0; i < pageSize; i++) {
+            Book book = new Book("The Book of Things, Volume " + i, "Author Number " + (i % 7));
+            book.setId(new UUID(random.nextLong(), random.nextLong()));
+            book.setIsbn(String.format("978%010d", i));
+            book.setPublicationYear(1950 + i);
+            book.setCoverImageUrl("https://books.google.com/books/content?id=" + Long.toHexString(random.nextLong())
+                    + "&printsec=frontcover&img=1&zoom=1&source=gbs_api");
+            book.setCreatedAt(now.minusMinutes(i));
+            books.add(book);
+
+            stats.add(new BookStats(book.getId(), random.nextInt(5_000), 40 + i, random.nextInt(300),
+                    random.nextInt(300), random.nextInt(300), random.nextInt(300), random.nextInt(300),
+                    random.nextInt(300), random.nextInt(300), random.nextInt(300)));
+
+            if (i % 2 == 0) {
+                statuses.add(new UserBookStatus(UserBookStatusId.of(reader, book), reader, book,
+                        ReadingStatus.READING, false, sentiments[i % sentiments.length], now, i % 4 == 0));
+            }
+
+            for (int c = 0; c < COMMENTS_PER_BOOK; c++) {
+                Comment comment = new Comment(commentText(random), commenters.get(random.nextInt(commenters.size())), book);
+                comment.setId(new UUID(random.nextLong(), random.nextLong()));
+                comment.setCreatedAt(now.minusMinutes(i).minusSeconds(c));
+                comment.setLikesCount(random.nextInt(200));
+                comments.add(comment);
+                if (c % 2 == 0) {
+                    commentLikes.add(new CommentLike(reader, comment));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@link FeedService} on stub repositories, with sequential stages and no-op transactions,
+     * so only the in-memory assembly of the page is measured
+     */
+    FeedService feedService() {
+        PlatformTransactionManager transactions = noTransactions();
+        return new FeedService(
+                stub(BookRepository.class, "findAllBy", new SliceImpl<>(books, pageable, true)),
+                stub(CommentRepository.class, "findLatestByBookIdIn", comments),
+                stub(UserBookStatusRepository.class, "findAllByUserIdAndBookIdIn", statuses),
+                bookStatsService(transactions),
+                commentDetailsAssembler(),
+                new PageCountService(null, Duration.ofSeconds(30), 1),
+                transactions,
+                COMMENTS_PER_BOOK,
+                false,
+                4,
+                Duration.ofSeconds(2)
+        );
+    }
+
+    BookDetailsAssembler bookDetailsAssembler() {
+        return new BookDetailsAssembler(
+                stub(UserBookStatusRepository.class, "findAllByUserIdAndBookIdIn", statuses),
+                bookStatsService(noTransactions()));
+    }
+
+    CommentDetailsAssembler commentDetailsAssembler() {
+        return new CommentDetailsAssembler(stub(CommentLikeRepository.class, "findAllByUserIdAndCommentIdIn", commentLikes));
+    }
+
+    private BookStatsService bookStatsService(PlatformTransactionManager transactions) {
+        return new BookStatsService(stub(BookStatsRepository.class, "findAllByBookIdIn", stats),
+                new BookLikeCounter(null, null, transactions, false), transactions);
+    }
+
+    private static User user(Random random, String username) {
+        User user = new User(username, username + "@email.com", "x");
+        user.setId(new UUID(random.nextLong(), random.nextLong()));
+        return user;
+    }
+
+    private static String commentText(Random random) {
+        StringBuilder text = new StringBuilder("Loved how the story unfolds");
+        int clauses = 1 + random.nextInt(4);
+        for (int i = 0; i < clauses; i++) {
+            text.append(", and the characters \"really\" grow on you over chapter ").append(random.nextInt(40));
+        }
+        return text.append('.').toString();
+    }
+
+    /**
+     * Returns a repository answering one query method with a fixed result; any other call fails.
+     */
+    private static <T> T stub(Class<T> repository, String method, Object result) {
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, invoked, args) -> switch (invoked.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> repository.getSimpleName() + " stub";
+                    default -> {
+                        if (!invoked.getName().equals(method)) {
+                            throw new UnsupportedOperationException(repository.getSimpleName() + "." + invoked.getName());
+                        }
+                        yield result;
+                    }
+                }));
+    }
+
+    private static PlatformTransactionManager noTransactions() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.vibebooks.api.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vibebooks.api.dto.BookFeedDTO;
+import com.vibebooks.api.dto.PageResponseDTO;
+import com.vibebooks.api.model.CountMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a feed page as returned by {@code GET /feed}: books with their counters, sentiments,
+ * the reader's status and the latest comments.
+ *
+ * <ul>
+ *     <li>{@code writeToStream}: streamed to the response body, as the message converter does.</li>
+ *     <li>{@code writeValueAsBytes}: buffered into a byte array first.</li>
+ * </ul>
+ *
+ * <p>The mapper is configured as Spring Boot configures the application's one (Java time module, ISO dates).</p>
+ *
+ * <p>Run with: {@code ./mvnw test -Pjmh -Djmh.args="FeedSerializationBenchmark"}</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FeedSerializationBenchmark {
+
+    @Param({"20"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PageResponseDTO<BookFeedDTO> page;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        FeedFixture fixture = new FeedFixture(pageSize);
+        page = fixture.feedService().getBookFeed(fixture.pageable, CountMode.NONE, fixture.reader);
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
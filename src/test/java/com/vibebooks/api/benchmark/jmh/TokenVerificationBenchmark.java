@@ -0,0 +1,92 @@
+package com.vibebooks.api.benchmark.jmh;
+
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.service.TokenService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded token verification throughput, i.e. tokens per second per core.
+ *
+ * <ul>
+ *     <li>{@code legacy}: key and parser rebuilt on every call, as {@link TokenService} used to do.</li>
+ *     <li>{@code reusedParser}: {@link TokenService} with the verified-token cache disabled.</li>
+ *     <li>{@code cached}: {@link TokenService} with the verified-token cache, cycling through
+ *     {@code tokens} distinct tokens as concurrent users would.</li>
+ * </ul>
+ *
+ * <p>Run with: {@code ./mvnw test -Pjmh -Djmh.args="TokenVerificationBenchmark"}</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-long-enough-for-hs256-signing";
+
+    @Param({"256"})
+    private int tokens;
+
+    private TokenService uncached;
+    private TokenService cached;
+    private String[] issued;
+    private int next;
+
+    @Setup
+    public void setup() {
+        uncached = new TokenService(SECRET, 2L, 0);
+        cached = new TokenService(SECRET, 2L, 1024);
+        issued = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            User user = new User();
+            user.setId(UUID.randomUUID());
+            issued[i] = cached.generateToken(user);
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(nextToken())
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String reusedParser() {
+        return uncached.getSubject(nextToken());
+    }
+
+    @Benchmark
+    public String cached() {
+        return cached.getSubject(nextToken());
+    }
+
+    private String nextToken() {
+        String token = issued[next];
+        next = (next + 1) % issued.length;
+        return token;
+    }
+}
@@ -0,0 +1,143 @@
+package com.vibebooks.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.dto.google.VolumeInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link GoogleBooksClient} against a local stub server.
+ * Verifies response mapping, timeouts, upstream failures, and concurrent non-blocking calls.
+ */
+class GoogleBooksClientTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(1);
+
+    private static GoogleBooksStubServer stub;
+    private static GoogleBooksClient client;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        stub = new GoogleBooksStubServer();
+        client = new GoogleBooksClient(new ObjectMapper(), stub.baseUrl(), "test-key", Duration.ofMillis(500), REQUEST_TIMEOUT, false);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        client.close();
+        stub.close();
+    }
+
+    @BeforeEach
+    void resetStub() {
+        stub.reset();
+    }
+
+    @Test
+    @DisplayName("Fetch: Should map the first volume and send ISBN and API key")
+    void shouldFetchVolume() {
+        stub.respondWithVolume("The Hobbit", "J.R.R. Tolkien");
+
+        VolumeInfo volume = client.fetchByIsbn("9780261103344");
+
+        assertEquals("The Hobbit", volume.title());
+        assertEquals(List.of("J.R.R. Tolkien"), volume.authors());
+        assertEquals("q=isbn:9780261103344&key=test-key", stub.lastQuery());
+    }
+
+    @Test
+    @DisplayName("Fetch: Should fetch volumes when running on virtual threads")
+    void shouldFetchVolumeOnVirtualThreads() {
+        stub.respondWithVolume("The Hobbit", "J.R.R. Tolkien").withLatency(Duration.ofMillis(50));
+
+        try (GoogleBooksClient virtualClient = new GoogleBooksClient(new ObjectMapper(), stub.baseUrl(), "test-key",
+                Duration.ofMillis(500), REQUEST_TIMEOUT, true)) {
+            VolumeInfo volume = virtualClient.fetchByIsbn("9780261103344");
+
+            assertEquals("The Hobbit", volume.title());
+        }
+    }
+
+    @Test
+    @DisplayName("Fetch: Should return empty when Google has no volume for the ISBN")
+    void shouldReturnEmptyWhenNotFound() {
+        assertEquals(Optional.empty(), client.findByIsbn("0000000000").join());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> client.fetchByIsbn("0000000000"));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Fetch: Should fail with 504 when Google is slower than the timeout")
+    void shouldTimeOut() {
+        stub.respondWithVolume("Slow", "Author").withLatency(Duration.ofSeconds(5));
+
+        long start = System.nanoTime();
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> client.fetchByIsbn("1234567890"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, ex.getStatusCode());
+        assertTrue(elapsedMillis < 3_000, "call should be cut off near the timeout, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Fetch: Should fail with 502 when Google returns an error or garbage")
+    void shouldFailOnUpstreamErrors() {
+        stub.respondWith(503, "{}");
+        assertEquals(HttpStatus.BAD_GATEWAY, assertThrows(ResponseStatusException.class, () -> client.fetchByIsbn("1")).getStatusCode());
+
+        stub.respondWith(200, "not json");
+        CompletionException ex = assertThrows(CompletionException.class, () -> client.findByIsbn("1").join());
+        assertEquals(HttpStatus.BAD_GATEWAY, ((ResponseStatusException) ex.getCause()).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Async: Should run concurrent lookups in parallel instead of one after another")
+    void shouldRunLookupsConcurrently() {
+        stub.respondWithVolume("Parallel", "Author").withLatency(Duration.ofMillis(300));
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Optional<VolumeInfo>>> futures = IntStream.range(0, 10)
+                .mapToObj(i -> client.findByIsbn("isbn-" + i))
+                .toList();
+        futures.forEach(future -> assertTrue(future.join().isPresent()));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(10, stub.requestCount());
+        assertTrue(elapsedMillis < 2_000, "10 lookups of 300 ms should overlap, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Metrics: Should time lookups by outcome once bound to a registry")
+    void shouldTimeLookupsByOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (GoogleBooksClient meteredClient = new GoogleBooksClient(new ObjectMapper(), stub.baseUrl(), "test-key",
+                Duration.ofMillis(500), REQUEST_TIMEOUT, false)) {
+            meteredClient.bindTo(registry);
+
+            stub.respondWithVolume("The Hobbit", "J.R.R. Tolkien");
+            meteredClient.findByIsbn("9780261103344").join();
+            stub.respondWith(503, "{}");
+            assertThrows(CompletionException.class, () -> meteredClient.findByIsbn("1").join());
+        }
+
+        assertEquals(1, registry.get("google.books.requests").tag("outcome", "found").timer().count());
+        assertEquals(1, registry.get("google.books.requests").tag("outcome", "failed").timer().count());
+        assertEquals(0, registry.get("google.books.requests").tag("outcome", "not_found").timer().count());
+    }
+}
@@ -0,0 +1,142 @@
+package com.vibebooks.api.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Google Books volumes API, used by tests.
+ *
+ * <p>Serves a configurable status and body on {@code /volumes} and can inject latency,
+ * or hold every request until the test releases it, to simulate a slow upstream.</p>
+ */
+public class GoogleBooksStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private volatile int status = 200;
+    private volatile String body = emptyResponse();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private volatile CountDownLatch arrived = new CountDownLatch(0);
+    private volatile String lastQuery;
+
+    public GoogleBooksStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/volumes", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return Base URL to use as {@code api.google-books.base-url}
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Answers every request with a single volume.
+     */
+    public GoogleBooksStubServer respondWithVolume(String title, String author) {
+        return respondWith(200, """
+                {"totalItems": 1, "items": [{"volumeInfo": {
+                  "title": "%s", "authors": ["%s"], "publishedDate": "2024",
+                  "imageLinks": {"thumbnail": "http://thumb", "smallThumbnail": "http://small"}}}]}
+                """.formatted(title, author));
+    }
+
+    public GoogleBooksStubServer respondWith(int status, String body) {
+        this.status = status;
+        this.body = body;
+        return this;
+    }
+
+    public GoogleBooksStubServer withLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Holds incoming requests until {@link #release()} is called.
+     *
+     * @param expectedRequests Number of requests {@link #awaitRequests(Duration)} waits for
+     */
+    public GoogleBooksStubServer holdRequests(int expectedRequests) {
+        this.gate = new CountDownLatch(1);
+        this.arrived = new CountDownLatch(expectedRequests);
+        return this;
+    }
+
+    /**
+     * Waits until the expected number of held requests has reached the server.
+     */
+    public boolean awaitRequests(Duration timeout) throws InterruptedException {
+        return arrived.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void release() {
+        gate.countDown();
+    }
+
+    public void reset() {
+        release();
+        status = 200;
+        body = emptyResponse();
+        latency = Duration.ZERO;
+        requestCount.set(0);
+        lastQuery = null;
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    public String lastQuery() {
+        return lastQuery;
+    }
+
+    @Override
+    public void close() {
+        release();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        lastQuery = exchange.getRequestURI().getQuery();
+        try {
+            arrived.countDown();
+            gate.await();
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(status, bytes.length);
+            out.write(bytes);
+        } catch (IOException ignored) {
+            // The client gave up (timeout); nothing left to answer.
+        }
+    }
+
+    private static String emptyResponse() {
+        return "{\"totalItems\": 0}";
+    }
+}
@@ -0,0 +1,85 @@
+package com.vibebooks.api.config;
+
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.security.BoundedPasswordEncoder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the Prometheus endpoint on the management port.
+ * Verifies that per-handler latency histograms, pool, Hibernate, hashing, Google Books and ISBN cache metrics are scraped
+ * without authentication, and that the endpoint is not served on the API port.
+ * Metrics export is off in Spring Boot tests unless {@link AutoConfigureObservability} turns it back on,
+ * and Hibernate statistics are only enabled here, as in the main configuration.
+ */
+@AutoConfigureObservability(tracing = false)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class MetricsConfigTest extends AbstractIntegrationTest {
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    /**
+     * Tests that one scrape carries every metric group, with requests tagged by the controller method.
+     */
+    @Test
+    @DisplayName("GET /actuator/prometheus: Should expose handler histograms, pool, Hibernate and client metrics")
+    void shouldExposeMetricsOnManagementPort() throws Exception {
+        mockMvc.perform(get("/vibebooks/api/books")).andExpect(status().isOk());
+        passwordEncoder.encode("secret123");
+
+        HttpResponse<String> scrape;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            scrape = client.send(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+        }
+
+        assertThat(scrape.statusCode()).as(scrape.body()).isEqualTo(200);
+        assertThat(scrape.body())
+                .containsPattern("http_server_requests_seconds_bucket\\{.*handler=\"BookController.listBooks\"")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_query_executions")
+                .contains("hibernate_entities_loads")
+                .contains("password_hashing_seconds_bucket")
+                .contains("google_books_requests_seconds_count{outcome=\"found\"")
+                .contains("isbn_cache_hits_total{tier=\"memory\"")
+                .contains("isbn_cache_misses_total")
+                .contains("isbn_cache_memory_size")
+                .contains("principal_cache_hits_total")
+                .contains("principal_cache_misses_total")
+                .contains("principal_cache_load_seconds_count");
+    }
+
+    /**
+     * Tests that the API port does not serve the actuator.
+     */
+    @Test
+    @DisplayName("GET /actuator/prometheus: Should not be served on the API port")
+    void shouldNotExposeMetricsOnApiPort() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().is4xxClientError());
+    }
+}
@@ -0,0 +1,35 @@
+package com.vibebooks.api.config;
+
+import com.vibebooks.api.repository.BookRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the index script run by {@link SearchIndexInitializer}.
+ * Verifies that it splits into concurrent, idempotent statements whose search expressions match the queries.
+ */
+class SearchIndexInitializerTest {
+
+    private final List<String> statements = SearchIndexInitializer.statements(new ClassPathResource("db/indexes.sql"));
+
+    @Test
+    @DisplayName("Script: Should build every index concurrently and only if it does not exist")
+    void shouldCreateIndexesConcurrently() {
+        assertEquals(4, statements.size());
+        statements.forEach(statement -> assertTrue(statement.startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS "), statement));
+    }
+
+    @Test
+    @DisplayName("Script: Should index the exact search expressions of BookRepository")
+    void shouldMatchSearchExpressions() {
+        String script = String.join("\n", statements).replaceAll("\\s+", " ");
+
+        assertTrue(script.contains("USING GIN (" + BookRepository.SEARCH_VECTOR + ")"));
+        assertTrue(script.contains("USING GIN (lower(" + BookRepository.SEARCH_DOCUMENT + ") gin_trgm_ops)"));
+    }
+}
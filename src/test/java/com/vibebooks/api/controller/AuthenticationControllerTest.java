@@ -133,4 +133,32 @@ class AuthenticationControllerTest extends AbstractIntegrationTest {
                         .content(objectMapper.writeValueAsString(loginDTO)))
                 .andExpect(status().is4xxClientError());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that an account is throttled after repeated failed logins,
+     * even when the correct password is finally sent.
+     */
+    @Test
+    @DisplayName("POST /login: Should return 429 after too many failed attempts")
+    void shouldThrottleAccountAfterRepeatedFailures() throws Exception {
+        User user = new User();
+        user.setUsername("throttled_user");
+        user.setEmail("throttled@email.com");
+        user.setPassword(passwordEncoder.encode("password123"));
+        userRepository.save(user);
+
+        AuthenticationDTO wrongPassword = new AuthenticationDTO("throttled@email.com", "wrongPassword");
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/vibebooks/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(wrongPassword)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        AuthenticationDTO rightPassword = new AuthenticationDTO("throttled@email.com", "password123");
+        mockMvc.perform(post("/vibebooks/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rightPassword)))
+                .andExpect(status().isTooManyRequests());
+    }
+}
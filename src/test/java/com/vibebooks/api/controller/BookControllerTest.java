@@ -3,20 +3,27 @@ package com.vibebooks.api.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.SqlStatements;
+import com.vibebooks.api.client.GoogleBooksClient;
 import com.vibebooks.api.dto.AuthenticationDTO;
+import com.vibebooks.api.dto.BookBatchCreationDTO;
 import com.vibebooks.api.dto.BookCreationDTO;
 import com.vibebooks.api.dto.BookIsbnDTO;
 import com.vibebooks.api.dto.BookStatusUpdateDTO;
-import com.vibebooks.api.dto.google.GoogleBookItem;
-import com.vibebooks.api.dto.google.GoogleBooksResponse;
 import com.vibebooks.api.dto.google.ImageLinks;
 import com.vibebooks.api.dto.google.VolumeInfo;
 import com.vibebooks.api.model.Book;
+import com.vibebooks.api.model.BookSentiment;
+import com.vibebooks.api.model.BookStats;
 import com.vibebooks.api.model.ReadingStatus;
 import com.vibebooks.api.model.User;
+import com.vibebooks.api.model.UserBookStatus;
+import com.vibebooks.api.model.UserBookStatusId;
 import com.vibebooks.api.repository.BookRepository;
+import com.vibebooks.api.repository.BookStatsRepository;
 import com.vibebooks.api.repository.UserBookStatusRepository;
 import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.service.BookSuggestionIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,13 +32,15 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -60,12 +69,18 @@ class BookControllerTest extends AbstractIntegrationTest {
     @Autowired
     private UserBookStatusRepository userBookStatusRepository;
 
+    @Autowired
+    private BookStatsRepository bookStatsRepository;
+
+    @Autowired
+    private BookSuggestionIndex bookSuggestionIndex;
+
     /**
-     * Replaces the real RestTemplate with a Mockito mock in the Spring Context.
+     * Replaces the real Google Books client with a Mockito mock in the Spring Context.
      * This ensures no real HTTP calls are made to Google Books during the test.
      */
     @MockitoBean
-    private RestTemplate restTemplate;
+    private GoogleBooksClient googleBooksClient;
 
     private String validJwtToken;
     private Book savedBook;
@@ -100,6 +115,7 @@ class BookControllerTest extends AbstractIntegrationTest {
         book.setTitle("Integration Test Book");
         book.setAuthor("Test Author");
         savedBook = bookRepository.save(book);
+        bookStatsRepository.save(new BookStats(savedBook.getId()));
     }
 
     /**
@@ -112,10 +128,8 @@ class BookControllerTest extends AbstractIntegrationTest {
 
         ImageLinks fakeImageLinks = new ImageLinks("http://thumb", "http://small");
         VolumeInfo fakeVolumeInfo = new VolumeInfo("Mocked Book", List.of("Mock Author"), "2024", fakeImageLinks);
-        GoogleBookItem fakeItem = new GoogleBookItem(fakeVolumeInfo);
-        GoogleBooksResponse fakeResponse = new GoogleBooksResponse(List.of(fakeItem));
 
-        when(restTemplate.getForObject(anyString(), eq(GoogleBooksResponse.class))).thenReturn(fakeResponse);
+        when(googleBooksClient.findByIsbn("1234567890")).thenReturn(CompletableFuture.completedFuture(Optional.of(fakeVolumeInfo)));
 
         mockMvc.perform(post("/vibebooks/api/books")
                         .header("Authorization", "Bearer " + validJwtToken)
@@ -126,6 +140,35 @@ class BookControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.isbn").value("1234567890"));
     }
 
+    /**
+     * Tests importing several ISBNs at once, with a per-ISBN report.
+     */
+    @Test
+    @DisplayName("POST /books/batch: Should import new ISBNs and report every ISBN")
+    void shouldImportBooksInBatch() throws Exception {
+        VolumeInfo first = new VolumeInfo("Batch Book One", List.of("Batch Author"), "2020", null);
+        VolumeInfo second = new VolumeInfo("Batch Book Two", List.of("Batch Author"), "2021", null);
+        when(googleBooksClient.findByIsbn("1111111111")).thenReturn(CompletableFuture.completedFuture(Optional.of(first)));
+        when(googleBooksClient.findByIsbn("2222222222")).thenReturn(CompletableFuture.completedFuture(Optional.of(second)));
+        when(googleBooksClient.findByIsbn("3333333333")).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        BookBatchCreationDTO dto = new BookBatchCreationDTO(List.of("1111111111", "2222222222", "3333333333", "0987654321", "1111111111"));
+
+        mockMvc.perform(post("/vibebooks/api/books/batch")
+                        .header("Authorization", "Bearer " + validJwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.summary.CREATED").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[2].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[3].status").value("ALREADY_EXISTS"))
+                .andExpect(jsonPath("$.results[4].status").value("DUPLICATE_IN_REQUEST"));
+
+        assertThat(bookRepository.existsByIsbn("1111111111")).isTrue();
+        assertThat(bookRepository.existsByIsbn("2222222222")).isTrue();
+    }
+
     /**
      * Tests retrieving a paginated list of books.
      */
@@ -135,6 +178,90 @@ class BookControllerTest extends AbstractIntegrationTest {
         mockMvc.perform(get("/vibebooks/api/books")
                         .header("Authorization", "Bearer " + validJwtToken))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Integration Test Book"))
+                .andExpect(SqlStatements.atMost(5));
+    }
+
+    /**
+     * Tests that the list keeps the fields of a serialized Spring Page, with hasNext added,
+     * and that the totals are null when the client asks for no count.
+     */
+    @Test
+    @DisplayName("GET /books: Should keep the Spring Page response shape")
+    void shouldKeepPageResponseShape() throws Exception {
+        mockMvc.perform(get("/vibebooks/api/books").param("size", "5")
+                        .header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.totalPages").value(1))
+                .andExpect(jsonPath("$.number").value(0))
+                .andExpect(jsonPath("$.size").value(5))
+                .andExpect(jsonPath("$.numberOfElements").value(1))
+                .andExpect(jsonPath("$.pageable.pageSize").value(5))
+                .andExpect(jsonPath("$.sort.sorted").value(true))
+                .andExpect(jsonPath("$.first").value(true))
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.empty").value(false))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        mockMvc.perform(get("/vibebooks/api/books").param("count", "none")
+                        .header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist())
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    /**
+     * Tests walking the whole catalog with cursors: every book is returned once, newest first,
+     * even when a book is created between two slices.
+     */
+    @Test
+    @DisplayName("GET /books/scroll: Should return every book once while new books arrive")
+    void shouldScrollBooksWithCursor() throws Exception {
+        for (int i = 1; i <= 4; i++) {
+            Book book = new Book("Scroll Book " + i, "Scroll Author");
+            book.setIsbn("555000000" + i);
+            bookRepository.save(book);
+        }
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/vibebooks/api/books/scroll").param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode slice = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            slice.get("content").forEach(book -> titles.add(book.get("title").asText()));
+            cursor = slice.get("nextCursor").isNull() ? null : slice.get("nextCursor").asText();
+
+            if (titles.size() == 2) {
+                Book late = new Book("Late Book", "Scroll Author");
+                late.setIsbn("5550000099");
+                bookRepository.save(late);
+            }
+        } while (cursor != null);
+
+        assertThat(titles).containsExactly("Scroll Book 4", "Scroll Book 3", "Scroll Book 2", "Scroll Book 1",
+                "Integration Test Book");
+    }
+
+    /**
+     * Tests that cursor pagination is refused for ranked search modes and for malformed cursors.
+     */
+    @Test
+    @DisplayName("GET /books/search/scroll: Should return 400 for ranked modes and bad cursors")
+    void shouldRejectInvalidScrollSearch() throws Exception {
+        mockMvc.perform(get("/vibebooks/api/books/search/scroll").param("query", "test").param("mode", "fulltext"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/vibebooks/api/books/search/scroll").param("query", "test").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/vibebooks/api/books/search/scroll").param("query", "integration"))
+                .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].title").value("Integration Test Book"));
     }
 
@@ -150,6 +277,28 @@ class BookControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.title").value("Integration Test Book"));
     }
 
+    /**
+     * Tests that a book without a stats row, e.g. one that existed before the table, shows its real counters
+     * and gets its row rebuilt by the read.
+     */
+    @Test
+    @DisplayName("GET /books/{id}: Should rebuild missing counters instead of returning zeros")
+    void shouldRebuildMissingStatsOnRead() throws Exception {
+        User reader = userRepository.findByEmail("reader@email.com").orElseThrow();
+        userBookStatusRepository.save(new UserBookStatus(UserBookStatusId.of(reader, savedBook), reader, savedBook,
+                ReadingStatus.READ, false, BookSentiment.FUN, OffsetDateTime.now(), true));
+        bookStatsRepository.deleteById(savedBook.getId());
+
+        mockMvc.perform(get("/vibebooks/api/books/" + savedBook.getId())
+                        .header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likesCount").value(1))
+                .andExpect(jsonPath("$.sentimentCounts.FUN").value(1));
+
+        assertThat(bookStatsRepository.findById(savedBook.getId()))
+                .hasValueSatisfying(stats -> assertThat(stats.getLikesCount()).isEqualTo(1));
+    }
+
     /**
      * Tests updating book details.
      */
@@ -200,6 +349,24 @@ class BookControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.totalLikes").value(1));
     }
 
+    /**
+     * Tests that liking or rating a missing book is rejected by the upsert's foreign key as a 404.
+     */
+    @Test
+    @DisplayName("POST /books/{id}/like and /status: Should return 404 for a missing book")
+    void shouldReturnNotFoundWhenLikingMissingBook() throws Exception {
+        String missingBook = "/vibebooks/api/books/" + UUID.randomUUID();
+
+        mockMvc.perform(post(missingBook + "/like")
+                        .header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post(missingBook + "/status")
+                        .header("Authorization", "Bearer " + validJwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookStatusUpdateDTO(ReadingStatus.READING, null))))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * Tests updating the reading status of a book.
      */
@@ -228,4 +395,46 @@ class BookControllerTest extends AbstractIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].title").value("Integration Test Book"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the ranked full-text search, which also matches the author.
+     */
+    @Test
+    @DisplayName("GET /books/search?mode=fulltext: Should match books by author")
+    void shouldSearchBooksByAuthorInFullTextMode() throws Exception {
+        mockMvc.perform(get("/vibebooks/api/books/search")
+                        .param("query", "test author")
+                        .param("mode", "fulltext")
+                        .header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Integration Test Book"));
+    }
+
+    /**
+     * Tests that an unknown search mode is rejected.
+     */
+    @Test
+    @DisplayName("GET /books/search: Should return 400 for an unknown mode")
+    void shouldRejectUnknownSearchMode() throws Exception {
+        mockMvc.perform(get("/vibebooks/api/books/search")
+                        .param("query", "Integration")
+                        .param("mode", "telepathy")
+                        .header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests the autocomplete endpoint, served from the in-memory index.
+     */
+    @Test
+    @DisplayName("GET /books/suggest: Should suggest titles by word prefix")
+    void shouldSuggestBooks() throws Exception {
+        bookSuggestionIndex.rebuild();
+
+        mockMvc.perform(get("/vibebooks/api/books/suggest")
+                        .param("prefix", "integ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("Integration Test Book"))
+                .andExpect(jsonPath("$[0].type").value("TITLE"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.vibebooks.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.client.GoogleBooksStubServer;
+import com.vibebooks.api.dto.AuthenticationDTO;
+import com.vibebooks.api.dto.BookIsbnDTO;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.BookRepository;
+import com.vibebooks.api.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests proving that book creation never holds a database connection
+ * while waiting for Google Books.
+ * A local stub server replaces Google and keeps requests hanging while the Hikari pool is inspected.
+ */
+class BookCreationConnectionPoolTest extends AbstractIntegrationTest {
+
+    private static final int POOL_SIZE = 2;
+
+    private static final GoogleBooksStubServer googleBooks = startStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+
+    private String validJwtToken;
+
+    @DynamicPropertySource
+    static void googleBooksProperties(DynamicPropertyRegistry registry) {
+        registry.add("api.google-books.base-url", googleBooks::baseUrl);
+        registry.add("api.google-books.request-timeout", () -> "10s");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> POOL_SIZE);
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        googleBooks.reset();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("pool_watcher");
+        user.setEmail("pool@email.com");
+        user.setPassword(passwordEncoder.encode("password123"));
+        userRepository.save(user);
+
+        String response = mockMvc.perform(post("/vibebooks/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthenticationDTO("pool@email.com", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        validJwtToken = objectMapper.readTree(response).get("token").asText();
+    }
+
+    @AfterEach
+    void releaseStub() {
+        googleBooks.release();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        googleBooks.close();
+    }
+
+    /**
+     * Tests that no connection is checked out while a creation waits on Google.
+     */
+    @Test
+    @DisplayName("POST /books: Should not hold a DB connection while Google Books is slow")
+    void shouldNotHoldConnectionDuringFetch() throws Exception {
+        googleBooks.respondWithVolume("Slow Book", "Slow Author").holdRequests(1);
+
+        CompletableFuture<MvcResult> creation = createBookAsync("1111111111");
+
+        assertThat(googleBooks.awaitRequests(Duration.ofSeconds(5))).isTrue();
+        assertThat(dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections()).isZero();
+
+        googleBooks.release();
+        assertThat(creation.get().getResponse().getStatus()).isEqualTo(201);
+        assertThat(bookRepository.existsByIsbn("1111111111")).isTrue();
+    }
+
+    /**
+     * Tests that more pending creations than pooled connections do not starve other requests.
+     */
+    @Test
+    @DisplayName("POST /books: Should keep serving reads while more creations than connections are pending")
+    void shouldKeepPoolAvailableUnderSlowFetches() throws Exception {
+        int pending = POOL_SIZE * 3;
+        googleBooks.respondWithVolume("Queued Book", "Queued Author").holdRequests(pending);
+
+        List<CompletableFuture<MvcResult>> creations = IntStream.range(0, pending)
+                .mapToObj(i -> createBookAsync("222222222" + i))
+                .toList();
+        assertThat(googleBooks.awaitRequests(Duration.ofSeconds(5))).isTrue();
+
+        mockMvc.perform(get("/vibebooks/api/books")
+                        .header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isOk());
+        assertThat(dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getThreadsAwaitingConnection()).isZero();
+
+        googleBooks.release();
+        for (CompletableFuture<MvcResult> creation : creations) {
+            assertThat(creation.get().getResponse().getStatus()).isEqualTo(201);
+        }
+        assertThat(bookRepository.count()).isEqualTo(pending);
+    }
+
+    private CompletableFuture<MvcResult> createBookAsync(String isbn) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(post("/vibebooks/api/books")
+                                .header("Authorization", "Bearer " + validJwtToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new BookIsbnDTO(isbn))))
+                        .andReturn();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, clients);
+    }
+
+    private static GoogleBooksStubServer startStub() {
+        try {
+            return new GoogleBooksStubServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
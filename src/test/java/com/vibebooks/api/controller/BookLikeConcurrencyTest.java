@@ -0,0 +1,236 @@
+package com.vibebooks.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.dto.BookStatusUpdateDTO;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.model.BookSentiment;
+import com.vibebooks.api.model.BookStats;
+import com.vibebooks.api.model.Comment;
+import com.vibebooks.api.model.ReadingStatus;
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.BookRepository;
+import com.vibebooks.api.repository.CommentLikeRepository;
+import com.vibebooks.api.repository.CommentRepository;
+import com.vibebooks.api.repository.UserBookStatusRepository;
+import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.service.BookStatsService;
+import com.vibebooks.api.service.TokenService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Integration tests for concurrent likes and status updates on the same book, and likes on one of its comments.
+ * Every request is released at once, so the upserts race on the same rows,
+ * and the stored counters must match a recount of {@code user_book_status} afterwards.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookLikeConcurrencyTest extends AbstractIntegrationTest {
+
+    private static final int USERS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserBookStatusRepository userBookStatusRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private CommentLikeRepository commentLikeRepository;
+
+    @Autowired
+    private BookStatsService bookStatsService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private final ExecutorService clients = Executors.newFixedThreadPool(USERS);
+
+    private final List<String> tokens = new ArrayList<>();
+    private Book book;
+
+    @BeforeEach
+    void setup() {
+        commentRepository.deleteAll();
+        userBookStatusRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+
+        tokens.clear();
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(new User("racer_" + i, "racer" + i + "@email.com", "x"));
+            tokens.add(tokenService.generateToken(user));
+        }
+
+        Book newBook = new Book();
+        newBook.setIsbn("5555555555");
+        newBook.setTitle("Contended Book");
+        newBook.setAuthor("Race Author");
+        book = bookRepository.save(newBook);
+        bookStatsService.initialize(book.getId());
+    }
+
+    @AfterAll
+    void stopClients() {
+        clients.shutdownNow();
+    }
+
+    /**
+     * Tests that first-time likes of different users all reach the counter.
+     */
+    @Test
+    @DisplayName("POST /books/{id}/like: Should count every concurrent first like")
+    void shouldCountConcurrentLikesOfDifferentUsers() throws Exception {
+        List<JsonNode> responses = race(tokens.stream().map(this::like).toList());
+
+        assertThat(responses).allSatisfy(response -> assertThat(response.get("liked").asBoolean()).isTrue());
+        assertThat(responses).extracting(response -> response.get("totalLikes").asLong())
+                .containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(storedStats().getLikesCount()).isEqualTo(USERS);
+        assertThat(userBookStatusRepository.countByBookIdAndLikedIsTrue(book.getId())).isEqualTo(USERS);
+    }
+
+    /**
+     * Tests that concurrent toggles of one user are serialized: none is lost, so an odd number ends liked.
+     */
+    @Test
+    @DisplayName("POST /books/{id}/like: Should not lose toggles of the same user")
+    void shouldNotLoseConcurrentTogglesOfOneUser() throws Exception {
+        int toggles = 2 * USERS + 1;
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < toggles; i++) {
+            requests.add(like(tokens.getFirst()));
+        }
+
+        List<JsonNode> responses = race(requests);
+
+        assertThat(responses).filteredOn(response -> response.get("liked").asBoolean()).hasSize(USERS + 1);
+        assertThat(userBookStatusRepository.countByBookIdAndLikedIsTrue(book.getId())).isEqualTo(1);
+        assertThat(storedStats().getLikesCount()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that concurrent first status updates of one user leave exactly one sentiment counted.
+     */
+    @Test
+    @DisplayName("POST /books/{id}/status: Should keep one sentiment per user under concurrent updates")
+    void shouldKeepSentimentCountersUnderConcurrentStatusUpdates() throws Exception {
+        BookSentiment[] sentiments = BookSentiment.values();
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            BookStatusUpdateDTO dto = new BookStatusUpdateDTO(ReadingStatus.READING, sentiments[i % sentiments.length]);
+            requests.add(post("/vibebooks/api/books/" + book.getId() + "/status")
+                    .header("Authorization", "Bearer " + tokens.getFirst())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(dto)));
+        }
+
+        race(requests);
+
+        BookSentiment stored = userBookStatusRepository.findAll().getFirst().getSentiment();
+        BookStats stats = storedStats();
+        assertThat(stats.getSentimentCounts()).containsEntry(stored, 1L);
+        assertThat(stats.getSentimentCounts().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that concurrent comment like toggles of one user never duplicate the like or move the counter alone:
+     * every accepted toggle flips the state, and the stored counter matches the like rows afterwards.
+     */
+    @Test
+    @DisplayName("POST /comments/{id}/like: Should keep one like and a matching counter under concurrent toggles")
+    void shouldKeepCommentLikeCounterUnderConcurrentToggles() throws Exception {
+        User author = userRepository.findAll().getFirst();
+        Comment comment = commentRepository.save(new Comment("Contended comment", author, book));
+        int toggles = 2 * USERS + 1;
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < toggles; i++) {
+            requests.add(post("/vibebooks/api/comments/" + comment.getId() + "/like")
+                    .header("Authorization", "Bearer " + tokens.getFirst()));
+        }
+
+        List<MockHttpServletResponse> responses = raceResponses(requests);
+
+        assertThat(responses).extracting(MockHttpServletResponse::getStatus).allMatch(status -> status == 200 || status == 409);
+        long accepted = responses.stream().filter(response -> response.getStatus() == 200).count();
+        UUID liker = userRepository.findByEmail("racer0@email.com").orElseThrow().getId();
+        int likes = commentLikeRepository.findAllByUserIdAndCommentIdIn(liker, List.of(comment.getId())).size();
+        assertThat(likes).isEqualTo(accepted % 2);
+        assertThat(commentRepository.findById(comment.getId()).orElseThrow().getLikesCount()).isEqualTo(likes);
+    }
+
+    private RequestBuilder like(String token) {
+        return post("/vibebooks/api/books/" + book.getId() + "/like").header("Authorization", "Bearer " + token);
+    }
+
+    private BookStats storedStats() {
+        return bookStatsService.getStats(book.getId());
+    }
+
+    /**
+     * Releases all requests at the same time and returns their JSON responses, failing on any non-200 status.
+     */
+    private List<JsonNode> race(List<RequestBuilder> requests) throws Exception {
+        List<JsonNode> responses = new ArrayList<>();
+        for (MockHttpServletResponse response : raceResponses(requests)) {
+            assertThat(response.getStatus()).isEqualTo(200);
+            responses.add(objectMapper.readTree(response.getContentAsString()));
+        }
+        return responses;
+    }
+
+    /**
+     * Releases all requests at the same time and returns their responses, whatever their status.
+     */
+    private List<MockHttpServletResponse> raceResponses(List<RequestBuilder> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+        for (RequestBuilder request : requests) {
+            Callable<MockHttpServletResponse> call = () -> {
+                start.await();
+                return mockMvc.perform(request).andReturn().getResponse();
+            };
+            futures.add(clients.submit(call));
+        }
+        start.countDown();
+
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        for (Future<MockHttpServletResponse> future : futures) {
+            responses.add(future.get());
+        }
+        return responses;
+    }
+}
@@ -3,10 +3,12 @@ package com.vibebooks.api.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.SqlStatements;
 import com.vibebooks.api.dto.AuthenticationDTO;
 import com.vibebooks.api.dto.CommentCreationDTO;
 import com.vibebooks.api.model.Book;
 import com.vibebooks.api.model.Comment;
+import com.vibebooks.api.model.CommentLike;
 import com.vibebooks.api.model.User;
 import com.vibebooks.api.repository.BookRepository;
 import com.vibebooks.api.repository.CommentLikeRepository;
@@ -20,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -132,6 +135,35 @@ class CommentControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.content[0].text").value("Initial comment for testing"));
     }
 
+    /**
+     * Tests that a cached total is refreshed once a new comment is committed,
+     * and that no total is returned when the client asks for none.
+     */
+    @Test
+    @DisplayName("GET /comments: Should refresh cached totals after a new comment and omit them with count=none")
+    void shouldResolveTotalsByCountMode() throws Exception {
+        String bookId = savedBook.getId().toString();
+        mockMvc.perform(get("/vibebooks/api/comments").param("bookId", bookId).param("count", "cached"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        mockMvc.perform(post("/vibebooks/api/comments")
+                        .header("Authorization", "Bearer " + validJwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CommentCreationDTO("Second comment", savedBook.getId()))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/vibebooks/api/comments").param("bookId", bookId).param("count", "cached"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2));
+        mockMvc.perform(get("/vibebooks/api/comments").param("bookId", bookId).param("count", "none").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(true));
+        mockMvc.perform(get("/vibebooks/api/comments").param("bookId", bookId).param("count", "approximate"))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Tests the comment deletion endpoint.
      */
@@ -158,4 +190,63 @@ class CommentControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.likedByCurrentUser").value(true))
                 .andExpect(jsonPath("$.likesCount").value(1));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that toggling a like twice brings the stored counter back, and that listings read it.
+     */
+    @Test
+    @DisplayName("POST /comments/{id}/like: Should keep the stored like counter in sync when unliking")
+    void shouldMaintainStoredLikesCount() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/vibebooks/api/comments/" + savedComment.getId() + "/like")
+                    .header("Authorization", "Bearer " + validJwtToken))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(commentRepository.findById(savedComment.getId()).orElseThrow().getLikesCount()).isZero();
+        mockMvc.perform(get("/vibebooks/api/comments").param("bookId", savedBook.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].likesCount").value(0));
+    }
+
+    /**
+     * Tests that listing comments runs the same small number of statements whatever the page size:
+     * the book title (which also checks the book exists), the page with its stored like counts and, when logged in,
+     * the user's likes. Likes are spread over the comments so any per-row lookup would show up.
+     */
+    @Test
+    @DisplayName("GET /comments: Should run a constant number of queries whatever the page size")
+    void shouldListCommentsWithConstantQueryCount() throws Exception {
+        User liker = userRepository.save(new User("liker", "liker@email.com", "x"));
+        User author = userRepository.findByUsername("commenter").orElseThrow();
+        for (int i = 0; i < 12; i++) {
+            Comment comment = commentRepository.save(new Comment("Comment " + i, author, savedBook));
+            commentLikeRepository.save(new CommentLike(i % 2 == 0 ? liker : author, comment));
+        }
+        listComments(2, true);
+
+        assertThat(statementsToList(2, false)).isEqualTo(2);
+        assertThat(statementsToList(12, false)).isEqualTo(2);
+        assertThat(statementsToList(2, true)).isEqualTo(3);
+        assertThat(statementsToList(12, true)).isEqualTo(3);
+    }
+
+    private long statementsToList(int pageSize, boolean loggedIn) throws Exception {
+        return SqlStatements.count(listComments(pageSize, loggedIn));
+    }
+
+    private MvcResult listComments(int pageSize, boolean loggedIn) throws Exception {
+        var request = get("/vibebooks/api/comments")
+                .param("bookId", savedBook.getId().toString())
+                .param("size", String.valueOf(pageSize))
+                .param("count", "none");
+        if (loggedIn) {
+            request.header("Authorization", "Bearer " + validJwtToken);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(pageSize))
+                .andExpect(jsonPath("$.content[0].bookTitle").value("Integration Book"))
+                .andReturn();
+    }
+}
@@ -1,16 +1,35 @@
 package com.vibebooks.api.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.SqlStatements;
 import com.vibebooks.api.model.*;
 import com.vibebooks.api.repository.*;
+import com.vibebooks.api.service.BookLikeCounter;
+import com.vibebooks.api.service.BookStatsService;
+import com.vibebooks.api.service.CommentLikesReconciler;
 import com.vibebooks.api.service.TokenService;
+import com.vibebooks.api.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -18,7 +37,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Integration tests for the {@link FeedController}.
  * Verifies the feed endpoint, ensuring that batch data aggregation
  * is correctly serialized into the JSON response.
+ * Requests are not printed: the streamed engines write their response on another thread while MockMvc
+ * would read its headers to print them.
  */
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
 class FeedControllerTest extends AbstractIntegrationTest {
 
     @Autowired
@@ -45,7 +67,24 @@ class FeedControllerTest extends AbstractIntegrationTest {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private BookStatsService bookStatsService;
+
+    @Autowired
+    private CommentLikesReconciler commentLikesReconciler;
+
+    @Autowired
+    private BookLikeCounter bookLikeCounter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String validJwtToken;
+    private User owner;
+    private Book book;
 
     @BeforeEach
     void setup() {
@@ -83,6 +122,12 @@ class FeedControllerTest extends AbstractIntegrationTest {
 
         CommentLike like = new CommentLike(owner, comment);
         commentLikeRepository.save(like);
+
+        this.owner = owner;
+        this.book = book;
+        // Statuses, comments and likes are seeded directly in the repositories, so the counters are rebuilt from them.
+        bookStatsService.reconcileAll();
+        commentLikesReconciler.reconcileAll();
     }
 
     /**
@@ -106,6 +151,217 @@ class FeedControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.content[0].sentiment").value(BookSentiment.INSPIRING.name()))
                 .andExpect(jsonPath("$.content[0].sentimentCounts.INSPIRING").value(1))
                 .andExpect(jsonPath("$.content[0].comments[0].text").value("Amazing read!"))
-                .andExpect(jsonPath("$.content[0].comments[0].likesCount").value(1));
+                .andExpect(jsonPath("$.content[0].comments[0].likesCount").value(1))
+                .andExpect(jsonPath("$.content[0].commentsCount").value(1))
+                .andExpect(jsonPath("$.content[0].commentsCursor").doesNotExist())
+                .andExpect(SqlStatements.atMost(7));
+    }
+
+    /**
+     * Tests that a book with many comments only embeds the latest ones, with the total count and a cursor,
+     * and that the cursor continues exactly where the feed stopped.
+     *
+     * @throws Exception if the mock MVC request fails.
+     */
+    @Test
+    @DisplayName("GET /feed: Should embed only the latest comments and a cursor for the rest")
+    void shouldBoundCommentsPerBook() throws Exception {
+        for (int i = 1; i <= 6; i++) {
+            commentRepository.save(new Comment("Reply " + i, owner, book));
+        }
+        bookStatsService.reconcileAll();
+
+        String feed = mockMvc.perform(get("/vibebooks/api/feed")
+                        .header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].comments.length()").value(3))
+                .andExpect(jsonPath("$.content[0].comments[0].text").value("Reply 6"))
+                .andExpect(jsonPath("$.content[0].commentsCount").value(7))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(feed).at("/content/0/commentsCursor").asText();
+
+        mockMvc.perform(get("/vibebooks/api/comments/scroll")
+                        .param("bookId", book.getId().toString())
+                        .param("cursor", cursor)
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(4))
+                .andExpect(jsonPath("$.content[0].text").value("Reply 3"))
+                .andExpect(jsonPath("$.content[3].text").value("Amazing read!"))
+                .andExpect(jsonPath("$.content[3].likesCount").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    /**
+     * Tests that the SQL engine streams the same document as the service engine for an authenticated user,
+     * with its interactions, counters, comments and page metadata.
+     *
+     * @throws Exception if the mock MVC request fails.
+     */
+    @Test
+    @DisplayName("GET /feed?engine=sql: Should stream the same document as the service engine")
+    void shouldRenderSameFeedWithSqlEngine() throws Exception {
+        for (int i = 1; i <= 6; i++) {
+            commentRepository.save(new Comment("Reply " + i, owner, book));
+        }
+        Book other = bookRepository.save(new Book("Quiet Book", "Other Author"));
+        bookStatsService.reconcileAll();
+
+        String sqlFeed = streamedFeed("sql");
+        String serviceFeed = streamedFeed("service");
+
+        assertEquals(normalized(serviceFeed), normalized(sqlFeed));
+        JsonNode content = objectMapper.readTree(sqlFeed).get("content");
+        assertEquals(other.getId().toString(), content.at("/0/id").asText());
+        assertEquals(0, content.at("/0/comments").size());
+        assertEquals("READING", content.at("/1/status").asText());
+        assertEquals(3, content.at("/1/comments").size());
+        assertEquals(1, content.at("/1/sentimentCounts/INSPIRING").asLong());
+        assertEquals(2, objectMapper.readTree(sqlFeed).get("totalElements").asLong());
+    }
+
+    /**
+     * Tests that books created at the same instant are paged in the same order by both engines,
+     * with no book repeated or skipped across pages.
+     *
+     * @throws Exception if the mock MVC request fails.
+     */
+    @Test
+    @DisplayName("GET /feed?engine: Should break creation date ties by ID in both engines")
+    void shouldPageTiesInSameOrderWithBothEngines() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            bookRepository.save(new Book("Tied Book " + i, "Tied Author"));
+        }
+        bookStatsService.reconcileAll();
+        jdbcTemplate.update("UPDATE books SET created_at = ?", OffsetDateTime.parse("2025-01-01T00:00:00Z"));
+
+        Set<String> seen = new HashSet<>();
+        for (int page = 0; page < 3; page++) {
+            String sqlFeed = streamedFeed("sql", page, 2);
+            String serviceFeed = streamedFeed("service", page, 2);
+
+            assertEquals(normalized(serviceFeed), normalized(sqlFeed));
+            objectMapper.readTree(sqlFeed).get("content").forEach(item -> seen.add(item.get("id").asText()));
+        }
+        assertEquals(5, seen.size());
+    }
+
+    /**
+     * Tests that likes still pending in the write-behind counter are added to the stored counter by both engines.
+     *
+     * @throws Exception if the mock MVC request fails.
+     */
+    @Test
+    @DisplayName("GET /feed?engine: Should merge pending write-behind likes in both engines")
+    void shouldMergePendingLikesInBothEngines() throws Exception {
+        bookLikeCounter.record(book.getId(), true);
+
+        String sqlFeed = streamedFeed("sql");
+        String serviceFeed = streamedFeed("service");
+
+        assertEquals(2, objectMapper.readTree(sqlFeed).at("/content/0/likesCount").asLong());
+        assertEquals(2, objectMapper.readTree(serviceFeed).at("/content/0/likesCount").asLong());
+    }
+
+    /**
+     * Tests that the comments cursor rendered by PostgreSQL is accepted by the comments endpoint
+     * and continues exactly where the feed stopped.
+     *
+     * @throws Exception if the mock MVC request fails.
+     */
+    @Test
+    @DisplayName("GET /feed?engine=sql: Should render a comments cursor the comments endpoint accepts")
+    void shouldRenderCommentsCursorWithSqlEngine() throws Exception {
+        for (int i = 1; i <= 6; i++) {
+            commentRepository.save(new Comment("Reply " + i, owner, book));
+        }
+        bookStatsService.reconcileAll();
+
+        String cursor = objectMapper.readTree(streamedFeed("sql")).at("/content/0/commentsCursor").asText();
+
+        mockMvc.perform(get("/vibebooks/api/comments/scroll")
+                        .param("bookId", book.getId().toString())
+                        .param("cursor", cursor)
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(4))
+                .andExpect(jsonPath("$.content[0].text").value("Reply 3"));
+    }
+
+    /**
+     * Tests that an anonymous reader gets no personal interactions from the SQL engine,
+     * and that the page metadata reflects the requested page.
+     *
+     * @throws Exception if the mock MVC request fails.
+     */
+    @Test
+    @DisplayName("GET /feed?engine=sql: Should render an anonymous page without interactions")
+    void shouldRenderAnonymousFeedWithSqlEngine() throws Exception {
+        MvcResult result = mockMvc.perform(get("/vibebooks/api/feed")
+                        .param("engine", "sql")
+                        .param("count", "none"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].likedByCurrentUser").value(false))
+                .andExpect(jsonPath("$.content[0].status").doesNotExist())
+                .andExpect(jsonPath("$.content[0].comments[0].likedByCurrentUser").value(false))
+                .andExpect(jsonPath("$.content[0].comments[0].likesCount").value(1))
+                .andExpect(jsonPath("$.currentPage").value(0))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(SqlStatements.atMost(1));
+    }
+
+    /**
+     * Tests that unknown engines and sorts the SQL engine cannot translate are rejected before streaming.
+     *
+     * @throws Exception if the mock MVC request fails.
+     */
+    @Test
+    @DisplayName("GET /feed?engine: Should return 400 for an unknown engine or sort")
+    void shouldRejectUnknownEngineOrSort() throws Exception {
+        mockMvc.perform(get("/vibebooks/api/feed").param("engine", "graph"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/vibebooks/api/feed").param("engine", "sql").param("sort", "isbn,asc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String streamedFeed(String engine) throws Exception {
+        return streamedFeed(engine, 0, 7);
+    }
+
+    private String streamedFeed(String engine, int page, int size) throws Exception {
+        MvcResult result = mockMvc.perform(get("/vibebooks/api/feed")
+                        .header("Authorization", "Bearer " + validJwtToken)
+                        .param("engine", engine)
+                        .param("page", String.valueOf(page))
+                        .param("size", String.valueOf(size)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Parses a feed document, with timestamps and cursors reduced to the position they denote,
+     * since both engines may print the same instant with a different offset or precision.
+     */
+    private JsonNode normalized(String feed) throws Exception {
+        JsonNode root = objectMapper.readTree(feed);
+        for (JsonNode item : root.get("content")) {
+            ObjectNode bookNode = (ObjectNode) item;
+            if (!bookNode.get("commentsCursor").isNull()) {
+                bookNode.put("commentsCursor", CursorCodec.decode(bookNode.get("commentsCursor").asText()).toString());
+            }
+            for (JsonNode comment : bookNode.get("comments")) {
+                ObjectNode commentNode = (ObjectNode) comment;
+                commentNode.put("creationDate", OffsetDateTime.parse(commentNode.get("creationDate").asText()).toInstant().toString());
+            }
+        }
+        return root;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.vibebooks.api.controller;
+
+import com.vibebooks.api.AbstractIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the client address used by the per-IP login limit.
+ * Requests go through the embedded server, as MockMvc skips the valve that reads {@code X-Forwarded-For};
+ * they come from 127.0.0.1, a trusted proxy, so the forwarded address is the one counted.
+ */
+@TestPropertySource(properties = "api.security.login-throttle.max-attempts-per-ip=2")
+class LoginClientIpTest extends AbstractIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    /**
+     * Tests that clients behind the same proxy are counted by their own forwarded address.
+     */
+    @Test
+    @DisplayName("POST /login: Should count attempts per forwarded client address")
+    void shouldThrottleEachForwardedClientSeparately() throws Exception {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            assertThat(login(client, "203.0.113.1", "first")).isEqualTo(401);
+            assertThat(login(client, "203.0.113.1", "second")).isEqualTo(401);
+            assertThat(login(client, "203.0.113.1", "third")).isEqualTo(429);
+
+            assertThat(login(client, "203.0.113.2", "fourth")).isEqualTo(401);
+        }
+    }
+
+    private int login(HttpClient client, String forwardedFor, String login) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/vibebooks/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"login\":\"" + login + "@email.com\",\"password\":\"wrongPassword\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
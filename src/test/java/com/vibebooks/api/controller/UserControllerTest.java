@@ -165,4 +165,31 @@ class UserControllerTest extends AbstractIntegrationTest {
         boolean exists = userRepository.existsById(savedUser.getId());
         assertThat(exists).isFalse();
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the cached principal is refreshed after a profile update
+     * and that the token of a deleted account is rejected.
+     */
+    @Test
+    @DisplayName("GET /users/me: Should reflect profile changes and reject deleted accounts despite the principal cache")
+    void shouldEvictCachedPrincipalOnChanges() throws Exception {
+        mockMvc.perform(get("/vibebooks/api/users/me").header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bio").value("Original bio"));
+
+        mockMvc.perform(put("/vibebooks/api/users/" + savedUser.getId())
+                        .header("Authorization", "Bearer " + validJwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserUpdateDTO(null, null, "Cached no more"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/vibebooks/api/users/me").header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bio").value("Cached no more"));
+
+        mockMvc.perform(delete("/vibebooks/api/users/" + savedUser.getId())
+                        .header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/vibebooks/api/users/me").header("Authorization", "Bearer " + validJwtToken))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,94 @@
+package com.vibebooks.api.importer;
+
+import com.vibebooks.api.AbstractIntegrationTest;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.repository.BookRepository;
+import com.vibebooks.api.repository.BookStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link BookCopyWriter} against PostgreSQL.
+ * Verifies COPY escaping, the zeroed stats rows, that existing or repeated ISBNs are skipped,
+ * and that an insert reports which books it created.
+ */
+class BookCopyWriterTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private BookCopyWriter bookCopyWriter;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStatsRepository bookStatsRepository;
+
+    @BeforeEach
+    void setup() {
+        bookStatsRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("COPY: Should insert books with their stats and escape CSV characters")
+    void shouldCopyBooks() {
+        Book quoted = book("9780000000001", "He said \"hi\", then\nleft");
+        quoted.setPublicationYear(1999);
+        Book plain = book("9780000000002", "Plain");
+
+        int inserted = bookCopyWriter.write(List.of(quoted, plain));
+
+        assertThat(inserted).isEqualTo(2);
+        Book stored = bookRepository.findAll().stream().filter(b -> b.getIsbn().equals("9780000000001")).findFirst().orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo("He said \"hi\", then\nleft");
+        assertThat(stored.getPublicationYear()).isEqualTo(1999);
+        assertThat(stored.getCreatedAt()).isNotNull();
+        assertThat(bookStatsRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("COPY: Should skip ISBNs that already exist or repeat in the same write")
+    void shouldSkipExistingIsbns() {
+        bookCopyWriter.write(List.of(book("9780000000001", "First")));
+
+        int inserted = bookCopyWriter.write(List.of(
+                book("9780000000001", "Again"),
+                book("9780000000003", "New"),
+                book("9780000000003", "New duplicate")
+        ));
+
+        assertThat(inserted).isEqualTo(1);
+        assertThat(bookRepository.count()).isEqualTo(2);
+        assertThat(bookStatsRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Insert: Should return only the inserted books, with their generated ID and stats row")
+    void shouldReturnInsertedBooks() {
+        bookCopyWriter.write(List.of(book("9780000000001", "Taken")));
+        Book taken = book("9780000000001", "Again");
+        Book created = book("9780000000002", "New");
+
+        List<Book> inserted = bookCopyWriter.insert(List.of(taken, created));
+
+        assertThat(inserted).containsExactly(created);
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getCreatedAt()).isNotNull();
+        assertThat(taken.getId()).isNull();
+        assertThat(bookRepository.findById(created.getId())).isPresent();
+        assertThat(bookStatsRepository.findById(created.getId())).isPresent();
+    }
+
+    private Book book(String isbn, String title) {
+        Book book = new Book(title, "Author");
+        book.setIsbn(isbn);
+        book.setCoverImageUrl("https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg");
+        return book;
+    }
+}
@@ -0,0 +1,162 @@
+package com.vibebooks.api.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.importer.OpenLibraryDumpImporter.ImportSummary;
+import com.vibebooks.api.importer.OpenLibraryDumpImporter.Options;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.service.BookFuzzyIndex;
+import com.vibebooks.api.service.BookSuggestionIndex;
+import com.vibebooks.api.service.PageCountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OpenLibraryDumpImporter}.
+ * Verifies chunking on line boundaries, parallel parsing, record normalization, checkpoints and resuming.
+ */
+@ExtendWith(MockitoExtension.class)
+class OpenLibraryDumpImporterTest {
+
+    private static final int EDITIONS = 200;
+
+    @Mock
+    private BookCopyWriter bookCopyWriter;
+
+    @Mock
+    private BookSuggestionIndex bookSuggestionIndex;
+
+    @Mock
+    private BookFuzzyIndex bookFuzzyIndex;
+
+    @Mock
+    private PageCountService pageCountService;
+
+    @TempDir
+    private Path tempDir;
+
+    private OpenLibraryDumpImporter importer;
+    private final Map<String, Book> written = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setup() {
+        importer = new OpenLibraryDumpImporter(bookCopyWriter, bookSuggestionIndex, bookFuzzyIndex, pageCountService, new ObjectMapper());
+        when(bookCopyWriter.write(anyList())).thenAnswer(i -> {
+            List<Book> books = i.getArgument(0);
+            books.forEach(book -> assertNull(written.put(book.getIsbn(), book), "ISBN written twice: " + book.getIsbn()));
+            return books.size();
+        });
+    }
+
+    /**
+     * Tests that every line is parsed exactly once, whatever the chunk size,
+     * including chunks smaller than a single line.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 97, 4096, 1 << 20})
+    @DisplayName("Import: Should parse every edition exactly once for any chunk size")
+    void shouldImportEveryEditionOnce(int chunkSize) throws Exception {
+        Path dump = writeDump(EDITIONS);
+
+        ImportSummary summary = importer.importDump(dump, null, new Options(chunkSize, 4));
+
+        assertEquals(EDITIONS, written.size());
+        assertEquals(EDITIONS, summary.inserted());
+        assertEquals(EDITIONS + 3, summary.lines());
+        assertEquals(1, summary.malformed());
+        assertEquals(Files.size(dump), summary.endOffset());
+        assertEquals(Long.toString(Files.size(dump)), Files.readString(OpenLibraryDumpImporter.checkpointFor(dump)));
+        verify(bookSuggestionIndex).rebuild();
+        verify(bookFuzzyIndex).rebuild();
+        verify(pageCountService).invalidate(PageCountService.BOOKS);
+    }
+
+    /**
+     * Tests that a second run resumes from the checkpoint, and that an explicit offset
+     * in the middle of a line starts at the following line.
+     */
+    @Test
+    @DisplayName("Resume: Should continue from the checkpoint or the next line after an offset")
+    void shouldResumeFromOffset() throws Exception {
+        Path dump = writeDump(10);
+        List<String> lines = Files.readAllLines(dump);
+        long fifthLineStart = lines.subList(0, 4).stream().mapToLong(line -> line.getBytes(StandardCharsets.UTF_8).length + 1).sum();
+
+        ImportSummary fromMiddle = importer.importDump(dump, fifthLineStart + 3, new Options(64, 2));
+        assertEquals(fifthLineStart + lines.get(4).getBytes(StandardCharsets.UTF_8).length + 1, fromMiddle.startOffset());
+
+        written.clear();
+        ImportSummary resumed = importer.importDump(dump, null, new Options(64, 2));
+        assertEquals(0, resumed.lines());
+        assertTrue(written.isEmpty());
+    }
+
+    /**
+     * Tests the mapping of an edition to a book.
+     */
+    @Test
+    @DisplayName("Parse: Should normalize ISBN, author, year and cover")
+    void shouldNormalizeEdition() throws Exception {
+        Path dump = tempDir.resolve("single.txt");
+        Files.writeString(dump, editionLine("""
+                {"title": "  Dom Casmurro ", "isbn_10": ["85-7232-227-x"], "isbn_13": ["bad"],
+                 "publish_date": "March 5, 1899", "by_statement": "Machado de Assis.", "covers": [8231856]}
+                """) + editionLine("""
+                {"title": "No Author", "isbn_13": ["978-0-00-000000-2"]}
+                """));
+
+        importer.importDump(dump, null, new Options(1 << 20, 1));
+
+        Book dom = written.get("857232227X");
+        assertEquals("Dom Casmurro", dom.getTitle());
+        assertEquals("Machado de Assis", dom.getAuthor());
+        assertEquals(1899, dom.getPublicationYear());
+        assertEquals("https://covers.openlibrary.org/b/id/8231856-L.jpg", dom.getCoverImageUrl());
+
+        Book anonymous = written.get("9780000000002");
+        assertEquals("Autor desconhecido", anonymous.getAuthor());
+        assertNull(anonymous.getPublicationYear());
+        assertEquals("https://covers.openlibrary.org/b/isbn/9780000000002-L.jpg", anonymous.getCoverImageUrl());
+    }
+
+    /**
+     * Writes a dump with the given number of valid editions, plus an author record,
+     * an edition without ISBN and a malformed line.
+     */
+    private Path writeDump(int editions) throws Exception {
+        List<String> lines = new ArrayList<>();
+        IntStream.range(0, editions).forEach(i -> lines.add(editionLine(
+                "{\"title\": \"Edition " + i + " éè\", \"isbn_13\": [\"978" + String.format("%010d", i) + "\"],"
+                        + " \"publish_date\": \"" + (1900 + i % 100) + "\", \"by_statement\": \"Author " + i + "\"}")));
+        lines.add(editions / 2, "/type/author\t/authors/OL1A\t1\t2020-01-01T00:00:00\t{\"name\": \"Someone\"}\n");
+        lines.add(editions / 3, editionLine("{\"title\": \"Without ISBN\"}"));
+        lines.add(editions / 4, "/type/edition\t/books/OL0M\t1\t2020-01-01T00:00:00\t{\"title\": \n");
+
+        Path dump = tempDir.resolve("ol_dump_editions.txt");
+        Files.writeString(dump, String.join("", lines));
+        return dump;
+    }
+
+    private static String editionLine(String json) {
+        return "/type/edition\t/books/OL1M\t3\t2020-01-01T00:00:00\t" + json.replace("\n", " ").strip() + "\n";
+    }
+}
@@ -0,0 +1,77 @@
+package com.vibebooks.api.monitoring;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SqlStatementFilter}.
+ * Verifies that the request stats are bound while the chain runs, reach other threads, and end up in the headers.
+ */
+class SqlStatementFilterTest {
+
+    @Test
+    @DisplayName("Headers: Should return the statements counted before the response commits")
+    void shouldWriteCountsBeforeCommit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                SqlStatementStats.current().record(2_000_000);
+                try (ExecutorService stage = Executors.newSingleThreadExecutor()) {
+                    Future<?> done = stage.submit(SqlStatementStats.wrap(() -> SqlStatementStats.current().record(1_000_000)));
+                    assertDoesNotThrow(() -> done.get());
+                }
+                res.getWriter().write("[]");
+                res.flushBuffer();
+                SqlStatementStats.current().record(0);
+            }
+        });
+
+        new SqlStatementFilter(20, "", true).doFilter(new MockHttpServletRequest("GET", "/books"), response, chain);
+
+        assertEquals("2", response.getHeader(SqlStatementFilter.STATEMENTS_HEADER));
+        assertEquals("3", response.getHeader(SqlStatementFilter.TIME_HEADER));
+        assertNull(SqlStatementStats.current());
+    }
+
+    @Test
+    @DisplayName("Headers: Should still be written when the response has no body")
+    void shouldWriteCountsWithoutBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlStatementFilter(20, "", true).doFilter(new MockHttpServletRequest("DELETE", "/books/1"), response,
+                (req, res) -> SqlStatementStats.current().record(1));
+
+        assertEquals("1", response.getHeader(SqlStatementFilter.STATEMENTS_HEADER));
+    }
+
+    @Test
+    @DisplayName("Headers: Should not be written when disabled, as in production")
+    void shouldNotWriteCountsWhenDisabled() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlStatementFilter(20, "", false).doFilter(new MockHttpServletRequest("GET", "/books"), response,
+                (req, res) -> SqlStatementStats.current().record(1));
+
+        assertNull(response.getHeader(SqlStatementFilter.STATEMENTS_HEADER));
+    }
+
+    @Test
+    @DisplayName("Budgets: Should reject a malformed budget list")
+    void shouldRejectMalformedBudgets() {
+        assertThrows(IllegalArgumentException.class, () -> new SqlStatementFilter(20, "FeedController.getFeed=8", true));
+    }
+}
@@ -0,0 +1,97 @@
+package com.vibebooks.api.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StatementCountingDataSource}.
+ * Verifies that executions are counted into the stats of the current thread, and only there.
+ */
+@ExtendWith(MockitoExtension.class)
+class StatementCountingDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private Statement statement;
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementStats.detach();
+    }
+
+    @Test
+    @DisplayName("Count: Should count every execution, a batch once, but not the other statement calls")
+    void shouldCountExecutions() throws Exception {
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT 1")).thenReturn(preparedStatement);
+        when(connection.createStatement()).thenReturn(statement);
+        SqlStatementStats stats = new SqlStatementStats();
+        SqlStatementStats.attach(stats);
+
+        try (Connection counted = new StatementCountingDataSource(pool).getConnection()) {
+            PreparedStatement query = counted.prepareStatement("SELECT 1");
+            query.setInt(1, 42);
+            query.executeQuery();
+            query.addBatch();
+            query.executeBatch();
+            counted.createStatement().execute("ANALYZE");
+        }
+
+        assertEquals(3, stats.statements());
+        verify(preparedStatement).setInt(1, 42);
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Count: Should not count statements executed outside a request")
+    void shouldIgnoreStatementsWithoutStats() throws Exception {
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeUpdate("DELETE FROM books")).thenReturn(3);
+
+        try (Connection counted = new StatementCountingDataSource(pool).getConnection()) {
+            assertEquals(3, counted.createStatement().executeUpdate("DELETE FROM books"));
+        }
+
+        assertNull(SqlStatementStats.current());
+    }
+
+    @Test
+    @DisplayName("Proxy: Should give statements identity semantics for hash-based registries")
+    void shouldKeepStatementIdentity() throws Exception {
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+
+        try (Connection counted = new StatementCountingDataSource(pool).getConnection()) {
+            Statement first = counted.createStatement();
+            Statement second = counted.createStatement();
+            Set<Statement> registry = new HashSet<>(Set.of(first, second));
+
+            assertEquals(2, registry.size());
+            assertTrue(registry.remove(first));
+            assertFalse(registry.contains(first));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.vibebooks.api.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BoundedPasswordEncoder}.
+ * Verifies delegation, fail-fast rejection when the pool is saturated, timeouts and statistics.
+ */
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Encode/matches: Should hash on the pool and verify the hash")
+    void shouldEncodeAndMatch() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5));
+
+        String hash = encoder.encode("secret123");
+
+        assertTrue(encoder.matches("secret123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        BoundedPasswordEncoder.Stats stats = encoder.getStats();
+        assertEquals(3, stats.completed());
+        assertEquals(0, stats.rejected());
+        assertTrue(stats.averageHashMillis() > 0);
+    }
+
+    @Test
+    @DisplayName("Saturation: Should fail fast with 503 when the queue is full")
+    void shouldRejectWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueueDepth(1);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> encoder.encode("c"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertEquals(1, encoder.getStats().rejected());
+        assertEquals(1, encoder.getStats().queueDepth());
+
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Timeout: Should fail with 503 when the hash is not done in time")
+    void shouldFailWhenHashTimesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1), release), 1, 1, Duration.ofMillis(50));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> encoder.encode("a"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertEquals(1, encoder.getStats().timedOut());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Metrics: Should time every hash and publish rejections once bound to a registry")
+    void shouldPublishMetrics() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, Duration.ofSeconds(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encoder.bindTo(registry);
+
+        encoder.matches("secret123", encoder.encode("secret123"));
+
+        assertEquals(2, registry.get("password.hashing").timer().count());
+        assertEquals(0, registry.get("password.hashing.rejected").functionCounter().count());
+        assertEquals(0, registry.get("password.hashing.queued").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Errors: Should rethrow exceptions of the delegate")
+    void shouldRethrowDelegateExceptions() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, Duration.ofSeconds(5));
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(null));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.getStats().queueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,165 @@
+package com.vibebooks.api.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LoginThrottle}.
+ * Verifies the per-account and per-IP limits, exact account counts, the window reset and concurrent counting.
+ */
+class LoginThrottleTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Test
+    @DisplayName("Account: Should refuse attempts after too many failures")
+    void shouldThrottleAccountAfterFailures() {
+        LoginThrottle throttle = new LoginThrottle(WINDOW, 3, 0, 1024, 1000, clock);
+
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAttempt("Reader@Email.com", "10.0.0.1");
+            throttle.recordFailure("Reader@Email.com");
+        }
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> throttle.checkAttempt(" reader@email.com", "10.0.0.2"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatusCode());
+        assertEquals(1, throttle.getStats().throttledAccounts());
+        assertDoesNotThrow(() -> throttle.checkAttempt("someone-else", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Account: Should never lock out another account, even one sharing an IP stripe")
+    void shouldKeepAccountFailuresApart() {
+        LoginThrottle throttle = new LoginThrottle(WINDOW, 3, 0, 2, 1000, clock);
+
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("reader");
+        }
+
+        assertThrows(ResponseStatusException.class, () -> throttle.checkAttempt("reader", "10.0.0.1"));
+        for (int i = 0; i < 100; i++) {
+            String login = "reader" + i;
+            assertDoesNotThrow(() -> throttle.checkAttempt(login, "10.0.0.1"));
+        }
+    }
+
+    @Test
+    @DisplayName("Account: Should clear the failures after a successful login")
+    void shouldClearFailuresOnSuccess() {
+        LoginThrottle throttle = new LoginThrottle(WINDOW, 3, 0, 1024, 1000, clock);
+        throttle.recordFailure("reader");
+        throttle.recordFailure("reader");
+
+        throttle.recordSuccess("Reader");
+        throttle.recordFailure("reader");
+        throttle.recordFailure("reader");
+
+        assertDoesNotThrow(() -> throttle.checkAttempt("reader", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Account: Should keep at most max-accounts accounts, least recently failed first out")
+    void shouldBoundTrackedAccounts() {
+        LoginThrottle throttle = new LoginThrottle(WINDOW, 1, 0, 1024, 2, clock);
+        throttle.recordFailure("first");
+        throttle.recordFailure("second");
+        throttle.recordFailure("third");
+
+        assertDoesNotThrow(() -> throttle.checkAttempt("first", "10.0.0.1"));
+        assertThrows(ResponseStatusException.class, () -> throttle.checkAttempt("second", "10.0.0.1"));
+        assertThrows(ResponseStatusException.class, () -> throttle.checkAttempt("third", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("IP: Should refuse attempts after too many from the same address")
+    void shouldThrottleIp() {
+        LoginThrottle throttle = new LoginThrottle(WINDOW, 0, 2, 1024, 1000, clock);
+
+        throttle.checkAttempt("a", "10.0.0.1");
+        throttle.checkAttempt("b", "10.0.0.1");
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> throttle.checkAttempt("c", "10.0.0.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatusCode());
+        assertEquals(1, throttle.getStats().throttledIps());
+        assertDoesNotThrow(() -> throttle.checkAttempt("c", "10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Window: Should allow attempts again in the next window")
+    void shouldResetInNextWindow() {
+        LoginThrottle throttle = new LoginThrottle(WINDOW, 1, 1, 1024, 1000, clock);
+        throttle.checkAttempt("reader", "10.0.0.1");
+        throttle.recordFailure("reader");
+        assertThrows(ResponseStatusException.class, () -> throttle.checkAttempt("reader", "10.0.0.1"));
+
+        clock.advance(WINDOW);
+
+        assertDoesNotThrow(() -> throttle.checkAttempt("reader", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Concurrency: Should count every attempt made concurrently")
+    void shouldCountConcurrentAttempts() {
+        LoginThrottle throttle = new LoginThrottle(WINDOW, 0, 1000, 1024, 1000, clock);
+        AtomicInteger refused = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1200; i++) {
+                executor.submit(() -> {
+                    try {
+                        throttle.checkAttempt("reader", "10.0.0.1");
+                    } catch (ResponseStatusException e) {
+                        refused.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertEquals(200, refused.get());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
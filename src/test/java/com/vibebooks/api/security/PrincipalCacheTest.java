@@ -0,0 +1,199 @@
+package com.vibebooks.api.security;
+
+import com.vibebooks.api.model.User;
+import com.vibebooks.api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PrincipalCache}.
+ * Verifies hits, TTL expiry, the size bound, evictions racing with lookups, statistics and metrics.
+ */
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    private PrincipalCache principalCache;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        principalCache = new PrincipalCache(userRepository, TTL, 2, clock);
+        user = user();
+    }
+
+    @Test
+    @DisplayName("Get: Should read the user once and serve later lookups from memory")
+    void shouldServeRepeatedLookupsFromMemory() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertSame(user, principalCache.get(user.getId()).orElseThrow());
+        assertSame(user, principalCache.get(user.getId()).orElseThrow());
+
+        verify(userRepository, times(1)).findById(user.getId());
+        PrincipalCache.Stats stats = principalCache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    @DisplayName("Metrics: Should publish hits, misses, evictions, size and the load timer")
+    void shouldPublishMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        principalCache.bindTo(registry);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        principalCache.get(user.getId());
+        principalCache.get(user.getId());
+        principalCache.evict(user.getId());
+
+        assertEquals(1, registry.get("principal.cache.hits").functionCounter().count());
+        assertEquals(1, registry.get("principal.cache.misses").functionCounter().count());
+        assertEquals(1, registry.get("principal.cache.evictions").functionCounter().count());
+        assertEquals(0, registry.get("principal.cache.size").gauge().value());
+        assertEquals(1, registry.get("principal.cache.load").timer().count());
+    }
+
+    @Test
+    @DisplayName("Get: Should read the user again once the TTL expires")
+    void shouldReloadAfterTtl() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        principalCache.get(user.getId());
+        clock.advance(TTL);
+        principalCache.get(user.getId());
+
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Get: Should not cache unknown users")
+    void shouldNotCacheUnknownUsers() {
+        UUID unknown = UUID.randomUUID();
+        when(userRepository.findById(unknown)).thenReturn(Optional.empty());
+
+        assertTrue(principalCache.get(unknown).isEmpty());
+        assertTrue(principalCache.get(unknown).isEmpty());
+
+        verify(userRepository, times(2)).findById(unknown);
+        assertEquals(0, principalCache.getStats().size());
+    }
+
+    @Test
+    @DisplayName("Get: Should evict the least recently used user beyond the size bound")
+    void shouldBoundEntries() {
+        User second = user();
+        User third = user();
+        when(userRepository.findById(any())).thenAnswer(i -> Optional.of(
+                Stream.of(user, second, third).filter(u -> u.getId().equals(i.getArgument(0))).findFirst().orElseThrow()));
+
+        principalCache.get(user.getId());
+        principalCache.get(second.getId());
+        principalCache.get(user.getId());
+        principalCache.get(third.getId());
+        principalCache.get(user.getId());
+        principalCache.get(second.getId());
+
+        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(2)).findById(second.getId());
+        assertEquals(2, principalCache.getStats().size());
+    }
+
+    @Test
+    @DisplayName("Evict: Should read the user again after an eviction")
+    void shouldReloadAfterEviction() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        principalCache.get(user.getId());
+        principalCache.evict(user.getId());
+        principalCache.get(user.getId());
+
+        verify(userRepository, times(2)).findById(user.getId());
+        assertEquals(1, principalCache.getStats().evictions());
+    }
+
+    @Test
+    @DisplayName("Evict: Should not store a user read before a concurrent eviction")
+    void shouldNotCacheUserReadBeforeEviction() {
+        when(userRepository.findById(user.getId())).thenAnswer(i -> {
+            principalCache.evict(user.getId());
+            return Optional.of(user);
+        });
+
+        assertTrue(principalCache.get(user.getId()).isPresent());
+
+        assertEquals(0, principalCache.getStats().size());
+    }
+
+    @Test
+    @DisplayName("Disabled: Should always read the database when the TTL is zero")
+    void shouldNotCacheWithZeroTtl() {
+        principalCache = new PrincipalCache(userRepository, Duration.ZERO, 2, clock);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        principalCache.get(user.getId());
+        principalCache.get(user.getId());
+
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+
+    private static User user() {
+        User user = new User("user", "user@email.com", "hash");
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.dto.BookDetailsDTO;
+import com.vibebooks.api.model.*;
+import com.vibebooks.api.repository.UserBookStatusRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BookDetailsAssembler}.
+ * Verifies that a page of books is enriched with a fixed number of batch queries,
+ * regardless of how many books the page contains.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookDetailsAssemblerTest {
+
+    @Mock
+    private UserBookStatusRepository userBookStatusRepository;
+
+    @Mock
+    private BookStatsService bookStatsService;
+
+    @InjectMocks
+    private BookDetailsAssembler bookDetailsAssembler;
+
+    private User loggedInUser;
+
+    @BeforeEach
+    void setup() {
+        loggedInUser = new User();
+        loggedInUser.setId(UUID.randomUUID());
+    }
+
+    /**
+     * Tests that the number of repository calls does not grow with the page size.
+     * Each batch query must run exactly once, and no per-book lookup may be used.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 20, 100})
+    @DisplayName("Assemble: Should use a constant number of queries for any page size")
+    void shouldUseConstantQueryCountRegardlessOfPageSize(int pageSize) {
+        List<Book> books = createBooks(pageSize);
+        when(bookStatsService.getStats(anyList())).thenReturn(emptyStats(books));
+
+        List<BookDetailsDTO> result = bookDetailsAssembler.assemble(books, loggedInUser);
+
+        assertEquals(pageSize, result.size());
+        verify(bookStatsService, times(1)).getStats(anyList());
+        verify(userBookStatusRepository, times(1)).findAllByUserIdAndBookIdIn(any(), anyList());
+        verifyNoMoreInteractions(userBookStatusRepository, bookStatsService);
+    }
+
+    /**
+     * Tests that batch results are mapped back to the correct book, preserving page order.
+     */
+    @Test
+    @DisplayName("Assemble: Should map likes, sentiments and user status to the right book")
+    void shouldMapAggregatesToEachBook() {
+        List<Book> books = createBooks(2);
+        Book liked = books.get(0);
+        Book other = books.get(1);
+        List<UUID> bookIds = List.of(liked.getId(), other.getId());
+
+        BookStats likedStats = new BookStats(liked.getId());
+        likedStats.setLikesCount(4L);
+        BookStats otherStats = new BookStats(other.getId());
+        otherStats.setTenseCount(3L);
+        when(bookStatsService.getStats(bookIds)).thenReturn(Map.of(liked.getId(), likedStats, other.getId(), otherStats));
+
+        UserBookStatus status = new UserBookStatus();
+        status.setBook(liked);
+        status.setUser(loggedInUser);
+        status.setLiked(true);
+        status.setStatus(ReadingStatus.READ);
+        status.setSentiment(BookSentiment.FUN);
+        when(userBookStatusRepository.findAllByUserIdAndBookIdIn(loggedInUser.getId(), bookIds)).thenReturn(List.of(status));
+
+        List<BookDetailsDTO> result = bookDetailsAssembler.assemble(books, loggedInUser);
+
+        BookDetailsDTO first = result.get(0);
+        assertEquals(liked.getId(), first.id());
+        assertEquals(4L, first.likesCount());
+        assertTrue(first.likedByCurrentUser());
+        assertEquals(ReadingStatus.READ, first.status());
+        assertEquals(BookSentiment.FUN, first.sentiment());
+        assertEquals(0L, first.sentimentCounts().get(BookSentiment.TENSE));
+
+        BookDetailsDTO second = result.get(1);
+        assertEquals(other.getId(), second.id());
+        assertEquals(0L, second.likesCount());
+        assertFalse(second.likedByCurrentUser());
+        assertNull(second.status());
+        assertEquals(3L, second.sentimentCounts().get(BookSentiment.TENSE));
+    }
+
+    /**
+     * Tests that anonymous users never trigger the user status lookup.
+     */
+    @Test
+    @DisplayName("Assemble: Should skip user status query for anonymous users")
+    void shouldSkipUserStatusQueryForAnonymousUser() {
+        List<Book> books = createBooks(3);
+        when(bookStatsService.getStats(anyList())).thenReturn(emptyStats(books));
+
+        List<BookDetailsDTO> result = bookDetailsAssembler.assemble(books, null);
+
+        assertEquals(3, result.size());
+        verify(userBookStatusRepository, never()).findAllByUserIdAndBookIdIn(any(), anyList());
+    }
+
+    /**
+     * Tests that an empty page does not hit the database at all.
+     */
+    @Test
+    @DisplayName("Assemble: Should not query the database for an empty page")
+    void shouldNotQueryForEmptyPage() {
+        List<BookDetailsDTO> result = bookDetailsAssembler.assemble(List.of(), loggedInUser);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(userBookStatusRepository, bookStatsService);
+    }
+
+    private Map<UUID, BookStats> emptyStats(List<Book> books) {
+        Map<UUID, BookStats> stats = new HashMap<>();
+        books.forEach(book -> stats.put(book.getId(), BookStats.empty(book.getId())));
+        return stats;
+    }
+
+    private List<Book> createBooks(int count) {
+        List<Book> books = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> {
+            Book book = new Book("Book " + i, "Author " + i);
+            book.setId(UUID.randomUUID());
+            books.add(book);
+        });
+        return books;
+    }
+}
@@ -0,0 +1,99 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit tests for {@link BookFuzzyIndex}.
+ * Verifies typo tolerance per word length, ranking by matched words, and incremental updates.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookFuzzyIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookFuzzyIndex bookFuzzyIndex;
+
+    private Book hobbit;
+    private Book silmarillion;
+    private Book emma;
+
+    @BeforeEach
+    void setup() {
+        hobbit = book("The Hobbit", "J.R.R. Tolkien");
+        silmarillion = book("The Silmarillion", "J.R.R. Tolkien");
+        emma = book("Emma", "Jane Austen");
+        bookFuzzyIndex.put(hobbit);
+        bookFuzzyIndex.put(silmarillion);
+        bookFuzzyIndex.put(emma);
+    }
+
+    @Test
+    @DisplayName("Search: Should find authors and titles with one or two typos")
+    void shouldTolerateTypos() {
+        assertTrue(bookFuzzyIndex.search("tolkein").containsAll(List.of(hobbit.getId(), silmarillion.getId())));
+        assertEquals(List.of(hobbit.getId()), bookFuzzyIndex.search("hobit"));
+        assertEquals(List.of(emma.getId()), bookFuzzyIndex.search("austin"));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Search: Should rank books matching more query words first")
+    void shouldRankByMatchedWords() {
+        List<UUID> result = bookFuzzyIndex.search("tolkein silmarilion");
+
+        assertEquals(silmarillion.getId(), result.getFirst());
+        assertEquals(hobbit.getId(), result.get(1));
+    }
+
+    @Test
+    @DisplayName("Search: Should not tolerate typos in very short words")
+    void shouldRequireExactShortWords() {
+        assertTrue(bookFuzzyIndex.search("jo").isEmpty());
+        assertEquals(0, BookFuzzyIndex.maxEdits(2));
+        assertEquals(1, BookFuzzyIndex.maxEdits(5));
+        assertEquals(2, BookFuzzyIndex.maxEdits(6));
+    }
+
+    @Test
+    @DisplayName("Update: Should stop matching removed or renamed books")
+    void shouldHandleUpdatesAndRemovals() {
+        emma.setTitle("Persuasion");
+        bookFuzzyIndex.put(emma);
+        bookFuzzyIndex.remove(hobbit.getId());
+
+        assertTrue(bookFuzzyIndex.search("emma").isEmpty());
+        assertEquals(List.of(emma.getId()), bookFuzzyIndex.search("persuasoin"));
+        assertEquals(List.of(silmarillion.getId()), bookFuzzyIndex.search("tolkien"));
+    }
+
+    @Test
+    @DisplayName("Levenshtein: Should count insertions, deletions and substitutions")
+    void shouldComputeLevenshteinDistance() {
+        assertEquals(0, BookFuzzyIndex.levenshtein("book", "book"));
+        assertEquals(1, BookFuzzyIndex.levenshtein("book", "boo"));
+        assertEquals(2, BookFuzzyIndex.levenshtein("tolkien", "tolkein"));
+        assertEquals(3, BookFuzzyIndex.levenshtein("kitten", "sitting"));
+    }
+
+    private Book book(String title, String author) {
+        Book book = new Book(title, author);
+        book.setId(UUID.randomUUID());
+        return book;
+    }
+}
@@ -0,0 +1,191 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.dto.BookBatchImportResponseDTO;
+import com.vibebooks.api.dto.BookImportResultDTO;
+import com.vibebooks.api.dto.BookImportResultDTO.ImportStatus;
+import com.vibebooks.api.dto.google.VolumeInfo;
+import com.vibebooks.api.importer.BookCopyWriter;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BookImportService}.
+ * Verifies deduplication, per-ISBN outcomes, bounded parallel fetching and the single insert that skips
+ * ISBNs registered concurrently.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    private static final int PARALLELISM = 4;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookCopyWriter bookCopyWriter;
+
+    @Mock
+    private BookSuggestionIndex bookSuggestionIndex;
+
+    @Mock
+    private BookFuzzyIndex bookFuzzyIndex;
+
+    @Mock
+    private IsbnMetadataCache isbnMetadataCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PageCountService pageCountService;
+
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    void setup() {
+        bookImportService = new BookImportService(bookRepository, bookCopyWriter, bookSuggestionIndex,
+                bookFuzzyIndex, isbnMetadataCache, transactionTemplate, pageCountService, PARALLELISM);
+    }
+
+    /**
+     * Tests that every ISBN gets exactly one result, in request order,
+     * and that existing ISBNs are filtered with one set query instead of one lookup per ISBN.
+     */
+    @Test
+    @DisplayName("Import: Should report one outcome per ISBN in request order")
+    void shouldReportEveryIsbn() {
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of("1111111111"));
+        when(isbnMetadataCache.fetchByIsbn("2222222222")).thenReturn(volume("Created Book"));
+        when(isbnMetadataCache.fetchByIsbn("3333333333"))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found on Google Books for the provided ISBN."));
+        when(isbnMetadataCache.fetchByIsbn("4444444444"))
+                .thenThrow(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Google Books did not respond in time."));
+        runTransactionCallbacks();
+        when(bookCopyWriter.insert(anyList())).thenAnswer(i -> withIds(i.getArgument(0)));
+
+        BookBatchImportResponseDTO response = bookImportService.importBooks(
+                List.of("1111111111", "2222222222", "3333333333", "2222222222", "4444444444"));
+
+        List<ImportStatus> statuses = response.results().stream().map(BookImportResultDTO::status).toList();
+        assertEquals(List.of(ImportStatus.ALREADY_EXISTS, ImportStatus.CREATED, ImportStatus.NOT_FOUND,
+                ImportStatus.DUPLICATE_IN_REQUEST, ImportStatus.FAILED), statuses);
+        assertNotNull(response.results().get(1).bookId());
+        assertEquals("Google Books did not respond in time.", response.results().get(4).message());
+        assertEquals(1L, response.summary().get(ImportStatus.CREATED));
+        assertEquals(1L, response.summary().get(ImportStatus.DUPLICATE_IN_REQUEST));
+
+        verify(bookRepository, never()).existsByIsbn(anyString());
+        verify(isbnMetadataCache, never()).fetchByIsbn("1111111111");
+        verify(isbnMetadataCache, times(1)).fetchByIsbn("2222222222");
+    }
+
+    /**
+     * Tests that all new books and their stats rows are inserted with one writer call.
+     */
+    @Test
+    @DisplayName("Import: Should insert all new books in a single batched call")
+    void shouldInsertWithSingleWrite() {
+        List<String> isbns = List.of("1000000001", "1000000002", "1000000003", "1000000004", "1000000005");
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(isbnMetadataCache.fetchByIsbn(anyString())).thenAnswer(i -> volume("Book " + i.getArgument(0)));
+        runTransactionCallbacks();
+        when(bookCopyWriter.insert(anyList())).thenAnswer(i -> withIds(i.getArgument(0)));
+
+        BookBatchImportResponseDTO response = bookImportService.importBooks(isbns);
+
+        assertEquals(5L, response.summary().get(ImportStatus.CREATED));
+        verify(bookCopyWriter, times(1)).insert(argThat((List<Book> books) -> books.size() == 5));
+        verify(bookSuggestionIndex, times(5)).put(any(Book.class));
+        verify(bookFuzzyIndex, times(5)).put(any(Book.class));
+        verify(pageCountService).invalidate(PageCountService.BOOKS);
+    }
+
+    /**
+     * Tests that ISBNs created by another request during the fetch are reported as existing,
+     * while the rest of the batch is still created.
+     */
+    @Test
+    @DisplayName("Import: Should skip ISBNs registered while metadata was being fetched")
+    void shouldSkipIsbnsTakenDuringFetch() {
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(isbnMetadataCache.fetchByIsbn(anyString())).thenAnswer(i -> volume("Book " + i.getArgument(0)));
+        runTransactionCallbacks();
+        when(bookCopyWriter.insert(anyList())).thenAnswer(i -> withIds(i.<List<Book>>getArgument(0).stream()
+                .filter(book -> !book.getIsbn().equals("1000000001"))
+                .toList()));
+
+        BookBatchImportResponseDTO response = bookImportService.importBooks(List.of("1000000001", "1000000002"));
+
+        assertEquals(ImportStatus.ALREADY_EXISTS, response.results().get(0).status());
+        assertEquals(ImportStatus.CREATED, response.results().get(1).status());
+        verify(bookSuggestionIndex, times(1)).put(any(Book.class));
+    }
+
+    /**
+     * Tests that no more than the configured number of lookups run at the same time.
+     */
+    @Test
+    @DisplayName("Fetch: Should never exceed the configured parallelism")
+    void shouldBoundParallelism() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<String> isbns = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            isbns.add("20000000" + String.format("%02d", i));
+        }
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(isbnMetadataCache.fetchByIsbn(anyString())).thenAnswer(i -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        });
+
+        BookBatchImportResponseDTO response = bookImportService.importBooks(isbns);
+
+        assertEquals(40L, response.summary().get(ImportStatus.NOT_FOUND));
+        assertTrue(maxRunning.get() <= PARALLELISM, "max concurrent lookups was " + maxRunning.get());
+        assertTrue(maxRunning.get() > 1, "lookups should run concurrently");
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    private VolumeInfo volume(String title) {
+        return new VolumeInfo(title, List.of("Author"), "2020", null);
+    }
+
+    private List<Book> withIds(List<Book> books) {
+        books.forEach(book -> book.setId(UUID.randomUUID()));
+        return books;
+    }
+
+    /**
+     * Makes the mocked TransactionTemplate run its callback directly.
+     */
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<Object>) i.getArgument(0)).doInTransaction(null));
+    }
+}
@@ -0,0 +1,269 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.repository.BookStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BookLikeCounter}.
+ * Verifies that deltas are accumulated per book, flushed in one sorted batch in a transaction of their own,
+ * kept when the flush fails, and dropped once a recount includes them; drained adders are removed without losing
+ * concurrent deltas, and a recount only holds off the likes of its own books.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookLikeCounterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BookStatsRepository bookStatsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookLikeCounter counter;
+
+    private final UUID firstBook = new UUID(0, 1);
+    private final UUID secondBook = new UUID(0, 2);
+
+    @BeforeEach
+    void setup() {
+        counter = new BookLikeCounter(jdbcTemplate, bookStatsRepository, transactionManager, true);
+    }
+
+    @Test
+    @DisplayName("Record: Should accumulate likes and unlikes per book")
+    void shouldAccumulatePendingDeltas() {
+        counter.record(firstBook, true);
+        counter.record(firstBook, true);
+        counter.record(firstBook, false);
+        counter.record(secondBook, false);
+
+        assertEquals(1, counter.pending(firstBook));
+        assertEquals(-1, counter.pending(secondBook));
+    }
+
+    @Test
+    @DisplayName("Flush: Should write every non-zero delta in one batch, in book ID order, and reset them")
+    @SuppressWarnings("unchecked")
+    void shouldFlushDeltasInOneBatch() {
+        counter.record(secondBook, true);
+        counter.record(firstBook, false);
+        counter.record(firstBook, false);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        int flushed = counter.flush();
+
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), args.capture());
+        assertEquals(2, flushed);
+        assertArrayEquals(new Object[]{-2L, firstBook}, args.getValue().get(0));
+        assertArrayEquals(new Object[]{1L, secondBook}, args.getValue().get(1));
+        assertEquals(0, counter.pending(firstBook));
+        assertEquals(0, counter.flush());
+        verify(bookStatsRepository, never()).rebuildForBook(any());
+    }
+
+    @Test
+    @DisplayName("Flush: Should drop the adders it drained, so the next flush only walks books toggled since")
+    void shouldRemoveDrainedAdders() {
+        counter.record(firstBook, true);
+        counter.record(secondBook, true);
+        counter.record(secondBook, false);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        counter.flush();
+
+        assertEquals(0, counter.trackedBooks());
+        counter.record(firstBook, true);
+        assertEquals(1, counter.trackedBooks());
+        assertEquals(1, counter.pending(firstBook));
+    }
+
+    @Test
+    @DisplayName("Flush: Should lose no delta recorded while flushes drop drained adders")
+    @SuppressWarnings("unchecked")
+    void shouldKeepDeltasRecordedDuringFlushes() throws Exception {
+        LongAdder written = new LongAdder();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            args.forEach(row -> written.add((Long) row[0]));
+            int[] updated = new int[args.size()];
+            Arrays.fill(updated, 1);
+            return updated;
+        });
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> likers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                likers.add(executor.submit(() -> {
+                    for (int like = 0; like < 20_000; like++) {
+                        counter.record(firstBook, true);
+                    }
+                }));
+            }
+            while (!likers.stream().allMatch(Future::isDone)) {
+                counter.flush();
+            }
+            for (Future<?> liker : likers) {
+                liker.get();
+            }
+        }
+        counter.flush();
+
+        assertEquals(80_000, written.sum());
+        assertEquals(0, counter.pending(firstBook));
+    }
+
+    @Test
+    @DisplayName("Flush: Should rebuild the stats of a book that has no row yet")
+    void shouldRebuildMissingStatsRow() {
+        counter.record(firstBook, true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+
+        counter.flush();
+
+        verify(bookStatsRepository, times(1)).rebuildForBook(firstBook);
+    }
+
+    @Test
+    @DisplayName("Flush: Should keep the deltas for the next flush when the write fails")
+    void shouldKeepDeltasWhenFlushFails() {
+        counter.record(firstBook, true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertEquals(0, counter.flush());
+        assertEquals(1, counter.pending(firstBook));
+    }
+
+    @Test
+    @DisplayName("Flush: Should write in a transaction of its own, so a rollback of the caller keeps the deltas written")
+    void shouldFlushInNewTransaction() {
+        counter.record(firstBook, true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        counter.flush();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+    }
+
+    @Test
+    @DisplayName("Recount: Should drop the pending deltas of the recounted books only")
+    void shouldDropDeltasCoveredByRecount() {
+        counter.record(firstBook, true);
+        counter.record(secondBook, true);
+
+        assertEquals(5, counter.recount(List.of(firstBook), () -> 5));
+
+        assertEquals(0, counter.pending(firstBook));
+        assertEquals(1, counter.pending(secondBook));
+    }
+
+    @Test
+    @DisplayName("Recount: Should keep the pending deltas when the recount fails")
+    void shouldKeepDeltasWhenRecountFails() {
+        counter.record(firstBook, true);
+
+        assertThrows(QueryTimeoutException.class, () -> counter.recount(List.of(firstBook), () -> {
+            throw new QueryTimeoutException("timeout");
+        }));
+
+        assertEquals(1, counter.pending(firstBook));
+    }
+
+    @Test
+    @DisplayName("Recount: Should hold off new likes until the recount is done, so they are not dropped with it")
+    void shouldHoldOffLikesDuringRecount() throws Exception {
+        CountDownLatch recounting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> recount = executor.submit(() -> counter.recount(List.of(firstBook), () -> {
+                recounting.countDown();
+                await(release);
+                return 1;
+            }));
+            assertTrue(recounting.await(5, TimeUnit.SECONDS));
+
+            Thread liker = new Thread(() -> counter.record(firstBook, true));
+            liker.start();
+            liker.join(200);
+            assertTrue(liker.isAlive());
+            assertEquals(0, counter.pending(firstBook));
+
+            release.countDown();
+            assertEquals(1, recount.get(5, TimeUnit.SECONDS));
+            liker.join(5_000);
+            assertEquals(1, counter.pending(firstBook));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Recount: Should let likes of other books commit while it runs")
+    void shouldNotHoldOffLikesOfOtherBooks() throws Exception {
+        CountDownLatch recounting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> recount = executor.submit(() -> counter.recount(List.of(firstBook), () -> {
+                recounting.countDown();
+                await(release);
+                return 1;
+            }));
+            assertTrue(recounting.await(5, TimeUnit.SECONDS));
+
+            Thread liker = new Thread(() -> counter.record(secondBook, true));
+            liker.start();
+            liker.join(5_000);
+            assertFalse(liker.isAlive());
+            assertEquals(1, counter.pending(secondBook));
+            assertFalse(recount.isDone());
+
+            release.countDown();
+            assertEquals(1, recount.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
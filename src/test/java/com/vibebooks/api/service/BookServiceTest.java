@@ -3,29 +3,41 @@ package com.vibebooks.api.service;
 import com.vibebooks.api.dto.BookCreationDTO;
 import com.vibebooks.api.dto.BookDetailsDTO;
 import com.vibebooks.api.dto.BookIsbnDTO;
+import com.vibebooks.api.dto.BookLikeResponseDTO;
+import com.vibebooks.api.dto.BookStatusResponseDTO;
 import com.vibebooks.api.dto.BookStatusUpdateDTO;
-import com.vibebooks.api.dto.google.GoogleBooksResponse;
-import com.vibebooks.api.dto.google.GoogleBookItem;
+import com.vibebooks.api.dto.CursorSliceDTO;
+import com.vibebooks.api.dto.SpringPageDTO;
 import com.vibebooks.api.dto.google.ImageLinks;
 import com.vibebooks.api.dto.google.VolumeInfo;
 import com.vibebooks.api.model.*;
 import com.vibebooks.api.repository.BookRepository;
 import com.vibebooks.api.repository.UserBookStatusRepository;
+import com.vibebooks.api.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
-import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -46,7 +58,28 @@ class BookServiceTest {
     private UserBookStatusRepository userBookStatusRepository;
 
     @Mock
-    private RestTemplate restTemplate;
+    private BookDetailsAssembler bookDetailsAssembler;
+
+    @Mock
+    private BookStatsService bookStatsService;
+
+    @Mock
+    private BookLikeCounter bookLikeCounter;
+
+    @Mock
+    private BookSuggestionIndex bookSuggestionIndex;
+
+    @Mock
+    private BookFuzzyIndex bookFuzzyIndex;
+
+    @Mock
+    private IsbnMetadataCache isbnMetadataCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PageCountService pageCountService;
 
     @InjectMocks
     private BookService bookService;
@@ -57,8 +90,6 @@ class BookServiceTest {
 
     @BeforeEach
     void setup() {
-        ReflectionTestUtils.setField(bookService, "apiKey", "dummy-api-key");
-
         validBookId = UUID.randomUUID();
 
         validBook = new Book();
@@ -74,7 +105,7 @@ class BookServiceTest {
 
     /**
      * Tests the successful creation of a book.
-     * Mocks the RestTemplate to return a fake Google Books response, avoiding real network calls.
+     * Mocks the ISBN metadata cache to return fake Google Books metadata, avoiding real network calls.
      */
     @Test
     @DisplayName("Create: Should fetch from Google Books and save new book")
@@ -84,10 +115,9 @@ class BookServiceTest {
 
         ImageLinks fakeImageLinks = new ImageLinks("http://thumbnail.url", "http://small.url");
         VolumeInfo fakeVolumeInfo = new VolumeInfo("The Hobbit", List.of("J.R.R. Tolkien"), "1937-09-21", fakeImageLinks);
-        GoogleBookItem fakeItem = new GoogleBookItem(fakeVolumeInfo);
-        GoogleBooksResponse fakeResponse = new GoogleBooksResponse(List.of(fakeItem));
 
-        when(restTemplate.getForObject(anyString(), eq(GoogleBooksResponse.class))).thenReturn(fakeResponse);
+        when(isbnMetadataCache.fetchByIsbn("1234567890")).thenReturn(fakeVolumeInfo);
+        runTransactionCallbacks();
 
         when(bookRepository.save(any(Book.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -96,8 +126,11 @@ class BookServiceTest {
         assertNotNull(result);
         assertEquals("The Hobbit", result.getTitle());
         assertEquals("1234567890", result.getIsbn());
-        verify(restTemplate, times(1)).getForObject(anyString(), eq(GoogleBooksResponse.class));
+        verify(isbnMetadataCache, times(1)).fetchByIsbn("1234567890");
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookStatsService, times(1)).initialize(result.getId());
+        verify(bookSuggestionIndex, times(1)).put(result);
+        verify(bookFuzzyIndex, times(1)).put(result);
     }
 
     /**
@@ -111,11 +144,54 @@ class BookServiceTest {
         when(bookRepository.existsByIsbn("invalid-isbn")).thenReturn(false);
 
         // Simulate Google API returning nothing
-        when(restTemplate.getForObject(anyString(), eq(GoogleBooksResponse.class))).thenReturn(null);
+        when(isbnMetadataCache.fetchByIsbn("invalid-isbn"))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found on Google Books for the provided ISBN."));
 
         ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> bookService.createBook(dto));
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
         verify(bookRepository, never()).save(any());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    /**
+     * Tests that the Google Books call completes before the write transaction is opened,
+     * so a slow upstream response never holds a database connection.
+     */
+    @Test
+    @DisplayName("Create: Should call Google Books before opening the transaction")
+    void shouldFetchFromGoogleOutsideTheTransaction() {
+        BookIsbnDTO dto = new BookIsbnDTO("1234567890");
+        when(bookRepository.existsByIsbn("1234567890")).thenReturn(false);
+        when(isbnMetadataCache.fetchByIsbn("1234567890"))
+                .thenReturn(new VolumeInfo("The Hobbit", List.of("J.R.R. Tolkien"), "1937", null));
+        when(bookRepository.save(any(Book.class))).thenAnswer(i -> i.getArgument(0));
+        runTransactionCallbacks();
+
+        bookService.createBook(dto);
+
+        InOrder inOrder = inOrder(isbnMetadataCache, transactionTemplate, bookRepository);
+        inOrder.verify(isbnMetadataCache).fetchByIsbn("1234567890");
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(bookRepository).save(any(Book.class));
+    }
+
+    /**
+     * Tests that a book created by another request while Google was being called
+     * is still rejected once the transaction starts.
+     */
+    @Test
+    @DisplayName("Create: Should re-check the ISBN inside the transaction")
+    void shouldRejectIsbnCreatedDuringFetch() {
+        BookIsbnDTO dto = new BookIsbnDTO("1234567890");
+        when(bookRepository.existsByIsbn("1234567890")).thenReturn(false, true);
+        when(isbnMetadataCache.fetchByIsbn("1234567890"))
+                .thenReturn(new VolumeInfo("The Hobbit", List.of("J.R.R. Tolkien"), "1937", null));
+        runTransactionCallbacks();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> bookService.createBook(dto));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        verify(bookRepository, never()).save(any());
     }
 
     /**
@@ -131,7 +207,7 @@ class BookServiceTest {
         ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> bookService.createBook(dto));
         assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
 
-        verify(restTemplate, never()).getForObject(anyString(), any());
+        verify(isbnMetadataCache, never()).fetchByIsbn(anyString());
     }
 
     /**
@@ -142,9 +218,8 @@ class BookServiceTest {
     @DisplayName("Find: Should return BookDetailsDTO when book exists")
     void shouldFindBookById() {
         when(bookRepository.findById(validBookId)).thenReturn(Optional.of(validBook));
-        when(userBookStatusRepository.countByBookIdAndLikedIsTrue(validBookId)).thenReturn(10L);
-        when(userBookStatusRepository.findById(any())).thenReturn(Optional.empty());
-        when(userBookStatusRepository.countSentimentsByBookId(validBookId)).thenReturn(List.of());
+        when(bookDetailsAssembler.assemble(List.of(validBook), loggedInUser))
+                .thenReturn(List.of(new BookDetailsDTO(validBook, 10L, false, null, null, Map.of())));
 
         BookDetailsDTO result = bookService.findBookById(validBookId, loggedInUser);
 
@@ -156,7 +231,7 @@ class BookServiceTest {
 
     /**
      * Tests the book deletion process.
-     * Ensures that both the book and its associated user statuses are removed from the database.
+     * Ensures that the book, its associated user statuses and its counters are removed from the database.
      */
     @Test
     @DisplayName("Delete: Should remove book and associated user statuses")
@@ -166,7 +241,10 @@ class BookServiceTest {
         bookService.deleteBook(validBookId);
 
         verify(userBookStatusRepository, times(1)).deleteByBookId(validBookId);
+        verify(bookStatsService, times(1)).delete(validBookId);
         verify(bookRepository, times(1)).deleteById(validBookId);
+        verify(bookSuggestionIndex, times(1)).remove(validBookId);
+        verify(bookFuzzyIndex, times(1)).remove(validBookId);
     }
 
     /**
@@ -184,45 +262,71 @@ class BookServiceTest {
                 "http://new-cover.url"
         );
         when(bookRepository.findById(validBookId)).thenReturn(Optional.of(validBook));
-
-        when(userBookStatusRepository.countByBookIdAndLikedIsTrue(validBookId)).thenReturn(0L);
-        when(userBookStatusRepository.findById(any())).thenReturn(Optional.empty());
-        when(userBookStatusRepository.countSentimentsByBookId(validBookId)).thenReturn(List.of());
+        when(bookDetailsAssembler.assemble(List.of(validBook), loggedInUser))
+                .thenAnswer(i -> List.of(new BookDetailsDTO(validBook, 0L, false, null, null, Map.of())));
 
         BookDetailsDTO result = bookService.updateBook(validBookId, updateDTO, loggedInUser);
 
         assertNotNull(result);
         assertEquals("Updated Title", result.title());
         assertEquals("Updated Author", result.author());
+        verify(bookSuggestionIndex, times(1)).put(validBook);
     }
 
     /**
      * Tests updating the reading status of a book.
-     * Verifies that the status updates correctly and sentiment is nullified if status is WANT_TO_READ.
+     * Verifies that the status is upserted and the unchanged (empty) sentiment is passed to the book stats.
      */
     @Test
     @DisplayName("Status: Should update reading status successfully")
     void shouldUpdateBookStatus() {
         BookStatusUpdateDTO statusDTO = new BookStatusUpdateDTO(ReadingStatus.READING, null);
+        when(userBookStatusRepository.writeStatus(loggedInUser.getId(), validBookId, "READING", null))
+                .thenReturn(statusWrite(true, null));
 
-        UserBookStatus existingStatus = new UserBookStatus();
-        existingStatus.setBook(validBook);
-        existingStatus.setUser(loggedInUser);
+        BookStatusResponseDTO result = bookService.updateBookStatus(validBookId, loggedInUser, statusDTO);
 
-        when(bookRepository.existsById(validBookId)).thenReturn(true);
-        when(bookRepository.getReferenceById(validBookId)).thenReturn(validBook);
-        when(userBookStatusRepository.findById(any())).thenReturn(Optional.of(existingStatus));
-        when(userBookStatusRepository.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+        assertEquals(validBookId, result.bookId());
+        assertEquals(ReadingStatus.READING, result.status());
+        assertNull(result.sentiment());
+        verify(bookStatsService, times(1)).recordSentimentChange(validBookId, null, null);
+    }
 
-        UserBookStatus result = bookService.updateBookStatus(validBookId, loggedInUser, statusDTO);
+    /**
+     * Tests that changing the sentiment moves the user between sentiment counters,
+     * using the previous sentiment returned by the upsert.
+     */
+    @Test
+    @DisplayName("Status: Should record sentiment change in book stats")
+    void shouldRecordSentimentChangeInBookStats() {
+        BookStatusUpdateDTO statusDTO = new BookStatusUpdateDTO(ReadingStatus.READ, BookSentiment.TENSE);
+        when(userBookStatusRepository.writeStatus(loggedInUser.getId(), validBookId, "READ", "TENSE"))
+                .thenReturn(statusWrite(true, "FUN"));
 
-        assertNotNull(result);
-        assertEquals(ReadingStatus.READING, result.getStatus());
+        bookService.updateBookStatus(validBookId, loggedInUser, statusDTO);
+
+        verify(bookStatsService, times(1)).recordSentimentChange(validBookId, BookSentiment.FUN, BookSentiment.TENSE);
+    }
+
+    /**
+     * Tests that the upsert runs again when the row was created concurrently and nothing was written.
+     */
+    @Test
+    @DisplayName("Status: Should retry the upsert when the row was created concurrently")
+    void shouldRetryStatusWriteAfterConcurrentInsert() {
+        BookStatusUpdateDTO statusDTO = new BookStatusUpdateDTO(ReadingStatus.READING, BookSentiment.FUN);
+        when(userBookStatusRepository.writeStatus(loggedInUser.getId(), validBookId, "READING", "FUN"))
+                .thenReturn(statusWrite(false, null), statusWrite(true, "TENSE"));
+
+        bookService.updateBookStatus(validBookId, loggedInUser, statusDTO);
+
+        verify(userBookStatusRepository, times(2)).writeStatus(loggedInUser.getId(), validBookId, "READING", "FUN");
+        verify(bookStatsService, times(1)).recordSentimentChange(validBookId, BookSentiment.TENSE, BookSentiment.FUN);
     }
 
     /**
      * Tests the business rule that prevents adding a sentiment to a book the user only "wants to read".
-     * Expects a 400 Bad Request.
+     * Expects a 400 Bad Request before anything is written.
      */
     @Test
     @DisplayName("Status: Should fail to add sentiment if status is WANT_TO_READ")
@@ -230,57 +334,126 @@ class BookServiceTest {
         BookSentiment anySentiment = BookSentiment.values().length > 0 ? BookSentiment.values()[0] : null;
         BookStatusUpdateDTO statusDTO = new BookStatusUpdateDTO(ReadingStatus.WANT_TO_READ, anySentiment);
 
-        UserBookStatus existingStatus = new UserBookStatus();
-        existingStatus.setStatus(ReadingStatus.WANT_TO_READ);
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> bookService.updateBookStatus(validBookId, loggedInUser, statusDTO));
 
-        when(bookRepository.existsById(validBookId)).thenReturn(true);
-        when(bookRepository.getReferenceById(validBookId)).thenReturn(validBook);
-        when(userBookStatusRepository.findById(any())).thenReturn(Optional.of(existingStatus));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(userBookStatusRepository);
+    }
+
+    /**
+     * Tests that a status for a missing book, rejected by the foreign key, becomes a 404.
+     */
+    @Test
+    @DisplayName("Status: Should return 404 when the book does not exist")
+    void shouldFailToUpdateStatusOfMissingBook() {
+        BookStatusUpdateDTO statusDTO = new BookStatusUpdateDTO(ReadingStatus.READING, null);
+        when(userBookStatusRepository.writeStatus(any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("fk_book"));
 
         ResponseStatusException ex = assertThrows(ResponseStatusException.class,
                 () -> bookService.updateBookStatus(validBookId, loggedInUser, statusDTO));
 
-        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
     }
 
     /**
      * Tests the like toggle mechanism.
-     * Verifies that a false liked status becomes true.
+     * Verifies that the state and counter returned by the toggle statement are passed through.
      */
     @Test
     @DisplayName("Like: Should toggle like status to true")
     void shouldToggleLikeStatus() {
-        UserBookStatus existingStatus = new UserBookStatus();
-        existingStatus.setLiked(false);
+        when(userBookStatusRepository.toggleLike(loggedInUser.getId(), validBookId)).thenReturn(likeToggle(true, 6L));
 
-        when(bookRepository.existsById(validBookId)).thenReturn(true);
-        when(bookRepository.getReferenceById(validBookId)).thenReturn(validBook);
-        when(userBookStatusRepository.findById(any())).thenReturn(Optional.of(existingStatus));
-        when(userBookStatusRepository.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+        BookLikeResponseDTO result = bookService.likeOrUnlikeBook(validBookId, loggedInUser);
+
+        assertTrue(result.liked());
+        assertEquals(6L, result.totalLikes());
+        verify(bookStatsService, never()).rebuild(any());
+    }
+
+    /**
+     * Tests that a book without a stats row gets its counters rebuilt after the toggle.
+     */
+    @Test
+    @DisplayName("Like: Should rebuild the stats when the book has none yet")
+    void shouldRebuildStatsWhenTogglingLikeWithoutStatsRow() {
+        BookStats rebuilt = BookStats.empty(validBookId);
+        rebuilt.setLikesCount(1);
+        when(userBookStatusRepository.toggleLike(loggedInUser.getId(), validBookId)).thenReturn(likeToggle(true, null));
+        when(bookStatsService.rebuild(validBookId)).thenReturn(rebuilt);
 
-        UserBookStatus result = bookService.likeOrUnlikeBook(validBookId, loggedInUser);
+        BookLikeResponseDTO result = bookService.likeOrUnlikeBook(validBookId, loggedInUser);
 
-        assertTrue(result.isLiked());
+        assertEquals(1L, result.totalLikes());
     }
 
     /**
-     * Tests pagination and mapping for the list all books feature.
+     * Tests the write-behind mode: only the user's state is written and the delta is buffered,
+     * while the response already includes the toggle.
+     */
+    @Test
+    @DisplayName("Like: Should buffer the counter delta in write-behind mode")
+    void shouldBufferLikeDeltaInWriteBehindMode() {
+        BookStats stats = BookStats.empty(validBookId);
+        stats.setLikesCount(41);
+        when(bookLikeCounter.isEnabled()).thenReturn(true);
+        when(userBookStatusRepository.toggleLikeState(loggedInUser.getId(), validBookId)).thenReturn(true);
+        when(bookStatsService.getStats(validBookId)).thenReturn(stats);
+
+        BookLikeResponseDTO result = bookService.likeOrUnlikeBook(validBookId, loggedInUser);
+
+        assertTrue(result.liked());
+        assertEquals(42L, result.totalLikes());
+        verify(bookLikeCounter, times(1)).record(validBookId, true);
+        verify(userBookStatusRepository, never()).toggleLike(any(), any());
+    }
+
+    /**
+     * Tests pagination and mapping for the list all books feature,
+     * with the page read as a slice and the exact total resolved separately.
      */
     @Test
     @DisplayName("List: Should return paginated BookDetailsDTO list")
     void shouldListAllBooks() {
-        org.springframework.data.domain.Page<Book> bookPage = new org.springframework.data.domain.PageImpl<>(List.of(validBook));
-        when(bookRepository.findAll(any(org.springframework.data.domain.Pageable.class))).thenReturn(bookPage);
-
-        when(userBookStatusRepository.countByBookIdAndLikedIsTrue(validBookId)).thenReturn(5L);
-        when(userBookStatusRepository.findById(any())).thenReturn(Optional.empty());
-        when(userBookStatusRepository.countSentimentsByBookId(validBookId)).thenReturn(List.of());
-
-        org.springframework.data.domain.Page<BookDetailsDTO> result = bookService.listAllBooks(org.springframework.data.domain.PageRequest.of(0, 10), loggedInUser);
+        var pageable = PageRequest.of(0, 10);
+        when(bookRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(validBook), pageable, false));
+        when(bookRepository.count()).thenReturn(1L);
+        countAsRequested();
+
+        BookDetailsDTO dto = new BookDetailsDTO(validBook, 5L, false, null, null, Map.of());
+        when(bookDetailsAssembler.assemble(List.of(validBook), loggedInUser)).thenReturn(List.of(dto));
+
+        SpringPageDTO<BookDetailsDTO> result = bookService.listAllBooks(pageable, CountMode.EXACT, loggedInUser);
+
+        assertEquals("The Hobbit", result.content().getFirst().title());
+        assertEquals(5L, result.content().getFirst().likesCount());
+        assertEquals(1L, result.totalElements());
+        assertEquals(1, result.totalPages());
+        assertEquals(pageable, result.pageable());
+        assertTrue(result.last());
+        assertFalse(result.hasNext());
+    }
 
-        assertFalse(result.isEmpty());
-        assertEquals("The Hobbit", result.getContent().getFirst().title());
-        assertEquals(5L, result.getContent().getFirst().likesCount());
+    /**
+     * Tests that no count query runs when the client asks for no total.
+     */
+    @Test
+    @DisplayName("List: Should skip the count when the count mode is NONE")
+    void shouldListAllBooksWithoutCount() {
+        var pageable = PageRequest.of(0, 1);
+        when(bookRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(validBook), pageable, true));
+        countAsRequested();
+        when(bookDetailsAssembler.assemble(List.of(validBook), loggedInUser))
+                .thenReturn(List.of(new BookDetailsDTO(validBook, 0L, false, null, null, Map.of())));
+
+        SpringPageDTO<BookDetailsDTO> result = bookService.listAllBooks(pageable, CountMode.NONE, loggedInUser);
+
+        assertNull(result.totalElements());
+        assertNull(result.totalPages());
+        assertTrue(result.hasNext());
+        verify(bookRepository, never()).count();
     }
 
     /**
@@ -289,16 +462,165 @@ class BookServiceTest {
     @Test
     @DisplayName("Search: Should return books matching query")
     void shouldSearchBooksSuccessfully() {
-        org.springframework.data.domain.Page<Book> bookPage = new org.springframework.data.domain.PageImpl<>(List.of(validBook));
-        when(bookRepository.findByTitleContainingIgnoreCase(eq("Hobbit"), any())).thenReturn(bookPage);
+        var pageable = PageRequest.of(0, 10);
+        when(bookRepository.findByTitleContainingIgnoreCase(eq("Hobbit"), any())).thenReturn(new SliceImpl<>(List.of(validBook), pageable, false));
+        when(bookRepository.countByTitleContainingIgnoreCase("Hobbit")).thenReturn(1L);
+        countAsRequested();
+
+        BookDetailsDTO dto = new BookDetailsDTO(validBook, 0L, false, null, null, Map.of());
+        when(bookDetailsAssembler.assemble(List.of(validBook), loggedInUser)).thenReturn(List.of(dto));
 
-        when(userBookStatusRepository.countByBookIdAndLikedIsTrue(validBookId)).thenReturn(0L);
-        when(userBookStatusRepository.findById(any())).thenReturn(Optional.empty());
-        when(userBookStatusRepository.countSentimentsByBookId(validBookId)).thenReturn(List.of());
+        SpringPageDTO<BookDetailsDTO> result = bookService.searchBooks("Hobbit", BookSearchMode.TITLE, pageable, CountMode.EXACT, loggedInUser);
 
-        org.springframework.data.domain.Page<BookDetailsDTO> result = bookService.searchBooks("Hobbit", org.springframework.data.domain.PageRequest.of(0, 10), loggedInUser);
+        assertEquals("The Hobbit", result.content().getFirst().title());
+        assertEquals(1L, result.totalElements());
+    }
+
+    /**
+     * Tests that the full-text mode uses the ranked query with an escaped substring pattern
+     * and drops client-provided sorting, since results are ordered by relevance.
+     */
+    @Test
+    @DisplayName("Search: Should use ranked full-text query in FULLTEXT mode")
+    void shouldSearchBooksWithFullTextMode() {
+        var pageable = PageRequest.of(1, 10, Sort.by("title"));
+        when(bookRepository.searchFullText("Tolkien 100%", "%tolkien 100\\%%", PageRequest.of(1, 10)))
+                .thenReturn(new SliceImpl<>(List.of(validBook), PageRequest.of(1, 10), false));
+        when(bookRepository.countFullText("Tolkien 100%", "%tolkien 100\\%%")).thenReturn(11L);
+        countAsRequested();
+        when(bookDetailsAssembler.assemble(List.of(validBook), loggedInUser))
+                .thenReturn(List.of(new BookDetailsDTO(validBook, 0L, false, null, null, Map.of())));
+
+        var result = bookService.searchBooks(" Tolkien 100% ", BookSearchMode.FULLTEXT, pageable, CountMode.EXACT, loggedInUser);
+
+        assertEquals("The Hobbit", result.content().getFirst().title());
+        assertEquals(11L, result.totalElements());
+        assertEquals(2, result.totalPages());
+        verify(bookRepository, never()).findByTitleContainingIgnoreCase(anyString(), any());
+    }
+
+    /**
+     * Tests that the fuzzy mode pages over the ranked IDs from the index
+     * and loads only the books of the requested page, keeping the ranking order.
+     */
+    @Test
+    @DisplayName("Search: Should page over ranked fuzzy matches")
+    void shouldSearchBooksWithFuzzyMode() {
+        Book second = new Book("The Hobbit: Illustrated", "J.R.R. Tolkien");
+        second.setId(UUID.randomUUID());
+        Book third = new Book("Tolkien Letters", "J.R.R. Tolkien");
+        third.setId(UUID.randomUUID());
+
+        when(bookFuzzyIndex.search("hobit")).thenReturn(List.of(validBookId, second.getId(), third.getId()));
+        when(bookRepository.findAllById(List.of(third.getId()))).thenReturn(List.of(third));
+        when(bookDetailsAssembler.assemble(List.of(third), loggedInUser))
+                .thenReturn(List.of(new BookDetailsDTO(third, 0L, false, null, null, Map.of())));
+
+        var result = bookService.searchBooks("hobit", BookSearchMode.FUZZY, PageRequest.of(1, 2), CountMode.ESTIMATED, loggedInUser);
+
+        assertEquals(3L, result.totalElements());
+        assertFalse(result.hasNext());
+        assertEquals(1, result.content().size());
+        assertEquals("Tolkien Letters", result.content().getFirst().title());
+        verifyNoInteractions(pageCountService);
+    }
+
+    /**
+     * Tests that a cursor slice fetches one extra row to detect the next slice,
+     * and that the next cursor points at the last book returned.
+     */
+    @Test
+    @DisplayName("Scroll: Should continue after the cursor and return the next one")
+    void shouldScrollBooksAfterCursor() {
+        OffsetDateTime now = OffsetDateTime.now();
+        validBook.setCreatedAt(now);
+        Book older = new Book("Older", "Author");
+        older.setId(UUID.randomUUID());
+        older.setCreatedAt(now.minusSeconds(1));
+        String cursor = CursorCodec.encode(now.plusSeconds(1), UUID.randomUUID());
+        CursorCodec.Position position = CursorCodec.decode(cursor);
+
+        when(bookRepository.findAfter(position.createdAt(), position.id(), Limit.of(2))).thenReturn(List.of(validBook, older));
+        when(bookDetailsAssembler.assemble(List.of(validBook), loggedInUser))
+                .thenReturn(List.of(new BookDetailsDTO(validBook, 0L, false, null, null, Map.of())));
+
+        CursorSliceDTO<BookDetailsDTO> slice = bookService.scrollBooks(cursor, 1, loggedInUser);
+
+        assertEquals("The Hobbit", slice.content().getFirst().title());
+        assertEquals(validBookId, CursorCodec.decode(slice.nextCursor()).id());
+        verify(bookRepository, never()).findAll(any(org.springframework.data.domain.Pageable.class));
+    }
+
+    /**
+     * Tests that the last slice has no next cursor.
+     */
+    @Test
+    @DisplayName("Scroll: Should return no cursor on the last slice")
+    void shouldEndScrollOnLastSlice() {
+        when(bookRepository.findByTitleContainingIgnoreCaseOrderByCreatedAtDescIdDesc("Hobbit", Limit.of(11))).thenReturn(List.of(validBook));
+        when(bookDetailsAssembler.assemble(List.of(validBook), loggedInUser))
+                .thenReturn(List.of(new BookDetailsDTO(validBook, 0L, false, null, null, Map.of())));
+
+        CursorSliceDTO<BookDetailsDTO> slice = bookService.scrollSearch(" Hobbit ", BookSearchMode.TITLE, null, 10, loggedInUser);
+
+        assertEquals(1, slice.content().size());
+        assertNull(slice.nextCursor());
+    }
+
+    /**
+     * Tests that ranked search modes, which have no stable keyset order, reject cursor pagination.
+     */
+    @Test
+    @DisplayName("Scroll: Should reject cursor pagination for ranked search modes")
+    void shouldRejectScrollForRankedSearch() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> bookService.scrollSearch("hobbit", BookSearchMode.FULLTEXT, null, 10, loggedInUser));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(bookRepository);
+    }
+
+    /**
+     * Makes the mocked TransactionTemplate run its callback directly.
+     */
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<Object>) i.getArgument(0)).doInTransaction(null));
+    }
+
+    /**
+     * Makes the mocked PageCountService run the exact count, or skip it for {@link CountMode#NONE}.
+     */
+    private void countAsRequested() {
+        when(pageCountService.count(any(), anyString(), any(), any()))
+                .thenAnswer(i -> i.getArgument(0) == CountMode.NONE ? null : ((LongSupplier) i.getArgument(2)).getAsLong());
+    }
+
+    private static UserBookStatusRepository.StatusWrite statusWrite(boolean written, String previousSentiment) {
+        return new UserBookStatusRepository.StatusWrite() {
+            @Override
+            public boolean getWritten() {
+                return written;
+            }
+
+            @Override
+            public String getPreviousSentiment() {
+                return previousSentiment;
+            }
+        };
+    }
 
-        assertFalse(result.isEmpty());
-        assertEquals("The Hobbit", result.getContent().getFirst().title());
+    private static UserBookStatusRepository.LikeToggle likeToggle(boolean liked, Long likesCount) {
+        return new UserBookStatusRepository.LikeToggle() {
+            @Override
+            public boolean getLiked() {
+                return liked;
+            }
+
+            @Override
+            public Long getLikesCount() {
+                return likesCount;
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,196 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.model.BookSentiment;
+import com.vibebooks.api.model.BookStats;
+import com.vibebooks.api.repository.BookStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BookStatsService}.
+ * Verifies delta updates, the rebuild fallback for missing rows on writes and reads, the startup backfill
+ * and the chunked reconciliation.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookStatsServiceTest {
+
+    @Mock
+    private BookStatsRepository bookStatsRepository;
+
+    @Mock
+    private BookLikeCounter bookLikeCounter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BookStatsService bookStatsService;
+
+    private UUID bookId;
+
+    @BeforeEach
+    void setup() {
+        bookId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Rebuild: Should recount the book and return the stored counters")
+    void shouldRebuildAndReadStats() {
+        BookStats stats = new BookStats(bookId);
+        stats.setLikesCount(3);
+        when(bookStatsRepository.findById(bookId)).thenReturn(Optional.of(stats));
+
+        BookStats rebuilt = bookStatsService.rebuild(bookId);
+
+        verify(bookStatsRepository, times(1)).rebuildForBook(bookId);
+        assertEquals(3, rebuilt.getLikesCount());
+    }
+
+    @Test
+    @DisplayName("Read: Should add the pending write-behind likes to the stored counter")
+    void shouldMergePendingLikes() {
+        BookStats stored = new BookStats(bookId);
+        stored.setLikesCount(10);
+        when(bookStatsRepository.findById(bookId)).thenReturn(Optional.of(stored));
+        when(bookLikeCounter.pending(bookId)).thenReturn(-3L);
+
+        BookStats stats = bookStatsService.getStats(bookId);
+
+        assertEquals(7, stats.getLikesCount());
+        assertEquals(10, stored.getLikesCount());
+    }
+
+    @Test
+    @DisplayName("Comment: Should increment and decrement the comment counter")
+    void shouldApplyCommentDeltas() {
+        when(bookStatsRepository.incrementComments(any(), anyLong())).thenReturn(1);
+
+        bookStatsService.recordComment(bookId, true);
+        bookStatsService.recordComment(bookId, false);
+
+        verify(bookStatsRepository).incrementComments(bookId, 1);
+        verify(bookStatsRepository).incrementComments(bookId, -1);
+        verify(bookStatsRepository, never()).rebuildForBook(any());
+    }
+
+    @Test
+    @DisplayName("Sentiment: Should move the user from the old to the new sentiment")
+    void shouldMoveSentiment() {
+        when(bookStatsRepository.moveSentiment(bookId, "FUN", "TENSE")).thenReturn(1);
+
+        bookStatsService.recordSentimentChange(bookId, BookSentiment.FUN, BookSentiment.TENSE);
+
+        verify(bookStatsRepository, times(1)).moveSentiment(bookId, "FUN", "TENSE");
+    }
+
+    @Test
+    @DisplayName("Sentiment: Should skip the update when the sentiment did not change")
+    void shouldSkipUnchangedSentiment() {
+        bookStatsService.recordSentimentChange(bookId, BookSentiment.FUN, BookSentiment.FUN);
+        bookStatsService.recordSentimentChange(bookId, null, null);
+
+        verifyNoInteractions(bookStatsRepository);
+    }
+
+    @Test
+    @DisplayName("Read: Should rebuild the stats rows missing from a page instead of returning zeroed counters")
+    void shouldRebuildMissingRowsOnRead() {
+        UUID otherId = UUID.randomUUID();
+        BookStats stored = new BookStats(bookId);
+        stored.setLikesCount(7L);
+        BookStats rebuilt = new BookStats(otherId);
+        rebuilt.setLikesCount(4L);
+        rebuilt.setFunCount(2L);
+        when(bookStatsRepository.findAllByBookIdIn(List.of(bookId, otherId))).thenReturn(List.of(stored));
+        when(bookStatsRepository.findAllByBookIdIn(List.of(otherId))).thenReturn(List.of(rebuilt));
+        runRecounts();
+
+        Map<UUID, BookStats> result = bookStatsService.getStats(List.of(bookId, otherId));
+
+        verify(bookStatsRepository, times(1)).rebuildForBooks(List.of(otherId));
+        assertEquals(7L, result.get(bookId).getLikesCount());
+        assertEquals(4L, result.get(otherId).getLikesCount());
+        assertEquals(2L, result.get(otherId).getSentimentCounts().get(BookSentiment.FUN));
+    }
+
+    @Test
+    @DisplayName("Read: Should not rebuild anything when every book of the page has its row")
+    void shouldNotRebuildWhenNoRowIsMissing() {
+        when(bookStatsRepository.findAllByBookIdIn(List.of(bookId))).thenReturn(List.of(new BookStats(bookId)));
+
+        bookStatsService.getStats(List.of(bookId));
+
+        verify(bookStatsRepository, never()).rebuildForBooks(any());
+    }
+
+    @Test
+    @DisplayName("Read: Should rebuild a single missing row, and return zeroed counters only if the book does not exist")
+    void shouldRebuildSingleMissingRow() {
+        when(bookStatsRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookStatsRepository.findAllByBookIdIn(List.of(bookId))).thenReturn(List.of());
+        runRecounts();
+
+        assertEquals(0L, bookStatsService.getStats(bookId).getLikesCount());
+        verify(bookStatsRepository, times(1)).rebuildForBooks(List.of(bookId));
+        verify(bookLikeCounter, times(1)).recount(eq(List.of(bookId)), any());
+    }
+
+    @Test
+    @DisplayName("Reconcile: Should recount the books chunk by chunk through the like counter")
+    void shouldReconcileInChunks() {
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        UUID third = new UUID(0, 3);
+        ReflectionTestUtils.setField(bookStatsService, "reconcileChunkSize", 2);
+        when(bookStatsRepository.findBookIdsAfter(new UUID(0, 0), Limit.of(2))).thenReturn(List.of(first, second));
+        when(bookStatsRepository.findBookIdsAfter(second, Limit.of(2))).thenReturn(List.of(third));
+        when(bookStatsRepository.findBookIdsAfter(third, Limit.of(2))).thenReturn(List.of());
+        when(bookStatsRepository.rebuildForBooks(any())).thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).size());
+        runRecounts();
+
+        bookStatsService.reconcileAll();
+
+        verify(bookLikeCounter, times(1)).recount(eq(List.of(first, second)), any());
+        verify(bookLikeCounter, times(1)).recount(eq(List.of(third)), any());
+        verify(bookStatsRepository, times(1)).rebuildForBooks(List.of(first, second));
+        verify(bookStatsRepository, times(1)).rebuildForBooks(List.of(third));
+        verify(bookLikeCounter, never()).flush();
+    }
+
+    @Test
+    @DisplayName("Backfill: Should create the missing rows on startup unless disabled")
+    void shouldBackfillMissingRows() {
+        bookStatsService.backfillMissing();
+        verify(bookStatsRepository, never()).rebuildMissing();
+
+        ReflectionTestUtils.setField(bookStatsService, "backfillOnStartup", true);
+        bookStatsService.backfillMissing();
+        verify(bookStatsRepository, times(1)).rebuildMissing();
+    }
+
+    /**
+     * Makes the mocked like counter run the recounts it is given.
+     */
+    private void runRecounts() {
+        when(bookLikeCounter.recount(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+}
@@ -0,0 +1,156 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.dto.BookSuggestionDTO;
+import com.vibebooks.api.dto.BookSuggestionDTO.SuggestionType;
+import com.vibebooks.api.model.Book;
+import com.vibebooks.api.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BookSuggestionIndex}.
+ * Verifies prefix matching on normalized titles and authors, incremental updates, the bounded
+ * number of postings per book, and that suggestions never hit the repository.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookSuggestionIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookSuggestionIndex bookSuggestionIndex;
+
+    private Book hobbit;
+
+    @BeforeEach
+    void setup() {
+        hobbit = book("The Hobbit", "J.R.R. Tolkien");
+    }
+
+    @Test
+    @DisplayName("Suggest: Should match any word of the title, ignoring case and accents")
+    void shouldMatchAnyWordPrefix() {
+        bookSuggestionIndex.put(hobbit);
+        bookSuggestionIndex.put(book("Memórias Póstumas de Brás Cubas", "Machado de Assis"));
+
+        List<BookSuggestionDTO> hob = bookSuggestionIndex.suggest("HOB", 10);
+        List<BookSuggestionDTO> memorias = bookSuggestionIndex.suggest("memorias po", 10);
+
+        assertEquals(1, hob.size());
+        assertEquals("The Hobbit", hob.getFirst().text());
+        assertEquals(SuggestionType.TITLE, hob.getFirst().type());
+        assertEquals("Memórias Póstumas de Brás Cubas", memorias.getFirst().text());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Suggest: Should return each author only once")
+    void shouldDeduplicateAuthors() {
+        bookSuggestionIndex.put(hobbit);
+        bookSuggestionIndex.put(book("The Silmarillion", "J.R.R. Tolkien"));
+
+        List<BookSuggestionDTO> result = bookSuggestionIndex.suggest("tolk", 10);
+
+        assertEquals(1, result.size());
+        assertEquals(SuggestionType.AUTHOR, result.getFirst().type());
+    }
+
+    @Test
+    @DisplayName("Suggest: Should respect the limit and ignore blank prefixes")
+    void shouldRespectLimitAndBlankPrefix() {
+        for (int i = 0; i < 5; i++) {
+            bookSuggestionIndex.put(book("Saga " + i, "Author " + i));
+        }
+
+        assertEquals(3, bookSuggestionIndex.suggest("saga", 3).size());
+        assertTrue(bookSuggestionIndex.suggest("   ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Update: Should replace old keys when a book is renamed or removed")
+    void shouldReplaceAndRemoveBooks() {
+        bookSuggestionIndex.put(hobbit);
+
+        hobbit.setTitle("There and Back Again");
+        bookSuggestionIndex.put(hobbit);
+
+        assertTrue(bookSuggestionIndex.suggest("hobbit", 10).isEmpty());
+        assertEquals(1, bookSuggestionIndex.suggest("back", 10).size());
+
+        bookSuggestionIndex.remove(hobbit.getId());
+
+        assertTrue(bookSuggestionIndex.suggest("back", 10).isEmpty());
+        assertTrue(bookSuggestionIndex.suggest("tolkien", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Suggest: Should match several words in a row, in alphabetical order of the matched text")
+    void shouldMatchConsecutiveWordsInOrder() {
+        bookSuggestionIndex.put(book("The Lord of the Rings", "J.R.R. Tolkien"));
+        bookSuggestionIndex.put(book("Rings of Saturn", "W. G. Sebald"));
+        bookSuggestionIndex.put(book("Lord Jim", "Joseph Conrad"));
+
+        List<BookSuggestionDTO> lordOf = bookSuggestionIndex.suggest("lord of", 10);
+        List<BookSuggestionDTO> ofThe = bookSuggestionIndex.suggest("of the r", 10);
+        List<BookSuggestionDTO> rings = bookSuggestionIndex.suggest("rings", 10);
+
+        assertEquals(List.of("The Lord of the Rings"), lordOf.stream().map(BookSuggestionDTO::text).toList());
+        assertEquals(List.of("The Lord of the Rings"), ofThe.stream().map(BookSuggestionDTO::text).toList());
+        assertEquals(List.of("The Lord of the Rings", "Rings of Saturn"), rings.stream().map(BookSuggestionDTO::text).toList());
+    }
+
+    @Test
+    @DisplayName("Memory: Should store each word once and at most 8 postings per title or author")
+    void shouldBoundMemoryPerBook() {
+        String longTitle = String.join(" ", Collections.nCopies(5, "a very long title with many words"));
+        for (int i = 0; i < 100; i++) {
+            bookSuggestionIndex.put(book(longTitle + " " + i, "Same Author"));
+        }
+
+        BookSuggestionIndex.Stats stats = bookSuggestionIndex.getStats();
+
+        assertEquals(100, stats.books());
+        assertEquals(100 * (BookSuggestionIndex.MAX_WORDS_INDEXED + 2), stats.postings());
+        assertEquals(7 + 2, stats.words());
+        assertTrue(bookSuggestionIndex.suggest("99", 10).isEmpty());
+
+        for (int i = 0; i < 100; i++) {
+            bookSuggestionIndex.remove(bookSuggestionIndex.suggest("author", 1).getFirst().bookId());
+        }
+        assertEquals(new BookSuggestionIndex.Stats(0, 0, 0), bookSuggestionIndex.getStats());
+    }
+
+    @Test
+    @DisplayName("Rebuild: Should load every book from the repository")
+    void shouldRebuildFromRepository() {
+        BookRepository.BookTitleAuthor row = mock(BookRepository.BookTitleAuthor.class);
+        when(row.getId()).thenReturn(hobbit.getId());
+        when(row.getTitle()).thenReturn(hobbit.getTitle());
+        when(row.getAuthor()).thenReturn(hobbit.getAuthor());
+        when(bookRepository.streamAllTitlesAndAuthors()).thenReturn(Stream.of(row));
+
+        bookSuggestionIndex.rebuild();
+
+        assertEquals(hobbit.getId(), bookSuggestionIndex.suggest("hobbit", 10).getFirst().bookId());
+    }
+
+    private Book book(String title, String author) {
+        Book book = new Book(title, author);
+        book.setId(UUID.randomUUID());
+        return book;
+    }
+}
@@ -0,0 +1,61 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.repository.CommentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CommentLikesReconciler}.
+ * Verifies that the comments are walked in chunks, each repaired in its own transaction.
+ */
+@ExtendWith(MockitoExtension.class)
+class CommentLikesReconcilerTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Reconcile: Should repair every chunk and continue after the last ID of each")
+    void shouldReconcileInChunks() {
+        UUID first = new UUID(0, 0);
+        List<UUID> chunk1 = List.of(new UUID(0, 1), new UUID(0, 2));
+        List<UUID> chunk2 = List.of(new UUID(0, 3));
+        when(commentRepository.findIdsAfter(first, Limit.of(2))).thenReturn(chunk1);
+        when(commentRepository.findIdsAfter(new UUID(0, 2), Limit.of(2))).thenReturn(chunk2);
+        when(commentRepository.findIdsAfter(new UUID(0, 3), Limit.of(2))).thenReturn(List.of());
+        when(commentRepository.reconcileLikes(chunk1)).thenReturn(1);
+        when(commentRepository.reconcileLikes(chunk2)).thenReturn(0);
+
+        int repaired = new CommentLikesReconciler(commentRepository, transactionManager, 2).reconcileAll();
+
+        assertEquals(1, repaired);
+        verify(commentRepository, times(2)).reconcileLikes(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Reconcile: Should do nothing when there are no comments")
+    void shouldDoNothingWithoutComments() {
+        when(commentRepository.findIdsAfter(any(), any())).thenReturn(List.of());
+
+        int repaired = new CommentLikesReconciler(commentRepository, transactionManager, 100).reconcileAll();
+
+        assertEquals(0, repaired);
+        verify(commentRepository, never()).reconcileLikes(any());
+    }
+}
@@ -2,14 +2,16 @@ package com.vibebooks.api.service;
 
 import com.vibebooks.api.dto.CommentCreationDTO;
 import com.vibebooks.api.dto.CommentDetailsDTO;
+import com.vibebooks.api.dto.CursorSliceDTO;
 import com.vibebooks.api.dto.PageResponseDTO;
 import com.vibebooks.api.model.Book;
 import com.vibebooks.api.model.Comment;
-import com.vibebooks.api.model.CommentLike;
+import com.vibebooks.api.model.CountMode;
 import com.vibebooks.api.model.User;
 import com.vibebooks.api.repository.BookRepository;
 import com.vibebooks.api.repository.CommentLikeRepository;
 import com.vibebooks.api.repository.CommentRepository;
+import com.vibebooks.api.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,21 +19,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -50,6 +55,15 @@ class CommentServiceTest {
     @Mock
     private CommentLikeRepository commentLikeRepository;
 
+    @Mock
+    private BookStatsService bookStatsService;
+
+    @Mock
+    private CommentDetailsAssembler commentDetailsAssembler;
+
+    @Mock
+    private PageCountService pageCountService;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -82,13 +96,15 @@ class CommentServiceTest {
     void shouldAddCommentSuccessfully() {
         CommentCreationDTO dto = new CommentCreationDTO("Great book!", bookId);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(validBook));
-        when(commentRepository.save(any(Comment.class))).thenAnswer(i -> i.getArgument(0));
+        when(commentRepository.saveAndFlush(any(Comment.class))).thenAnswer(i -> i.getArgument(0));
 
         Comment result = commentService.addCommentToBook(dto, loggedInUser);
 
         assertNotNull(result);
         assertEquals("Great book!", result.getText());
-        verify(commentRepository, times(1)).save(any(Comment.class));
+        verify(commentRepository, times(1)).saveAndFlush(any(Comment.class));
+        verify(bookStatsService).recordComment(bookId, true);
+        verify(pageCountService).invalidate("comments:" + bookId);
     }
 
     @Test
@@ -100,40 +116,76 @@ class CommentServiceTest {
         ResponseStatusException ex = assertThrows(ResponseStatusException.class,
                 () -> commentService.addCommentToBook(dto, loggedInUser));
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
-        verify(commentRepository, never()).save(any());
+        verify(commentRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(bookStatsService);
     }
 
     @Test
-    @DisplayName("Find: Should return paginated comments")
+    @DisplayName("Find: Should return paginated comments assembled in batch")
     void shouldFindCommentsByBookId() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Comment> commentPage = new PageImpl<>(List.of(validComment));
+        Slice<Comment> commentSlice = new SliceImpl<>(List.of(validComment), pageable, false);
 
-        when(bookRepository.existsById(bookId)).thenReturn(true);
-        when(commentRepository.findAllByBookId(bookId, pageable)).thenReturn(commentPage);
-        when(commentLikeRepository.countByCommentId(commentId)).thenReturn(5L);
-        when(commentLikeRepository.findByUserIdAndCommentId(loggedInUser.getId(), commentId))
-                .thenReturn(Optional.of(new CommentLike()));
+        when(bookRepository.findTitleById(bookId)).thenReturn(Optional.of("The Hobbit"));
+        when(commentRepository.findAllByBookId(bookId, pageable)).thenReturn(commentSlice);
+        when(pageCountService.count(eq(CountMode.CACHED), eq("comments:" + bookId), any(), any())).thenReturn(1L);
+        when(commentDetailsAssembler.assemble(List.of(validComment), Map.of(bookId, "The Hobbit"), loggedInUser))
+                .thenReturn(List.of(new CommentDetailsDTO(validComment, "The Hobbit", 5L, true)));
 
-        PageResponseDTO<CommentDetailsDTO> result = commentService.findCommentsByBookId(bookId, loggedInUser, pageable);
+        PageResponseDTO<CommentDetailsDTO> result = commentService.findCommentsByBookId(bookId, loggedInUser, pageable, CountMode.CACHED);
 
         assertNotNull(result);
         assertFalse(result.content().isEmpty());
+        assertEquals(1L, result.totalElements());
+        assertFalse(result.hasNext());
         assertEquals(5L, result.content().getFirst().likesCount());
         assertTrue(result.content().getFirst().likedByCurrentUser());
+        verify(commentLikeRepository, never()).findByUserIdAndCommentId(any(), any());
     }
 
     @Test
     @DisplayName("Find: Should fail when book does not exist")
     void shouldFailToFindCommentsWhenBookNotFound() {
         Pageable pageable = PageRequest.of(0, 10);
-        when(bookRepository.existsById(bookId)).thenReturn(false);
+        when(bookRepository.findTitleById(bookId)).thenReturn(Optional.empty());
 
         ResponseStatusException ex = assertThrows(ResponseStatusException.class,
-                () -> commentService.findCommentsByBookId(bookId, loggedInUser, pageable));
+                () -> commentService.findCommentsByBookId(bookId, loggedInUser, pageable, CountMode.EXACT));
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Scroll: Should return one slice and the cursor of the next one")
+    void shouldScrollCommentsWithCursor() {
+        Comment older = new Comment("Older", loggedInUser, validBook);
+        ReflectionTestUtils.setField(older, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(older, "createdAt", validComment.getCreatedAt().minusMinutes(1));
+        String cursor = CursorCodec.encode(validComment.getCreatedAt().plusMinutes(1), UUID.randomUUID());
+        CursorCodec.Position position = CursorCodec.decode(cursor);
+
+        when(bookRepository.findTitleById(bookId)).thenReturn(Optional.of("The Hobbit"));
+        when(commentRepository.findByBookIdBefore(bookId, position.createdAt(), position.id(), Limit.of(2)))
+                .thenReturn(List.of(validComment, older));
+        when(commentDetailsAssembler.assemble(List.of(validComment), Map.of(bookId, "The Hobbit"), loggedInUser))
+                .thenReturn(List.of(new CommentDetailsDTO(validComment, 0, false)));
+
+        CursorSliceDTO<CommentDetailsDTO> slice = commentService.findCommentsByBookIdAfter(bookId, cursor, 1, loggedInUser);
+
+        assertEquals(1, slice.content().size());
+        assertEquals(commentId, CursorCodec.decode(slice.nextCursor()).id());
+        verify(commentRepository, never()).findAllByBookId(any(), any());
+    }
+
+    @Test
+    @DisplayName("Scroll: Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        when(bookRepository.findTitleById(bookId)).thenReturn(Optional.of("The Hobbit"));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentService.findCommentsByBookIdAfter(bookId, "not-a-cursor", 5, loggedInUser));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
     @Test
     @DisplayName("Delete: Should delete comment successfully")
     void shouldDeleteCommentSuccessfully() {
@@ -143,6 +195,8 @@ class CommentServiceTest {
 
         verify(commentLikeRepository, times(1)).deleteAll(any());
         verify(commentRepository, times(1)).delete(validComment);
+        verify(bookStatsService).recordComment(bookId, false);
+        verify(pageCountService).invalidate("comments:" + bookId);
     }
 
     @Test
@@ -163,29 +217,67 @@ class CommentServiceTest {
     @DisplayName("Like: Should add like to comment")
     void shouldLikeCommentSuccessfully() {
         when(commentRepository.findById(commentId)).thenReturn(Optional.of(validComment));
-        when(commentLikeRepository.findByUserIdAndCommentId(loggedInUser.getId(), commentId)).thenReturn(Optional.empty());
-        when(commentLikeRepository.countByCommentId(commentId)).thenReturn(1L);
+        when(commentLikeRepository.toggleLike(loggedInUser.getId(), commentId)).thenReturn(toggle(true, true, 1L));
 
         CommentDetailsDTO result = commentService.likeOrUnlikeComment(commentId, loggedInUser);
 
         assertTrue(result.likedByCurrentUser());
         assertEquals(1L, result.likesCount());
-        verify(commentLikeRepository, times(1)).save(any(CommentLike.class));
+        verify(commentLikeRepository, times(1)).toggleLike(loggedInUser.getId(), commentId);
     }
 
     @Test
     @DisplayName("Unlike: Should remove like from comment")
     void shouldUnlikeCommentSuccessfully() {
-        CommentLike existingLike = new CommentLike(loggedInUser, validComment);
-
         when(commentRepository.findById(commentId)).thenReturn(Optional.of(validComment));
-        when(commentLikeRepository.findByUserIdAndCommentId(loggedInUser.getId(), commentId)).thenReturn(Optional.of(existingLike));
-        when(commentLikeRepository.countByCommentId(commentId)).thenReturn(0L);
+        when(commentLikeRepository.toggleLike(loggedInUser.getId(), commentId)).thenReturn(toggle(true, false, 0L));
 
         CommentDetailsDTO result = commentService.likeOrUnlikeComment(commentId, loggedInUser);
 
         assertFalse(result.likedByCurrentUser());
         assertEquals(0L, result.likesCount());
-        verify(commentLikeRepository, times(1)).delete(existingLike);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Like: Should toggle again when a concurrent toggle inserted the same like first")
+    void shouldRetryWhenConcurrentLikeWon() {
+        when(commentRepository.findById(commentId)).thenReturn(Optional.of(validComment));
+        when(commentLikeRepository.toggleLike(loggedInUser.getId(), commentId))
+                .thenReturn(toggle(false, false, null), toggle(true, false, 0L));
+
+        CommentDetailsDTO result = commentService.likeOrUnlikeComment(commentId, loggedInUser);
+
+        assertFalse(result.likedByCurrentUser());
+        verify(commentLikeRepository, times(2)).toggleLike(loggedInUser.getId(), commentId);
+    }
+
+    @Test
+    @DisplayName("Like: Should return 409 when both attempts lose to concurrent toggles")
+    void shouldFailWhenTogglesKeepConflicting() {
+        when(commentRepository.findById(commentId)).thenReturn(Optional.of(validComment));
+        when(commentLikeRepository.toggleLike(loggedInUser.getId(), commentId)).thenReturn(toggle(false, false, null));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentService.likeOrUnlikeComment(commentId, loggedInUser));
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+    }
+
+    private static CommentLikeRepository.LikeToggle toggle(boolean toggled, boolean liked, Long likesCount) {
+        return new CommentLikeRepository.LikeToggle() {
+            @Override
+            public boolean getToggled() {
+                return toggled;
+            }
+
+            @Override
+            public boolean getLiked() {
+                return liked;
+            }
+
+            @Override
+            public Long getLikesCount() {
+                return likesCount;
+            }
+        };
+    }
+}
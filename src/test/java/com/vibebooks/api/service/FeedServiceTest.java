@@ -1,28 +1,40 @@
 package com.vibebooks.api.service;
 
 import com.vibebooks.api.dto.BookFeedDTO;
+import com.vibebooks.api.dto.CursorSliceDTO;
 import com.vibebooks.api.dto.PageResponseDTO;
 import com.vibebooks.api.model.*;
 import com.vibebooks.api.repository.BookRepository;
 import com.vibebooks.api.repository.CommentLikeRepository;
 import com.vibebooks.api.repository.CommentRepository;
 import com.vibebooks.api.repository.UserBookStatusRepository;
+import com.vibebooks.api.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -41,8 +53,13 @@ class FeedServiceTest {
     private CommentLikeRepository commentLikeRepository;
     @Mock
     private UserBookStatusRepository userBookStatusRepository;
+    @Mock
+    private BookStatsService bookStatsService;
+    @Mock
+    private PageCountService pageCountService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
     private FeedService feedService;
 
     private User loggedInUser;
@@ -51,6 +68,8 @@ class FeedServiceTest {
 
     @BeforeEach
     void setup() {
+        feedService = feedService(true, Duration.ofSeconds(2));
+
         loggedInUser = new User();
         loggedInUser.setId(UUID.randomUUID());
 
@@ -60,6 +79,7 @@ class FeedServiceTest {
 
         validComment = new Comment("Great!", loggedInUser, validBook);
         validComment.setId(UUID.randomUUID());
+        validComment.setCreatedAt(OffsetDateTime.now());
     }
 
     /**
@@ -70,7 +90,7 @@ class FeedServiceTest {
     @DisplayName("GetFeed: Should return feed with user interactions")
     void shouldReturnFeedForAuthenticatedUser() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> bookPage = new PageImpl<>(List.of(validBook));
+        Slice<Book> bookSlice = new SliceImpl<>(List.of(validBook), pageable, false);
         List<UUID> bookIds = List.of(validBook.getId());
         List<UUID> commentIds = List.of(validComment.getId());
 
@@ -82,36 +102,33 @@ class FeedServiceTest {
         status.setSentiment(BookSentiment.INSPIRING);
 
         // Mocks for Book
-        when(bookRepository.findAll(pageable)).thenReturn(bookPage);
-
-        UserBookStatusRepository.BookLikeCount bookLikeMock = mock(UserBookStatusRepository.BookLikeCount.class);
-        when(bookLikeMock.getBookId()).thenReturn(validBook.getId());
-        when(bookLikeMock.getCount()).thenReturn(5L);
-        when(userBookStatusRepository.countLikesByBookIdIn(bookIds)).thenReturn(List.of(bookLikeMock));
+        when(bookRepository.findAllBy(byIdDesc(pageable))).thenReturn(bookSlice);
 
-        UserBookStatusRepository.BookSentimentAggregation sentimentMock = mock(UserBookStatusRepository.BookSentimentAggregation.class);
-        when(sentimentMock.getBookId()).thenReturn(validBook.getId());
-        when(sentimentMock.getSentiment()).thenReturn(BookSentiment.INSPIRING);
-        when(sentimentMock.getCount()).thenReturn(2L);
-        when(userBookStatusRepository.countSentimentsByBookIdIn(bookIds)).thenReturn(List.of(sentimentMock));
+        BookStats stats = new BookStats(validBook.getId());
+        stats.setLikesCount(5L);
+        stats.setInspiringCount(2L);
+        stats.setCommentsCount(1L);
+        when(bookStatsService.getStats(bookIds)).thenReturn(Map.of(validBook.getId(), stats));
 
         when(userBookStatusRepository.findAllByUserIdAndBookIdIn(loggedInUser.getId(), bookIds)).thenReturn(List.of(status));
 
         // Mocks for Comment
-        when(commentRepository.findAllByBookIdIn(bookIds)).thenReturn(List.of(validComment));
+        when(commentRepository.findLatestByBookIdIn(bookIds, 2)).thenReturn(List.of(validComment));
 
-        CommentLikeRepository.CommentLikeCount commentLikeMock = mock(CommentLikeRepository.CommentLikeCount.class);
-        when(commentLikeMock.getCommentId()).thenReturn(validComment.getId());
-        when(commentLikeMock.getCount()).thenReturn(10L);
-        when(commentLikeRepository.countLikesByCommentIdIn(commentIds)).thenReturn(List.of(commentLikeMock));
+        validComment.setLikesCount(10L);
 
         CommentLike cl = new CommentLike(loggedInUser, validComment);
         when(commentLikeRepository.findAllByUserIdAndCommentIdIn(loggedInUser.getId(), commentIds)).thenReturn(List.of(cl));
 
-        PageResponseDTO<BookFeedDTO> result = feedService.getBookFeed(pageable, loggedInUser);
+        when(pageCountService.count(eq(CountMode.ESTIMATED), eq(PageCountService.BOOKS), any(), any())).thenReturn(1L);
+
+        PageResponseDTO<BookFeedDTO> result = feedService.getBookFeed(pageable, CountMode.ESTIMATED, loggedInUser);
 
         assertNotNull(result);
         assertEquals(1, result.content().size());
+        assertEquals(1L, result.totalElements());
+        assertEquals(1, result.totalPages());
+        assertFalse(result.hasNext());
 
         BookFeedDTO feedDTO = result.content().getFirst();
         assertEquals("Feed Book", feedDTO.title());
@@ -121,6 +138,8 @@ class FeedServiceTest {
         assertEquals(BookSentiment.INSPIRING, feedDTO.sentiment());
 
         assertEquals(1, feedDTO.comments().size());
+        assertEquals(1L, feedDTO.commentsCount());
+        assertNull(feedDTO.commentsCursor());
         assertEquals(10L, feedDTO.comments().getFirst().likesCount());
         assertTrue(feedDTO.comments().getFirst().likedByCurrentUser());
         assertEquals(2L, feedDTO.sentimentCounts().get(BookSentiment.INSPIRING));
@@ -134,22 +153,23 @@ class FeedServiceTest {
     @DisplayName("GetFeed: Should return feed without user interactions when not logged in")
     void shouldReturnFeedForAnonymousUser() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> bookPage = new PageImpl<>(List.of(validBook));
+        Slice<Book> bookSlice = new SliceImpl<>(List.of(validBook), pageable, false);
         List<UUID> bookIds = List.of(validBook.getId());
 
-        when(bookRepository.findAll(pageable)).thenReturn(bookPage);
+        when(bookRepository.findAllBy(byIdDesc(pageable))).thenReturn(bookSlice);
 
-        UserBookStatusRepository.BookLikeCount bookLikeMock = mock(UserBookStatusRepository.BookLikeCount.class);
-        when(bookLikeMock.getBookId()).thenReturn(validBook.getId());
-        when(bookLikeMock.getCount()).thenReturn(3L);
-        when(userBookStatusRepository.countLikesByBookIdIn(bookIds)).thenReturn(List.of(bookLikeMock));
+        BookStats stats = new BookStats(validBook.getId());
+        stats.setLikesCount(3L);
+        when(bookStatsService.getStats(bookIds)).thenReturn(Map.of(validBook.getId(), stats));
+        when(commentRepository.findLatestByBookIdIn(bookIds, 2)).thenReturn(List.of());
 
-        when(userBookStatusRepository.countSentimentsByBookIdIn(bookIds)).thenReturn(List.of());
-        when(commentRepository.findAllByBookIdIn(bookIds)).thenReturn(List.of());
+        when(pageCountService.count(eq(CountMode.NONE), any(), any(), any())).thenReturn(null);
 
-        PageResponseDTO<BookFeedDTO> result = feedService.getBookFeed(pageable, null);
+        PageResponseDTO<BookFeedDTO> result = feedService.getBookFeed(pageable, CountMode.NONE, null);
 
         assertNotNull(result);
+        assertNull(result.totalElements());
+        assertNull(result.totalPages());
         BookFeedDTO feedDTO = result.content().getFirst();
         assertEquals("Feed Book", feedDTO.title());
         assertFalse(feedDTO.likedByCurrentUser());
@@ -158,4 +178,196 @@ class FeedServiceTest {
         assertNull(feedDTO.sentiment());
         assertTrue(feedDTO.comments().isEmpty());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that only the latest comments are embedded and that a cursor is returned
+     * when the book has more comments than the ones shown.
+     */
+    @Test
+    @DisplayName("GetFeed: Should embed the latest comments and a cursor for the rest")
+    void shouldReturnCursorWhenBookHasMoreComments() {
+        Pageable pageable = PageRequest.of(0, 10);
+        List<UUID> bookIds = List.of(validBook.getId());
+        Comment older = new Comment("Older", loggedInUser, validBook);
+        older.setId(UUID.randomUUID());
+        older.setCreatedAt(validComment.getCreatedAt().minusMinutes(5));
+
+        when(bookRepository.findAllBy(byIdDesc(pageable))).thenReturn(new SliceImpl<>(List.of(validBook), pageable, false));
+        BookStats stats = new BookStats(validBook.getId());
+        stats.setCommentsCount(5000L);
+        when(bookStatsService.getStats(bookIds)).thenReturn(Map.of(validBook.getId(), stats));
+        when(commentRepository.findLatestByBookIdIn(bookIds, 2)).thenReturn(List.of(validComment, older));
+
+        BookFeedDTO feedDTO = feedService.getBookFeed(pageable, CountMode.NONE, null).content().getFirst();
+
+        assertEquals(2, feedDTO.comments().size());
+        assertEquals(5000L, feedDTO.commentsCount());
+        CursorCodec.Position position = CursorCodec.decode(feedDTO.commentsCursor());
+        assertEquals(older.getId(), position.id());
+        assertEquals(older.getCreatedAt().toInstant(), position.createdAt().toInstant());
+        verify(commentRepository, never()).findAllByBookIdIn(any());
+    }
+
+    /**
+     * Tests that the cursor feed reads the slice through the keyset query, without a count query,
+     * and returns the cursor of the last book when more books exist.
+     */
+    @Test
+    @DisplayName("ScrollFeed: Should read the slice after the cursor without counting")
+    void shouldScrollFeedAfterCursor() {
+        validBook.setCreatedAt(OffsetDateTime.now());
+        Book older = new Book("Older", "Author");
+        older.setId(UUID.randomUUID());
+        older.setCreatedAt(validBook.getCreatedAt().minusSeconds(1));
+        String cursor = CursorCodec.encode(validBook.getCreatedAt().plusSeconds(1), UUID.randomUUID());
+        CursorCodec.Position position = CursorCodec.decode(cursor);
+        List<UUID> bookIds = List.of(validBook.getId());
+
+        when(bookRepository.findAfter(position.createdAt(), position.id(), Limit.of(2))).thenReturn(List.of(validBook, older));
+        when(bookStatsService.getStats(bookIds)).thenReturn(Map.of(validBook.getId(), new BookStats(validBook.getId())));
+        when(commentRepository.findLatestByBookIdIn(bookIds, 2)).thenReturn(List.of());
+
+        CursorSliceDTO<BookFeedDTO> slice = feedService.getBookFeedAfter(cursor, 1, null);
+
+        assertEquals(1, slice.content().size());
+        assertEquals("Feed Book", slice.content().getFirst().title());
+        assertEquals(validBook.getId(), CursorCodec.decode(slice.nextCursor()).id());
+        verify(bookRepository, never()).findAll(any(Pageable.class));
+    }
+
+    /**
+     * Tests that running the stages one after the other gives the same feed.
+     */
+    @Test
+    @DisplayName("GetFeed: Should return the same feed with sequential stages")
+    void shouldReturnFeedWithSequentialStages() {
+        feedService = feedService(false, Duration.ofSeconds(2));
+        Pageable pageable = PageRequest.of(0, 10);
+        List<UUID> bookIds = List.of(validBook.getId());
+        BookStats stats = new BookStats(validBook.getId());
+        stats.setLikesCount(3L);
+
+        when(bookRepository.findAllBy(byIdDesc(pageable))).thenReturn(new SliceImpl<>(List.of(validBook), pageable, false));
+        when(bookStatsService.getStats(bookIds)).thenReturn(Map.of(validBook.getId(), stats));
+        when(commentRepository.findLatestByBookIdIn(bookIds, 2)).thenReturn(List.of());
+        when(pageCountService.count(eq(CountMode.EXACT), any(), any(), any())).thenReturn(1L);
+
+        PageResponseDTO<BookFeedDTO> result = feedService.getBookFeed(pageable, CountMode.EXACT, null);
+
+        assertEquals(1L, result.totalElements());
+        assertEquals(3L, result.content().getFirst().likesCount());
+    }
+
+    /**
+     * Tests that the failure of one stage fails the whole feed with the stage's exception.
+     */
+    @Test
+    @DisplayName("GetFeed: Should propagate the failure of a stage")
+    void shouldPropagateStageFailure() {
+        Pageable pageable = PageRequest.of(0, 10);
+        List<UUID> bookIds = List.of(validBook.getId());
+
+        when(bookRepository.findAllBy(byIdDesc(pageable))).thenReturn(new SliceImpl<>(List.of(validBook), pageable, false));
+        when(bookStatsService.getStats(bookIds)).thenThrow(new IllegalStateException("stats unavailable"));
+        lenient().when(commentRepository.findLatestByBookIdIn(bookIds, 2)).thenReturn(List.of());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> feedService.getBookFeed(pageable, CountMode.NONE, null));
+        assertEquals("stats unavailable", exception.getMessage());
+    }
+
+    /**
+     * Tests that a stage slower than the stage timeout is cancelled and the feed fails with 503
+     * instead of waiting for it.
+     */
+    @Test
+    @DisplayName("GetFeed: Should fail with 503 when a stage exceeds the timeout")
+    void shouldFailWhenStageTimesOut() {
+        feedService = feedService(true, Duration.ofMillis(100));
+        Pageable pageable = PageRequest.of(0, 10);
+        List<UUID> bookIds = List.of(validBook.getId());
+
+        when(bookRepository.findAllBy(byIdDesc(pageable))).thenReturn(new SliceImpl<>(List.of(validBook), pageable, false));
+        when(bookStatsService.getStats(bookIds)).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return Map.of();
+        });
+        lenient().when(commentRepository.findLatestByBookIdIn(bookIds, 2)).thenReturn(List.of());
+
+        long start = System.nanoTime();
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> feedService.getBookFeed(pageable, CountMode.NONE, null));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    }
+
+    /**
+     * Tests that the total and the three stages of a logged-in feed share one scope
+     * and never run more than the configured number at once.
+     */
+    @Test
+    @DisplayName("GetFeed: Should never run more stages at once than the configured maximum")
+    void shouldCapConcurrentStages() {
+        feedService = feedService(true, 2, Duration.ofSeconds(2));
+        Pageable pageable = PageRequest.of(0, 10);
+        List<UUID> bookIds = List.of(validBook.getId());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        when(bookRepository.findAllBy(byIdDesc(pageable))).thenReturn(new SliceImpl<>(List.of(validBook), pageable, false));
+        when(pageCountService.count(eq(CountMode.EXACT), any(), any(), any()))
+                .thenAnswer(invocation -> stage(running, maxRunning, 1L));
+        when(bookStatsService.getStats(bookIds))
+                .thenAnswer(invocation -> stage(running, maxRunning, Map.of(validBook.getId(), new BookStats(validBook.getId()))));
+        when(userBookStatusRepository.findAllByUserIdAndBookIdIn(loggedInUser.getId(), bookIds))
+                .thenAnswer(invocation -> stage(running, maxRunning, List.of()));
+        when(commentRepository.findLatestByBookIdIn(bookIds, 2))
+                .thenAnswer(invocation -> stage(running, maxRunning, List.of()));
+
+        PageResponseDTO<BookFeedDTO> result = feedService.getBookFeed(pageable, CountMode.EXACT, loggedInUser);
+
+        assertEquals(1L, result.totalElements());
+        assertEquals(2, maxRunning.get());
+    }
+
+    /**
+     * Tests that the requested sort gets the ID as tie-breaker, as the SQL engine orders it,
+     * unless it already sorts by ID.
+     */
+    @Test
+    @DisplayName("GetFeed: Should break sort ties by ID descending, as the SQL engine does")
+    void shouldBreakTiesById() {
+        Pageable byDate = PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Pageable byDateThenId = PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
+        Pageable byId = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        when(bookRepository.findAllBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(), byDate, false));
+
+        feedService.getBookFeed(byDate, CountMode.NONE, null);
+        feedService.getBookFeed(byId, CountMode.NONE, null);
+
+        verify(bookRepository).findAllBy(byDateThenId);
+        verify(bookRepository).findAllBy(byId);
+    }
+
+    private static Pageable byIdDesc(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    private static <T> T stage(AtomicInteger running, AtomicInteger maxRunning, T result) throws InterruptedException {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(50);
+        running.decrementAndGet();
+        return result;
+    }
+
+    private FeedService feedService(boolean parallelStages, Duration stageTimeout) {
+        return feedService(parallelStages, 4, stageTimeout);
+    }
+
+    private FeedService feedService(boolean parallelStages, int maxConcurrentStages, Duration stageTimeout) {
+        return new FeedService(bookRepository, commentRepository, userBookStatusRepository, bookStatsService,
+                new CommentDetailsAssembler(commentLikeRepository), pageCountService, transactionManager,
+                2, parallelStages, maxConcurrentStages, stageTimeout);
+    }
+}
@@ -0,0 +1,251 @@
+package com.vibebooks.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibebooks.api.client.GoogleBooksClient;
+import com.vibebooks.api.dto.google.VolumeInfo;
+import com.vibebooks.api.model.IsbnMetadata;
+import com.vibebooks.api.repository.IsbnMetadataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link IsbnMetadataCache}.
+ * Verifies the memory and database tiers, negative entries, TTL expiry, call coalescing, best-effort persistence
+ * and statistics.
+ */
+@ExtendWith(MockitoExtension.class)
+class IsbnMetadataCacheTest {
+
+    private static final String ISBN = "9780261103344";
+    private static final Duration TTL = Duration.ofDays(30);
+    private static final Duration NEGATIVE_TTL = Duration.ofHours(6);
+
+    @Mock
+    private GoogleBooksClient googleBooksClient;
+
+    @Mock
+    private IsbnMetadataRepository isbnMetadataRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final VolumeInfo hobbit = new VolumeInfo("The Hobbit", List.of("J.R.R. Tolkien"), "1937", null);
+
+    private IsbnMetadataCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new IsbnMetadataCache(googleBooksClient, isbnMetadataRepository, objectMapper, 2, TTL, NEGATIVE_TTL, clock);
+    }
+
+    @Test
+    @DisplayName("Miss: Should call Google once and serve later lookups from memory")
+    void shouldCacheFoundVolumeInMemoryAndDatabase() {
+        when(isbnMetadataRepository.findById(ISBN)).thenReturn(Optional.empty());
+        when(googleBooksClient.findByIsbn(ISBN)).thenReturn(CompletableFuture.completedFuture(Optional.of(hobbit)));
+
+        assertEquals(hobbit, cache.fetchByIsbn(ISBN));
+        assertEquals(hobbit, cache.fetchByIsbn(ISBN));
+
+        verify(googleBooksClient, times(1)).findByIsbn(ISBN);
+        verify(isbnMetadataRepository, times(1)).findById(ISBN);
+        ArgumentCaptor<IsbnMetadata> saved = ArgumentCaptor.forClass(IsbnMetadata.class);
+        verify(isbnMetadataRepository).save(saved.capture());
+        assertTrue(saved.getValue().isFound());
+        assertEquals(clock.instant(), saved.getValue().getFetchedAt());
+
+        IsbnMetadataCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.memoryHits());
+        assertEquals(0.5, stats.hitRatio());
+    }
+
+    @Test
+    @DisplayName("Database: Should serve fresh persisted entries without calling Google")
+    void shouldServeFromDatabaseTier() throws Exception {
+        IsbnMetadata stored = new IsbnMetadata(ISBN, objectMapper.writeValueAsString(hobbit), clock.instant().minus(Duration.ofDays(1)));
+        when(isbnMetadataRepository.findById(ISBN)).thenReturn(Optional.of(stored));
+
+        assertEquals(hobbit, cache.fetchByIsbn(ISBN));
+        assertEquals(hobbit, cache.fetchByIsbn(ISBN));
+
+        verifyNoInteractions(googleBooksClient);
+        verify(isbnMetadataRepository, times(1)).findById(ISBN);
+        assertEquals(1, cache.getStats().databaseHits());
+        assertEquals(1, cache.getStats().memoryHits());
+    }
+
+    @Test
+    @DisplayName("Negative: Should cache not-found answers until the negative TTL passes")
+    void shouldCacheNotFoundWithShortTtl() {
+        when(isbnMetadataRepository.findById(ISBN)).thenReturn(Optional.empty());
+        when(googleBooksClient.findByIsbn(ISBN)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class, () -> cache.fetchByIsbn(ISBN)).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class, () -> cache.fetchByIsbn(ISBN)).getStatusCode());
+        verify(googleBooksClient, times(1)).findByIsbn(ISBN);
+        assertEquals(1, cache.getStats().negativeHits());
+
+        clock.advance(NEGATIVE_TTL.plusSeconds(1));
+        assertThrows(ResponseStatusException.class, () -> cache.fetchByIsbn(ISBN));
+        verify(googleBooksClient, times(2)).findByIsbn(ISBN);
+    }
+
+    @Test
+    @DisplayName("Expiry: Should ignore persisted entries older than the TTL")
+    void shouldRefetchExpiredDatabaseEntries() throws Exception {
+        IsbnMetadata stale = new IsbnMetadata(ISBN, objectMapper.writeValueAsString(hobbit), clock.instant().minus(TTL).minusSeconds(1));
+        when(isbnMetadataRepository.findById(ISBN)).thenReturn(Optional.of(stale));
+        when(googleBooksClient.findByIsbn(ISBN)).thenReturn(CompletableFuture.completedFuture(Optional.of(hobbit)));
+
+        cache.fetchByIsbn(ISBN);
+
+        verify(googleBooksClient, times(1)).findByIsbn(ISBN);
+        assertEquals(0, cache.getStats().databaseHits());
+    }
+
+    @Test
+    @DisplayName("Errors: Should not cache upstream failures")
+    void shouldNotCacheFailures() {
+        when(isbnMetadataRepository.findById(ISBN)).thenReturn(Optional.empty());
+        when(googleBooksClient.findByIsbn(ISBN))
+                .thenReturn(CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT)))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(hobbit)));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, assertThrows(ResponseStatusException.class, () -> cache.fetchByIsbn(ISBN)).getStatusCode());
+        assertEquals(hobbit, cache.fetchByIsbn(ISBN));
+
+        verify(isbnMetadataRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Persistence: Should answer every waiter even when the database tier cannot be written")
+    void shouldCompleteWaitersWhenPersistingFails() {
+        CompletableFuture<Optional<VolumeInfo>> upstream = new CompletableFuture<>();
+        when(isbnMetadataRepository.findById(ISBN)).thenReturn(Optional.empty());
+        when(googleBooksClient.findByIsbn(ISBN)).thenReturn(upstream);
+        when(isbnMetadataRepository.save(any()))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available, request timed out"));
+
+        CompletableFuture<Optional<VolumeInfo>> first = cache.findByIsbn(ISBN);
+        CompletableFuture<Optional<VolumeInfo>> second = cache.findByIsbn(ISBN);
+        upstream.complete(Optional.of(hobbit));
+
+        assertEquals(Optional.of(hobbit), first.orTimeout(1, TimeUnit.SECONDS).join());
+        assertEquals(Optional.of(hobbit), second.orTimeout(1, TimeUnit.SECONDS).join());
+        assertEquals(hobbit, cache.fetchByIsbn(ISBN));
+        verify(googleBooksClient, times(1)).findByIsbn(ISBN);
+    }
+
+    @Test
+    @DisplayName("Coalescing: Should share one Google call between concurrent lookups")
+    void shouldCoalesceConcurrentLookups() {
+        CompletableFuture<Optional<VolumeInfo>> upstream = new CompletableFuture<>();
+        when(isbnMetadataRepository.findById(ISBN)).thenReturn(Optional.empty());
+        when(googleBooksClient.findByIsbn(ISBN)).thenReturn(upstream);
+
+        CompletableFuture<Optional<VolumeInfo>> first = cache.findByIsbn(ISBN);
+        CompletableFuture<Optional<VolumeInfo>> second = cache.findByIsbn(ISBN);
+        upstream.complete(Optional.of(hobbit));
+
+        assertEquals(Optional.of(hobbit), first.join());
+        assertEquals(Optional.of(hobbit), second.join());
+        verify(googleBooksClient, times(1)).findByIsbn(ISBN);
+    }
+
+    @Test
+    @DisplayName("LRU: Should evict the least recently used entry beyond the memory limit")
+    void shouldEvictLeastRecentlyUsed() {
+        when(isbnMetadataRepository.findById(any())).thenReturn(Optional.empty());
+        when(googleBooksClient.findByIsbn(any())).thenReturn(CompletableFuture.completedFuture(Optional.of(hobbit)));
+
+        cache.fetchByIsbn("1");
+        cache.fetchByIsbn("2");
+        cache.fetchByIsbn("1");
+        cache.fetchByIsbn("3");
+
+        assertEquals(2, cache.getStats().memorySize());
+        cache.fetchByIsbn("1");
+        verify(googleBooksClient, times(1)).findByIsbn("1");
+        cache.fetchByIsbn("2");
+        verify(googleBooksClient, times(2)).findByIsbn("2");
+    }
+
+    @Test
+    @DisplayName("Metrics: Should publish hits by tier, negative hits, misses and the memory size")
+    void shouldPublishHitAndMissCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        when(isbnMetadataRepository.findById(ISBN)).thenReturn(Optional.empty());
+        when(isbnMetadataRepository.findById("0000000000")).thenReturn(Optional.of(new IsbnMetadata("0000000000", null, clock.instant())));
+        when(googleBooksClient.findByIsbn(ISBN)).thenReturn(CompletableFuture.completedFuture(Optional.of(hobbit)));
+
+        cache.fetchByIsbn(ISBN);
+        cache.fetchByIsbn(ISBN);
+        assertThrows(ResponseStatusException.class, () -> cache.fetchByIsbn("0000000000"));
+
+        assertEquals(1, registry.get("isbn.cache.hits").tag("tier", "memory").functionCounter().count());
+        assertEquals(1, registry.get("isbn.cache.hits").tag("tier", "database").functionCounter().count());
+        assertEquals(1, registry.get("isbn.cache.negative.hits").functionCounter().count());
+        assertEquals(1, registry.get("isbn.cache.misses").functionCounter().count());
+        assertEquals(2, registry.get("isbn.cache.memory.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Purge: Should delete expired rows using both TTLs")
+    void shouldPurgeWithBothTtls() {
+        cache.purgeExpired();
+
+        verify(isbnMetadataRepository).deleteExpired(clock.instant().minus(TTL), clock.instant().minus(NEGATIVE_TTL));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
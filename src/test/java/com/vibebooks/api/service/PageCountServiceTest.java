@@ -0,0 +1,173 @@
+package com.vibebooks.api.service;
+
+import com.vibebooks.api.model.CountMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PageCountService}.
+ * Verifies each count mode, TTL expiry, scope invalidation, the size bound and the planner estimate.
+ */
+@ExtendWith(MockitoExtension.class)
+class PageCountServiceTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final AtomicLong exactCalls = new AtomicLong();
+    private final LongSupplier exact = () -> {
+        exactCalls.incrementAndGet();
+        return 42;
+    };
+
+    private PageCountService pageCountService;
+
+    @BeforeEach
+    void setup() {
+        pageCountService = new PageCountService(jdbcTemplate, TTL, 2, clock);
+    }
+
+    @Test
+    @DisplayName("Exact: Should run the count on every call")
+    void shouldCountEveryTimeInExactMode() {
+        assertEquals(42L, pageCountService.count(CountMode.EXACT, PageCountService.BOOKS, exact, null));
+        assertEquals(42L, pageCountService.count(CountMode.EXACT, PageCountService.BOOKS, exact, null));
+
+        assertEquals(2, exactCalls.get());
+    }
+
+    @Test
+    @DisplayName("None: Should return no total without counting")
+    void shouldSkipCountInNoneMode() {
+        assertNull(pageCountService.count(CountMode.NONE, PageCountService.BOOKS, exact, () -> 7));
+
+        assertEquals(0, exactCalls.get());
+    }
+
+    @Test
+    @DisplayName("Cached: Should reuse the count until the TTL expires")
+    void shouldReuseCachedCountUntilExpiry() {
+        pageCountService.count(CountMode.CACHED, PageCountService.BOOKS, exact, null);
+        clock.advance(TTL.minusSeconds(1));
+        pageCountService.count(CountMode.CACHED, PageCountService.BOOKS, exact, null);
+        assertEquals(1, exactCalls.get());
+
+        clock.advance(Duration.ofSeconds(1));
+        pageCountService.count(CountMode.CACHED, PageCountService.BOOKS, exact, null);
+        assertEquals(2, exactCalls.get());
+    }
+
+    @Test
+    @DisplayName("Invalidate: Should drop every key of the scope and keep the others")
+    void shouldInvalidateWholeScope() {
+        UUID bookId = UUID.randomUUID();
+        String search = PageCountService.key(PageCountService.BOOKS, "TITLE", "hobbit");
+        String comments = PageCountService.key(PageCountService.COMMENTS, bookId);
+        pageCountService = new PageCountService(jdbcTemplate, TTL, 10, clock);
+        pageCountService.count(CountMode.CACHED, search, exact, null);
+        pageCountService.count(CountMode.CACHED, comments, exact, null);
+
+        pageCountService.invalidate(PageCountService.BOOKS);
+        pageCountService.count(CountMode.CACHED, search, exact, null);
+        pageCountService.count(CountMode.CACHED, comments, exact, null);
+
+        assertEquals(3, exactCalls.get());
+    }
+
+    @Test
+    @DisplayName("Cached: Should evict the least recently used count beyond the size bound")
+    void shouldBoundCachedEntries() {
+        pageCountService.count(CountMode.CACHED, "a", exact, null);
+        pageCountService.count(CountMode.CACHED, "b", exact, null);
+        pageCountService.count(CountMode.CACHED, "a", exact, null);
+        pageCountService.count(CountMode.CACHED, "c", exact, null);
+        assertEquals(3, exactCalls.get());
+
+        pageCountService.count(CountMode.CACHED, "a", exact, null);
+        assertEquals(3, exactCalls.get());
+        pageCountService.count(CountMode.CACHED, "b", exact, null);
+        assertEquals(4, exactCalls.get());
+    }
+
+    @Test
+    @DisplayName("Estimated: Should use the estimate, or fall back to a cached count when there is none")
+    void shouldPreferEstimateAndFallBackToCache() {
+        assertEquals(1000L, pageCountService.count(CountMode.ESTIMATED, PageCountService.BOOKS, exact, () -> 1000));
+        assertEquals(0, exactCalls.get());
+
+        assertEquals(42L, pageCountService.count(CountMode.ESTIMATED, PageCountService.BOOKS, exact, () -> -1));
+        assertEquals(42L, pageCountService.count(CountMode.ESTIMATED, PageCountService.BOOKS, exact, null));
+        assertEquals(1, exactCalls.get());
+    }
+
+    @Test
+    @DisplayName("Estimate: Should read the planner statistics and report never analyzed tables")
+    void shouldReadPlannerEstimate() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("books"))).thenReturn(1_500_000L, -1L, null);
+
+        assertEquals(1_500_000L, pageCountService.estimateRows("books"));
+        assertEquals(-1L, pageCountService.estimateRows("books"));
+        assertEquals(-1L, pageCountService.estimateRows("books"));
+    }
+
+    @Test
+    @DisplayName("Mode: Should reject unknown count modes with 400")
+    void shouldRejectUnknownCountMode() {
+        assertEquals(CountMode.ESTIMATED, CountMode.from("Estimated"));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> CountMode.from("approximate"));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,30 +1,36 @@
 package com.vibebooks.api.service;
 
+import com.vibebooks.api.exception.InvalidTokenException;
 import com.vibebooks.api.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for the TokenService.
- * Verifies JWT token generation and validation logic.
+ * Verifies JWT token generation and validation logic, including the verified-token cache.
  */
 class TokenServiceTest {
 
+    private static final String SECRET = "this-is-a-very-secure-secret-key-for-jwt-testing";
+
+    private MutableClock clock;
     private TokenService tokenService;
     private User validUser;
 
     @BeforeEach
     void setup() {
-        tokenService = new TokenService();
-
-        ReflectionTestUtils.setField(tokenService, "secret", "this-is-a-very-secure-secret-key-for-jwt-testing");
-        ReflectionTestUtils.setField(tokenService, "expirationHours", 2L);
+        clock = new MutableClock(Instant.now());
+        tokenService = new TokenService(SECRET, 2L, 16, clock);
 
         validUser = new User();
         validUser.setId(UUID.randomUUID());
@@ -60,16 +66,113 @@ class TokenServiceTest {
 
     /**
      * Tests validation of a forged or invalid token.
-     * Verifies that a RuntimeException is thrown with the expected message.
+     * Verifies that an InvalidTokenException is thrown with the expected message.
      */
     @Test
     @DisplayName("Subject: Should throw exception for invalid token")
     void shouldThrowExceptionForInvalidToken() {
         String invalidToken = "header.payload.invalidSignature";
 
-        RuntimeException exception = assertThrows(RuntimeException.class,
+        InvalidTokenException exception = assertThrows(InvalidTokenException.class,
                 () -> tokenService.getSubject(invalidToken));
 
         assertEquals("Invalid or Expired JWT Token", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that repeated lookups of the same token are answered from the verified-token cache
+     * with the same subject.
+     */
+    @Test
+    @DisplayName("Subject: Should return the same subject for a cached token")
+    void shouldReturnSubjectFromCache() {
+        String token = tokenService.generateToken(validUser);
+
+        assertEquals(validUser.getId().toString(), tokenService.getSubject(token));
+        assertEquals(validUser.getId().toString(), tokenService.getSubject(token));
+    }
+
+    /**
+     * Tests that a cached token is rejected once its expiration has passed.
+     */
+    @Test
+    @DisplayName("Subject: Should reject a cached token after it expires")
+    void shouldRejectCachedTokenAfterExpiry() {
+        String token = tokenService.generateToken(validUser);
+        tokenService.getSubject(token);
+
+        clock.advance(Duration.ofHours(6));
+
+        assertThrows(InvalidTokenException.class, () -> tokenService.getSubject(token));
+    }
+
+    /**
+     * Tests that a token whose signature was tampered with is rejected even after
+     * the genuine token has been cached.
+     */
+    @Test
+    @DisplayName("Subject: Should reject a tampered token after the genuine one was cached")
+    void shouldRejectTamperedToken() {
+        String token = tokenService.generateToken(validUser);
+        tokenService.getSubject(token);
+
+        int position = token.lastIndexOf('.') + 5;
+        char replaced = token.charAt(position) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, position) + replaced + token.substring(position + 1);
+
+        assertThrows(InvalidTokenException.class, () -> tokenService.getSubject(tampered));
+    }
+
+    /**
+     * Tests that a token signed with another secret is rejected.
+     */
+    @Test
+    @DisplayName("Subject: Should reject a token signed with another secret")
+    void shouldRejectTokenFromAnotherSecret() {
+        TokenService other = new TokenService("another-very-secure-secret-key-for-jwt-testing", 2L, 16, clock);
+        String token = other.generateToken(validUser);
+
+        assertThrows(InvalidTokenException.class, () -> tokenService.getSubject(token));
+    }
+
+    /**
+     * Tests that verification still works with the cache disabled.
+     */
+    @Test
+    @DisplayName("Subject: Should verify tokens with the cache disabled")
+    void shouldVerifyWithCacheDisabled() {
+        TokenService uncached = new TokenService(SECRET, 2L, 0, clock);
+        String token = uncached.generateToken(validUser);
+
+        assertEquals(validUser.getId().toString(), uncached.getSubject(token));
+        assertThrows(InvalidTokenException.class, () -> uncached.getSubject(""));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.vibebooks.api.dto.UserResponseDTO;
 import com.vibebooks.api.dto.UserUpdateDTO;
 import com.vibebooks.api.model.User;
 import com.vibebooks.api.repository.UserRepository;
+import com.vibebooks.api.security.PrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -115,6 +119,7 @@ class UserServiceTest {
         assertEquals("updated_name", result.getUsername());
         assertEquals("updated@email.com", result.getEmail());
         assertEquals("New bio", result.getBio());
+        verify(principalCache).evict(validId);
     }
 
     /**
@@ -145,6 +150,7 @@ class UserServiceTest {
 
         assertDoesNotThrow(() -> userService.deleteUser(validId, loggedInUser));
         verify(userRepository, times(1)).deleteById(validId);
+        verify(principalCache).evict(validId);
     }
 
     /**
@@ -161,6 +167,7 @@ class UserServiceTest {
                 () -> userService.deleteUser(validId, hackerUser));
         assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
         verify(userRepository, never()).deleteById(any());
+        verifyNoInteractions(principalCache);
     }
 
     /**
@@ -194,6 +201,7 @@ class UserServiceTest {
 
         assertDoesNotThrow(() -> userService.changePassword(validId, passDTO, loggedInUser));
         assertEquals("new_hashed_password", validUser.getPassword());
+        verify(principalCache).evict(validId);
     }
 
     /**
@@ -0,0 +1,86 @@
+package com.vibebooks.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ParallelStages}.
+ * Verifies that closing the scope waits for interrupted stages, and for a bounded time only
+ * when a stage ignores the interrupt.
+ */
+class ParallelStagesTest {
+
+    @Test
+    @DisplayName("Close: Should wait for a timed-out stage that ignores the interrupt to finish")
+    void shouldWaitForStagesIgnoringInterruptOnClose() {
+        AtomicBoolean finished = new AtomicBoolean();
+
+        try (ParallelStages stages = ParallelStages.open(true, 4, Duration.ofMillis(50))) {
+            stages.fork(() -> {
+                sleepIgnoringInterrupts(Duration.ofMillis(300));
+                finished.set(true);
+                return null;
+            });
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class, stages::join);
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+            assertFalse(finished.get());
+        }
+
+        assertTrue(finished.get());
+    }
+
+    @Test
+    @DisplayName("Close: Should stop waiting for a stuck stage after the close timeout")
+    void shouldBoundCloseForStuckStages() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+
+        long start = System.nanoTime();
+        try (ParallelStages stages = ParallelStages.open(true, 4, Duration.ofMillis(50))) {
+            stages.fork(() -> {
+                awaitIgnoringInterrupts(release);
+                finished.set(true);
+                return null;
+            });
+            assertThrows(ResponseStatusException.class, stages::join);
+        }
+        Duration closedAfter = Duration.ofNanos(System.nanoTime() - start);
+
+        assertFalse(finished.get());
+        assertTrue(closedAfter.compareTo(ParallelStages.CLOSE_TIMEOUT) >= 0);
+        assertTrue(closedAfter.compareTo(ParallelStages.CLOSE_TIMEOUT.plusSeconds(2)) < 0);
+        release.countDown();
+    }
+
+    private static void awaitIgnoringInterrupts(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ignored) {
+                // Like a JDBC call, the stage carries on
+            }
+        }
+    }
+
+    private static void sleepIgnoringInterrupts(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException ignored) {
+                // Like a JDBC call, the stage carries on
+            }
+        }
+    }
+}